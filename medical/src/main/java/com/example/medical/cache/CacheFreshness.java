@@ -0,0 +1,56 @@
+package com.example.medical.cache;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The oldest cached result used while serving the current request, kept as a request attribute so that it
+ * cannot leak into the next request on the same thread.
+ */
+public final class CacheFreshness {
+
+    static final String ATTRIBUTE = CacheFreshness.class.getName();
+
+    private final long ageSeconds;
+    private final StaleCache.Freshness freshness;
+
+    private CacheFreshness(long ageSeconds, StaleCache.Freshness freshness) {
+        this.ageSeconds = ageSeconds;
+        this.freshness = freshness;
+    }
+
+    static void record(StaleCache.Lookup lookup) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null || lookup.freshness() == StaleCache.Freshness.LOADED) {
+            return;
+        }
+        long ageSeconds = TimeUnit.NANOSECONDS.toSeconds(lookup.ageNanos());
+        CacheFreshness previous = (CacheFreshness) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (previous == null || previous.freshness.compareTo(lookup.freshness()) < 0
+                || (previous.freshness == lookup.freshness() && previous.ageSeconds < ageSeconds)) {
+            attributes.setAttribute(ATTRIBUTE, new CacheFreshness(ageSeconds, lookup.freshness()),
+                    RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    public long getAgeSeconds() {
+        return ageSeconds;
+    }
+
+    public StaleCache.Freshness getFreshness() {
+        return freshness;
+    }
+
+    /**
+     * RFC 7234 warning text, or {@code null} for fresh results.
+     */
+    public String warning() {
+        return switch (freshness) {
+            case STALE -> "110 - \"Response is Stale\"";
+            case REVALIDATION_FAILED -> "111 - \"Revalidation Failed\"";
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.medical.cache;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds {@code Age} and, for stale results, {@code Warning} to responses built from cached data.
+ */
+@ControllerAdvice
+public class CacheFreshnessResponseBodyAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(CacheFreshness.ATTRIBUTE) instanceof CacheFreshness freshness) {
+            response.getHeaders().set(HttpHeaders.AGE, Long.toString(freshness.getAgeSeconds()));
+            String warning = freshness.warning();
+            if (warning != null) {
+                response.getHeaders().set(HttpHeaders.WARNING, warning);
+            }
+        }
+        return body;
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.medical.cache;
+
+import com.example.medical.events.EntityChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Response bodies of reference lists kept as ready-made bytes, so that serving one is a single copy into the
+ * response. A list is rebuilt on the first request after one of its entities changed, locally or on another
+ * node through the change log, or once it is older than its time to live; a change committed while a rebuild is
+ * running discards that rebuild. One request rebuilds a list at a time and concurrent requests wait for its bytes. Rebuilds run in a read-write transaction so that they read the
+ * primary: a lagging replica would otherwise be frozen into the bytes until the next change.
+ */
+@Slf4j
+public class PreSerializedListCache {
+
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final long timeToLiveNanos;
+    private final Map<String, Slot> slotsByPath = new ConcurrentHashMap<>();
+
+    public PreSerializedListCache(ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry, Duration timeToLive) {
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.timeToLiveNanos = timeToLive.toNanos();
+    }
+
+    /**
+     * Serves {@code path} from {@code source}, which must return exactly what the controller would, and drops
+     * the bytes whenever one of {@code entityTypes} changes.
+     */
+    public void register(String name, String path, Set<Class<?>> entityTypes, Supplier<?> source) {
+        slotsByPath.put(path, new Slot(name, entityTypes, source, meterRegistry));
+    }
+
+    /**
+     * Returns the bytes for {@code path}, building them if needed, or {@code null} if the path is not cached
+     * or building failed; the caller then serves the request normally.
+     */
+    public SerializedList get(String path) {
+        Slot slot = slotsByPath.get(path);
+        if (slot == null) {
+            return null;
+        }
+        Built current = slot.current;
+        if (current != null && System.nanoTime() - current.builtAt < timeToLiveNanos) {
+            slot.hits.increment();
+            return current.list;
+        }
+        Build build = slot.startOrJoin(timeToLiveNanos);
+        if (!build.leader()) {
+            slot.shared.increment();
+            return await(build.result());
+        }
+        try {
+            long builtAt = System.nanoTime();
+            SerializedList built = transactionTemplate.execute(status -> serialize(slot.source.get()));
+            slot.store(new Built(built, builtAt), build.generation());
+            slot.builds.increment();
+            build.result().complete(built);
+            return built;
+        } catch (RuntimeException ex) {
+            log.debug("Could not build serialized list {}", slot.name, ex);
+            slot.failures.increment();
+            build.result().complete(null);
+            return null;
+        } finally {
+            slot.finish(build.result());
+        }
+    }
+
+    private static SerializedList await(CompletableFuture<SerializedList> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException ex) {
+            return null;
+        }
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        for (Slot slot : slotsByPath.values()) {
+            if (slot.entityTypes.contains(event.entityType())) {
+                slot.invalidate();
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        slotsByPath.values().forEach(Slot::invalidate);
+    }
+
+    private SerializedList serialize(Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(json);
+            }
+            return new SerializedList(json, compressed.toByteArray());
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize list", ex);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private record Built(SerializedList list, long builtAt) {
+    }
+
+    // The caller is the leader when it has to run the build itself; the others wait for its result.
+    private record Build(CompletableFuture<SerializedList> result, long generation, boolean leader) {
+    }
+
+    private static final class Slot {
+
+        private final String name;
+        private final Set<Class<?>> entityTypes;
+        private final Supplier<?> source;
+        private final Counter hits;
+        private final Counter builds;
+        private final Counter failures;
+        private final Counter shared;
+        private volatile Built current;
+        private long generation;
+        private CompletableFuture<SerializedList> building;
+        private long buildingGeneration;
+
+        private Slot(String name, Set<Class<?>> entityTypes, Supplier<?> source, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.entityTypes = entityTypes;
+            this.source = source;
+            this.hits = meterRegistry.counter("medical.serialized-lists.requests", "list", name, "result", "hit");
+            this.builds = meterRegistry.counter("medical.serialized-lists.requests", "list", name, "result", "built");
+            this.failures = meterRegistry.counter("medical.serialized-lists.requests", "list", name, "result", "failed");
+            this.shared = meterRegistry.counter("medical.serialized-lists.requests", "list", name, "result", "shared");
+        }
+
+        // One build per generation: a build started before an invalidation is not joined by requests after it.
+        private synchronized Build startOrJoin(long timeToLiveNanos) {
+            Built built = current;
+            if (built != null && System.nanoTime() - built.builtAt < timeToLiveNanos) {
+                return new Build(CompletableFuture.completedFuture(built.list), generation, false);
+            }
+            if (building != null && buildingGeneration == generation) {
+                return new Build(building, generation, false);
+            }
+            building = new CompletableFuture<>();
+            buildingGeneration = generation;
+            return new Build(building, generation, true);
+        }
+
+        private synchronized void finish(CompletableFuture<SerializedList> result) {
+            if (building == result) {
+                building = null;
+            }
+        }
+
+        private synchronized void store(Built list, long builtFrom) {
+            if (generation == builtFrom) {
+                current = list;
+            }
+        }
+
+        private synchronized void invalidate() {
+            generation++;
+            current = null;
+        }
+    }
+}
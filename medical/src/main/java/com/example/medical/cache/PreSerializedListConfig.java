@@ -0,0 +1,55 @@
+package com.example.medical.cache;
+
+import com.example.medical.mapper.GeneralMapper;
+import com.example.medical.model.Medication;
+import com.example.medical.model.Specialization;
+import com.example.medical.service.MedicationService;
+import com.example.medical.service.SpecializationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Set;
+
+@Configuration
+@EnableConfigurationProperties(PreSerializedListProperties.class)
+@ConditionalOnProperty(prefix = "medical.serialized-lists", name = "enabled", matchIfMissing = true)
+public class PreSerializedListConfig {
+
+    public static final String SPECIALIZATIONS_PATH = "/api/specializations";
+    public static final String MEDICATIONS_PATH = "/api/medications";
+
+    // The sources map entities exactly like the controller methods behind the same paths.
+    @Bean
+    public PreSerializedListCache preSerializedListCache(ObjectMapper objectMapper,
+                                                         PlatformTransactionManager transactionManager,
+                                                         MeterRegistry meterRegistry,
+                                                         PreSerializedListProperties properties,
+                                                         SpecializationService specializationService,
+                                                         MedicationService medicationService,
+                                                         GeneralMapper mapper) {
+        PreSerializedListCache cache = new PreSerializedListCache(objectMapper, transactionManager, meterRegistry,
+                properties.getTimeToLive());
+        cache.register("specializations", SPECIALIZATIONS_PATH, Set.of(Specialization.class),
+                () -> specializationService.getAll().stream().map(mapper::toSpecializationDto).toList());
+        cache.register("medications", MEDICATIONS_PATH, Set.of(Medication.class),
+                () -> medicationService.getAll().stream().map(mapper::toMedicationDto).toList());
+        return cache;
+    }
+
+    // Runs after the limiters, deadline and shard filters, so cached lists are admitted like any other request.
+    @Bean
+    public FilterRegistrationBean<PreSerializedListFilter> preSerializedListFilter(PreSerializedListCache cache) {
+        FilterRegistrationBean<PreSerializedListFilter> registration =
+                new FilterRegistrationBean<>(new PreSerializedListFilter(cache));
+        registration.addUrlPatterns(SPECIALIZATIONS_PATH, MEDICATIONS_PATH);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 25);
+        return registration;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.medical.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "medical.serialized-lists")
+public class PreSerializedListProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Age after which a list is rebuilt even without a change seen by this node, bounding how long changes that
+     * raise no event here (made by other nodes without the change log, or copied between shards) stay invisible.
+     */
+    private Duration timeToLive = Duration.ofMinutes(5);
+}
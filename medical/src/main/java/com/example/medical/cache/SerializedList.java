@@ -0,0 +1,7 @@
+package com.example.medical.cache;
+
+/**
+ * A JSON response body serialized once, with its gzip-compressed variant.
+ */
+public record SerializedList(byte[] json, byte[] gzip) {
+}
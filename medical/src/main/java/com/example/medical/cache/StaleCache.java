@@ -0,0 +1,155 @@
+package com.example.medical.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * One named stale-while-revalidate cache. Reads never wait for a refresh; at most one refresh per key is
+ * queued at a time. Each eviction bumps a generation so that loads started before it cannot store their
+ * now outdated result.
+ */
+@Slf4j
+public class StaleCache {
+
+    public enum Freshness {
+        /**
+         * Loaded by this call.
+         */
+        LOADED,
+        FRESH,
+        STALE,
+        /**
+         * Stale, and the last attempt to refresh it failed.
+         */
+        REVALIDATION_FAILED
+    }
+
+    @FunctionalInterface
+    public interface Loader {
+        Object load() throws Throwable;
+    }
+
+    public record Lookup(Object value, Freshness freshness, long ageNanos) {
+    }
+
+    private final String name;
+    private final long freshForNanos;
+    private final long maxStaleNanos;
+    private final Executor refreshExecutor;
+    private final LongSupplier clock;
+    private final Map<Object, Entry> entries = new ConcurrentHashMap<>();
+    private long generation;
+
+    private final Counter fresh;
+    private final Counter stale;
+    private final Counter misses;
+    private final Counter refreshed;
+    private final Counter refreshFailures;
+    private final Counter refreshesSkipped;
+
+    public StaleCache(String name, Duration freshFor, Duration maxStale, Executor refreshExecutor,
+                      MeterRegistry meterRegistry, LongSupplier clock) {
+        this.name = name;
+        this.freshForNanos = freshFor.toNanos();
+        this.maxStaleNanos = maxStale.toNanos();
+        this.refreshExecutor = refreshExecutor;
+        this.clock = clock;
+        String reads = "medical.stale-while-revalidate.reads";
+        String refreshes = "medical.stale-while-revalidate.refreshes";
+        this.fresh = meterRegistry.counter(reads, "cache", name, "result", "fresh");
+        this.stale = meterRegistry.counter(reads, "cache", name, "result", "stale");
+        this.misses = meterRegistry.counter(reads, "cache", name, "result", "miss");
+        this.refreshed = meterRegistry.counter(refreshes, "cache", name, "outcome", "success");
+        this.refreshFailures = meterRegistry.counter(refreshes, "cache", name, "outcome", "failure");
+        this.refreshesSkipped = meterRegistry.counter(refreshes, "cache", name, "outcome", "skipped");
+    }
+
+    public Lookup get(Object key, Loader loader) throws Throwable {
+        long now = clock.getAsLong();
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            long age = now - entry.loadedAt;
+            if (age <= freshForNanos) {
+                fresh.increment();
+                return new Lookup(entry.value, Freshness.FRESH, age);
+            }
+            if (age <= maxStaleNanos) {
+                stale.increment();
+                Freshness freshness = entry.refreshFailed ? Freshness.REVALIDATION_FAILED : Freshness.STALE;
+                refresh(key, entry, loader);
+                return new Lookup(entry.value, freshness, age);
+            }
+        }
+        misses.increment();
+        long loadGeneration = currentGeneration();
+        Object value = loader.load();
+        store(key, loadGeneration, value, now);
+        return new Lookup(value, Freshness.LOADED, 0);
+    }
+
+    public synchronized void evictAll() {
+        generation++;
+        entries.clear();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private void refresh(Object key, Entry entry, Loader loader) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        long loadGeneration = currentGeneration();
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    long started = clock.getAsLong();
+                    store(key, loadGeneration, loader.load(), started);
+                    refreshed.increment();
+                } catch (Throwable ex) {
+                    entry.refreshFailed = true;
+                    refreshFailures.increment();
+                    log.warn("Refreshing {} failed, serving the cached result for up to {} s more: {}", name,
+                            (maxStaleNanos - (clock.getAsLong() - entry.loadedAt)) / 1_000_000_000, ex.toString());
+                } finally {
+                    entry.refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            entry.refreshing.set(false);
+            refreshesSkipped.increment();
+        }
+    }
+
+    private synchronized long currentGeneration() {
+        return generation;
+    }
+
+    private synchronized void store(Object key, long loadGeneration, Object value, long loadedAt) {
+        if (loadGeneration == generation) {
+            entries.put(key, new Entry(value, loadedAt));
+        }
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long loadedAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile boolean refreshFailed;
+
+        private Entry(Object value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.medical.cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Serves the method's last result from memory, refreshing it in the background once it is older than the
+ * fresh period. If refreshing fails the old result keeps being served until it reaches the maximum staleness.
+ * For rarely changing directory data that must stay available while the database fails over.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface StaleWhileRevalidate {
+
+    /**
+     * Cache name, used for settings under {@code medical.stale-while-revalidate.caches} and in metrics.
+     */
+    String value();
+
+    /**
+     * Entities whose committed changes drop the cached results.
+     */
+    Class<?>[] evictOn();
+}
@@ -0,0 +1,87 @@
+package com.example.medical.cache;
+
+import com.example.medical.datasource.ReadYourWrites;
+import com.example.medical.events.EntityChangedEvent;
+import com.example.medical.sharding.ShardContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Implements {@link StaleWhileRevalidate}. Runs outside the transaction and scatter-gather aspects so that
+ * refreshes go through the same interceptors on the refresh thread. Only the shared view is cached: calls
+ * inside a transaction, for one clinic's shard or pinned to the primary after a write go to the database.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE + 150)
+public class StaleWhileRevalidateAspect {
+
+    private final StaleWhileRevalidateProperties properties;
+    private final ThreadPoolExecutor refreshExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, StaleCache> caches = new ConcurrentHashMap<>();
+    private final Map<Class<?>, List<StaleCache>> cachesByEntity = new ConcurrentHashMap<>();
+
+    public StaleWhileRevalidateAspect(StaleWhileRevalidateProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.refreshExecutor = new ThreadPoolExecutor(properties.getRefreshThreads(), properties.getRefreshThreads(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getRefreshQueueCapacity()), runnable -> {
+            Thread thread = new Thread(runnable, "cache-refresh-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Around("@annotation(annotation)")
+    public Object serve(ProceedingJoinPoint joinPoint, StaleWhileRevalidate annotation) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                || ShardContext.currentShard() != null || ReadYourWrites.isPinned()) {
+            return joinPoint.proceed();
+        }
+        StaleCache cache = caches.computeIfAbsent(annotation.value(), name -> create(name, annotation));
+        Object[] args = joinPoint.getArgs();
+        StaleCache.Lookup lookup = cache.get(args.length == 0 ? List.of() : Arrays.asList(args), joinPoint::proceed);
+        CacheFreshness.record(lookup);
+        return lookup.value();
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        cachesByEntity.getOrDefault(event.entityType(), List.of()).forEach(StaleCache::evictAll);
+    }
+
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    void evictAll() {
+        caches.values().forEach(StaleCache::evictAll);
+    }
+
+    private StaleCache create(String name, StaleWhileRevalidate annotation) {
+        StaleCache cache = new StaleCache(name, properties.freshFor(name), properties.maxStale(name),
+                refreshExecutor, meterRegistry, System::nanoTime);
+        for (Class<?> entityType : annotation.evictOn()) {
+            cachesByEntity.merge(entityType, List.of(cache), (existing, added) ->
+                    Stream.concat(existing.stream(), added.stream()).toList());
+        }
+        return cache;
+    }
+}
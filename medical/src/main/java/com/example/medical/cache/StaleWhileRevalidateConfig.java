@@ -0,0 +1,19 @@
+package com.example.medical.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(StaleWhileRevalidateProperties.class)
+@ConditionalOnProperty(prefix = "medical.stale-while-revalidate", name = "enabled", matchIfMissing = true)
+public class StaleWhileRevalidateConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public StaleWhileRevalidateAspect staleWhileRevalidateAspect(StaleWhileRevalidateProperties properties,
+                                                                 MeterRegistry meterRegistry) {
+        return new StaleWhileRevalidateAspect(properties, meterRegistry);
+    }
+}
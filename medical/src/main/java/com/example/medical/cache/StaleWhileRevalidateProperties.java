@@ -0,0 +1,56 @@
+package com.example.medical.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "medical.stale-while-revalidate")
+public class StaleWhileRevalidateProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Age up to which a cached result is served without refreshing it.
+     */
+    private Duration freshFor = Duration.ofMinutes(1);
+
+    /**
+     * Age beyond which a cached result is no longer served and callers wait for the database again.
+     */
+    private Duration maxStale = Duration.ofHours(24);
+
+    /**
+     * Background refreshes running at once, across all caches.
+     */
+    private int refreshThreads = 2;
+
+    /**
+     * Refreshes waiting for a thread; further ones are skipped and retried on a later read.
+     */
+    private int refreshQueueCapacity = 16;
+
+    /**
+     * Per-cache overrides of fresh-for and max-stale.
+     */
+    private Map<String, CacheSettings> caches = new LinkedHashMap<>();
+
+    @Data
+    public static class CacheSettings {
+        private Duration freshFor;
+        private Duration maxStale;
+    }
+
+    public Duration freshFor(String cache) {
+        CacheSettings settings = caches.get(cache);
+        return settings != null && settings.getFreshFor() != null ? settings.getFreshFor() : freshFor;
+    }
+
+    public Duration maxStale(String cache) {
+        CacheSettings settings = caches.get(cache);
+        return settings != null && settings.getMaxStale() != null ? settings.getMaxStale() : maxStale;
+    }
+}
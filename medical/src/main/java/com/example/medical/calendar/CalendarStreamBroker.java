@@ -0,0 +1,454 @@
+package com.example.medical.calendar;
+
+import com.example.medical.dto.AppointmentDto;
+import com.example.medical.events.ChangeSubscriber;
+import com.example.medical.events.EntityChangedEvent;
+import com.example.medical.mapper.GeneralMapper;
+import com.example.medical.model.Appointment;
+import com.example.medical.repository.AppointmentRepository;
+import com.example.medical.sharding.ShardContext;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Fans appointment changes out to the doctors' calendar streams. Streams are async {@link SseEmitter}s, so an
+ * open connection holds no thread; changes arrive from the change event bus on its thread and each event is
+ * serialized once for all of a doctor's subscribers. Every doctor with subscribers keeps a bounded replay buffer
+ * so that a reconnecting client sending Last-Event-ID gets what it missed instead of a new snapshot.
+ * <p>
+ * Frames are queued per client and written by a small writer pool, never on the bus thread, so a slow client
+ * cannot hold up the others. A client whose queue fills up is disconnected; it reconnects and resumes from the
+ * replay buffer.
+ * <p>
+ * Changes made on other nodes arrive through the change log without the entity: created appointments are read
+ * back from the database, and deletions are routed by the appointment ids each channel has sent.
+ * <p>
+ * Event ids are {@code <epoch>-<sequence>}: the epoch changes on every start, so ids from another node or an
+ * earlier run never resume and get a snapshot.
+ */
+@Slf4j
+public class CalendarStreamBroker implements ChangeSubscriber {
+
+    static final String SNAPSHOT = "snapshot";
+    static final String CREATED = "created";
+    static final String DELETED = "deleted";
+
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("heartbeat").build();
+
+    private final CalendarStreamProperties properties;
+    private final GeneralMapper mapper;
+    private final ObjectMapper objectMapper;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<ChannelKey, Channel> channels = new ConcurrentHashMap<>();
+    private final Counter snapshotConnects;
+    private final Counter resumedConnects;
+    private final Counter events;
+    private final Counter slowSubscribers;
+    private final AppointmentRepository repository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService writers;
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "calendar-stream-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Only advanced on the bus thread; read by request threads.
+    private volatile long sequence;
+
+    public CalendarStreamBroker(CalendarStreamProperties properties, GeneralMapper mapper, ObjectMapper objectMapper,
+                                AppointmentRepository repository, PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.mapper = mapper;
+        this.objectMapper = objectMapper;
+        this.repository = repository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        AtomicInteger writerCount = new AtomicInteger();
+        this.writers = Executors.newFixedThreadPool(properties.getWriterThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "calendar-stream-writer-" + writerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.snapshotConnects = meterRegistry.counter("medical.calendar-stream.connects", "mode", "snapshot");
+        this.resumedConnects = meterRegistry.counter("medical.calendar-stream.connects", "mode", "resumed");
+        this.events = meterRegistry.counter("medical.calendar-stream.events");
+        this.slowSubscribers = meterRegistry.counter("medical.calendar-stream.slow-subscribers");
+        meterRegistry.gauge("medical.calendar-stream.subscribers", channels,
+                map -> map.values().stream().mapToInt(Channel::subscriberCount).sum());
+        long interval = properties.getHeartbeatInterval().toMillis();
+        heartbeat.scheduleWithFixedDelay(this::heartbeat, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a stream of the doctor's calendar in the current clinic. Resumes after {@code lastEventId} when the
+     * replay buffer still covers it, otherwise starts with a snapshot from {@code snapshot}.
+     */
+    public SseEmitter subscribe(Integer doctorId, String lastEventId, Supplier<List<AppointmentDto>> snapshot)
+            throws IOException {
+        ChannelKey key = new ChannelKey(ShardContext.currentClinicId(), doctorId);
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        Long resumeAfter = parseEventId(lastEventId);
+        if (resumeAfter != null && join(key, emitter, resumeAfter)) {
+            resumedConnects.increment();
+            return emitter;
+        }
+        // Buffering starts before the snapshot is read, so changes committed meanwhile are replayed after it.
+        Channel buffering = channels.computeIfAbsent(key, k -> new Channel(sequence));
+        long position = sequence;
+        List<AppointmentDto> appointments = snapshot.get();
+        buffering.remember(appointments.stream().map(AppointmentDto::getId).toList());
+        emitter.send(frame(position, SNAPSHOT, json(appointments)));
+        if (!join(key, emitter, position)) {
+            // The buffer was reset while the snapshot loaded; the client reconnects and starts over.
+            emitter.complete();
+        }
+        snapshotConnects.increment();
+        return emitter;
+    }
+
+    @Override
+    public String name() {
+        return "calendar-stream";
+    }
+
+    @Override
+    public boolean accepts(Class<?> entityType) {
+        return entityType == Appointment.class;
+    }
+
+    @Override
+    public void onChanges(List<EntityChangedEvent> changes) {
+        for (EntityChangedEvent change : changes) {
+            if (change.change() == EntityChangedEvent.Change.UPDATED) {
+                continue;
+            }
+            Integer id = (Integer) change.id();
+            try {
+                if (change.change() == EntityChangedEvent.Change.INSERTED) {
+                    created(id, (Appointment) change.entity());
+                } else {
+                    deleted(id, (Appointment) change.entity());
+                }
+            } catch (IOException | RuntimeException ex) {
+                log.warn("Could not stream change of appointment {}", id, ex);
+            }
+        }
+    }
+
+    private void created(Integer id, Appointment local) throws IOException {
+        Created created = local != null
+                ? created(local)
+                : readOnlyTransaction.execute(status -> repository.findById(id).map(this::created).orElse(null));
+        if (created == null) {
+            // Deleted again before we read it.
+            return;
+        }
+        Channel channel = channels.get(created.key());
+        if (channel != null) {
+            publish(channel, CREATED, json(created.appointment()), id);
+        }
+    }
+
+    private Created created(Appointment appointment) {
+        return new Created(new ChannelKey(appointment.getClinicId(), appointment.getDoctor().getId()),
+                mapper.toAppointmentDtoWithoutPrescriptions(appointment));
+    }
+
+    private void deleted(Integer id, Appointment local) throws IOException {
+        String data = json(Map.of("id", id));
+        if (local != null) {
+            Channel channel = channels.get(new ChannelKey(local.getClinicId(), local.getDoctor().getId()));
+            if (channel != null) {
+                publish(channel, DELETED, data, id);
+            }
+            return;
+        }
+        for (Channel channel : channels.values()) {
+            if (channel.knows(id)) {
+                publish(channel, DELETED, data, id);
+            }
+        }
+    }
+
+    private void publish(Channel channel, String name, String data, Integer appointmentId) {
+        long position = ++sequence;
+        channel.broadcast(new Event(position, frame(position, name, data)), name.equals(CREATED), appointmentId);
+        events.increment();
+    }
+
+    // Changes were lost: buffered events can no longer prove a client missed nothing, so everyone starts over.
+    @Override
+    public void onOverflow() {
+        long position = ++sequence;
+        channels.values().forEach(channel -> channel.reset(position));
+    }
+
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        channels.values().forEach(channel -> channel.reset(sequence));
+        writers.shutdownNow();
+    }
+
+    private boolean join(ChannelKey key, SseEmitter emitter, long after) {
+        while (true) {
+            Channel channel = channels.computeIfAbsent(key, k -> new Channel(sequence));
+            Subscriber subscriber = new Subscriber(emitter, channel);
+            Boolean joined = channel.join(subscriber, after);
+            if (joined != null) {
+                if (joined) {
+                    emitter.onCompletion(() -> channel.leave(subscriber));
+                    emitter.onTimeout(() -> channel.leave(subscriber));
+                    emitter.onError(ex -> channel.leave(subscriber));
+                }
+                return joined;
+            }
+            // Removed as idle in the meantime.
+            channels.remove(key, channel);
+        }
+    }
+
+    private void heartbeat() {
+        long idleCutoff = System.nanoTime() - properties.getReplayRetention().toNanos();
+        channels.forEach((key, channel) -> {
+            if (channel.closeIfIdleSince(idleCutoff)) {
+                channels.remove(key, channel);
+            } else {
+                channel.sendToAll(HEARTBEAT);
+            }
+        });
+    }
+
+    private Long parseEventId(String lastEventId) {
+        if (lastEventId == null || !lastEventId.startsWith(epoch + "-")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(epoch.length() + 1));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private Set<DataWithMediaType> frame(long position, String name, String data) {
+        return SseEmitter.event().id(epoch + "-" + position).name(name).data(data, MediaType.APPLICATION_JSON).build();
+    }
+
+    private String json(Object value) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(value);
+    }
+
+    private record ChannelKey(Integer clinicId, Integer doctorId) {
+    }
+
+    private record Event(long position, Set<DataWithMediaType> frame) {
+    }
+
+    private record Created(ChannelKey key, AppointmentDto appointment) {
+    }
+
+    private final class Channel {
+
+        private final ArrayDeque<Event> replay = new ArrayDeque<>();
+        private final List<Subscriber> subscribers = new ArrayList<>();
+        // Appointments this channel has shown, so that deletions from other nodes can be routed here.
+        private final Set<Integer> appointmentIds = new HashSet<>();
+        // Clients that saw everything up to here can resume; earlier events were evicted or never buffered.
+        private long floor;
+        private long idleSinceNanos = System.nanoTime();
+        private boolean closed;
+
+        Channel(long floor) {
+            this.floor = floor;
+        }
+
+        /**
+         * Replays the events after {@code after} and adds the subscriber; {@code false} if they are no longer
+         * all buffered, {@code null} if the channel was closed. Replaying under the lock keeps live events from
+         * overtaking replayed ones.
+         */
+        synchronized Boolean join(Subscriber subscriber, long after) {
+            if (closed) {
+                return null;
+            }
+            if (after < floor || after > sequence) {
+                return false;
+            }
+            try {
+                for (Event event : replay) {
+                    if (event.position() > after) {
+                        subscriber.emitter.send(event.frame());
+                    }
+                }
+            } catch (IOException ex) {
+                return true;
+            }
+            subscribers.add(subscriber);
+            return true;
+        }
+
+        synchronized void leave(Subscriber subscriber) {
+            if (subscribers.remove(subscriber) && subscribers.isEmpty()) {
+                idleSinceNanos = System.nanoTime();
+            }
+        }
+
+        synchronized void remember(List<Integer> ids) {
+            appointmentIds.addAll(ids);
+        }
+
+        synchronized boolean knows(Integer appointmentId) {
+            return appointmentIds.contains(appointmentId);
+        }
+
+        synchronized int subscriberCount() {
+            return subscribers.size();
+        }
+
+        void broadcast(Event event, boolean created, Integer appointmentId) {
+            List<Subscriber> targets;
+            synchronized (this) {
+                if (created) {
+                    appointmentIds.add(appointmentId);
+                } else {
+                    appointmentIds.remove(appointmentId);
+                }
+                replay.addLast(event);
+                if (replay.size() > properties.getReplayBufferSize()) {
+                    floor = replay.removeFirst().position();
+                }
+                targets = List.copyOf(subscribers);
+            }
+            send(targets, event.frame());
+        }
+
+        void sendToAll(Set<DataWithMediaType> frame) {
+            List<Subscriber> targets;
+            synchronized (this) {
+                targets = List.copyOf(subscribers);
+            }
+            send(targets, frame);
+        }
+
+        void reset(long position) {
+            List<Subscriber> targets;
+            synchronized (this) {
+                floor = position;
+                replay.clear();
+                targets = List.copyOf(subscribers);
+                subscribers.clear();
+                idleSinceNanos = System.nanoTime();
+            }
+            targets.forEach(Subscriber::close);
+        }
+
+        synchronized boolean closeIfIdleSince(long cutoffNanos) {
+            closed = subscribers.isEmpty() && idleSinceNanos - cutoffNanos < 0;
+            return closed;
+        }
+
+        private void send(List<Subscriber> targets, Set<DataWithMediaType> frame) {
+            for (Subscriber subscriber : targets) {
+                if (!subscriber.offer(frame)) {
+                    leave(subscriber);
+                }
+            }
+        }
+    }
+
+    /**
+     * One client's queue of frames not yet written. At most one writer drains it at a time, which keeps the
+     * frames in order.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Channel channel;
+        private final ArrayDeque<Set<DataWithMediaType>> pending = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+
+        Subscriber(SseEmitter emitter, Channel channel) {
+            this.emitter = emitter;
+            this.channel = channel;
+        }
+
+        /**
+         * Queues the frame; {@code false} if the client is gone or too far behind and has been disconnected.
+         */
+        boolean offer(Set<DataWithMediaType> frame) {
+            synchronized (this) {
+                if (closed) {
+                    return false;
+                }
+                if (pending.size() < properties.getSubscriberQueueSize()) {
+                    pending.addLast(frame);
+                    if (!draining) {
+                        draining = true;
+                        writers.execute(this::drain);
+                    }
+                    return true;
+                }
+            }
+            slowSubscribers.increment();
+            close();
+            return false;
+        }
+
+        void close() {
+            synchronized (this) {
+                closed = true;
+                pending.clear();
+            }
+            emitter.complete();
+        }
+
+        private void drain() {
+            while (true) {
+                Set<DataWithMediaType> frame;
+                synchronized (this) {
+                    frame = pending.pollFirst();
+                    if (frame == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(frame);
+                } catch (IOException | IllegalStateException ex) {
+                    // Gone; the container reports it through onError as well.
+                    synchronized (this) {
+                        closed = true;
+                        pending.clear();
+                        draining = false;
+                    }
+                    channel.leave(this);
+                    return;
+                }
+            }
+        }
+    }
+}
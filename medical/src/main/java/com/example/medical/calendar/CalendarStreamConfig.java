@@ -0,0 +1,26 @@
+package com.example.medical.calendar;
+
+import com.example.medical.mapper.GeneralMapper;
+import com.example.medical.repository.AppointmentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+@EnableConfigurationProperties(CalendarStreamProperties.class)
+@ConditionalOnProperty(prefix = "medical.calendar-stream", name = "enabled", matchIfMissing = true)
+public class CalendarStreamConfig {
+
+    // Fed by the change event bus as one of its subscribers.
+    @Bean(destroyMethod = "shutdown")
+    public CalendarStreamBroker calendarStreamBroker(CalendarStreamProperties properties, GeneralMapper mapper,
+                                                     ObjectMapper objectMapper, AppointmentRepository repository,
+                                                     PlatformTransactionManager transactionManager,
+                                                     MeterRegistry meterRegistry) {
+        return new CalendarStreamBroker(properties, mapper, objectMapper, repository, transactionManager, meterRegistry);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.medical.calendar;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "medical.calendar-stream")
+public class CalendarStreamProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Events kept per doctor for clients resuming with Last-Event-ID. Older ones get a fresh snapshot instead.
+     */
+    private int replayBufferSize = 128;
+
+    /**
+     * How long a doctor's replay buffer outlives its last subscriber, to cover reconnects.
+     */
+    private Duration replayRetention = Duration.ofMinutes(2);
+
+    /**
+     * Comment lines sent this often keep idle connections open through proxies and reveal dead clients.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    /**
+     * Frames queued for one client. A client that falls further behind is disconnected and resumes from the
+     * replay buffer when it reconnects.
+     */
+    private int subscriberQueueSize = 64;
+
+    /**
+     * Threads writing queued frames to clients.
+     */
+    private int writerThreads = 2;
+
+    /**
+     * Streams are closed after this long; browsers reconnect on their own and resume.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+}
@@ -0,0 +1,32 @@
+package com.example.medical.changelog;
+
+import com.example.medical.jobs.ClusterJob;
+import com.example.medical.jobs.JobContext;
+
+import java.time.Duration;
+
+public class ChangeLogCompactionJob implements ClusterJob {
+
+    private final ChangeLogTailer tailer;
+    private final ChangeLogProperties properties;
+
+    public ChangeLogCompactionJob(ChangeLogTailer tailer, ChangeLogProperties properties) {
+        this.tailer = tailer;
+        this.properties = properties;
+    }
+
+    @Override
+    public String name() {
+        return "change-log-compaction";
+    }
+
+    @Override
+    public Duration interval() {
+        return properties.getCompactionInterval();
+    }
+
+    @Override
+    public void run(JobContext context) {
+        tailer.compact(context);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.medical.changelog;
+
+import com.example.medical.events.ChangeEventBus;
+import com.example.medical.repository.ChangeLogRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+@EnableConfigurationProperties(ChangeLogProperties.class)
+@ConditionalOnProperty(prefix = "medical.change-log", name = "enabled", havingValue = "true")
+public class ChangeLogConfig {
+
+    // Picked up by EntityEventsConfig as an in-transaction listener.
+    @Bean
+    public ChangeLogWriter changeLogWriter(ChangeLogProperties properties) {
+        return new ChangeLogWriter(properties);
+    }
+
+    // With the job runner, compaction runs on one node through ChangeLogCompactionJob instead of on every node.
+    @Bean(initMethod = "start", destroyMethod = "shutdown")
+    public ChangeLogTailer changeLogTailer(ChangeLogRepository repository, ChangeLogProperties properties,
+                                           ApplicationEventPublisher publisher, ObjectProvider<ChangeEventBus> bus,
+                                           PlatformTransactionManager transactionManager,
+                                           EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry,
+                                           @Value("${medical.jobs.enabled:false}") boolean jobsEnabled) {
+        return new ChangeLogTailer(repository, properties, publisher, bus.getIfAvailable(), transactionManager,
+                entityManagerFactory, meterRegistry, !jobsEnabled);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "medical.jobs", name = "enabled", havingValue = "true")
+    public ChangeLogCompactionJob changeLogCompactionJob(ChangeLogTailer tailer, ChangeLogProperties properties) {
+        return new ChangeLogCompactionJob(tailer, properties);
+    }
+}
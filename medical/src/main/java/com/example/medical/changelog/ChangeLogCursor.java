@@ -0,0 +1,77 @@
+package com.example.medical.changelog;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Read position in the change log that tolerates ids committing out of order. Ids are assigned at insert but
+ * become visible at commit, so a poll can see id 12 before id 11 exists. Ids skipped over are remembered and
+ * looked up on later polls until they show up or their gap times out, as ids of rolled back inserts never do.
+ */
+class ChangeLogCursor {
+
+    // A jump this large is not a handful of in-flight transactions; waiting for every id would be pointless.
+    private static final long MAX_TRACKED_GAP = 10_000;
+
+    private final long gapTimeoutNanos;
+    private final TreeMap<Long, Long> gaps = new TreeMap<>();
+    private long highest;
+
+    ChangeLogCursor(long start, long gapTimeoutNanos) {
+        this.highest = start;
+        this.gapTimeoutNanos = gapTimeoutNanos;
+    }
+
+    /**
+     * Rows after this id have not been seen yet.
+     */
+    long highest() {
+        return highest;
+    }
+
+    /**
+     * Oldest ids still awaited, at most {@code max} of them.
+     */
+    List<Long> awaited(int max) {
+        List<Long> ids = new ArrayList<>(Math.min(max, gaps.size()));
+        for (Long id : gaps.keySet()) {
+            if (ids.size() == max) {
+                break;
+            }
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    int pendingGaps() {
+        return gaps.size();
+    }
+
+    /**
+     * Records {@code id} as read and returns whether it had not been seen before. New ids must be offered in
+     * ascending order.
+     */
+    boolean offer(long id, long nowNanos) {
+        if (id <= highest) {
+            return gaps.remove(id) != null;
+        }
+        if (id - highest <= MAX_TRACKED_GAP) {
+            for (long missing = highest + 1; missing < id; missing++) {
+                gaps.put(missing, nowNanos + gapTimeoutNanos);
+            }
+        }
+        highest = id;
+        return true;
+    }
+
+    void expireGaps(long nowNanos) {
+        for (Iterator<Map.Entry<Long, Long>> it = gaps.entrySet().iterator(); it.hasNext(); ) {
+            if (it.next().getValue() - nowNanos <= 0) {
+                it.remove();
+            }
+        }
+    }
+}
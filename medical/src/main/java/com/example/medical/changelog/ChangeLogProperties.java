@@ -0,0 +1,46 @@
+package com.example.medical.changelog;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@ConfigurationProperties(prefix = "medical.change-log")
+public class ChangeLogProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Identifies this node in the log so that it skips its own changes. Must differ between nodes.
+     */
+    private String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * Simple names of the entities whose changes are logged.
+     */
+    private List<String> entities = new ArrayList<>(List.of("Doctor", "Patient", "Specialization", "Medication", "Appointment"));
+
+    private Duration pollInterval = Duration.ofMillis(500);
+
+    /**
+     * Rows read per poll; a node that fell behind catches up over several polls.
+     */
+    private int batchSize = 500;
+
+    /**
+     * How long a missing id is waited for. Ids are assigned at insert but become visible at commit, so a
+     * transaction that commits after a later one leaves a temporary gap. Must exceed the longest write transaction.
+     */
+    private Duration gapTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Rows older than this are deleted. Must exceed the longest time a node may stop polling and still catch up.
+     */
+    private Duration retention = Duration.ofHours(1);
+
+    private Duration compactionInterval = Duration.ofMinutes(5);
+}
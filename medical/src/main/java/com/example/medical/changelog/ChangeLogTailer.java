@@ -0,0 +1,165 @@
+package com.example.medical.changelog;
+
+import com.example.medical.events.ChangeEventBus;
+import com.example.medical.events.EntityChangedEvent;
+import com.example.medical.jobs.JobContext;
+import com.example.medical.model.ChangeLogEntry;
+import com.example.medical.repository.ChangeLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tails {@code change_log} and republishes changes made on other nodes as {@link EntityChangedEvent}s without
+ * an entity, so that the caches listening for local changes are invalidated the same way, and hands them to the
+ * change event bus, if there is one, for its subscribers. Starts from the end
+ * of the log: a node that just started has nothing cached yet. Also deletes rows past their retention, unless
+ * that is left to {@link ChangeLogCompactionJob} so that only one node compacts.
+ */
+@Slf4j
+public class ChangeLogTailer {
+
+    private final ChangeLogRepository repository;
+    private final ChangeLogProperties properties;
+    private final ApplicationEventPublisher publisher;
+    private final ChangeEventBus bus;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, EntityType<?>> entityTypes = new HashMap<>();
+    private final Timer lag;
+    private final Counter compacted;
+    private final MeterRegistry meterRegistry;
+    private final boolean scheduleCompaction;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "change-log-tailer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ChangeLogCursor cursor;
+
+    public ChangeLogTailer(ChangeLogRepository repository, ChangeLogProperties properties,
+                           ApplicationEventPublisher publisher, ChangeEventBus bus,
+                           PlatformTransactionManager transactionManager,
+                           EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry,
+                           boolean scheduleCompaction) {
+        this.repository = repository;
+        this.properties = properties;
+        this.publisher = publisher;
+        this.bus = bus;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.scheduleCompaction = scheduleCompaction;
+        for (EntityType<?> type : entityManagerFactory.getMetamodel().getEntities()) {
+            if (properties.getEntities().contains(type.getJavaType().getSimpleName())) {
+                entityTypes.put(type.getJavaType().getSimpleName(), type);
+            }
+        }
+        this.lag = Timer.builder("medical.change-log.lag")
+                .description("Time from a change being written on one node to its invalidation on this node")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.compacted = meterRegistry.counter("medical.change-log.compacted");
+    }
+
+    public void start() {
+        cursor = new ChangeLogCursor(repository.findMaxId(), properties.getGapTimeout().toNanos());
+        meterRegistry.gauge("medical.change-log.pending-gaps", this, tailer -> tailer.cursor.pendingGaps());
+        long poll = properties.getPollInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::pollQuietly, poll, poll, TimeUnit.MILLISECONDS);
+        if (scheduleCompaction) {
+            long compaction = properties.getCompactionInterval().toMillis();
+            scheduler.scheduleWithFixedDelay(this::compactQuietly, compaction, compaction, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Reads what was committed since the last poll and returns the number of changes from other nodes applied.
+     */
+    synchronized int poll() {
+        long now = System.nanoTime();
+        List<ChangeLogEntry> rows = new ArrayList<>();
+        List<Long> awaited = cursor.awaited(properties.getBatchSize());
+        if (!awaited.isEmpty()) {
+            rows.addAll(repository.findByIdIn(awaited));
+        }
+        rows.addAll(repository.findByIdGreaterThanOrderByIdAsc(cursor.highest(), Limit.of(properties.getBatchSize())));
+        int applied = 0;
+        long wallClock = System.currentTimeMillis();
+        for (ChangeLogEntry row : rows) {
+            if (cursor.offer(row.getId(), now) && !properties.getNodeId().equals(row.getOrigin()) && publish(row)) {
+                lag.record(Math.max(0, wallClock - row.getChangedAt()), TimeUnit.MILLISECONDS);
+                applied++;
+            }
+        }
+        cursor.expireGaps(now);
+        return applied;
+    }
+
+    int compact() {
+        return compact(null);
+    }
+
+    /**
+     * Compacts under a job lease when given one; the delete commits only while the lease is still held.
+     */
+    int compact(JobContext context) {
+        long cutoff = System.currentTimeMillis() - properties.getRetention().toMillis();
+        Integer deleted = transactionTemplate.execute(status -> {
+            if (context != null) {
+                context.verify();
+            }
+            return repository.deleteChangedBefore(cutoff);
+        });
+        compacted.increment(deleted != null ? deleted : 0);
+        return deleted != null ? deleted : 0;
+    }
+
+    private boolean publish(ChangeLogEntry row) {
+        EntityType<?> type = entityTypes.get(row.getEntityType());
+        if (type == null) {
+            return false;
+        }
+        Object id = type.getIdType().getJavaType() == Integer.class ? (Object) row.getEntityId().intValue() : row.getEntityId();
+        EntityChangedEvent event = new EntityChangedEvent(type.getJavaType(), id, row.getChange(), null);
+        if (bus != null) {
+            bus.publish(event);
+        }
+        publisher.publishEvent(event);
+        return true;
+    }
+
+    private void pollQuietly() {
+        try {
+            poll();
+        } catch (RuntimeException ex) {
+            log.warn("Could not read the change log: {}", ex.getMessage());
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            int deleted = compact();
+            log.debug("Compacted {} change log rows", deleted);
+        } catch (RuntimeException ex) {
+            log.warn("Could not compact the change log: {}", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.medical.changelog;
+
+import com.example.medical.events.EntityChangedEvent;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.sql.PreparedStatement;
+import java.util.Set;
+
+/**
+ * Appends a row to {@code change_log} for every flushed change of a logged entity. The row is written on the
+ * session's connection just before the transaction completes, so it commits or rolls back with the change.
+ */
+public class ChangeLogWriter implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final String INSERT = "insert into change_log (entity_type, entity_id, change_type, origin, changed_at)"
+            + " values (?, ?, ?, ?, ?)";
+
+    private final Set<String> entities;
+    private final String nodeId;
+
+    public ChangeLogWriter(ChangeLogProperties properties) {
+        this.entities = Set.copyOf(properties.getEntities());
+        this.nodeId = properties.getNodeId();
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        append(event.getSession(), event.getPersister(), event.getId(), EntityChangedEvent.Change.INSERTED);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        append(event.getSession(), event.getPersister(), event.getId(), EntityChangedEvent.Change.UPDATED);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        append(event.getSession(), event.getPersister(), event.getId(), EntityChangedEvent.Change.DELETED);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void append(EventSource session, EntityPersister persister, Object id, EntityChangedEvent.Change change) {
+        String entityType = persister.getMappedClass().getSimpleName();
+        if (!entities.contains(entityType) || !(id instanceof Number number)) {
+            return;
+        }
+        long entityId = number.longValue();
+        long changedAt = System.currentTimeMillis();
+        session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) completing ->
+                completing.doWork(connection -> {
+                    try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+                        statement.setString(1, entityType);
+                        statement.setLong(2, entityId);
+                        statement.setString(3, change.name());
+                        statement.setString(4, nodeId);
+                        statement.setLong(5, changedAt);
+                        statement.executeUpdate();
+                    }
+                }));
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.medical.coalescing;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Coalesces concurrent calls of a read method with the same key: the first caller runs the method and the
+ * others wait for its result or exception instead of issuing the same queries. Calls made inside an existing
+ * transaction are never coalesced, as they must see entities of their own persistence context.
+ * <p>
+ * Callers share the returned objects, so the method must return data that callers only read.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SingleFlight {
+
+    /**
+     * SpEL expression over the method parameters, such as {@code #doctorId}. Defaults to all arguments.
+     */
+    String key() default "";
+
+    /**
+     * Name used in metrics. Defaults to {@code ClassName.methodName}.
+     */
+    String name() default "";
+}
@@ -0,0 +1,145 @@
+package com.example.medical.coalescing;
+
+import com.example.medical.datasource.ReadYourWrites;
+import com.example.medical.exceptions.DeadlineExceededException;
+import com.example.medical.resilience.RequestDeadline;
+import com.example.medical.sharding.ShardContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.Ordered;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.Order;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Implements {@link SingleFlight}. Ordered outside the transaction interceptor so that only the caller's own
+ * transaction is seen. The key also carries the shard and the read-your-writes pin, so calls that would read
+ * from different databases are never merged.
+ */
+@Slf4j
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE + 250)
+public class SingleFlightAspect {
+
+    private static final SpelExpressionParser PARSER = new SpelExpressionParser();
+    private static final ParameterNameDiscoverer PARAMETER_NAMES = new DefaultParameterNameDiscoverer();
+
+    private final SingleFlightProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<FlightKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<Method, Flight> flights = new ConcurrentHashMap<>();
+
+    public SingleFlightAspect(SingleFlightProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge("medical.single-flight.in-flight", inFlight, Map::size);
+    }
+
+    @Around("@annotation(singleFlight)")
+    public Object coalesce(ProceedingJoinPoint joinPoint, SingleFlight singleFlight) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Flight flight = flights.computeIfAbsent(method, key -> new Flight(key, singleFlight));
+        FlightKey key = new FlightKey(method, flight.key(joinPoint), ShardContext.currentShard(),
+                ShardContext.currentClinicId(), ReadYourWrites.isPinned());
+
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> shared = inFlight.putIfAbsent(key, own);
+        if (shared == null) {
+            flight.leaders.increment();
+            return lead(joinPoint, key, own);
+        }
+        flight.followers.increment();
+        // A follower never waits past its own request deadline.
+        long waitNanos = properties.getTimeout().toNanos();
+        RequestDeadline deadline = RequestDeadline.current();
+        boolean deadlineBound = deadline != null && deadline.remainingNanos() < waitNanos;
+        if (deadlineBound) {
+            waitNanos = Math.max(0, deadline.remainingNanos());
+        }
+        try {
+            return shared.get(waitNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException ex) {
+            throw ex.getCause();
+        } catch (TimeoutException ex) {
+            flight.timeouts.increment();
+            if (deadlineBound) {
+                throw new DeadlineExceededException("Request deadline of " + deadline.getTimeout().toMillis()
+                        + " ms exceeded while waiting for a shared load");
+            }
+            log.debug("Shared load of {} took longer than {}, loading separately", flight.name, properties.getTimeout());
+            return joinPoint.proceed();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return joinPoint.proceed();
+        }
+    }
+
+    private Object lead(ProceedingJoinPoint joinPoint, FlightKey key, CompletableFuture<Object> own) throws Throwable {
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable ex) {
+            // Removed before completion, so callers arriving afterwards start a fresh load.
+            inFlight.remove(key, own);
+            own.completeExceptionally(ex);
+            throw ex;
+        }
+        inFlight.remove(key, own);
+        own.complete(result);
+        return result;
+    }
+
+    private final class Flight {
+
+        private final String name;
+        private final Expression keyExpression;
+        private final Method method;
+        private final Counter leaders;
+        private final Counter followers;
+        private final Counter timeouts;
+
+        private Flight(Method method, SingleFlight annotation) {
+            this.method = method;
+            this.name = annotation.name().isEmpty()
+                    ? method.getDeclaringClass().getSimpleName() + "." + method.getName()
+                    : annotation.name();
+            this.keyExpression = annotation.key().isEmpty() ? null : PARSER.parseExpression(annotation.key());
+            this.leaders = meterRegistry.counter("medical.single-flight.calls", "flight", name, "role", "leader");
+            this.followers = meterRegistry.counter("medical.single-flight.calls", "flight", name, "role", "follower");
+            this.timeouts = meterRegistry.counter("medical.single-flight.timeouts", "flight", name);
+        }
+
+        private Object key(ProceedingJoinPoint joinPoint) {
+            Object[] args = joinPoint.getArgs();
+            if (keyExpression == null) {
+                return args.length == 1 ? args[0] : Arrays.asList(args);
+            }
+            return keyExpression.getValue(new MethodBasedEvaluationContext(
+                    joinPoint.getTarget(), method, args, PARAMETER_NAMES));
+        }
+    }
+
+    private record FlightKey(Method method, Object key, String shard, Integer clinicId, boolean pinned) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.medical.coalescing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(SingleFlightProperties.class)
+@ConditionalOnProperty(prefix = "medical.single-flight", name = "enabled", matchIfMissing = true)
+public class SingleFlightConfig {
+
+    @Bean
+    public SingleFlightAspect singleFlightAspect(SingleFlightProperties properties, MeterRegistry meterRegistry) {
+        return new SingleFlightAspect(properties, meterRegistry);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.medical.coalescing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "medical.single-flight")
+public class SingleFlightProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * How long a caller waits for the shared load before running the method itself.
+     */
+    private Duration timeout = Duration.ofSeconds(5);
+}
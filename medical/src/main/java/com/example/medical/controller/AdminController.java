@@ -0,0 +1,121 @@
+package com.example.medical.controller;
+
+import com.example.medical.jdbc.ConnectionCheckout;
+import com.example.medical.jdbc.ConnectionHoldTracker;
+import com.example.medical.jdbc.SlowQueryJournal;
+import com.example.medical.jdbc.SlowQueryRecord;
+import com.example.medical.model.OutboxMessage;
+import com.example.medical.outbox.Outbox;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final SlowQueryJournal slowQueryJournal;
+    private final ObjectProvider<ConnectionHoldTracker> connectionHoldTracker;
+    private final Outbox outbox;
+
+    @Tag(name = "Admin", description = "Operational endpoints")
+    @GetMapping("/slow-queries")
+    @Operation(
+            summary = "Browse the slow query journal",
+            description = "Returns the most recent slow SQL statements kept in memory, newest first"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Slow queries retrieved successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = SlowQueryRecord.class))
+            )
+    })
+    public ResponseEntity<List<SlowQueryRecord>> getSlowQueries(
+            @Parameter(description = "Maximum number of records to return")
+            @RequestParam(defaultValue = "100") int limit,
+            @Parameter(description = "Only return statements that took at least this many milliseconds")
+            @RequestParam(defaultValue = "0") long minDurationMs) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        List<SlowQueryRecord> records = slowQueryJournal.recent(slowQueryJournal.capacity()).stream()
+                .filter(record -> record.getDurationMs() >= minDurationMs)
+                .limit(limit)
+                .toList();
+        return ResponseEntity.ok(records);
+    }
+
+    @Tag(name = "Admin", description = "Operational endpoints")
+    @GetMapping("/connections")
+    @Operation(
+            summary = "List checked out JDBC connections",
+            description = "Returns the connections currently held, longest first, with the endpoint, service method "
+                    + "and stack that checked them out. Use it to find the holder when the pool runs dry"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Open connections retrieved successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ConnectionCheckout.class))
+            )
+    })
+    public ResponseEntity<List<ConnectionCheckout>> getOpenConnections(
+            @Parameter(description = "Only return connections held at least this many milliseconds")
+            @RequestParam(defaultValue = "0") long minHeldMs) {
+        ConnectionHoldTracker tracker = connectionHoldTracker.getIfAvailable();
+        if (tracker == null) {
+            return ResponseEntity.ok(List.of());
+        }
+        List<ConnectionCheckout> checkouts = tracker.openCheckouts().stream()
+                .filter(checkout -> checkout.getHeldMs() >= minHeldMs)
+                .toList();
+        return ResponseEntity.ok(checkouts);
+    }
+
+    @Tag(name = "Admin", description = "Operational endpoints")
+    @GetMapping("/outbox/dead")
+    @Operation(
+            summary = "List dead outbox messages",
+            description = "Returns the messages whose delivery was given up after the maximum number of attempts, "
+                    + "most recent first, with their last error. Sharded, the X-Clinic-Id header selects the shard"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Dead messages retrieved successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = OutboxMessage.class))
+            )
+    })
+    public ResponseEntity<List<OutboxMessage>> getDeadOutboxMessages(
+            @Parameter(description = "Maximum number of messages to return")
+            @RequestParam(defaultValue = "100") int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return ResponseEntity.ok(outbox.dead(limit));
+    }
+
+    @Tag(name = "Admin", description = "Operational endpoints")
+    @PostMapping("/outbox/dead/{id}/retry")
+    @Operation(summary = "Retry a dead outbox message", description = "Makes the message due again with a fresh set of attempts")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Message scheduled for delivery", content = @Content),
+            @ApiResponse(responseCode = "404", description = "No dead message with this id", content = @Content)
+    })
+    public ResponseEntity<Void> retryDeadOutboxMessage(@PathVariable long id) {
+        outbox.retry(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.medical.controller;
+
+import com.example.medical.calendar.CalendarStreamBroker;
+import com.example.medical.exceptions.DoctorNotFoundException;
+import com.example.medical.mapper.GeneralMapper;
+import com.example.medical.service.AppointmentService;
+import com.example.medical.service.DoctorService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "medical.calendar-stream", name = "enabled", matchIfMissing = true)
+public class CalendarStreamController {
+
+    private final CalendarStreamBroker broker;
+    private final DoctorService doctorService;
+    private final AppointmentService appointmentService;
+    private final GeneralMapper mapper;
+
+    @Tag(name = "Appointments", description = "Appointment management endpoints")
+    @GetMapping(path = "/doctors/{id}/calendar/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Stream a doctor's calendar",
+            description = "Server-Sent Events: a 'snapshot' event with the doctor's appointments, then 'created' and "
+                    + "'deleted' events as appointments change. Reconnecting with Last-Event-ID resumes after that "
+                    + "event when it is recent enough, otherwise a new snapshot is sent"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Event stream opened",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Doctor not found",
+                    content = @Content
+            )
+    })
+    public ResponseEntity<SseEmitter> streamCalendar(
+            @Parameter(description = "ID of the doctor", required = true)
+            @PathVariable Integer id,
+            @Parameter(description = "Id of the last event received, sent by browsers when they reconnect")
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) throws IOException {
+        // An error body cannot be written as text/event-stream.
+        try {
+            doctorService.getById(id);
+        } catch (DoctorNotFoundException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        // The same mapping as the 'created' frames, so that clients merging them get one shape.
+        return ResponseEntity.ok(broker.subscribe(id, lastEventId, () -> appointmentService.getByDoctor(id).stream()
+                .map(mapper::toAppointmentDtoWithoutPrescriptions)
+                .toList()));
+    }
+}
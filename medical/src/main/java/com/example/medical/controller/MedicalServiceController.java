@@ -1,5 +1,6 @@
 package com.example.medical.controller;
 
+import com.example.medical.directory.DoctorDirectory;
 import com.example.medical.dto.*;
 import com.example.medical.exceptions.*;
 import com.example.medical.mapper.GeneralMapper;
@@ -28,6 +29,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api")
@@ -44,6 +46,7 @@ public class MedicalServiceController {
     private final GeneralMapper mapper;
     private final MedicationService medicationService;
     private final SpecializationService specializationService;
+    private final Optional<DoctorDirectory> doctorDirectory;
 
     @Tag(name = "Patients", description = "Patient management endpoints")
     @PostMapping("/patients")
@@ -202,6 +205,10 @@ public class MedicalServiceController {
             )
     })
     public ResponseEntity<List<DoctorDto>> getAllDoctors() {
+        DoctorDirectory.Snapshot directory = doctorDirectorySnapshot();
+        if (directory != null) {
+            return new ResponseEntity<>(directory.all(), HttpStatus.OK);
+        }
         List<Doctor> doctors = doctorService.getAll();
         List<DoctorDto> doctorDtos = new ArrayList<>();
         for (Doctor doctor : doctors) {
@@ -259,6 +266,10 @@ public class MedicalServiceController {
     public ResponseEntity<List<DoctorDto>> getDoctorsBySpecialization(
             @Parameter(description = "ID of the specialization", required = true)
             @PathVariable Integer specializationId) {
+        DoctorDirectory.Snapshot directory = doctorDirectorySnapshot();
+        if (directory != null) {
+            return new ResponseEntity<>(directory.bySpecializationId(specializationId), HttpStatus.OK);
+        }
         List<Doctor> doctors = doctorService.getBySpecialization(specializationId);
         List<DoctorDto> doctorDtos = new ArrayList<>();
         for (Doctor doctor : doctors) {
@@ -846,4 +857,8 @@ public class MedicalServiceController {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
-}
\ No newline at end of file
+
+    private DoctorDirectory.Snapshot doctorDirectorySnapshot() {
+        return doctorDirectory.isPresent() ? doctorDirectory.get().snapshot() : null;
+    }
+}
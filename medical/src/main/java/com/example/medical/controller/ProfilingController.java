@@ -0,0 +1,97 @@
+package com.example.medical.controller;
+
+import com.example.medical.jfr.JfrProfiler;
+import com.example.medical.jfr.ProfileSummary;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/admin/profile")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "medical.profiling", name = "enabled", matchIfMissing = true)
+public class ProfilingController {
+
+    private static final Duration RESPONSE_GRACE = Duration.ofSeconds(60);
+
+    private final JfrProfiler jfrProfiler;
+
+    @Tag(name = "Admin", description = "Operational endpoints")
+    @PostMapping
+    @Operation(
+            summary = "Profile this node",
+            description = "Runs a flight recording for the given number of seconds and returns the hottest CPU stacks, "
+                    + "allocation sites, lock contention and GC pause share once it finishes"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Recording finished and summarised",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProfileSummary.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Invalid duration", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Another profiling session is running", content = @Content)
+    })
+    public DeferredResult<ProfileSummary> profile(
+            @Parameter(description = "Length of the recording in seconds")
+            @RequestParam(defaultValue = "30") int seconds) {
+        Duration duration = Duration.ofSeconds(seconds);
+        DeferredResult<ProfileSummary> result = new DeferredResult<>(duration.plus(RESPONSE_GRACE).toMillis());
+        jfrProfiler.profile(duration).whenComplete((summary, ex) -> {
+            if (ex != null) {
+                result.setErrorResult(ex);
+            } else {
+                result.setResult(summary);
+            }
+        });
+        return result;
+    }
+
+    @Tag(name = "Admin", description = "Operational endpoints")
+    @GetMapping("/{id}")
+    @Operation(summary = "Get the summary of a finished profiling session")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Summary retrieved successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProfileSummary.class))
+            ),
+            @ApiResponse(responseCode = "404", description = "Profile not found", content = @Content)
+    })
+    public ResponseEntity<ProfileSummary> getProfile(@PathVariable String id) {
+        return ResponseEntity.ok(jfrProfiler.getSummary(id));
+    }
+
+    @Tag(name = "Admin", description = "Operational endpoints")
+    @GetMapping("/{id}/recording")
+    @Operation(summary = "Download the raw flight recording", description = "Open the file with JDK Mission Control or the jfr tool")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Recording file"),
+            @ApiResponse(responseCode = "404", description = "Recording not found", content = @Content)
+    })
+    public ResponseEntity<Resource> downloadRecording(@PathVariable String id) {
+        Path file = jfrProfiler.getRecording(id);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .body(new FileSystemResource(file));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.medical.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Data
+@ConfigurationProperties(prefix = "medical.datasource.replica")
+public class ReadReplicaProperties {
+
+    /**
+     * Route read-only transactions to the replica. Pool settings go under {@code medical.datasource.replica.hikari}.
+     */
+    private boolean enabled = false;
+
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    private String driverClassName;
+
+    /**
+     * How long a client keeps reading from the primary after one of its writes committed. Should exceed the
+     * replication lag the replicas are allowed to have.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    /**
+     * Signs the read-your-writes cookie. Set the same value on every node when scaled out; the random default
+     * only suits a single node, and a restart makes outstanding cookies invalid.
+     */
+    private String readYourWritesSecret = UUID.randomUUID().toString();
+}
@@ -0,0 +1,26 @@
+package com.example.medical.datasource;
+
+/**
+ * Marks the current thread as needing primary reads because its client wrote recently.
+ */
+public final class ReadYourWrites {
+
+    public static final String COOKIE_NAME = "medical-primary-until";
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static boolean isPinned() {
+        return PINNED.get() != null;
+    }
+
+    static void pin() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    static void unpin() {
+        PINNED.remove();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.medical.datasource;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Encodes the read-your-writes deadline as {@code <epoch millis>.<HMAC-SHA256>} so that clients cannot extend
+ * it. A deadline further away than one window is rejected as well, in case the secret leaks.
+ */
+class ReadYourWritesCookie {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+    private final long windowMillis;
+
+    ReadYourWritesCookie(String secret, Duration window) {
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.windowMillis = window.toMillis();
+    }
+
+    long windowMillis() {
+        return windowMillis;
+    }
+
+    String issue(long primaryUntil) {
+        String until = Long.toString(primaryUntil);
+        return until + "." + sign(until);
+    }
+
+    /**
+     * Returns the deadline carried by a valid cookie value, or 0.
+     */
+    long primaryUntil(String value, long now) {
+        int dot = value.indexOf('.');
+        if (dot <= 0) {
+            return 0;
+        }
+        String until = value.substring(0, dot);
+        byte[] expected = sign(until).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expected, value.substring(dot + 1).getBytes(StandardCharsets.US_ASCII))) {
+            return 0;
+        }
+        try {
+            long primaryUntil = Long.parseLong(until);
+            return primaryUntil > now + windowMillis ? 0 : primaryUntil;
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+
+    private String sign(String value) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(value.getBytes(StandardCharsets.US_ASCII)));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Cannot sign the read-your-writes cookie", ex);
+        }
+    }
+}
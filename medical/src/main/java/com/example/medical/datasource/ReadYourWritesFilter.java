@@ -0,0 +1,54 @@
+package com.example.medical.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Pins requests to the primary while the client's read-your-writes cookie has not expired. Marks the request as
+ * covered, so that {@link ReadYourWritesTransactionListener} only pins threads this filter will unpin.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String ACTIVE_ATTRIBUTE = ReadYourWritesFilter.class.getName() + ".active";
+
+    private final ReadYourWritesCookie cookie;
+
+    ReadYourWritesFilter(ReadYourWritesCookie cookie) {
+        this.cookie = cookie;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        if (primaryUntil(request, now) > now) {
+            ReadYourWrites.pin();
+        }
+        request.setAttribute(ACTIVE_ATTRIBUTE, Boolean.TRUE);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            request.removeAttribute(ACTIVE_ATTRIBUTE);
+            ReadYourWrites.unpin();
+        }
+    }
+
+    private long primaryUntil(HttpServletRequest request, long now) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (ReadYourWrites.COOKIE_NAME.equals(cookie.getName())) {
+                return this.cookie.primaryUntil(cookie.getValue(), now);
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.medical.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * After a read-write transaction commits, pins the rest of the request to the primary and hands the client a
+ * cookie that keeps its following requests there for the read-your-writes window. Only applies to requests
+ * passing through {@link ReadYourWritesFilter}, which clears the pin when the request ends.
+ */
+public class ReadYourWritesTransactionListener implements TransactionExecutionListener {
+
+    private static final String COOKIE_SET_ATTRIBUTE = ReadYourWritesTransactionListener.class.getName() + ".cookieSet";
+
+    private final ReadYourWritesCookie cookie;
+
+    ReadYourWritesTransactionListener(ReadYourWritesCookie cookie) {
+        this.cookie = cookie;
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure != null || transaction.isReadOnly() || !transaction.isNewTransaction()) {
+            return;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)
+                || servletAttributes.getRequest().getAttribute(ReadYourWritesFilter.ACTIVE_ATTRIBUTE) == null) {
+            return;
+        }
+        ReadYourWrites.pin();
+        HttpServletRequest request = servletAttributes.getRequest();
+        HttpServletResponse response = servletAttributes.getResponse();
+        if (response == null || response.isCommitted() || request.getAttribute(COOKIE_SET_ATTRIBUTE) != null) {
+            return;
+        }
+        long window = this.cookie.windowMillis();
+        Cookie cookie = new Cookie(ReadYourWrites.COOKIE_NAME, this.cookie.issue(System.currentTimeMillis() + window));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.max(1, window / 1000));
+        response.addCookie(cookie);
+        request.setAttribute(COOKIE_SET_ATTRIBUTE, Boolean.TRUE);
+    }
+}
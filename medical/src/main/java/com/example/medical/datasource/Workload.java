@@ -0,0 +1,32 @@
+package com.example.medical.datasource;
+
+/**
+ * Connection pools that workloads are isolated into.
+ */
+public enum Workload {
+
+    /**
+     * Short read-only requests such as lookups by id.
+     */
+    INTERACTIVE("interactive"),
+
+    /**
+     * Transactions that change data.
+     */
+    WRITE("write"),
+
+    /**
+     * Long listings and exports that may hold a connection for seconds.
+     */
+    REPORTING("reporting");
+
+    private final String poolName;
+
+    Workload(String poolName) {
+        this.poolName = poolName;
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.medical.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Separate bounded pools against the same database for interactive reads, writes and reporting queries, so a
+ * long export cannot take the connections the booking flow needs. Each pool takes its own Hikari settings
+ * under {@code medical.datasource.pools.<name>}. The lazy proxy defers the checkout to the first statement,
+ * which also keeps transactions that never touch the database from holding a connection.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "medical.datasource.pools", name = "enabled", havingValue = "true")
+public class WorkloadPoolsConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "medical.datasource.pools.interactive")
+    public HikariDataSource interactiveDataSource(DataSourceProperties properties) {
+        return pool(properties, Workload.INTERACTIVE, 10, 2_000);
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "medical.datasource.pools.write")
+    public HikariDataSource writeDataSource(DataSourceProperties properties) {
+        return pool(properties, Workload.WRITE, 5, 5_000);
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "medical.datasource.pools.reporting")
+    public HikariDataSource reportingDataSource(DataSourceProperties properties) {
+        return pool(properties, Workload.REPORTING, 2, 30_000);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("interactiveDataSource") DataSource interactive,
+                                 @Qualifier("writeDataSource") DataSource write,
+                                 @Qualifier("reportingDataSource") DataSource reporting,
+                                 MeterRegistry meterRegistry) {
+        return new LazyConnectionDataSourceProxy(new WorkloadRoutingDataSource(Map.of(
+                Workload.INTERACTIVE, interactive,
+                Workload.WRITE, write,
+                Workload.REPORTING, reporting), meterRegistry));
+    }
+
+    @Bean
+    public WorkloadRoutingAspect workloadRoutingAspect() {
+        return new WorkloadRoutingAspect();
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Workload workload,
+                                         int maximumPoolSize, long connectionTimeoutMillis) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName(workload.getPoolName());
+        pool.setMaximumPoolSize(maximumPoolSize);
+        pool.setConnectionTimeout(connectionTimeoutMillis);
+        return pool;
+    }
+}
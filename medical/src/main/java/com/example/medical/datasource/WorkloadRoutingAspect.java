@@ -0,0 +1,57 @@
+package com.example.medical.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Picks the workload of a service call before its transaction starts. Nested service calls join the
+ * transaction of the outer call, so only the outermost call decides. Ordered after the scatter-gather aspect,
+ * which runs the call again on worker threads.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE + 300)
+public class WorkloadRoutingAspect {
+
+    private final Map<Method, Workload> workloads = new ConcurrentHashMap<>();
+
+    @Around("within(com.example.medical.service..*) && execution(public * *(..))")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (WorkloadContext.current() != null) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Class<?> targetClass = AopUtils.getTargetClass(joinPoint.getTarget());
+        WorkloadContext.set(workloads.computeIfAbsent(method, key -> resolve(key, targetClass)));
+        try {
+            return joinPoint.proceed();
+        } finally {
+            WorkloadContext.clear();
+        }
+    }
+
+    static Workload resolve(Method method, Class<?> targetClass) {
+        WorkloadPool pool = AnnotatedElementUtils.findMergedAnnotation(method, WorkloadPool.class);
+        if (pool == null) {
+            pool = AnnotatedElementUtils.findMergedAnnotation(targetClass, WorkloadPool.class);
+        }
+        if (pool != null) {
+            return pool.value();
+        }
+        Transactional transactional = AnnotatedElementUtils.findMergedAnnotation(method, Transactional.class);
+        if (transactional == null) {
+            transactional = AnnotatedElementUtils.findMergedAnnotation(targetClass, Transactional.class);
+        }
+        return transactional != null && transactional.readOnly() ? Workload.INTERACTIVE : Workload.WRITE;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.medical.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hands out connections from the pool of the current {@link Workload}. Work outside a service call, such as
+ * schema initialization, uses the write pool.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final Map<Workload, Counter> checkouts = new EnumMap<>(Workload.class);
+
+    public WorkloadRoutingDataSource(Map<Workload, DataSource> pools, MeterRegistry meterRegistry) {
+        setTargetDataSources(new HashMap<>(pools));
+        setDefaultTargetDataSource(pools.get(Workload.WRITE));
+        setLenientFallback(false);
+        afterPropertiesSet();
+        for (Workload workload : Workload.values()) {
+            checkouts.put(workload, meterRegistry.counter("medical.datasource.checkouts", "pool", workload.getPoolName()));
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Workload workload = WorkloadContext.current();
+        if (workload == null) {
+            workload = Workload.WRITE;
+        }
+        checkouts.get(workload).increment();
+        return workload;
+    }
+}
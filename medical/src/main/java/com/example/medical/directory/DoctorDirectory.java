@@ -0,0 +1,290 @@
+package com.example.medical.directory;
+
+import com.example.medical.dto.DoctorDto;
+import com.example.medical.events.EntityChangedEvent;
+import com.example.medical.mapper.GeneralMapper;
+import com.example.medical.model.Doctor;
+import com.example.medical.model.Specialization;
+import com.example.medical.service.DoctorService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory doctor directory. Readers get an immutable {@link Snapshot} from an {@link AtomicReference} without
+ * locking or touching the database; writers build a new snapshot and swap it in. A committed create, update or
+ * delete of a doctor is applied incrementally: the doctor is moved within copies of the full list and of its old
+ * and new specialization lists, while every other list and DTO is shared with the previous snapshot. A renamed
+ * specialization,
+ * which may change what many doctors show, reloads the whole directory in the background.
+ * <p>
+ * Until the first load succeeds {@link #snapshot()} returns {@code null} and callers read the database.
+ */
+@Slf4j
+public class DoctorDirectory {
+
+    private static final int MAX_RELOAD_ATTEMPTS = 3;
+
+    // Ends on the id, so every doctor has exactly one position and lists can be binary searched.
+    private static final Comparator<DoctorDto> ORDER = Comparator
+            .comparing(DoctorDto::getLastName, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(DoctorDto::getFirstName, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(DoctorDto::getId);
+
+    private final DoctorService doctorService;
+    private final GeneralMapper mapper;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final Counter fullSwaps;
+    private final Counter incrementalSwaps;
+
+    private final ExecutorService reloadExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "doctor-directory-reload");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean reloadPending = new AtomicBoolean();
+
+    // Writers are serialized so that a reload cannot overwrite a change applied while it was loading.
+    private final Object writeLock = new Object();
+    private long changes;
+
+    public DoctorDirectory(DoctorService doctorService, GeneralMapper mapper, PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry) {
+        this.doctorService = doctorService;
+        this.mapper = mapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.fullSwaps = meterRegistry.counter("medical.doctor-directory.swaps", "kind", "full");
+        this.incrementalSwaps = meterRegistry.counter("medical.doctor-directory.swaps", "kind", "incremental");
+        meterRegistry.gauge("medical.doctor-directory.size", snapshot, ref -> {
+            Snapshot current = ref.get();
+            return current != null ? current.all().size() : 0;
+        });
+    }
+
+    public Snapshot snapshot() {
+        return snapshot.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            reload();
+        } catch (RuntimeException ex) {
+            log.warn("Could not load the doctor directory, doctor lists are read from the database", ex);
+        }
+    }
+
+    /**
+     * Loads every doctor and swaps in a fresh snapshot. Runs in a read-write transaction so that it reads the
+     * primary and bypasses the caches in front of {@link DoctorService#getAll()}.
+     */
+    public void reload() {
+        for (int attempt = 1; ; attempt++) {
+            long seen;
+            synchronized (writeLock) {
+                seen = changes;
+            }
+            List<Doctor> doctors = transactionTemplate.execute(status -> doctorService.getAll());
+            List<Entry> entries = new ArrayList<>(doctors.size());
+            for (Doctor doctor : doctors) {
+                entries.add(entry(doctor));
+            }
+            Snapshot loaded = Snapshot.of(entries);
+            synchronized (writeLock) {
+                // A change committed while loading may be missing from what was read.
+                if (changes == seen) {
+                    snapshot.set(loaded);
+                    fullSwaps.increment();
+                    return;
+                }
+            }
+            if (attempt == MAX_RELOAD_ATTEMPTS) {
+                throw new IllegalStateException("Doctors kept changing while the directory was loading");
+            }
+        }
+    }
+
+    // Called after commit on the writing thread, which must not start another query, so reloads are handed off.
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.entityType() == Specialization.class && event.change() == EntityChangedEvent.Change.UPDATED) {
+            requestReload();
+            return;
+        }
+        if (event.entityType() != Doctor.class) {
+            return;
+        }
+        if (event.entity() == null && event.change() != EntityChangedEvent.Change.DELETED) {
+            // Changed on another node: only the id is known.
+            requestReload();
+            return;
+        }
+        Integer id = (Integer) event.id();
+        Entry entry = event.change() == EntityChangedEvent.Change.DELETED ? null : entry((Doctor) event.entity());
+        boolean applied;
+        synchronized (writeLock) {
+            changes++;
+            Snapshot current = snapshot.get();
+            applied = current != null;
+            if (applied) {
+                snapshot.set(current.with(id, entry));
+            }
+        }
+        if (applied) {
+            incrementalSwaps.increment();
+        } else {
+            requestReload();
+        }
+    }
+
+    public void shutdown() {
+        reloadExecutor.shutdownNow();
+    }
+
+    private void requestReload() {
+        synchronized (writeLock) {
+            changes++;
+        }
+        if (reloadPending.compareAndSet(false, true)) {
+            reloadExecutor.execute(() -> {
+                reloadPending.set(false);
+                load();
+            });
+        }
+    }
+
+    private Entry entry(Doctor doctor) {
+        Specialization specialization = doctor.getSpecialization();
+        return new Entry(mapper.toDoctorDto(doctor),
+                specialization != null ? specialization.getId() : null,
+                specialization != null ? specialization.getName() : null);
+    }
+
+    private record Entry(DoctorDto dto, Integer specializationId, String specializationName) {
+    }
+
+    /**
+     * Immutable view of the directory. Lists are ordered like {@link DoctorService#getAll()}. The DTOs are
+     * shared between readers and must not be modified.
+     */
+    public static final class Snapshot {
+
+        private final Map<Integer, Entry> entries;
+        private final List<DoctorDto> all;
+        private final Map<Integer, List<DoctorDto>> bySpecializationId;
+        private final Map<String, List<DoctorDto>> bySpecializationName;
+
+        private Snapshot(Map<Integer, Entry> entries, List<DoctorDto> all,
+                         Map<Integer, List<DoctorDto>> bySpecializationId,
+                         Map<String, List<DoctorDto>> bySpecializationName) {
+            this.entries = entries;
+            this.all = all;
+            this.bySpecializationId = bySpecializationId;
+            this.bySpecializationName = bySpecializationName;
+        }
+
+        private static Snapshot of(List<Entry> unordered) {
+            List<Entry> ordered = new ArrayList<>(unordered);
+            ordered.sort(Comparator.comparing(Entry::dto, ORDER));
+            Map<Integer, Entry> entries = new HashMap<>();
+            List<DoctorDto> all = new ArrayList<>(ordered.size());
+            Map<Integer, List<DoctorDto>> bySpecializationId = new HashMap<>();
+            Map<String, List<DoctorDto>> bySpecializationName = new HashMap<>();
+            for (Entry entry : ordered) {
+                entries.put(entry.dto().getId(), entry);
+                all.add(entry.dto());
+                if (entry.specializationId() != null) {
+                    bySpecializationId.computeIfAbsent(entry.specializationId(), key -> new ArrayList<>()).add(entry.dto());
+                }
+                if (entry.specializationName() != null) {
+                    bySpecializationName.computeIfAbsent(entry.specializationName(), key -> new ArrayList<>()).add(entry.dto());
+                }
+            }
+            bySpecializationId.replaceAll((key, doctors) -> List.copyOf(doctors));
+            bySpecializationName.replaceAll((key, doctors) -> List.copyOf(doctors));
+            return new Snapshot(entries, List.copyOf(all), Map.copyOf(bySpecializationId), Map.copyOf(bySpecializationName));
+        }
+
+        // Copy on write of what the change touches; positions are found by binary search instead of re-sorting.
+        private Snapshot with(Integer id, Entry replacement) {
+            Entry previous = entries.get(id);
+            DoctorDto removed = previous != null ? previous.dto() : null;
+            DoctorDto added = replacement != null ? replacement.dto() : null;
+            Map<Integer, Entry> updatedEntries = new HashMap<>(entries);
+            if (replacement != null) {
+                updatedEntries.put(id, replacement);
+            } else {
+                updatedEntries.remove(id);
+            }
+            return new Snapshot(updatedEntries, patched(all, removed, added),
+                    patched(bySpecializationId, previous != null ? previous.specializationId() : null, removed,
+                            replacement != null ? replacement.specializationId() : null, added),
+                    patched(bySpecializationName, previous != null ? previous.specializationName() : null, removed,
+                            replacement != null ? replacement.specializationName() : null, added));
+        }
+
+        private static <K> Map<K, List<DoctorDto>> patched(Map<K, List<DoctorDto>> index, K removedKey,
+                                                           DoctorDto removed, K addedKey, DoctorDto added) {
+            if (removedKey == null && addedKey == null) {
+                return index;
+            }
+            Map<K, List<DoctorDto>> updated = new HashMap<>(index);
+            if (removedKey != null) {
+                updated.put(removedKey, patched(updated.getOrDefault(removedKey, List.of()), removed, null));
+            }
+            if (addedKey != null) {
+                updated.put(addedKey, patched(updated.getOrDefault(addedKey, List.of()), null, added));
+            }
+            updated.values().removeIf(List::isEmpty);
+            return updated;
+        }
+
+        private static List<DoctorDto> patched(List<DoctorDto> doctors, DoctorDto removed, DoctorDto added) {
+            List<DoctorDto> updated = new ArrayList<>(doctors);
+            if (removed != null) {
+                int index = Collections.binarySearch(updated, removed, ORDER);
+                if (index >= 0) {
+                    updated.remove(index);
+                }
+            }
+            if (added != null) {
+                int index = Collections.binarySearch(updated, added, ORDER);
+                updated.add(index >= 0 ? index : -index - 1, added);
+            }
+            return Collections.unmodifiableList(updated);
+        }
+
+        public List<DoctorDto> all() {
+            return all;
+        }
+
+        public DoctorDto byId(Integer id) {
+            Entry entry = entries.get(id);
+            return entry != null ? entry.dto() : null;
+        }
+
+        public List<DoctorDto> bySpecializationId(Integer specializationId) {
+            return bySpecializationId.getOrDefault(specializationId, List.of());
+        }
+
+        public List<DoctorDto> bySpecializationName(String specializationName) {
+            return bySpecializationName.getOrDefault(specializationName, List.of());
+        }
+    }
+}
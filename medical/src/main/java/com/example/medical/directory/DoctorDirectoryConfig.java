@@ -0,0 +1,23 @@
+package com.example.medical.directory;
+
+import com.example.medical.mapper.GeneralMapper;
+import com.example.medical.service.DoctorService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+@ConditionalOnProperty(prefix = "medical.doctor-directory", name = "enabled", matchIfMissing = true)
+public class DoctorDirectoryConfig {
+
+    // Doctor ids are only unique per shard and a clinic's request sees only its shard, so a single
+    // directory does not fit a sharded deployment.
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(prefix = "medical.sharding", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public DoctorDirectory doctorDirectory(DoctorService doctorService, GeneralMapper mapper,
+                                           PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        return new DoctorDirectory(doctorService, mapper, transactionManager, meterRegistry);
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.medical.events;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.InsufficientCapacityException;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.TimeoutException;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process change data capture: committed entity changes go into a bounded ring buffer and every
+ * {@link ChangeSubscriber} reads them in order on its own thread. Committing threads only claim a slot with a
+ * CAS and publish it; when the buffer is full the {@link ChangeEventBusProperties.Backpressure} policy decides
+ * between waiting and dropping. Changes published before {@link #start} are not buffered.
+ */
+@Slf4j
+public class ChangeEventBus {
+
+    private final ChangeEventBusProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile Disruptor<Slot> disruptor;
+    private volatile RingBuffer<Slot> ringBuffer;
+
+    public ChangeEventBus(ChangeEventBusProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public synchronized void start(List<ChangeSubscriber> subscribers) {
+        if (disruptor != null || subscribers.isEmpty()) {
+            return;
+        }
+        Disruptor<Slot> created = new Disruptor<>(Slot::new, ceilingPowerOfTwo(properties.getBufferSize()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "change-bus");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                ProducerType.MULTI,
+                // Idle subscriber threads block on a condition until a change is published instead of polling.
+                new BlockingWaitStrategy());
+        List<Delivery> deliveries = subscribers.stream().map(Delivery::new).toList();
+        created.handleEventsWith(deliveries.toArray(Delivery[]::new));
+        RingBuffer<Slot> started = created.start();
+        for (Delivery delivery : deliveries) {
+            Gauge.builder("medical.change-bus.backlog", created, d -> started.getCursor() - d.getSequenceValueFor(delivery))
+                    .description("Changes published but not yet handled by the subscriber")
+                    .tag("subscriber", delivery.subscriber.name())
+                    .register(meterRegistry);
+        }
+        FunctionCounter.builder("medical.change-bus.published", started, buffer -> buffer.getCursor() + 1)
+                .register(meterRegistry);
+        FunctionCounter.builder("medical.change-bus.dropped", dropped, AtomicLong::get)
+                .register(meterRegistry);
+        disruptor = created;
+        ringBuffer = started;
+    }
+
+    /**
+     * Enqueues a committed change and returns {@code false} if it was dropped because the buffer was full.
+     */
+    public boolean publish(EntityChangedEvent event) {
+        RingBuffer<Slot> buffer = ringBuffer;
+        if (buffer == null) {
+            return true;
+        }
+        long sequence;
+        if (properties.getBackpressure() == ChangeEventBusProperties.Backpressure.BLOCK) {
+            sequence = buffer.next();
+        } else {
+            try {
+                sequence = buffer.tryNext();
+            } catch (InsufficientCapacityException ex) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        }
+        Slot slot = buffer.get(sequence);
+        slot.event = event;
+        slot.publishedNanos = System.nanoTime();
+        buffer.publish(sequence);
+        return true;
+    }
+
+    public synchronized void shutdown() {
+        if (disruptor == null) {
+            return;
+        }
+        ringBuffer = null;
+        try {
+            disruptor.shutdown(properties.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            log.warn("Change subscribers did not drain within {}; halting them", properties.getShutdownTimeout());
+            disruptor.halt();
+        }
+    }
+
+    private static int ceilingPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    private static final class Slot {
+        // Not cleared after delivery, so a slot keeps its last entity reachable until it is reused.
+        EntityChangedEvent event;
+        long publishedNanos;
+    }
+
+    private final class Delivery implements EventHandler<Slot> {
+
+        private final ChangeSubscriber subscriber;
+        private final List<EntityChangedEvent> batch = new ArrayList<>();
+        private final Timer lag;
+        private final Counter failures;
+        private long oldestNanos;
+        private long seenDropped;
+
+        Delivery(ChangeSubscriber subscriber) {
+            this.subscriber = subscriber;
+            this.lag = Timer.builder("medical.change-bus.lag")
+                    .description("Time from commit to delivery of the oldest change in a batch")
+                    .tag("subscriber", subscriber.name())
+                    .register(meterRegistry);
+            this.failures = Counter.builder("medical.change-bus.failures")
+                    .tag("subscriber", subscriber.name())
+                    .register(meterRegistry);
+        }
+
+        @Override
+        public void onStart() {
+            Thread.currentThread().setName("change-bus-" + subscriber.name());
+        }
+
+        @Override
+        public void onEvent(Slot slot, long sequence, boolean endOfBatch) {
+            EntityChangedEvent event = slot.event;
+            if (subscriber.accepts(event.entityType())) {
+                if (batch.isEmpty()) {
+                    oldestNanos = slot.publishedNanos;
+                }
+                batch.add(event);
+            }
+            if (endOfBatch || batch.size() >= properties.getMaxBatchSize()) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            long drops = dropped.get();
+            if (drops != seenDropped) {
+                seenDropped = drops;
+                try {
+                    subscriber.onOverflow();
+                } catch (RuntimeException ex) {
+                    failures.increment();
+                    log.warn("Change subscriber {} failed to handle an overflow", subscriber.name(), ex);
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            lag.record(System.nanoTime() - oldestNanos, TimeUnit.NANOSECONDS);
+            try {
+                subscriber.onChanges(List.copyOf(batch));
+            } catch (RuntimeException ex) {
+                // A failing subscriber skips the batch rather than stopping its thread for good.
+                failures.increment();
+                log.warn("Change subscriber {} failed on {} changes", subscriber.name(), batch.size(), ex);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+}
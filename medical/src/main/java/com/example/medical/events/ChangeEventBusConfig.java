@@ -0,0 +1,27 @@
+package com.example.medical.events;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ChangeEventBusProperties.class)
+@ConditionalOnProperty(prefix = "medical.change-bus", name = "enabled", matchIfMissing = true)
+public class ChangeEventBusConfig {
+
+    // Created before the entity manager factory, which hands it to the Hibernate listener, so it must not depend
+    // on subscribers: those usually need repositories.
+    @Bean(destroyMethod = "shutdown")
+    public ChangeEventBus changeEventBus(ChangeEventBusProperties properties, MeterRegistry meterRegistry) {
+        return new ChangeEventBus(properties, meterRegistry);
+    }
+
+    @Bean
+    public SmartInitializingSingleton changeEventBusStarter(ChangeEventBus bus, ObjectProvider<ChangeSubscriber> subscribers) {
+        return () -> bus.start(subscribers.orderedStream().toList());
+    }
+}
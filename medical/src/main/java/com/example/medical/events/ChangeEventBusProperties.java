@@ -0,0 +1,39 @@
+package com.example.medical.events;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "medical.change-bus")
+public class ChangeEventBusProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Slots in the ring buffer; rounded up to a power of two. Bounds how far the slowest subscriber may fall behind.
+     */
+    private int bufferSize = 8192;
+
+    private int maxBatchSize = 256;
+
+    private Backpressure backpressure = Backpressure.DROP;
+
+    /**
+     * How long shutdown waits for subscribers to drain the buffer.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(5);
+
+    public enum Backpressure {
+        /**
+         * The committing thread waits for a free slot, so no change is lost but writes slow down to the pace
+         * of the slowest subscriber.
+         */
+        BLOCK,
+        /**
+         * The change is dropped and subscribers get {@link ChangeSubscriber#onOverflow()}; writes never wait.
+         */
+        DROP
+    }
+}
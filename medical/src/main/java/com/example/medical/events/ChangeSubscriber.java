@@ -0,0 +1,37 @@
+package com.example.medical.events;
+
+import java.util.List;
+
+/**
+ * Asynchronous consumer of committed entity changes, registered as a bean and fed by the {@link ChangeEventBus}
+ * on a thread of its own. Unlike {@link EntityChangedEvent} listeners, a subscriber is never called on the
+ * request thread, so it may be slow without slowing down writes; it just falls behind.
+ */
+public interface ChangeSubscriber {
+
+    /**
+     * Name used for the subscriber's thread and metrics.
+     */
+    default String name() {
+        return getClass().getSimpleName();
+    }
+
+    /**
+     * Whether changes to entities of this type are delivered. Filtered on the subscriber's thread.
+     */
+    default boolean accepts(Class<?> entityType) {
+        return true;
+    }
+
+    /**
+     * Changes in commit order, at most {@code medical.change-bus.max-batch-size} at a time.
+     */
+    void onChanges(List<EntityChangedEvent> changes);
+
+    /**
+     * Called when changes were dropped because the buffer was full, before the next batch. Subscribers that
+     * mirror data should resynchronise from the database.
+     */
+    default void onOverflow() {
+    }
+}
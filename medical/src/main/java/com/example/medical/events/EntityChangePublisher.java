@@ -0,0 +1,65 @@
+package com.example.medical.events;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * Hibernate post-commit listener that republishes entity changes as {@link EntityChangedEvent}s, to Spring
+ * listeners on the committing thread and, when there is one, to the {@link ChangeEventBus} for asynchronous
+ * subscribers. Rolled back changes are never published. Bulk JPQL statements and plain JDBC bypass Hibernate
+ * events and are not seen.
+ */
+@RequiredArgsConstructor
+public class EntityChangePublisher implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private final ApplicationEventPublisher publisher;
+    private final ChangeEventBus bus;
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        publish(event.getPersister(), event.getId(), EntityChangedEvent.Change.INSERTED, event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publish(event.getPersister(), event.getId(), EntityChangedEvent.Change.UPDATED, event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publish(event.getPersister(), event.getId(), EntityChangedEvent.Change.DELETED, event.getEntity());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return true;
+    }
+
+    private void publish(EntityPersister persister, Object id, EntityChangedEvent.Change change, Object entity) {
+        EntityChangedEvent event = new EntityChangedEvent(persister.getMappedClass(), id, change, entity);
+        if (bus != null) {
+            bus.publish(event);
+        }
+        publisher.publishEvent(event);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.medical.events;
+
+/**
+ * Published after a transaction that inserted, updated or deleted an entity has committed. For changes
+ * committed by another node and read from the change log, {@code entity} is {@code null}.
+ */
+public record EntityChangedEvent(Class<?> entityType, Object id, Change change, Object entity) {
+
+    public enum Change {
+        INSERTED, UPDATED, DELETED
+    }
+}
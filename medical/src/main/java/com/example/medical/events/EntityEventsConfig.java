@@ -0,0 +1,54 @@
+package com.example.medical.events;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class EntityEventsConfig {
+
+    // In-transaction listener beans are appended as well, for work that must commit with the change itself.
+    @Bean
+    public HibernatePropertiesCustomizer entityChangeEventsCustomizer(ApplicationEventPublisher publisher,
+                                                                      ObjectProvider<ChangeEventBus> bus,
+                                                                      ObjectProvider<PostInsertEventListener> insertListeners,
+                                                                      ObjectProvider<PostUpdateEventListener> updateListeners,
+                                                                      ObjectProvider<PostDeleteEventListener> deleteListeners) {
+        Integrator integrator = new Integrator() {
+            @Override
+            public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                                  SessionFactoryImplementor sessionFactory) {
+                EntityChangePublisher listener = new EntityChangePublisher(publisher, bus.getIfAvailable());
+                EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+                registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+                registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+                registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+                insertListeners.orderedStream().forEach(bean -> registry.appendListeners(EventType.POST_INSERT, bean));
+                updateListeners.orderedStream().forEach(bean -> registry.appendListeners(EventType.POST_UPDATE, bean));
+                deleteListeners.orderedStream().forEach(bean -> registry.appendListeners(EventType.POST_DELETE, bean));
+            }
+
+            @Override
+            public void disintegrate(SessionFactoryImplementor sessionFactory,
+                                     SessionFactoryServiceRegistry serviceRegistry) {
+            }
+        };
+        return properties -> properties.put(JpaSettings.INTEGRATOR_PROVIDER, (IntegratorProvider) () -> List.of(integrator));
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.medical.exceptions;
+
+public class OutboxMessageNotFoundException extends EntityNotFoundException {
+    public OutboxMessageNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.medical.exceptions;
+
+public class ProfileNotFoundException extends EntityNotFoundException {
+    public ProfileNotFoundException(String message) {
+        super(message);
+    }
+}
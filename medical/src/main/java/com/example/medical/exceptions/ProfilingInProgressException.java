@@ -0,0 +1,7 @@
+package com.example.medical.exceptions;
+
+public class ProfilingInProgressException extends RuntimeException {
+    public ProfilingInProgressException(String message) {
+        super(message);
+    }
+}
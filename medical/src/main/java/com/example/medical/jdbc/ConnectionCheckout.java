@@ -0,0 +1,21 @@
+package com.example.medical.jdbc;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+@Value
+@Builder
+public class ConnectionCheckout {
+    String connectionId;
+    String endpoint;
+    String serviceMethod;
+    String thread;
+    Instant checkedOutAt;
+    long heldMs;
+    long jdbcMs;
+    int statements;
+    List<String> stack;
+}
@@ -0,0 +1,18 @@
+package com.example.medical.jdbc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ConnectionHoldProperties.class)
+@ConditionalOnProperty(prefix = "medical.jdbc.connection-hold", name = "enabled", matchIfMissing = true)
+public class ConnectionHoldConfig {
+
+    @Bean
+    public ConnectionHoldTracker connectionHoldTracker(ConnectionHoldProperties properties, MeterRegistry meterRegistry) {
+        return new ConnectionHoldTracker(properties, meterRegistry);
+    }
+}
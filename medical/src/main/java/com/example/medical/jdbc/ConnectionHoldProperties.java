@@ -0,0 +1,36 @@
+package com.example.medical.jdbc;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "medical.jdbc.connection-hold")
+public class ConnectionHoldProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Connections held at least this long are logged with the stack that checked them out.
+     */
+    private Duration longHoldThreshold = Duration.ofMillis(500);
+
+    /**
+     * Record the application frames that checked out each connection. Without it long holds and open
+     * checkouts are attributed to the endpoint and service method only.
+     */
+    private boolean captureStacks = true;
+
+    private int maxStackFrames = 12;
+
+    /**
+     * Warn when the share of hold time spent outside JDBC calls is at least this ratio.
+     */
+    private double outsideJdbcWarnRatio = 0.8;
+
+    /**
+     * Holds shorter than this are never reported for time outside JDBC.
+     */
+    private Duration outsideJdbcMinHold = Duration.ofMillis(100);
+}
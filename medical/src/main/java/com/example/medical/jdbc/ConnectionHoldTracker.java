@@ -0,0 +1,224 @@
+package com.example.medical.jdbc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ConnectionInfo;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Times each connection from checkout to close and attributes it to the endpoint and outermost service method
+ * that checked it out. With Open Session In View the connection is held until the response is written, so the
+ * time spent outside JDBC calls is tracked separately to show how much of the hold is the view layer.
+ */
+@Slf4j
+public class ConnectionHoldTracker implements MethodExecutionListener, QueryExecutionListener {
+
+    public static final String HOLD_TIMER = "medical.jdbc.connection.hold";
+    public static final String ACQUIRE_TIMER = "medical.jdbc.connection.acquire";
+    static final String NO_ENDPOINT = "none";
+
+    private static final String APPLICATION_PACKAGE = "com.example.medical.";
+    private static final String SERVICE_PACKAGE = "com.example.medical.service.";
+    private static final String JDBC_PACKAGE = "com.example.medical.jdbc.";
+
+    private final ConnectionHoldProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final long longHoldNanos;
+    private final long outsideJdbcMinHoldNanos;
+    private final Map<String, Checkout> open = new ConcurrentHashMap<>();
+
+    public ConnectionHoldTracker(ConnectionHoldProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.longHoldNanos = properties.getLongHoldThreshold().toNanos();
+        this.outsideJdbcMinHoldNanos = properties.getOutsideJdbcMinHold().toNanos();
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof Connection && "close".equals(executionContext.getMethod().getName())) {
+            ConnectionInfo connectionInfo = executionContext.getConnectionInfo();
+            Checkout checkout = connectionInfo != null
+                    ? open.remove(key(connectionInfo.getDataSourceName(), connectionInfo.getConnectionId())) : null;
+            if (checkout != null) {
+                release(checkout);
+            }
+        }
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (!(executionContext.getTarget() instanceof DataSource) || executionContext.getThrown() != null
+                || !"getConnection".equals(executionContext.getMethod().getName())) {
+            return;
+        }
+        ConnectionInfo connectionInfo = executionContext.getConnectionInfo();
+        if (connectionInfo == null) {
+            return;
+        }
+        String endpoint = currentEndpoint();
+        Timer.builder(ACQUIRE_TIMER)
+                .description("Time spent waiting for a pooled connection")
+                .tag("uri", endpoint)
+                .register(meterRegistry)
+                .record(executionContext.getElapsedTime(), TimeUnit.MILLISECONDS);
+        String key = key(connectionInfo.getDataSourceName(), connectionInfo.getConnectionId());
+        open.put(key, new Checkout(key, endpoint, attribution()));
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Checkout checkout = open.get(key(execInfo.getDataSourceName(), execInfo.getConnectionId()));
+        if (checkout != null) {
+            checkout.jdbcNanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime()));
+            checkout.statements.incrementAndGet();
+        }
+    }
+
+    /**
+     * Connections checked out and not yet closed, longest held first.
+     */
+    public List<ConnectionCheckout> openCheckouts() {
+        long now = System.nanoTime();
+        return open.values().stream()
+                .sorted(Comparator.comparingLong(checkout -> checkout.startNanos))
+                .map(checkout -> checkout.snapshot(now))
+                .toList();
+    }
+
+    // Every proxied pool numbers its connections from the start, so an id alone is only unique within its pool.
+    private static String key(String dataSourceName, String connectionId) {
+        return dataSourceName + ":" + connectionId;
+    }
+
+    private void release(Checkout checkout) {
+        long heldNanos = System.nanoTime() - checkout.startNanos;
+        long jdbcNanos = Math.min(checkout.jdbcNanos.get(), heldNanos);
+        long outsideNanos = heldNanos - jdbcNanos;
+
+        Timer.builder(HOLD_TIMER)
+                .description("Time a connection is held between checkout and close")
+                .tag("uri", checkout.endpoint)
+                .register(meterRegistry)
+                .record(heldNanos, TimeUnit.NANOSECONDS);
+
+        if (heldNanos >= longHoldNanos) {
+            meterRegistry.counter("medical.jdbc.connection.long.holds", "uri", checkout.endpoint).increment();
+            log.warn("Connection {} held for {} ms by {} ({}), {} statements took {} ms; checked out at:{}",
+                    checkout.connectionId, TimeUnit.NANOSECONDS.toMillis(heldNanos), checkout.endpoint,
+                    checkout.attribution.serviceMethod(), checkout.statements.get(),
+                    TimeUnit.NANOSECONDS.toMillis(jdbcNanos), formatStack(checkout.attribution.stack()));
+        }
+
+        if (heldNanos >= outsideJdbcMinHoldNanos && outsideNanos >= heldNanos * properties.getOutsideJdbcWarnRatio()) {
+            meterRegistry.counter("medical.jdbc.connection.outside.jdbc", "uri", checkout.endpoint).increment();
+            log.warn("Connection {} held for {} ms by {} ({}) but only {} ms were spent in JDBC; "
+                            + "the rest was application work while holding the connection",
+                    checkout.connectionId, TimeUnit.NANOSECONDS.toMillis(heldNanos), checkout.endpoint,
+                    checkout.attribution.serviceMethod(), TimeUnit.NANOSECONDS.toMillis(jdbcNanos));
+        }
+    }
+
+    static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return NO_ENDPOINT;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        return SqlStatementBudgetFilter.endpoint(request);
+    }
+
+    // One walk gives both the outermost service method and, when enabled, the application frames for the log.
+    private Attribution attribution() {
+        boolean captureStacks = properties.isCaptureStacks();
+        int maxFrames = properties.getMaxStackFrames();
+        return StackWalker.getInstance().walk(frames -> {
+            List<String> stack = captureStacks ? new ArrayList<>() : List.of();
+            String serviceMethod = null;
+            for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                String className = frame.getClassName();
+                if (!className.startsWith(APPLICATION_PACKAGE) || className.startsWith(JDBC_PACKAGE) || className.contains("$$")) {
+                    continue;
+                }
+                String location = className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName();
+                if (className.startsWith(SERVICE_PACKAGE)) {
+                    serviceMethod = location;
+                }
+                if (captureStacks && stack.size() < maxFrames) {
+                    stack.add(location + ":" + frame.getLineNumber());
+                }
+            }
+            return new Attribution(serviceMethod != null ? serviceMethod : "-", captureStacks ? List.copyOf(stack) : stack);
+        });
+    }
+
+    private static String formatStack(List<String> stack) {
+        if (stack.isEmpty()) {
+            return " (stack capture disabled)";
+        }
+        StringBuilder builder = new StringBuilder();
+        for (String frame : stack) {
+            builder.append(System.lineSeparator()).append("\tat ").append(frame);
+        }
+        return builder.toString();
+    }
+
+    private record Attribution(String serviceMethod, List<String> stack) {
+    }
+
+    private static final class Checkout {
+        private final String connectionId;
+        private final String endpoint;
+        private final Attribution attribution;
+        private final String thread = Thread.currentThread().getName();
+        private final Instant checkedOutAt = Instant.now();
+        private final long startNanos = System.nanoTime();
+        private final AtomicLong jdbcNanos = new AtomicLong();
+        private final AtomicInteger statements = new AtomicInteger();
+
+        private Checkout(String connectionId, String endpoint, Attribution attribution) {
+            this.connectionId = connectionId;
+            this.endpoint = endpoint;
+            this.attribution = attribution;
+        }
+
+        private ConnectionCheckout snapshot(long now) {
+            return ConnectionCheckout.builder()
+                    .connectionId(connectionId)
+                    .endpoint(endpoint)
+                    .serviceMethod(attribution.serviceMethod())
+                    .thread(thread)
+                    .checkedOutAt(checkedOutAt)
+                    .heldMs(TimeUnit.NANOSECONDS.toMillis(now - startNanos))
+                    .jdbcMs(TimeUnit.NANOSECONDS.toMillis(jdbcNanos.get()))
+                    .statements(statements.get())
+                    .stack(attribution.stack())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.medical.jdbc;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Wraps every {@link DataSource} bean in a datasource-proxy so that {@link QueryExecutionListener}
+ * beans see each JDBC statement and {@link MethodExecutionListener} beans see connection, statement
+ * and result set calls. Delegating data sources are left alone because their targets are wrapped
+ * themselves, so each statement is seen once and connection checkouts are the physical ones. A routing
+ * data source registered as a bean is wrapped at the routing level, since its targets are not beans.
+ * Result sets are proxied too, so every JDBC call, down to each {@code ResultSet.next()}, goes through the method
+ * listeners; they must stay cheap and return early for the calls they ignore.
+ */
+@Configuration
+public class DataSourceProxyConfig {
+
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(ObjectProvider<QueryExecutionListener> queryListeners,
+                                                                 ObjectProvider<MethodExecutionListener> methodListeners) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource
+                        || bean instanceof DelegatingDataSource) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(beanName, dataSource)
+                        .listener(new DeferredQueryListener(queryListeners))
+                        .methodListener(new DeferredMethodListener(methodListeners))
+                        .proxyResultSet()
+                        .build();
+            }
+        };
+    }
+
+    // Listener beans are resolved on first use so that they can depend on beans created after the DataSource.
+    private static final class DeferredQueryListener implements QueryExecutionListener {
+
+        private final ObjectProvider<QueryExecutionListener> provider;
+        private volatile List<QueryExecutionListener> listeners;
+
+        private DeferredQueryListener(ObjectProvider<QueryExecutionListener> provider) {
+            this.provider = provider;
+        }
+
+        private List<QueryExecutionListener> listeners() {
+            List<QueryExecutionListener> result = listeners;
+            if (result == null) {
+                result = provider.orderedStream().toList();
+                listeners = result;
+            }
+            return result;
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            for (QueryExecutionListener listener : listeners()) {
+                listener.beforeQuery(execInfo, queryInfoList);
+            }
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            for (QueryExecutionListener listener : listeners()) {
+                listener.afterQuery(execInfo, queryInfoList);
+            }
+        }
+    }
+
+    private static final class DeferredMethodListener implements MethodExecutionListener {
+
+        private final ObjectProvider<MethodExecutionListener> provider;
+        private volatile List<MethodExecutionListener> listeners;
+
+        private DeferredMethodListener(ObjectProvider<MethodExecutionListener> provider) {
+            this.provider = provider;
+        }
+
+        private List<MethodExecutionListener> listeners() {
+            List<MethodExecutionListener> result = listeners;
+            if (result == null) {
+                result = provider.orderedStream().toList();
+                listeners = result;
+            }
+            return result;
+        }
+
+        @Override
+        public void beforeMethod(MethodExecutionContext executionContext) {
+            for (MethodExecutionListener listener : listeners()) {
+                listener.beforeMethod(executionContext);
+            }
+        }
+
+        @Override
+        public void afterMethod(MethodExecutionContext executionContext) {
+            for (MethodExecutionListener listener : listeners()) {
+                listener.afterMethod(executionContext);
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.medical.jdbc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(SlowQueryProperties.class)
+public class SlowQueryConfig {
+
+    @Bean
+    public SlowQueryJournal slowQueryJournal(SlowQueryProperties properties) {
+        return new SlowQueryJournal(properties.getBufferSize());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "medical.sql.slow-query", name = "enabled", matchIfMissing = true)
+    public SlowQueryListener slowQueryListener(SlowQueryJournal journal, SlowQueryProperties properties) {
+        return new SlowQueryListener(journal, properties);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(prefix = "medical.sql.slow-query", name = "enabled", matchIfMissing = true)
+    public SlowQueryFileWriter slowQueryFileWriter(SlowQueryJournal journal, SlowQueryProperties properties,
+                                                   ObjectMapper objectMapper) {
+        return new SlowQueryFileWriter(journal, properties, objectMapper);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.medical.jdbc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically appends new journal records to a size-rotated JSON-lines file on a background thread.
+ */
+@Slf4j
+public class SlowQueryFileWriter {
+
+    private final SlowQueryJournal journal;
+    private final SlowQueryProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Path file;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "slow-query-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private long nextSequence;
+    private long dropped;
+
+    public SlowQueryFileWriter(SlowQueryJournal journal, SlowQueryProperties properties, ObjectMapper objectMapper) {
+        this.journal = journal;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.file = Path.of(properties.getFile());
+    }
+
+    public void start() {
+        long interval = properties.getFlushInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception ex) {
+            log.warn("Could not write slow query journal to {}", file, ex);
+        }
+    }
+
+    synchronized void flush() throws IOException {
+        List<SlowQueryRecord> records = journal.readFrom(nextSequence);
+        if (records.isEmpty()) {
+            return;
+        }
+        long firstSequence = records.get(0).getSequence();
+        if (firstSequence > nextSequence) {
+            dropped += firstSequence - nextSequence;
+            log.warn("{} slow query records were overwritten before they could be written ({} in total)",
+                    firstSequence - nextSequence, dropped);
+        }
+
+        rotateIfNeeded();
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (SlowQueryRecord record : records) {
+                writer.write(objectMapper.writeValueAsString(record));
+                writer.newLine();
+            }
+        }
+        nextSequence = records.get(records.size() - 1).getSequence() + 1;
+    }
+
+    private void rotateIfNeeded() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        if (!Files.exists(file) || Files.size(file) < properties.getMaxFileSize().toBytes()) {
+            return;
+        }
+        int maxFiles = Math.max(1, properties.getMaxFiles());
+        Files.deleteIfExists(rotated(maxFiles));
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            Path source = rotated(i);
+            if (Files.exists(source)) {
+                Files.move(source, rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Path rotated(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.medical.jdbc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size ring buffer of the most recent slow statements. Writers never block; once the buffer is full
+ * the oldest records are overwritten.
+ */
+public class SlowQueryJournal {
+
+    private final AtomicReferenceArray<SlowQueryRecord> slots;
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    public SlowQueryJournal(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Slow query journal capacity must be positive");
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    public void append(SlowQueryRecord record) {
+        long sequence = nextSequence.getAndIncrement();
+        slots.set(index(sequence), record.toBuilder().sequence(sequence).build());
+    }
+
+    /**
+     * Newest records first.
+     */
+    public List<SlowQueryRecord> recent(int limit) {
+        long end = nextSequence.get();
+        long start = Math.max(0, end - Math.min(limit, slots.length()));
+        List<SlowQueryRecord> records = readRange(start, end);
+        List<SlowQueryRecord> newestFirst = new ArrayList<>(records.size());
+        for (int i = records.size() - 1; i >= 0; i--) {
+            newestFirst.add(records.get(i));
+        }
+        return newestFirst;
+    }
+
+    /**
+     * Records with a sequence of at least {@code fromSequence} that are still in the buffer, oldest first.
+     */
+    public List<SlowQueryRecord> readFrom(long fromSequence) {
+        long end = nextSequence.get();
+        long start = Math.max(fromSequence, end - slots.length());
+        return readRange(start, end);
+    }
+
+    public long nextSequence() {
+        return nextSequence.get();
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    private List<SlowQueryRecord> readRange(long start, long end) {
+        List<SlowQueryRecord> records = new ArrayList<>((int) Math.max(0, end - start));
+        for (long sequence = start; sequence < end; sequence++) {
+            SlowQueryRecord record = slots.get(index(sequence));
+            // A slot may still hold an older record (writer not done yet) or a newer one (overwritten).
+            if (record != null && record.getSequence() == sequence) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence % slots.length());
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.medical.jdbc;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Journals statements whose execution plus result set reading exceeds the configured threshold.
+ * Query results are timed until the result set (or its statement) is closed so that slow fetches
+ * of large results are caught as well; the stack is only walked for statements that are recorded.
+ * Bind values are masked unless {@code capture-binds} is set.
+ */
+public class SlowQueryListener implements QueryExecutionListener, MethodExecutionListener {
+
+    private static final String APPLICATION_PACKAGE = "com.example.medical.";
+    private static final String SERVICE_PACKAGE = "com.example.medical.service.";
+    private static final String JDBC_PACKAGE = "com.example.medical.jdbc.";
+
+    private final SlowQueryJournal journal;
+    private final SlowQueryProperties properties;
+    private final long thresholdNanos;
+    private final ThreadLocal<PendingQuery> pending = ThreadLocal.withInitial(PendingQuery::new);
+
+    public SlowQueryListener(SlowQueryJournal journal, SlowQueryProperties properties) {
+        this.journal = journal;
+        this.properties = properties;
+        this.thresholdNanos = properties.getThreshold().toNanos();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        PendingQuery query = pending.get();
+        if (query.active) {
+            complete(query);
+        }
+        long executionNanos = TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime());
+        Object result = execInfo.getResult();
+        if (result instanceof ResultSet) {
+            query.begin(queryInfoList, executionNanos, execInfo.isSuccess());
+        } else if (executionNanos >= thresholdNanos) {
+            record(queryInfoList, executionNanos, updateCount(result), execInfo.isSuccess());
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        String method = executionContext.getMethod().getName();
+        boolean next = "next".equals(method);
+        if (!next && !"close".equals(method)) {
+            return;
+        }
+        Object target = executionContext.getTarget();
+        if (!(target instanceof ResultSet) && !(target instanceof Statement)) {
+            return;
+        }
+        PendingQuery query = pending.get();
+        if (!query.active) {
+            return;
+        }
+        if (!next) {
+            complete(query);
+        } else if (target instanceof ResultSet && Boolean.TRUE.equals(executionContext.getResult())) {
+            query.rows++;
+        }
+    }
+
+    private void complete(PendingQuery query) {
+        long totalNanos = query.executionNanos + (System.nanoTime() - query.fetchStartNanos);
+        if (totalNanos >= thresholdNanos) {
+            record(query.queries, totalNanos, query.rows, query.success);
+        }
+        query.reset();
+    }
+
+    private void record(List<QueryInfo> queries, long durationNanos, long rows, boolean success) {
+        if (properties.getSampleRate() < 1.0 && ThreadLocalRandom.current().nextDouble() >= properties.getSampleRate()) {
+            return;
+        }
+        QueryInfo first = queries.get(0);
+        journal.append(SlowQueryRecord.builder()
+                .timestamp(Instant.now())
+                .durationMs(TimeUnit.NANOSECONDS.toMillis(durationNanos))
+                .sql(first.getQuery())
+                .binds(binds(first))
+                .rows(rows)
+                .caller(caller())
+                .success(success)
+                .build());
+    }
+
+    private List<String> binds(QueryInfo queryInfo) {
+        List<List<ParameterSetOperation>> parametersList = queryInfo.getParametersList();
+        if (parametersList.isEmpty()) {
+            return List.of();
+        }
+        List<ParameterSetOperation> parameters = parametersList.get(0);
+        List<String> binds = new ArrayList<>(parameters.size());
+        for (ParameterSetOperation parameter : parameters) {
+            Object[] args = parameter.getArgs();
+            if (ParameterSetOperation.isSetNullParameterOperation(parameter) || args.length < 2) {
+                binds.add("NULL");
+                continue;
+            }
+            if (!properties.isCaptureBinds()) {
+                binds.add("?");
+                continue;
+            }
+            String value = String.valueOf(args[1]);
+            binds.add(value.length() > properties.getMaxBindLength()
+                    ? value.substring(0, properties.getMaxBindLength()) + "..."
+                    : value);
+        }
+        if (parametersList.size() > 1) {
+            binds.add("(batch of " + parametersList.size() + ")");
+        }
+        return binds;
+    }
+
+    private static long updateCount(Object result) {
+        if (result instanceof Integer count) {
+            return count;
+        }
+        if (result instanceof Long count) {
+            return count;
+        }
+        if (result instanceof int[] counts) {
+            long total = 0;
+            for (int count : counts) {
+                total += Math.max(count, 0);
+            }
+            return total;
+        }
+        return -1;
+    }
+
+    // Closest service method on the stack, falling back to any application frame (e.g. the mapper during lazy loading).
+    static String caller() {
+        return StackWalker.getInstance().walk(frames -> {
+            String firstApplicationFrame = null;
+            for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                String className = frame.getClassName();
+                if (!className.startsWith(APPLICATION_PACKAGE) || className.startsWith(JDBC_PACKAGE) || className.contains("$$")) {
+                    continue;
+                }
+                String location = className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName();
+                if (className.startsWith(SERVICE_PACKAGE)) {
+                    return Optional.of(location);
+                }
+                if (firstApplicationFrame == null) {
+                    firstApplicationFrame = location;
+                }
+            }
+            return Optional.ofNullable(firstApplicationFrame);
+        }).orElse("-");
+    }
+
+    private static final class PendingQuery {
+        private boolean active;
+        private List<QueryInfo> queries;
+        private long executionNanos;
+        private long fetchStartNanos;
+        private long rows;
+        private boolean success;
+
+        private void begin(List<QueryInfo> queries, long executionNanos, boolean success) {
+            this.active = true;
+            this.queries = queries;
+            this.executionNanos = executionNanos;
+            this.fetchStartNanos = System.nanoTime();
+            this.rows = 0;
+            this.success = success;
+        }
+
+        private void reset() {
+            this.active = false;
+            this.queries = null;
+        }
+    }
+}
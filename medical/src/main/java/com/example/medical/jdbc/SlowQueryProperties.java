@@ -0,0 +1,45 @@
+package com.example.medical.jdbc;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "medical.sql.slow-query")
+public class SlowQueryProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Statements taking at least this long (execution plus result set reading) are journaled.
+     */
+    private Duration threshold = Duration.ofMillis(200);
+
+    /**
+     * Fraction of slow statements that are journaled, between 0 and 1.
+     */
+    private double sampleRate = 1.0;
+
+    /**
+     * Number of records kept in memory for the admin endpoint.
+     */
+    private int bufferSize = 1024;
+
+    /**
+     * Journals bind values as sent. Off, each value is recorded as {@code ?} (or {@code NULL}), since binds carry
+     * patient names, CNPs and prescriptions into the admin endpoint and the journal file.
+     */
+    private boolean captureBinds = false;
+
+    private int maxBindLength = 100;
+
+    private String file = "logs/slow-queries.log";
+
+    private DataSize maxFileSize = DataSize.ofMegabytes(10);
+
+    private int maxFiles = 5;
+
+    private Duration flushInterval = Duration.ofSeconds(1);
+}
@@ -0,0 +1,23 @@
+package com.example.medical.jdbc;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+@Value
+@Builder(toBuilder = true)
+public class SlowQueryRecord {
+    long sequence;
+    Instant timestamp;
+    long durationMs;
+    String sql;
+    List<String> binds;
+    /**
+     * Rows read from the result set, or the update count for DML. -1 when unknown.
+     */
+    long rows;
+    String caller;
+    boolean success;
+}
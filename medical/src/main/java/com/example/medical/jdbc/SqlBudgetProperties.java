@@ -0,0 +1,21 @@
+package com.example.medical.jdbc;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "medical.sql.budget")
+public class SqlBudgetProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Statements a single request may execute before it is logged and tagged as over budget.
+     */
+    private int maxStatements = 20;
+
+    /**
+     * Executions of the same statement with different binds that are reported as a likely N+1.
+     */
+    private int repeatedStatementThreshold = 5;
+}
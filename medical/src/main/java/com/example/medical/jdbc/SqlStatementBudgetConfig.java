@@ -0,0 +1,41 @@
+package com.example.medical.jdbc;
+
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+
+@Configuration
+@EnableConfigurationProperties(SqlBudgetProperties.class)
+@ConditionalOnProperty(prefix = "medical.sql.budget", name = "enabled", matchIfMissing = true)
+public class SqlStatementBudgetConfig {
+
+    @Bean
+    public FilterRegistrationBean<SqlStatementBudgetFilter> sqlStatementBudgetFilter(SqlBudgetProperties properties,
+                                                                                     MeterRegistry meterRegistry) {
+        FilterRegistrationBean<SqlStatementBudgetFilter> registration =
+                new FilterRegistrationBean<>(new SqlStatementBudgetFilter(properties, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    // Adds a low-cardinality sql.budget=ok|exceeded tag to http.server.requests.
+    @Bean
+    public ServerRequestObservationConvention sqlBudgetObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                boolean exceeded = context.getCarrier().getAttribute(SqlStatementBudgetFilter.BUDGET_EXCEEDED_ATTRIBUTE) != null;
+                return super.getLowCardinalityKeyValues(context).and("sql.budget", exceeded ? "exceeded" : "ok");
+            }
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.medical.jdbc;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+@Slf4j
+@RequiredArgsConstructor
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+
+    public static final String STATS_ATTRIBUTE = SqlStatementBudgetFilter.class.getName() + ".stats";
+    public static final String BUDGET_EXCEEDED_ATTRIBUTE = SqlStatementBudgetFilter.class.getName() + ".exceeded";
+
+    private final SqlBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementStats stats = SqlStatementCounter.start();
+        request.setAttribute(STATS_ATTRIBUTE, stats);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementCounter.stop();
+            evaluate(request, stats);
+        }
+    }
+
+    private void evaluate(HttpServletRequest request, SqlStatementStats stats) {
+        String endpoint = endpoint(request);
+        int statementCount = stats.getStatementCount();
+
+        DistributionSummary.builder("medical.sql.statements")
+                .description("SQL statements executed per HTTP request")
+                .tag("uri", endpoint)
+                .register(meterRegistry)
+                .record(statementCount);
+
+        if (statementCount > properties.getMaxStatements()) {
+            request.setAttribute(BUDGET_EXCEEDED_ATTRIBUTE, Boolean.TRUE);
+            meterRegistry.counter("medical.sql.budget.exceeded", "uri", endpoint).increment();
+            log.warn("SQL statement budget exceeded: {} {} executed {} statements (budget {})",
+                    request.getMethod(), endpoint, statementCount, properties.getMaxStatements());
+        }
+
+        for (SqlStatementStats.StatementUsage usage : stats.getRepeatedStatements(properties.getRepeatedStatementThreshold())) {
+            meterRegistry.counter("medical.sql.repeated.statements", "uri", endpoint).increment();
+            log.warn("Possible N+1 on {} {}: statement executed {} times with {} distinct binds: {}",
+                    request.getMethod(), endpoint, usage.getExecutions(), usage.getDistinctBindCount(), usage.getSql());
+        }
+    }
+
+    static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
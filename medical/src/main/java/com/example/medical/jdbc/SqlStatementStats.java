@@ -0,0 +1,77 @@
+package com.example.medical.jdbc;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Statements executed during one unit of work (usually an HTTP request). Confined to a single thread.
+ */
+public class SqlStatementStats {
+
+    private static final int MAX_TRACKED_STATEMENTS = 256;
+
+    private final Map<String, StatementUsage> usages = new HashMap<>();
+    private int statementCount;
+
+    void record(String sql, int bindsHash) {
+        statementCount++;
+        StatementUsage usage = usages.get(sql);
+        if (usage == null) {
+            if (usages.size() >= MAX_TRACKED_STATEMENTS) {
+                return;
+            }
+            usage = new StatementUsage(sql);
+            usages.put(sql, usage);
+        }
+        usage.executions++;
+        usage.distinctBinds.add(bindsHash);
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public int getExecutions(String sql) {
+        StatementUsage usage = usages.get(sql);
+        return usage != null ? usage.executions : 0;
+    }
+
+    /**
+     * Statements executed at least {@code threshold} times with different bind values, the usual N+1 signature.
+     */
+    public List<StatementUsage> getRepeatedStatements(int threshold) {
+        List<StatementUsage> repeated = new ArrayList<>();
+        for (StatementUsage usage : usages.values()) {
+            if (usage.executions >= threshold && usage.distinctBinds.size() > 1) {
+                repeated.add(usage);
+            }
+        }
+        return repeated;
+    }
+
+    public static final class StatementUsage {
+        private final String sql;
+        private final Set<Integer> distinctBinds = new HashSet<>();
+        private int executions;
+
+        private StatementUsage(String sql) {
+            this.sql = sql;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public int getExecutions() {
+            return executions;
+        }
+
+        public int getDistinctBindCount() {
+            return distinctBinds.size();
+        }
+    }
+}
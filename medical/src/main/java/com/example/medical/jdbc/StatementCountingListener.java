@@ -0,0 +1,45 @@
+package com.example.medical.jdbc;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+
+@Component
+public class StatementCountingListener implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatementStats stats = SqlStatementCounter.current();
+        if (stats == null) {
+            return;
+        }
+        for (QueryInfo queryInfo : queryInfoList) {
+            List<List<ParameterSetOperation>> parametersList = queryInfo.getParametersList();
+            if (parametersList.isEmpty()) {
+                stats.record(queryInfo.getQuery(), 0);
+                continue;
+            }
+            for (List<ParameterSetOperation> parameters : parametersList) {
+                stats.record(queryInfo.getQuery(), bindsHash(parameters));
+            }
+        }
+    }
+
+    static int bindsHash(List<ParameterSetOperation> parameters) {
+        int hash = 1;
+        for (ParameterSetOperation parameter : parameters) {
+            Object[] args = parameter.getArgs();
+            hash = 31 * hash + (args.length > 1 ? Objects.hashCode(args[1]) : 0);
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.medical.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("medical.HttpRequest")
+@Label("HTTP Request")
+@Category({"Medical", "Web"})
+@Description("An HTTP request served by the application, keyed by its path template")
+@StackTrace(false)
+class HttpRequestEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Endpoint")
+    @Description("Path template of the handler, e.g. /api/doctors/{id}")
+    String endpoint;
+
+    @Label("Status")
+    int status;
+}
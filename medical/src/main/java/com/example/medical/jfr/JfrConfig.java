@@ -0,0 +1,26 @@
+package com.example.medical.jfr;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(ProfilingProperties.class)
+public class JfrConfig {
+
+    @Bean
+    public FilterRegistrationBean<JfrHttpRequestFilter> jfrHttpRequestFilter() {
+        FilterRegistrationBean<JfrHttpRequestFilter> registration = new FilterRegistrationBean<>(new JfrHttpRequestFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+
+    @Bean(destroyMethod = "stop")
+    @ConditionalOnProperty(prefix = "medical.profiling", name = "enabled", matchIfMissing = true)
+    public JfrProfiler jfrProfiler(ProfilingProperties properties) {
+        return new JfrProfiler(properties);
+    }
+}
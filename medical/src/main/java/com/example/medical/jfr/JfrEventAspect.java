@@ -0,0 +1,163 @@
+package com.example.medical.jfr;
+
+import jdk.jfr.EventType;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Emits custom JFR events around repository calls, mapper calls and transactional service calls. When no
+ * recording has the events enabled, the only cost is one {@link EventType#isEnabled()} check per call.
+ * Ordered ahead of the transaction interceptor so that transaction events include commit time.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 100)
+public class JfrEventAspect {
+
+    private static final EventType REPOSITORY_EVENT = EventType.getEventType(RepositoryInvocationEvent.class);
+    private static final EventType MAPPING_EVENT = EventType.getEventType(MappingEvent.class);
+    private static final EventType TRANSACTION_EVENT = EventType.getEventType(TransactionEvent.class);
+
+    private static final ClassValue<RepositoryInfo> REPOSITORY_INFO = new ClassValue<>() {
+        @Override
+        protected RepositoryInfo computeValue(Class<?> type) {
+            return RepositoryInfo.of(type);
+        }
+    };
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object recordRepositoryInvocation(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!REPOSITORY_EVENT.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        RepositoryInvocationEvent event = new RepositoryInvocationEvent();
+        event.begin();
+        Object result = null;
+        Throwable failure = null;
+        try {
+            result = joinPoint.proceed();
+            return result;
+        } catch (Throwable ex) {
+            failure = ex;
+            throw ex;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                RepositoryInfo info = REPOSITORY_INFO.get(joinPoint.getThis().getClass());
+                event.repository = info.repository();
+                event.entityType = info.entityType();
+                event.method = joinPoint.getSignature().getName();
+                event.rowCount = failure == null ? rowCount(result) : -1;
+                event.exception = failure == null ? null : failure.getClass().getSimpleName();
+                event.commit();
+            }
+        }
+    }
+
+    @Around("within(com.example.medical.mapper..*) && execution(public * *(..))")
+    public Object recordMapping(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!MAPPING_EVENT.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        MappingEvent event = new MappingEvent();
+        event.begin();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                Object[] args = joinPoint.getArgs();
+                event.method = joinPoint.getSignature().getName();
+                event.sourceType = args.length > 0 && args[0] != null ? args[0].getClass().getSimpleName() : null;
+                event.commit();
+            }
+        }
+    }
+
+    @Around("within(com.example.medical.service..*) && execution(public * *(..)) && ("
+            + "@within(org.springframework.transaction.annotation.Transactional)"
+            + " || @annotation(org.springframework.transaction.annotation.Transactional)"
+            + " || @within(jakarta.transaction.Transactional))")
+    public Object recordTransaction(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!TRANSACTION_EVENT.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        TransactionEvent event = new TransactionEvent();
+        boolean joined = TransactionSynchronizationManager.isActualTransactionActive();
+        event.begin();
+        Throwable failure = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable ex) {
+            failure = ex;
+            throw ex;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+                event.service = joinPoint.getSignature().getDeclaringType().getSimpleName();
+                event.method = method.getName();
+                event.readOnly = isReadOnly(method, joinPoint.getSignature().getDeclaringType());
+                event.joined = joined;
+                event.exception = failure == null ? null : failure.getClass().getSimpleName();
+                event.commit();
+            }
+        }
+    }
+
+    static long rowCount(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Number || result instanceof Boolean) {
+            return -1;
+        }
+        return 1;
+    }
+
+    private static boolean isReadOnly(Method method, Class<?> declaringType) {
+        Transactional transactional = AnnotatedElementUtils.findMergedAnnotation(method, Transactional.class);
+        if (transactional == null) {
+            transactional = AnnotatedElementUtils.findMergedAnnotation(declaringType, Transactional.class);
+        }
+        return transactional != null && transactional.readOnly();
+    }
+
+    private record RepositoryInfo(String repository, String entityType) {
+
+        static RepositoryInfo of(Class<?> proxyType) {
+            for (Class<?> candidate : proxyType.getInterfaces()) {
+                if (Repository.class.isAssignableFrom(candidate) && candidate != Repository.class
+                        && !candidate.getName().startsWith("org.springframework.")) {
+                    Class<?> entity = ResolvableType.forClass(candidate).as(Repository.class).resolveGeneric(0);
+                    return new RepositoryInfo(candidate.getSimpleName(), entity != null ? entity.getSimpleName() : "?");
+                }
+            }
+            return new RepositoryInfo(proxyType.getSimpleName(), "?");
+        }
+    }
+}
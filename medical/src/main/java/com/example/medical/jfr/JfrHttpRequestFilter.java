@@ -0,0 +1,39 @@
+package com.example.medical.jfr;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jdk.jfr.EventType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+public class JfrHttpRequestFilter extends OncePerRequestFilter {
+
+    private static final EventType HTTP_REQUEST_EVENT = EventType.getEventType(HttpRequestEvent.class);
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!HTTP_REQUEST_EVENT.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        HttpRequestEvent event = new HttpRequestEvent();
+        event.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                event.method = request.getMethod();
+                event.endpoint = pattern != null ? pattern.toString() : "UNKNOWN";
+                event.status = response.getStatus();
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.medical.jfr;
+
+import com.example.medical.exceptions.ProfileNotFoundException;
+import com.example.medical.exceptions.ProfilingInProgressException;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Runs one flight recording at a time, writes it under the configured directory and summarises it once the
+ * requested window is over. Recordings beyond {@code maxRecordings} are deleted, oldest first.
+ */
+@Slf4j
+public class JfrProfiler {
+
+    private static final DateTimeFormatter ID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+    private static final Pattern ID_PATTERN = Pattern.compile("profile-\\d{8}-\\d{6}");
+    private static final String EXTENSION = ".jfr";
+
+    private final ProfilingProperties properties;
+    private final Path directory;
+    private final ProfileAnalyzer analyzer;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Map<String, ProfileSummary> summaries = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "medical-profiler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public JfrProfiler(ProfilingProperties properties) {
+        this.properties = properties;
+        this.directory = Paths.get(properties.getDirectory());
+        this.analyzer = new ProfileAnalyzer(properties.getTopEntries(), properties.getStackDepth());
+    }
+
+    public CompletableFuture<ProfileSummary> profile(Duration duration) {
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Profiling duration must be positive");
+        }
+        if (duration.compareTo(properties.getMaxDuration()) > 0) {
+            throw new IllegalArgumentException("Profiling duration cannot exceed " + properties.getMaxDuration().toSeconds() + " seconds");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new ProfilingInProgressException("A profiling session is already running");
+        }
+
+        CompletableFuture<ProfileSummary> result = new CompletableFuture<>();
+        try {
+            Files.createDirectories(directory);
+            Instant startedAt = Instant.now();
+            String id = "profile-" + ID_FORMAT.format(startedAt);
+            Recording recording = new Recording(settings());
+            recording.setName(id);
+            recording.setToDisk(true);
+            recording.start();
+            log.info("Started profiling session {} for {}s", id, duration.toSeconds());
+            scheduler.schedule(() -> finish(recording, id, startedAt, result), duration.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (IOException | ParseException | RuntimeException ex) {
+            running.set(false);
+            throw new IllegalStateException("Could not start profiling session: " + ex.getMessage(), ex);
+        }
+        return result;
+    }
+
+    public ProfileSummary getSummary(String id) {
+        ProfileSummary summary = summaries.get(id);
+        if (summary == null) {
+            throw new ProfileNotFoundException("Profile with id " + id + " not found");
+        }
+        return summary;
+    }
+
+    public Path getRecording(String id) {
+        if (!ID_PATTERN.matcher(id).matches()) {
+            throw new IllegalArgumentException("Invalid profile id " + id);
+        }
+        Path file = directory.resolve(id + EXTENSION);
+        if (!Files.isRegularFile(file)) {
+            throw new ProfileNotFoundException("Recording for profile " + id + " not found");
+        }
+        return file;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    private void finish(Recording recording, String id, Instant startedAt, CompletableFuture<ProfileSummary> result) {
+        Path file = directory.resolve(id + EXTENSION);
+        ProfileSummary summary = null;
+        Throwable failure = null;
+        try (recording) {
+            recording.stop();
+            recording.dump(file);
+            summary = analyzer.analyze(id, file, startedAt, Duration.between(startedAt, Instant.now()));
+            summaries.put(id, summary);
+            log.info("Finished profiling session {}: {} execution samples, {} ms in GC pauses",
+                    id, summary.getExecutionSamples(), summary.getGcPauseMs());
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Profiling session {} failed", id, ex);
+            failure = ex;
+        }
+        purgeOldRecordings();
+        running.set(false);
+        if (failure != null) {
+            result.completeExceptionally(failure);
+        } else {
+            result.complete(summary);
+        }
+    }
+
+    private Map<String, String> settings() throws IOException, ParseException {
+        Map<String, String> settings = new HashMap<>(Configuration.getConfiguration(properties.getSettings()).getSettings());
+        String samplingPeriod = properties.getSamplingPeriod().toMillis() + " ms";
+        String lockThreshold = properties.getLockThreshold().toMillis() + " ms";
+        settings.put("jdk.ExecutionSample#enabled", "true");
+        settings.put("jdk.ExecutionSample#period", samplingPeriod);
+        settings.put("jdk.ObjectAllocationSample#enabled", "true");
+        settings.put("jdk.JavaMonitorEnter#enabled", "true");
+        settings.put("jdk.JavaMonitorEnter#threshold", lockThreshold);
+        settings.put("jdk.ThreadPark#enabled", "true");
+        settings.put("jdk.ThreadPark#threshold", lockThreshold);
+        settings.put("jdk.GarbageCollection#enabled", "true");
+        for (String event : new String[]{"medical.HttpRequest", "medical.RepositoryInvocation", "medical.Mapping", "medical.Transaction"}) {
+            settings.put(event + "#enabled", "true");
+        }
+        return settings;
+    }
+
+    private void purgeOldRecordings() {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> ID_PATTERN.matcher(file.getFileName().toString().replace(EXTENSION, "")).matches())
+                    .sorted(Comparator.comparing(Path::getFileName).reversed())
+                    .skip(properties.getMaxRecordings())
+                    .forEach(file -> {
+                        summaries.remove(file.getFileName().toString().replace(EXTENSION, ""));
+                        try {
+                            Files.deleteIfExists(file);
+                        } catch (IOException ex) {
+                            throw new UncheckedIOException(ex);
+                        }
+                    });
+        } catch (IOException | UncheckedIOException ex) {
+            log.warn("Could not purge old recordings in {}", directory, ex);
+        }
+    }
+}
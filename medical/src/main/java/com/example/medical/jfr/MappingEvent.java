@@ -0,0 +1,22 @@
+package com.example.medical.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("medical.Mapping")
+@Label("Mapping")
+@Category({"Medical", "Mapping"})
+@Description("A GeneralMapper conversion between entities and DTOs")
+@StackTrace(false)
+class MappingEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Source Type")
+    String sourceType;
+}
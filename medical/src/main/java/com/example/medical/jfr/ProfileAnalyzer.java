@@ -0,0 +1,162 @@
+package com.example.medical.jfr;
+
+import com.example.medical.jfr.ProfileSummary.AllocationSite;
+import com.example.medical.jfr.ProfileSummary.LockContention;
+import com.example.medical.jfr.ProfileSummary.StackSample;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reduces a JFR file to the handful of numbers worth looking at first: where the CPU samples land, which
+ * sites allocate the most, which locks threads wait on and how much of the window went to GC pauses.
+ */
+class ProfileAnalyzer {
+
+    private static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+    private static final String ALLOCATION_SAMPLE = "jdk.ObjectAllocationSample";
+    private static final String MONITOR_ENTER = "jdk.JavaMonitorEnter";
+    private static final String THREAD_PARK = "jdk.ThreadPark";
+    private static final String GARBAGE_COLLECTION = "jdk.GarbageCollection";
+
+    private final int topEntries;
+    private final int stackDepth;
+
+    ProfileAnalyzer(int topEntries, int stackDepth) {
+        this.topEntries = topEntries;
+        this.stackDepth = stackDepth;
+    }
+
+    ProfileSummary analyze(String id, Path file, Instant startedAt, Duration window) throws IOException {
+        Map<List<String>, long[]> cpuStacks = new HashMap<>();
+        Map<List<String>, long[]> allocations = new HashMap<>();
+        Map<List<String>, long[]> locks = new HashMap<>();
+        long executionSamples = 0;
+        long allocatedBytes = 0;
+        long gcPauseCount = 0;
+        Duration gcPauses = Duration.ZERO;
+
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                switch (event.getEventType().getName()) {
+                    case EXECUTION_SAMPLE -> {
+                        executionSamples++;
+                        cpuStacks.computeIfAbsent(frames(event.getStackTrace()), key -> new long[1])[0]++;
+                    }
+                    case ALLOCATION_SAMPLE -> {
+                        long weight = event.getLong("weight");
+                        allocatedBytes += weight;
+                        List<String> key = List.of(className(event.getClass("objectClass")), site(event.getStackTrace()));
+                        allocations.computeIfAbsent(key, k -> new long[1])[0] += weight;
+                    }
+                    case MONITOR_ENTER -> addLock(locks, "monitor", event.getClass("monitorClass"), event);
+                    case THREAD_PARK -> addLock(locks, "park", event.getClass("parkedClass"), event);
+                    case GARBAGE_COLLECTION -> {
+                        gcPauseCount++;
+                        gcPauses = gcPauses.plus(event.getDuration("sumOfPauses"));
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        long windowMs = Math.max(1, window.toMillis());
+        long total = executionSamples;
+        long bytes = allocatedBytes;
+        return ProfileSummary.builder()
+                .id(id)
+                .startedAt(startedAt)
+                .durationMs(window.toMillis())
+                .recordingSizeBytes(Files.size(file))
+                .executionSamples(executionSamples)
+                .topCpuStacks(top(cpuStacks, (key, value) -> new StackSample(key, value[0], percent(value[0], total))))
+                .topAllocationSites(top(allocations, (key, value) ->
+                        new AllocationSite(key.get(0), key.get(1), value[0], percent(value[0], bytes))))
+                .lockContention(top(locks, (key, value) ->
+                        new LockContention(key.get(0), key.get(1), key.get(2), value[1], Duration.ofNanos(value[0]).toMillis())))
+                .gcPauseCount(gcPauseCount)
+                .gcPauseMs(gcPauses.toMillis())
+                .gcPausePercent(percent(gcPauses.toMillis(), windowMs))
+                .build();
+    }
+
+    private void addLock(Map<List<String>, long[]> locks, String kind, RecordedClass lockClass, RecordedEvent event) {
+        long[] value = locks.computeIfAbsent(List.of(kind, className(lockClass), site(event.getStackTrace())),
+                key -> new long[2]);
+        value[0] += event.getDuration().toNanos();
+        value[1]++;
+    }
+
+    private <T> List<T> top(Map<List<String>, long[]> entries, EntryMapper<T> mapper) {
+        List<T> result = new ArrayList<>();
+        entries.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<List<String>, long[]> entry) -> entry.getValue()[0]).reversed())
+                .limit(topEntries)
+                .forEach(entry -> result.add(mapper.map(entry.getKey(), entry.getValue())));
+        return result;
+    }
+
+    private List<String> frames(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return List.of();
+        }
+        List<String> frames = new ArrayList<>(stackDepth);
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (frames.size() == stackDepth) {
+                break;
+            }
+            frames.add(format(frame));
+        }
+        return List.copyOf(frames);
+    }
+
+    /**
+     * The first frame outside the JDK, so that allocations inside collections or string building are
+     * attributed to the code that asked for them.
+     */
+    static String site(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "?";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return format(frame);
+            }
+        }
+        return format(stackTrace.getFrames().get(0));
+    }
+
+    private static String format(RecordedFrame frame) {
+        String method = frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+        return frame.getLineNumber() > 0 ? method + ":" + frame.getLineNumber() : method;
+    }
+
+    private static String className(RecordedClass recordedClass) {
+        return recordedClass != null ? recordedClass.getName() : "?";
+    }
+
+    private static double percent(long part, long whole) {
+        return whole == 0 ? 0 : Math.round(part * 1000.0 / whole) / 10.0;
+    }
+
+    @FunctionalInterface
+    private interface EntryMapper<T> {
+        T map(List<String> key, long[] value);
+    }
+}
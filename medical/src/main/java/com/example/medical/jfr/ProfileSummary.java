@@ -0,0 +1,53 @@
+package com.example.medical.jfr;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+@Value
+@Builder
+public class ProfileSummary {
+    String id;
+    Instant startedAt;
+    long durationMs;
+    long recordingSizeBytes;
+    long executionSamples;
+    List<StackSample> topCpuStacks;
+    List<AllocationSite> topAllocationSites;
+    List<LockContention> lockContention;
+    long gcPauseCount;
+    long gcPauseMs;
+    /**
+     * Share of the recording window spent in GC pauses, in percent.
+     */
+    double gcPausePercent;
+
+    @Value
+    public static class StackSample {
+        List<String> frames;
+        long samples;
+        double percent;
+    }
+
+    @Value
+    public static class AllocationSite {
+        String objectClass;
+        String site;
+        long bytes;
+        double percent;
+    }
+
+    @Value
+    public static class LockContention {
+        /**
+         * "monitor" for synchronized blocks, "park" for java.util.concurrent locks.
+         */
+        String kind;
+        String lockClass;
+        String site;
+        long events;
+        long totalMs;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.medical.jfr;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "medical.profiling")
+public class ProfilingProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Built-in JFR configuration the recording starts from ("default" or "profile").
+     */
+    private String settings = "profile";
+
+    private Duration maxDuration = Duration.ofMinutes(5);
+
+    private Duration samplingPeriod = Duration.ofMillis(10);
+
+    /**
+     * Monitor waits and thread parks shorter than this are not recorded.
+     */
+    private Duration lockThreshold = Duration.ofMillis(10);
+
+    private String directory = "logs/profiles";
+
+    /**
+     * Number of recordings kept on disk, older files are deleted.
+     */
+    private int maxRecordings = 5;
+
+    private int topEntries = 15;
+
+    private int stackDepth = 8;
+}
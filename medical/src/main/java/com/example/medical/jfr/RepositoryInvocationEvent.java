@@ -0,0 +1,32 @@
+package com.example.medical.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("medical.RepositoryInvocation")
+@Label("Repository Invocation")
+@Category({"Medical", "Persistence"})
+@Description("A Spring Data repository method call")
+@StackTrace(false)
+class RepositoryInvocationEvent extends Event {
+
+    @Label("Repository")
+    String repository;
+
+    @Label("Entity Type")
+    String entityType;
+
+    @Label("Method")
+    String method;
+
+    @Label("Row Count")
+    @Description("Entities returned, -1 when the result is not an entity or collection")
+    long rowCount;
+
+    @Label("Exception")
+    String exception;
+}
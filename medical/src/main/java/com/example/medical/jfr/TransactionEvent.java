@@ -0,0 +1,32 @@
+package com.example.medical.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("medical.Transaction")
+@Label("Transactional Service Call")
+@Category({"Medical", "Persistence"})
+@Description("A call to a @Transactional service method, including commit or rollback")
+@StackTrace(false)
+class TransactionEvent extends Event {
+
+    @Label("Service")
+    String service;
+
+    @Label("Method")
+    String method;
+
+    @Label("Read Only")
+    boolean readOnly;
+
+    @Label("Joined")
+    @Description("True when the call participated in a transaction that was already running")
+    boolean joined;
+
+    @Label("Exception")
+    String exception;
+}
@@ -0,0 +1,25 @@
+package com.example.medical.jobs;
+
+import java.time.Duration;
+
+/**
+ * A background job that runs once per cluster rather than once per node. The {@link JobCoordinator} leases each
+ * partition to one node at a time and calls {@link #run(JobContext)} for the partitions it holds, every
+ * {@link #interval()}. A job with several partitions splits its work by key with {@link JobContext#owns(Object)}.
+ */
+public interface ClusterJob {
+
+    String name();
+
+    Duration interval();
+
+    default int partitions() {
+        return 1;
+    }
+
+    /**
+     * A lease can be lost while the job runs, for instance after a long pause. Jobs whose writes must not overlap
+     * with the next owner call {@link JobContext#verify()} in the transaction that makes them.
+     */
+    void run(JobContext context) throws Exception;
+}
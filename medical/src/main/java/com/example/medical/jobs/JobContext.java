@@ -0,0 +1,65 @@
+package com.example.medical.jobs;
+
+import com.example.medical.model.JobLease;
+import com.example.medical.repository.JobLeaseRepository;
+
+/**
+ * What a {@link ClusterJob} run knows about the lease it runs under. Partition {@code p} of {@code n} covers the
+ * {@code p}-th of {@code n} equal ranges of the 32-bit key hash, so keys keep their partition across restarts.
+ */
+public class JobContext {
+
+    private final String lease;
+    private final String nodeId;
+    private final int partition;
+    private final int partitions;
+    private final long token;
+    private final JobLeaseRepository repository;
+
+    JobContext(String lease, String nodeId, int partition, int partitions, long token, JobLeaseRepository repository) {
+        this.lease = lease;
+        this.nodeId = nodeId;
+        this.partition = partition;
+        this.partitions = partitions;
+        this.token = token;
+        this.repository = repository;
+    }
+
+    public int partition() {
+        return partition;
+    }
+
+    public int partitions() {
+        return partitions;
+    }
+
+    /**
+     * The fencing token: strictly greater for every later holder of the same lease.
+     */
+    public long token() {
+        return token;
+    }
+
+    public boolean owns(Object key) {
+        return partitionOf(key, partitions) == partition;
+    }
+
+    /**
+     * Fails unless this node still holds the lease with the same token. Must run inside the transaction whose
+     * writes it guards: the lease row stays locked until that transaction ends, so a node taking the lease over
+     * waits for those writes to commit or roll back. Only the token fences; the expiry is left out because it was
+     * written from another node's clock, and an expired lease nobody has taken over yet is still safe to write under.
+     */
+    public void verify() {
+        JobLease current = repository.findForUpdate(lease).orElse(null);
+        if (current == null || !nodeId.equals(current.getOwner()) || current.getToken() != token) {
+            throw new LeaseLostException(lease, token);
+        }
+    }
+
+    static int partitionOf(Object key, int partitions) {
+        int hash = key.hashCode() * 0x9E3779B9;
+        long unsigned = (hash ^ (hash >>> 16)) & 0xFFFFFFFFL;
+        return (int) ((unsigned * partitions) >>> 32);
+    }
+}
@@ -0,0 +1,319 @@
+package com.example.medical.jobs;
+
+import com.example.medical.model.JobLease;
+import com.example.medical.model.JobNode;
+import com.example.medical.model.JobRun;
+import com.example.medical.repository.JobLeaseRepository;
+import com.example.medical.repository.JobNodeRepository;
+import com.example.medical.repository.JobRunRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs {@link ClusterJob}s once per cluster. Every job partition has a row in {@code job_lease}; a node runs the
+ * partitions whose lease it holds. Each heartbeat the node records itself in {@code job_node}, renews its leases,
+ * releases partitions above its fair share of {@code ceil(partitions / live nodes)} and takes over free or expired
+ * ones up to that share. Every acquisition increments the lease's fencing token. Runs are recorded in
+ * {@code job_run}.
+ */
+@Slf4j
+public class JobCoordinator {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final JobLeaseRepository leases;
+    private final JobNodeRepository nodes;
+    private final JobRunRepository runs;
+    private final JobProperties properties;
+    private final List<ClusterJob> jobs;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Lease> held = new ConcurrentHashMap<>();
+    private final long startedAt = System.currentTimeMillis();
+    private final ScheduledExecutorService coordinator = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "job-coordinator");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ScheduledExecutorService workers;
+
+    public JobCoordinator(JobLeaseRepository leases, JobNodeRepository nodes, JobRunRepository runs,
+                          JobProperties properties, List<ClusterJob> jobs, PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry) {
+        if (properties.getHeartbeatInterval().compareTo(properties.getLeaseTtl()) >= 0) {
+            throw new IllegalStateException("medical.jobs.heartbeat-interval must be shorter than medical.jobs.lease-ttl");
+        }
+        this.leases = leases;
+        this.nodes = nodes;
+        this.runs = runs;
+        this.properties = properties;
+        this.jobs = List.copyOf(jobs);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        AtomicInteger workerCount = new AtomicInteger();
+        this.workers = Executors.newScheduledThreadPool(properties.getWorkerThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "job-worker-" + workerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        for (ClusterJob job : jobs) {
+            for (int partition = 0; partition < job.partitions(); partition++) {
+                createLease(leaseName(job, partition));
+            }
+            meterRegistry.gauge("medical.jobs.partitions.held", Tags.of("job", job.name()),
+                    this, coordinator -> coordinator.heldPartitions(job.name()));
+            long interval = job.interval().toMillis();
+            workers.scheduleWithFixedDelay(() -> runHeldQuietly(job), interval, interval, TimeUnit.MILLISECONDS);
+        }
+        long heartbeat = properties.getHeartbeatInterval().toMillis();
+        coordinator.scheduleWithFixedDelay(this::heartbeatQuietly, 0, heartbeat, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops running jobs and hands the leases back, so that other nodes take over at their next heartbeat
+     * instead of waiting for the leases to expire.
+     */
+    public void shutdown() {
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+        try {
+            workers.awaitTermination(5, TimeUnit.SECONDS);
+            for (Lease lease : held.values()) {
+                transactionTemplate.executeWithoutResult(status -> leases.release(lease.name, properties.getNodeId(), lease.token));
+            }
+            held.clear();
+            nodes.deleteById(properties.getNodeId());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException ex) {
+            log.warn("Could not release job leases: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Partitions of the job whose lease this node holds, in order.
+     */
+    List<Integer> heldPartitionsOf(String job) {
+        return held.values().stream()
+                .filter(lease -> lease.job.equals(job))
+                .map(lease -> lease.partition)
+                .sorted()
+                .toList();
+    }
+
+    synchronized void heartbeat() {
+        long now = System.currentTimeMillis();
+        long deadline = System.nanoTime() + properties.getLeaseTtl().toNanos();
+        long ttl = properties.getLeaseTtl().toMillis();
+        nodes.save(JobNode.builder().nodeId(properties.getNodeId()).startedAt(startedAt).heartbeatAt(now).build());
+        long liveNodes = Math.max(1, nodes.countByHeartbeatAtGreaterThanEqual(now - ttl));
+        for (ClusterJob job : jobs) {
+            balance(job, liveNodes, now, deadline);
+        }
+        transactionTemplate.executeWithoutResult(status -> nodes.deleteSilentSince(now - 10 * ttl));
+    }
+
+    private void balance(ClusterJob job, long liveNodes, long now, long deadline) {
+        long expiresAt = now + properties.getLeaseTtl().toMillis();
+        List<Lease> mine = new ArrayList<>();
+        for (Lease lease : held.values()) {
+            if (!lease.job.equals(job.name())) {
+                continue;
+            }
+            Integer renewed = transactionTemplate.execute(status ->
+                    leases.renew(lease.name, properties.getNodeId(), lease.token, now, expiresAt));
+            if (renewed != null && renewed == 1) {
+                lease.deadlineNanos = deadline;
+                mine.add(lease);
+            } else {
+                lost(lease);
+            }
+        }
+        int share = (int) Math.min(job.partitions(), (job.partitions() + liveNodes - 1) / liveNodes);
+        mine.sort(Comparator.comparingInt((Lease lease) -> lease.partition).reversed());
+        int surplus = mine.size() - share;
+        for (Lease lease : mine) {
+            if (surplus <= 0) {
+                break;
+            }
+            // A partition in the middle of a run is handed over at a later heartbeat.
+            if (!lease.running) {
+                release(lease);
+                surplus--;
+            }
+        }
+        int count = heldPartitions(job.name());
+        // Nodes start looking at different partitions so that they do not all contend for the first free one.
+        int offset = Math.floorMod(properties.getNodeId().hashCode(), job.partitions());
+        for (int i = 0; i < job.partitions() && count < share; i++) {
+            int partition = (offset + i) % job.partitions();
+            if (!held.containsKey(leaseName(job, partition)) && acquire(job, partition, now, expiresAt, deadline)) {
+                count++;
+            }
+        }
+    }
+
+    private boolean acquire(ClusterJob job, int partition, long now, long expiresAt, long deadline) {
+        String name = leaseName(job, partition);
+        Long token = transactionTemplate.execute(status -> leases.acquire(name, properties.getNodeId(), now, expiresAt) == 1
+                ? leases.findById(name).map(JobLease::getToken).orElse(null)
+                : null);
+        if (token == null) {
+            return false;
+        }
+        Lease lease = new Lease(name, job.name(), partition, token);
+        lease.deadlineNanos = deadline;
+        held.put(name, lease);
+        meterRegistry.counter("medical.jobs.leases.acquired", "job", job.name()).increment();
+        log.info("Acquired {} with token {}", name, token);
+        return true;
+    }
+
+    private void release(Lease lease) {
+        transactionTemplate.executeWithoutResult(status -> leases.release(lease.name, properties.getNodeId(), lease.token));
+        held.remove(lease.name, lease);
+        log.info("Released {} to rebalance", lease.name);
+    }
+
+    private void lost(Lease lease) {
+        if (held.remove(lease.name, lease)) {
+            meterRegistry.counter("medical.jobs.leases.lost", "job", lease.job).increment();
+            log.warn("Lost {} held with token {}", lease.name, lease.token);
+        }
+    }
+
+    void runHeld(ClusterJob job) {
+        List<Lease> mine = held.values().stream()
+                .filter(lease -> lease.job.equals(job.name()))
+                .sorted(Comparator.comparingInt(lease -> lease.partition))
+                .toList();
+        for (Lease lease : mine) {
+            // Not renewed in time: another node may already have taken the partition over.
+            if (lease.deadlineNanos - System.nanoTime() > 0) {
+                run(job, lease);
+            }
+        }
+    }
+
+    private void run(ClusterJob job, Lease lease) {
+        lease.running = true;
+        try {
+            record(job, lease);
+        } finally {
+            lease.running = false;
+        }
+    }
+
+    private void record(ClusterJob job, Lease lease) {
+        JobRun run = runs.save(JobRun.builder()
+                .job(job.name())
+                .partitionNo(lease.partition)
+                .node(properties.getNodeId())
+                .token(lease.token)
+                .startedAt(System.currentTimeMillis())
+                .outcome(JobRun.Outcome.RUNNING)
+                .build());
+        long start = System.nanoTime();
+        try {
+            job.run(new JobContext(lease.name, properties.getNodeId(), lease.partition, job.partitions(), lease.token, leases));
+            run.setOutcome(JobRun.Outcome.SUCCEEDED);
+        } catch (LeaseLostException ex) {
+            run.setOutcome(JobRun.Outcome.FENCED);
+            run.setError(ex.getMessage());
+            lost(lease);
+        } catch (Exception ex) {
+            run.setOutcome(JobRun.Outcome.FAILED);
+            run.setError(truncate(ex.getClass().getSimpleName() + ": " + ex.getMessage()));
+            log.warn("Job {} failed: {}", lease.name, ex.getMessage());
+        }
+        long nanos = System.nanoTime() - start;
+        run.setFinishedAt(System.currentTimeMillis());
+        run.setDurationMillis(TimeUnit.NANOSECONDS.toMillis(nanos));
+        runs.save(run);
+        Timer.builder("medical.jobs.duration")
+                .tag("job", job.name())
+                .tag("outcome", run.getOutcome().name().toLowerCase())
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private int heldPartitions(String job) {
+        int count = 0;
+        for (Lease lease : held.values()) {
+            if (lease.job.equals(job)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void createLease(String name) {
+        if (leases.existsById(name)) {
+            return;
+        }
+        try {
+            leases.save(JobLease.builder().name(name).token(0L).acquiredAt(0L).expiresAt(0L).build());
+        } catch (DataAccessException ex) {
+            // Created by another node starting at the same time.
+            log.debug("Lease {} already exists: {}", name, ex.getMessage());
+        }
+    }
+
+    static String leaseName(ClusterJob job, int partition) {
+        return job.name() + "#" + partition;
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private void heartbeatQuietly() {
+        try {
+            heartbeat();
+        } catch (RuntimeException ex) {
+            log.warn("Could not renew job leases: {}", ex.getMessage());
+        }
+    }
+
+    private void runHeldQuietly(ClusterJob job) {
+        try {
+            runHeld(job);
+        } catch (RuntimeException ex) {
+            log.warn("Could not run job {}: {}", job.name(), ex.getMessage());
+        }
+    }
+
+    private static final class Lease {
+        final String name;
+        final String job;
+        final int partition;
+        final long token;
+        volatile long deadlineNanos;
+        volatile boolean running;
+
+        Lease(String name, String job, int partition, long token) {
+            this.name = name;
+            this.job = job;
+            this.partition = partition;
+            this.token = token;
+        }
+    }
+}
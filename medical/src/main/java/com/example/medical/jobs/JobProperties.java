@@ -0,0 +1,36 @@
+package com.example.medical.jobs;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Data
+@ConfigurationProperties(prefix = "medical.jobs")
+public class JobProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Identifies this node in leases and run history. Must differ between nodes.
+     */
+    private String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * How long a lease stays valid without renewal; a crashed node's partitions move after at most this long.
+     * Node clocks must agree to well within it.
+     */
+    private Duration leaseTtl = Duration.ofSeconds(30);
+
+    /**
+     * How often leases are renewed and partitions rebalanced. Must be well below the lease TTL.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(10);
+
+    private int workerThreads = 2;
+
+    private Duration historyRetention = Duration.ofDays(7);
+
+    private Duration historyCleanupInterval = Duration.ofHours(1);
+}
@@ -0,0 +1,42 @@
+package com.example.medical.jobs;
+
+import com.example.medical.repository.JobRunRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+/**
+ * Deletes {@code job_run} rows past {@code medical.jobs.history-retention}.
+ */
+public class JobRunHistoryCleanup implements ClusterJob {
+
+    private final JobRunRepository runs;
+    private final JobProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public JobRunHistoryCleanup(JobRunRepository runs, JobProperties properties, PlatformTransactionManager transactionManager) {
+        this.runs = runs;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public String name() {
+        return "job-run-history-cleanup";
+    }
+
+    @Override
+    public Duration interval() {
+        return properties.getHistoryCleanupInterval();
+    }
+
+    @Override
+    public void run(JobContext context) {
+        long cutoff = System.currentTimeMillis() - properties.getHistoryRetention().toMillis();
+        transactionTemplate.executeWithoutResult(status -> {
+            context.verify();
+            runs.deleteStartedBefore(cutoff);
+        });
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.medical.jobs;
+
+import com.example.medical.repository.JobLeaseRepository;
+import com.example.medical.repository.JobNodeRepository;
+import com.example.medical.repository.JobRunRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+@EnableConfigurationProperties(JobProperties.class)
+@ConditionalOnProperty(prefix = "medical.jobs", name = "enabled", havingValue = "true")
+public class JobsConfig {
+
+    @Bean
+    public JobRunHistoryCleanup jobRunHistoryCleanup(JobRunRepository runs, JobProperties properties,
+                                                     PlatformTransactionManager transactionManager) {
+        return new JobRunHistoryCleanup(runs, properties, transactionManager);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "shutdown")
+    public JobCoordinator jobCoordinator(JobLeaseRepository leases, JobNodeRepository nodes, JobRunRepository runs,
+                                         JobProperties properties, ObjectProvider<ClusterJob> jobs,
+                                         PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        return new JobCoordinator(leases, nodes, runs, properties, jobs.orderedStream().toList(), transactionManager,
+                meterRegistry);
+    }
+}
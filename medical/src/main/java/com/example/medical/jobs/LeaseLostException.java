@@ -0,0 +1,7 @@
+package com.example.medical.jobs;
+
+public class LeaseLostException extends RuntimeException {
+    public LeaseLostException(String lease, long token) {
+        super("Lease " + lease + " is no longer held with token " + token);
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.medical.limiter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that follows latency, after the gradient algorithm of Netflix concurrency-limits. Each
+ * sample compares the latest latency with a long-term average: while they agree the limit grows by about
+ * {@code sqrt(limit)}, and once the latest latency exceeds the average by more than the tolerance the limit
+ * shrinks in proportion. Dropped requests cut the limit by 10%. The long-term average decays when it is far
+ * above current latency, so the limit recovers after an outage.
+ */
+public class AdaptiveLimiter {
+
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double DROP_FACTOR = 0.9;
+    private static final int WARMUP_SAMPLES = 10;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueued;
+    private final double rttTolerance;
+    private final double smoothing;
+    private final int longWindow;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+
+    private double estimatedLimit;
+    private volatile int limit;
+    private volatile int inFlight;
+    private volatile int queued;
+    private volatile double longRttNanos;
+    private long samples;
+
+    public AdaptiveLimiter(String name, ConcurrencyLimitProperties.Limit limits, ConcurrencyLimitProperties properties) {
+        this.name = name;
+        this.minLimit = limits.getMinLimit();
+        this.maxLimit = limits.getMaxLimit();
+        this.maxQueued = properties.getMaxQueued();
+        this.rttTolerance = properties.getRttTolerance();
+        this.smoothing = properties.getSmoothing();
+        this.longWindow = properties.getLongWindow();
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, limits.getInitialLimit()));
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * Takes a slot, waiting up to {@code maxWaitNanos} for one to free up. Returns {@code false} when none
+     * became available or too many requests are already waiting.
+     */
+    public boolean tryAcquire(long maxWaitNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            if (inFlight < limit) {
+                inFlight++;
+                return true;
+            }
+            if (maxWaitNanos <= 0 || queued >= maxQueued) {
+                return false;
+            }
+            queued++;
+            try {
+                long remaining = maxWaitNanos;
+                while (inFlight >= limit) {
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    remaining = slotFreed.awaitNanos(remaining);
+                }
+                inFlight++;
+                return true;
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Frees the slot and feeds the request latency into the limit.
+     */
+    public void release(long rttNanos, boolean dropped) {
+        lock.lock();
+        try {
+            int previousInFlight = inFlight--;
+            if (dropped) {
+                updateLimit(estimatedLimit * DROP_FACTOR);
+            } else if (rttNanos > 0) {
+                sample(rttNanos, previousInFlight);
+            }
+            slotFreed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Frees the slot without a sample, for requests that never reached the database.
+     */
+    public void release() {
+        release(0, false);
+    }
+
+    private void sample(long rttNanos, int concurrency) {
+        samples++;
+        if (samples <= WARMUP_SAMPLES) {
+            longRttNanos += (rttNanos - longRttNanos) / samples;
+            return;
+        }
+        longRttNanos += (rttNanos - longRttNanos) / longWindow;
+        if (longRttNanos / rttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+        // With less than half the slots in use latency says nothing about the limit being too high or too low.
+        if (concurrency < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, rttTolerance * longRttNanos / rttNanos));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        updateLimit(estimatedLimit * (1 - smoothing) + newLimit * smoothing);
+    }
+
+    private void updateLimit(double newLimit) {
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public double getLongRttMillis() {
+        return longRttNanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
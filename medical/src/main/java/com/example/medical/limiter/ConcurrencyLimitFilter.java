@@ -0,0 +1,98 @@
+package com.example.medical.limiter;
+
+import com.example.medical.timing.RequestTiming;
+import com.example.medical.timing.RequestTiming.Phase;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Bounds the requests working against the database per endpoint group, so that a slow database turns excess
+ * traffic into fast 503s instead of every Tomcat thread queueing on the connection pool. The limits adapt to
+ * the time each request spends in JDBC, or to the whole request when server timing is disabled.
+ */
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final ConcurrencyLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<EndpointGroup, AdaptiveLimiter> limiters = new EnumMap<>(EndpointGroup.class);
+    private final String retryAfterSeconds;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        limiters.put(EndpointGroup.READS, new AdaptiveLimiter(EndpointGroup.READS.getTagValue(), properties.getReads(), properties));
+        limiters.put(EndpointGroup.WRITES, new AdaptiveLimiter(EndpointGroup.WRITES.getTagValue(), properties.getWrites(), properties));
+        limiters.put(EndpointGroup.BULK, new AdaptiveLimiter(EndpointGroup.BULK.getTagValue(), properties.getBulk(), properties));
+        this.retryAfterSeconds = Long.toString(Math.max(1, properties.getRetryAfter().toSeconds()));
+        limiters.values().forEach(this::registerGauges);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AdaptiveLimiter limiter = limiters.get(EndpointGroup.of(request, properties.getBulkPaths()));
+        boolean acquired;
+        try {
+            acquired = limiter.tryAcquire(properties.getMaxQueueWait().toNanos());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            reject(limiter, request, response);
+            return;
+        }
+
+        RequestTiming timing = RequestTiming.current();
+        long dbBefore = timing != null ? timing.getDurationNanos(Phase.DB) : 0;
+        long start = System.nanoTime();
+        boolean dropped = true;
+        try {
+            filterChain.doFilter(request, response);
+            dropped = response.getStatus() >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        } finally {
+            long rtt = timing != null ? timing.getDurationNanos(Phase.DB) - dbBefore : System.nanoTime() - start;
+            limiter.release(rtt, dropped);
+        }
+    }
+
+    AdaptiveLimiter limiter(EndpointGroup group) {
+        return limiters.get(group);
+    }
+
+    private void reject(AdaptiveLimiter limiter, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        meterRegistry.counter("medical.concurrency.rejected", "group", limiter.getName()).increment();
+        log.debug("Rejected {} {}: {} limit {} reached", request.getMethod(), request.getRequestURI(),
+                limiter.getName(), limiter.getLimit());
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"status\":503,\"error\":\"Service Unavailable\","
+                + "\"message\":\"Too many concurrent " + limiter.getName() + ", retry later\"}");
+    }
+
+    private void registerGauges(AdaptiveLimiter limiter) {
+        meterRegistry.gauge("medical.concurrency.limit", Tags.of("group", limiter.getName()),
+                limiter, AdaptiveLimiter::getLimit);
+        meterRegistry.gauge("medical.concurrency.inflight", Tags.of("group", limiter.getName()),
+                limiter, AdaptiveLimiter::getInFlight);
+        meterRegistry.gauge("medical.concurrency.queued", Tags.of("group", limiter.getName()),
+                limiter, AdaptiveLimiter::getQueued);
+        meterRegistry.gauge("medical.concurrency.rtt.long", Tags.of("group", limiter.getName()),
+                limiter, AdaptiveLimiter::getLongRttMillis);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.medical.limiter;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "medical.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+
+    private Limit reads = new Limit(40, 4, 150);
+
+    private Limit writes = new Limit(20, 2, 80);
+
+    private Limit bulk = new Limit(4, 1, 20);
+
+    /**
+     * Ant-style paths of the endpoints that return whole tables or long lists.
+     */
+    private List<String> bulkPaths = new ArrayList<>(EndpointGroup.DEFAULT_BULK_PATHS);
+
+    /**
+     * How long a request may wait for a slot before it is turned away.
+     */
+    private Duration maxQueueWait = Duration.ofMillis(50);
+
+    /**
+     * Requests allowed to wait per group, beyond which they are rejected immediately.
+     */
+    private int maxQueued = 50;
+
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /**
+     * Short-term latency may exceed the long-term average by this factor before the limit shrinks.
+     */
+    private double rttTolerance = 1.5;
+
+    /**
+     * Weight of each new limit estimate, between 0 and 1.
+     */
+    private double smoothing = 0.2;
+
+    /**
+     * Number of samples the long-term latency average spans.
+     */
+    private int longWindow = 600;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        private int initialLimit;
+        private int minLimit;
+        private int maxLimit;
+    }
+}
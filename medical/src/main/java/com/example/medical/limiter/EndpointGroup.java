@@ -0,0 +1,48 @@
+package com.example.medical.limiter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.util.List;
+
+/**
+ * Classes of endpoints that are limited separately: GETs are reads unless their path is one of the bulk
+ * listings, everything else is a write.
+ */
+public enum EndpointGroup {
+
+    READS("reads"),
+    WRITES("writes"),
+    BULK("bulk");
+
+    public static final List<String> DEFAULT_BULK_PATHS = List.of("/api/patients", "/api/doctors",
+            "/api/appointments/patient/*", "/api/appointments/doctor/*");
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+    private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+
+    private final String tagValue;
+
+    EndpointGroup(String tagValue) {
+        this.tagValue = tagValue;
+    }
+
+    public String getTagValue() {
+        return tagValue;
+    }
+
+    public static EndpointGroup of(HttpServletRequest request, List<String> bulkPaths) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return WRITES;
+        }
+        String path = PATH_HELPER.getPathWithinApplication(request);
+        for (String pattern : bulkPaths) {
+            if (PATH_MATCHER.match(pattern, path)) {
+                return BULK;
+            }
+        }
+        return READS;
+    }
+}
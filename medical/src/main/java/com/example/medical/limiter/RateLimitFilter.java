@@ -0,0 +1,115 @@
+package com.example.medical.limiter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client rate limit for each endpoint group. Clients are keyed by remote address, or by the client header when
+ * it comes from a trusted address. Buckets live in a size-bounded Caffeine cache that expires
+ * idle clients; lookups of existing buckets take no lock and buckets themselves are lock-free. Responses carry
+ * the {@code RateLimit-*} headers of the IETF draft, and rejected requests get a 429 with {@code Retry-After}.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String LIMIT_HEADER = "RateLimit-Limit";
+    public static final String REMAINING_HEADER = "RateLimit-Remaining";
+    public static final String RESET_HEADER = "RateLimit-Reset";
+
+    private static final int MAX_CLIENT_ID_LENGTH = 64;
+
+    private final RateLimitProperties properties;
+    private final LongSupplier clock;
+    private final Cache<BucketKey, TokenBucket> buckets;
+    private final Map<EndpointGroup, RateLimitProperties.Bucket> limits = new EnumMap<>(EndpointGroup.class);
+    private final Map<EndpointGroup, String> limitHeaders = new EnumMap<>(EndpointGroup.class);
+    private final Map<EndpointGroup, Counter> rejections = new EnumMap<>(EndpointGroup.class);
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxClients())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .build();
+        limits.put(EndpointGroup.READS, properties.getReads());
+        limits.put(EndpointGroup.WRITES, properties.getWrites());
+        limits.put(EndpointGroup.BULK, properties.getBulk());
+        limits.forEach((group, limit) -> {
+            limitHeaders.put(group, Integer.toString(limit.getCapacity()));
+            rejections.put(group, meterRegistry.counter("medical.rate-limit.rejected", "group", group.getTagValue()));
+        });
+        meterRegistry.gauge("medical.rate-limit.buckets", buckets, Cache::estimatedSize);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointGroup group = EndpointGroup.of(request, properties.getBulkPaths());
+        long now = clock.getAsLong();
+        TokenBucket bucket = bucket(clientId(request), group, now);
+        long result = bucket.tryConsume(now);
+
+        response.setHeader(LIMIT_HEADER, limitHeaders.get(group));
+        response.setHeader(RESET_HEADER, Long.toString(toSeconds(bucket.nanosUntilFull(now))));
+        if (result >= 0) {
+            response.setHeader(REMAINING_HEADER, Long.toString(result));
+            filterChain.doFilter(request, response);
+            return;
+        }
+        rejections.get(group).increment();
+        response.setHeader(REMAINING_HEADER, "0");
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(toSeconds(-result)));
+        response.setStatus(429);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"status\":429,\"error\":\"Too Many Requests\","
+                + "\"message\":\"Rate limit exceeded for " + group.getTagValue() + "\"}");
+    }
+
+    /**
+     * The bucket of a client for an endpoint group, created full on first use.
+     */
+    public TokenBucket bucket(String client, EndpointGroup group, long nowNanos) {
+        return buckets.get(new BucketKey(client, group), key -> {
+            RateLimitProperties.Bucket limit = limits.get(group);
+            return new TokenBucket(limit.getCapacity(), limit.getRefillPerSecond(), nowNanos);
+        });
+    }
+
+    String clientId(HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        if (!properties.getTrustedAddresses().contains(address)) {
+            return address;
+        }
+        String client = request.getHeader(properties.getClientHeader());
+        if (client == null || client.isBlank()) {
+            return address;
+        }
+        return client.length() > MAX_CLIENT_ID_LENGTH ? client.substring(0, MAX_CLIENT_ID_LENGTH) : client;
+    }
+
+    private static long toSeconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private record BucketKey(String client, EndpointGroup group) {
+    }
+}
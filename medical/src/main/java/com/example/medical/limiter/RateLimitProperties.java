@@ -0,0 +1,65 @@
+package com.example.medical.limiter;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Data
+@ConfigurationProperties(prefix = "medical.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Header identifying the API client, honoured only from the trusted addresses. Other requests are keyed by
+     * remote address.
+     */
+    private String clientHeader = "X-Api-Client";
+
+    /**
+     * Remote addresses allowed to name the client in the client header, such as a gateway that sets it for
+     * authenticated callers. Anyone else could send a new name with every request and always find a full bucket.
+     */
+    private Set<String> trustedAddresses = new HashSet<>();
+
+    /**
+     * Client and endpoint group pairs tracked at once; the least recently used are evicted beyond this.
+     */
+    private long maxClients = 100_000;
+
+    /**
+     * Buckets not used for this long are dropped. Must be at least the time a bucket takes to refill.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    private Bucket reads = new Bucket(100, 50);
+
+    private Bucket writes = new Bucket(20, 10);
+
+    private Bucket bulk = new Bucket(10, 2);
+
+    private List<String> bulkPaths = new ArrayList<>(EndpointGroup.DEFAULT_BULK_PATHS);
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bucket {
+
+        /**
+         * Requests a client may send in a burst.
+         */
+        private int capacity;
+
+        /**
+         * Sustained requests per second.
+         */
+        private double refillPerSecond;
+    }
+}
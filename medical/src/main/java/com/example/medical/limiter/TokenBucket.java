@@ -0,0 +1,47 @@
+package com.example.medical.limiter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket in the GCRA form: the only state is the theoretical arrival time of the next request, kept in
+ * one {@link AtomicLong} and advanced with compare-and-set, so buckets need no lock and no refill thread. A
+ * request is allowed while that time is at most {@code capacity} emission intervals ahead of now.
+ */
+public final class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+        this.burstNanos = emissionIntervalNanos * capacity;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token. Returns the tokens left (zero or more) when allowed, or minus the nanoseconds until the
+     * next token when denied.
+     */
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + emissionIntervalNanos;
+            long ahead = next - nowNanos;
+            if (ahead > burstNanos) {
+                return -Math.max(1, ahead - burstNanos);
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return (burstNanos - ahead) / emissionIntervalNanos;
+            }
+        }
+    }
+
+    /**
+     * Nanoseconds until the bucket is full again.
+     */
+    public long nanosUntilFull(long nowNanos) {
+        return Math.max(0, theoreticalArrival.get() - nowNanos);
+    }
+}
@@ -99,6 +99,19 @@ public class GeneralMapper {
                 .build();
     }
 
+    // For appointments whose session is gone: prescriptions may be uninitialized and are not serialized anyway.
+    public AppointmentDto toAppointmentDtoWithoutPrescriptions(Appointment appointment) {
+        if (appointment == null) return null;
+
+        Appointment shallow = new Appointment();
+        shallow.setId(appointment.getId());
+        shallow.setPatient(appointment.getPatient());
+        shallow.setDoctor(appointment.getDoctor());
+        shallow.setAppointmentDate(appointment.getAppointmentDate());
+        shallow.setReason(appointment.getReason());
+        return toAppointmentDto(shallow);
+    }
+
     public Appointment toAppointment(AppointmentDto dto) {
         if (dto == null) return null;
 
@@ -0,0 +1,16 @@
+package com.example.medical.metrics;
+
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    // Spring MVC already tags requests with the path template, this is only a guard against unmapped paths.
+    @Bean
+    public MeterFilter httpUriCardinalityLimit(@Value("${medical.metrics.max-uri-tags:100}") int maxUriTags) {
+        return MeterFilter.maximumAllowableTags("http.server.requests", "uri", maxUriTags, MeterFilter.deny());
+    }
+}
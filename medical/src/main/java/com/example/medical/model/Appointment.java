@@ -1,22 +1,30 @@
 package com.example.medical.model;
 
+import com.example.medical.sharding.ClinicAssignmentListener;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Filter;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "idx_appointment_date", columnList = "appointment_date"))
+@EntityListeners(ClinicAssignmentListener.class)
+@Filter(name = ClinicScoped.CLINIC_FILTER)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-public class Appointment {
+public class Appointment implements ClinicScoped {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
 
+    @Column(name = "clinic_id")
+    private Integer clinicId;
+
     @ManyToOne
     @JoinColumn(name = "patient_id", nullable = false)
     private Patient patient;
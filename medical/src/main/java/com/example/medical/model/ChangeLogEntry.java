@@ -0,0 +1,34 @@
+package com.example.medical.model;
+
+import com.example.medical.events.EntityChangedEvent;
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "change_log", indexes = @Index(name = "idx_change_log_changed_at", columnList = "changed_at"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ChangeLogEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "entity_type", nullable = false, length = 64)
+    private String entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 8)
+    private EntityChangedEvent.Change change;
+
+    @Column(nullable = false, length = 64)
+    private String origin;
+
+    // Epoch milliseconds of the writing node's clock
+    @Column(name = "changed_at", nullable = false)
+    private Long changedAt;
+}
@@ -0,0 +1,15 @@
+package com.example.medical.model;
+
+/**
+ * Entities that belong to one clinic and therefore live on that clinic's shard. Queries for them are restricted
+ * to the clinic of the current request by the {@value #CLINIC_FILTER} filter; lookups by id are not, so services
+ * check {@code ShardContext.isVisible} on what they load.
+ */
+public interface ClinicScoped {
+
+    String CLINIC_FILTER = "clinic";
+
+    Integer getClinicId();
+
+    void setClinicId(Integer clinicId);
+}
@@ -1,21 +1,28 @@
 package com.example.medical.model;
 
+import com.example.medical.sharding.ClinicAssignmentListener;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Filter;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(ClinicAssignmentListener.class)
+@Filter(name = ClinicScoped.CLINIC_FILTER)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-public class Doctor {
+public class Doctor implements ClinicScoped {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
 
+    @Column(name = "clinic_id")
+    private Integer clinicId;
+
     @Column(name = "first_name", nullable = false, length = 100)
     private String firstName;
 
@@ -0,0 +1,31 @@
+package com.example.medical.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "job_lease")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class JobLease {
+    // Job name and partition, e.g. "change-log-compaction#0"
+    @Id
+    @Column(length = 128)
+    private String name;
+
+    @Column(length = 64)
+    private String owner;
+
+    // Incremented on every acquisition; writes made under an older token are rejected
+    @Column(nullable = false)
+    private Long token;
+
+    // Epoch milliseconds of the owning node's clock
+    @Column(name = "acquired_at", nullable = false)
+    private Long acquiredAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Long expiresAt;
+}
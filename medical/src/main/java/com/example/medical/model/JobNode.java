@@ -0,0 +1,22 @@
+package com.example.medical.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "job_node")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class JobNode {
+    @Id
+    @Column(name = "node_id", length = 64)
+    private String nodeId;
+
+    @Column(name = "started_at", nullable = false)
+    private Long startedAt;
+
+    @Column(name = "heartbeat_at", nullable = false)
+    private Long heartbeatAt;
+}
@@ -0,0 +1,48 @@
+package com.example.medical.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "job_run", indexes = @Index(name = "idx_job_run_job_started", columnList = "job, started_at"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class JobRun {
+    public enum Outcome {
+        RUNNING, SUCCEEDED, FAILED, FENCED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String job;
+
+    @Column(name = "partition_no", nullable = false)
+    private int partitionNo;
+
+    @Column(nullable = false, length = 64)
+    private String node;
+
+    @Column(nullable = false)
+    private Long token;
+
+    @Column(name = "started_at", nullable = false)
+    private Long startedAt;
+
+    @Column(name = "finished_at")
+    private Long finishedAt;
+
+    @Column(name = "duration_ms")
+    private Long durationMillis;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Outcome outcome;
+
+    @Column(length = 500)
+    private String error;
+}
@@ -0,0 +1,50 @@
+package com.example.medical.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// idx_outbox_due is declared in schema.sql only: H2 returns nothing for SKIP LOCKED scans over a secondary index.
+@Entity
+@Table(name = "outbox_message")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OutboxMessage {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String type;
+
+    @Column(name = "aggregate_type", nullable = false, length = 64)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    // Epoch milliseconds
+    @Column(name = "created_at", nullable = false)
+    private Long createdAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Long nextAttemptAt;
+
+    // Set instead of deleting the row when the outbox archives delivered messages
+    @Column(name = "dispatched_at")
+    private Long dispatchedAt;
+
+    // Set when delivery is given up after max-attempts, which takes the row out of the due range
+    @Column(name = "dead_at")
+    private Long deadAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+}
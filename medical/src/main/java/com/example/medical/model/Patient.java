@@ -1,24 +1,31 @@
 package com.example.medical.model;
 
+import com.example.medical.sharding.ClinicAssignmentListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.Filter;
 
 import java.util.List;
 
 
 @Entity
+@EntityListeners(ClinicAssignmentListener.class)
+@Filter(name = ClinicScoped.CLINIC_FILTER)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-public class Patient {
+public class Patient implements ClinicScoped {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
 
+    @Column(name = "clinic_id")
+    private Integer clinicId;
+
     @NotNull
     @NotBlank
     private String firstName;
@@ -0,0 +1,13 @@
+/**
+ * Clinic-scoped entities only show rows of the clinic named by the request, so clinics sharing a shard never
+ * see each other's data. Requests without a clinic, such as cross-shard listings, see every row.
+ */
+@FilterDef(name = ClinicScoped.CLINIC_FILTER,
+        defaultCondition = "(clinic_id = :clinicId or :clinicId is null)",
+        parameters = @ParamDef(name = "clinicId", type = Integer.class, resolver = CurrentClinicResolver.class),
+        autoEnabled = true)
+package com.example.medical.model;
+
+import com.example.medical.sharding.CurrentClinicResolver;
+import org.hibernate.annotations.FilterDef;
+import org.hibernate.annotations.ParamDef;
@@ -0,0 +1,7 @@
+package com.example.medical.outbox;
+
+import java.time.LocalDateTime;
+
+public record AppointmentScheduled(Integer appointmentId, Integer patientId, Integer doctorId,
+                                   LocalDateTime appointmentDate) {
+}
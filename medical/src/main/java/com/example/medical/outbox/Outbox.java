@@ -0,0 +1,91 @@
+package com.example.medical.outbox;
+
+import com.example.medical.exceptions.OutboxMessageNotFoundException;
+import com.example.medical.model.OutboxMessage;
+import com.example.medical.repository.OutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * Records messages in {@code outbox_message} as part of the caller's transaction, so that a message exists
+ * exactly when the change it describes was committed. Delivery happens later on the {@link OutboxDispatcher};
+ * the only work added to the caller is one insert and, after commit, a wake-up of the dispatcher.
+ */
+@Component
+public class Outbox {
+
+    private final OutboxRepository repository;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<OutboxDispatcher> dispatcher;
+
+    public Outbox(OutboxRepository repository, ObjectMapper objectMapper, ObjectProvider<OutboxDispatcher> dispatcher) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Adds a message typed by the simple name of the payload class.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String aggregateType, Number aggregateId, Object payload) {
+        long now = System.currentTimeMillis();
+        repository.save(OutboxMessage.builder()
+                .type(payload.getClass().getSimpleName())
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId.longValue())
+                .payload(serialize(payload))
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .build());
+        wakeUpAfterCommit();
+    }
+
+    /**
+     * Messages given up after {@code max-attempts}, most recently given up first.
+     */
+    @Transactional(readOnly = true)
+    public List<OutboxMessage> dead(int limit) {
+        return repository.findByDeadAtIsNotNullOrderByDeadAtDesc(PageRequest.of(0, limit));
+    }
+
+    /**
+     * Makes a dead message due again with a fresh set of attempts.
+     */
+    @Transactional
+    public void retry(long id) {
+        if (repository.revive(id, System.currentTimeMillis()) == 0) {
+            throw new OutboxMessageNotFoundException("Dead outbox message with id " + id + " not found");
+        }
+        wakeUpAfterCommit();
+    }
+
+    private void wakeUpAfterCommit() {
+        OutboxDispatcher localDispatcher = dispatcher.getIfAvailable();
+        if (localDispatcher != null) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    localDispatcher.wakeUp();
+                }
+            });
+        }
+    }
+
+    private String serialize(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Cannot serialize outbox payload " + payload.getClass().getSimpleName(), ex);
+        }
+    }
+}
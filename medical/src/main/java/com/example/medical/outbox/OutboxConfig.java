@@ -0,0 +1,25 @@
+package com.example.medical.outbox;
+
+import com.example.medical.repository.OutboxRepository;
+import com.example.medical.sharding.ShardDataSources;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+@EnableConfigurationProperties(OutboxProperties.class)
+@ConditionalOnProperty(prefix = "medical.outbox", name = "enabled", matchIfMissing = true)
+public class OutboxConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "shutdown")
+    public OutboxDispatcher outboxDispatcher(OutboxRepository repository, ObjectProvider<ShardDataSources> shards,
+                                             OutboxProperties properties, ObjectProvider<OutboxHandler> handlers,
+                                             PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        return new OutboxDispatcher(repository, shards.getIfAvailable(), properties, handlers.orderedStream().toList(),
+                transactionManager, meterRegistry);
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.medical.outbox;
+
+import com.example.medical.model.OutboxMessage;
+import com.example.medical.repository.OutboxRepository;
+import com.example.medical.sharding.ShardContext;
+import com.example.medical.sharding.ShardDataSources;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delivers outbox messages to the {@link OutboxHandler}s in batches, from every shard. A batch is claimed with
+ * {@code FOR UPDATE SKIP LOCKED} and hidden from other dispatchers for {@code claim-timeout} by moving its next
+ * attempt; the claim commits before delivery, so slow handlers hold no row locks. Delivered messages are then
+ * deleted, or archived, in one statement per batch; failed ones are retried with exponential backoff until
+ * {@code max-attempts}, then marked dead, which leaves them in the table for {@code /admin/outbox/dead} but out of
+ * the claims. A batch whose node dies mid-delivery becomes due again once the claim times out, so delivery is at
+ * least once.
+ */
+@Slf4j
+public class OutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxRepository repository;
+    // A null entry is the single database of an unsharded deployment.
+    private final List<String> shards;
+    private final OutboxProperties properties;
+    private final List<OutboxHandler> handlers;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer lag;
+    private final Counter delivered;
+    private final Counter failed;
+    private final Counter dead;
+    private final Counter unhandled;
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "outbox-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public OutboxDispatcher(OutboxRepository repository, ShardDataSources shards, OutboxProperties properties,
+                            List<OutboxHandler> handlers, PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.shards = shards != null ? shards.shardNames() : Collections.singletonList(null);
+        this.properties = properties;
+        this.handlers = List.copyOf(handlers);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lag = Timer.builder("medical.outbox.lag")
+                .description("Time from a message being committed to its delivery")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.delivered = meterRegistry.counter("medical.outbox.delivered");
+        this.failed = meterRegistry.counter("medical.outbox.failed");
+        this.dead = meterRegistry.counter("medical.outbox.dead");
+        this.unhandled = meterRegistry.counter("medical.outbox.unhandled");
+    }
+
+    public void start() {
+        long poll = properties.getPollInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::dispatchQuietly, poll, poll, TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Asks for a dispatch round soon. Wake-ups arriving while one is queued are folded into it.
+     */
+    public void wakeUp() {
+        if (wakeUpPending.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(() -> {
+                    wakeUpPending.set(false);
+                    dispatchQuietly();
+                });
+            } catch (RejectedExecutionException ex) {
+                wakeUpPending.set(false);
+            }
+        }
+    }
+
+    /**
+     * Delivers the due messages of every shard batch by batch until a batch comes back short, and returns the
+     * number claimed.
+     */
+    synchronized int dispatch() {
+        int total = 0;
+        for (String shard : shards) {
+            try {
+                total += ShardContext.callOn(shard, this::dispatchShard);
+            } catch (RuntimeException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+        return total;
+    }
+
+    private int dispatchShard() {
+        int total = 0;
+        List<OutboxMessage> batch;
+        do {
+            batch = transactionTemplate.execute(status -> claim());
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            deliver(batch);
+            total += batch.size();
+        } while (batch.size() == properties.getBatchSize());
+        return total;
+    }
+
+    // The claimed rows are managed, so hiding them is flushed when the claim commits.
+    private List<OutboxMessage> claim() {
+        long now = System.currentTimeMillis();
+        List<OutboxMessage> batch = repository.claimDue(now, properties.getBatchSize());
+        long hiddenUntil = now + properties.getClaimTimeout().toMillis();
+        batch.forEach(message -> message.setNextAttemptAt(hiddenUntil));
+        return batch;
+    }
+
+    private void deliver(List<OutboxMessage> batch) {
+        long now = System.currentTimeMillis();
+        List<Long> done = new ArrayList<>(batch.size());
+        List<OutboxMessage> retries = new ArrayList<>();
+        for (OutboxMessage message : batch) {
+            if (deliver(message, now)) {
+                done.add(message.getId());
+            } else {
+                retries.add(message);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!done.isEmpty()) {
+                if (properties.isArchive()) {
+                    repository.markDispatched(done, System.currentTimeMillis());
+                } else {
+                    repository.deleteByIds(done);
+                }
+            }
+            if (!retries.isEmpty()) {
+                repository.saveAll(retries);
+            }
+        });
+    }
+
+    private boolean deliver(OutboxMessage message, long now) {
+        boolean handled = false;
+        try {
+            for (OutboxHandler handler : handlers) {
+                if (handler.supports(message.getType())) {
+                    handler.handle(message);
+                    handled = true;
+                }
+            }
+        } catch (Exception ex) {
+            reschedule(message, now, ex);
+            return false;
+        }
+        if (handled) {
+            delivered.increment();
+            lag.record(Math.max(0, System.currentTimeMillis() - message.getCreatedAt()), TimeUnit.MILLISECONDS);
+        } else {
+            unhandled.increment();
+            log.debug("No outbox handler for {} message {}", message.getType(), message.getId());
+        }
+        return true;
+    }
+
+    // Saved with the outcome of the batch.
+    private void reschedule(OutboxMessage message, long now, Exception ex) {
+        failed.increment();
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        message.setLastError(truncate(ex.getClass().getSimpleName() + ": " + ex.getMessage()));
+        if (attempts >= properties.getMaxAttempts()) {
+            message.setDeadAt(now);
+            message.setNextAttemptAt(now);
+            dead.increment();
+            log.error("Giving up on {} message {} after {} attempts: {}", message.getType(), message.getId(), attempts,
+                    ex.getMessage());
+        } else {
+            message.setNextAttemptAt(now + backoffMillis(attempts));
+            log.warn("Could not deliver {} message {} (attempt {}): {}", message.getType(), message.getId(), attempts,
+                    ex.getMessage());
+        }
+    }
+
+    long backoffMillis(int attempts) {
+        long initial = properties.getInitialBackoff().toMillis();
+        long max = properties.getMaxBackoff().toMillis();
+        int shift = Math.min(attempts - 1, 30);
+        return Math.min(max, initial << shift);
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private void dispatchQuietly() {
+        try {
+            int claimed = dispatch();
+            if (claimed > 0) {
+                log.debug("Dispatched {} outbox messages", claimed);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Could not dispatch the outbox: {}", ex.getMessage());
+        }
+    }
+}
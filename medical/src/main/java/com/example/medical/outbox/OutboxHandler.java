@@ -0,0 +1,15 @@
+package com.example.medical.outbox;
+
+import com.example.medical.model.OutboxMessage;
+
+/**
+ * Delivers outbox messages of the types it supports. Delivery is at least once: a message is handed out again
+ * if the dispatcher stops before recording the outcome of its batch, so handlers must tolerate duplicates, keyed
+ * by message id. Runs after the claim has committed, outside any transaction.
+ */
+public interface OutboxHandler {
+
+    boolean supports(String type);
+
+    void handle(OutboxMessage message) throws Exception;
+}
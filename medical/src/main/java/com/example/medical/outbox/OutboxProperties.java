@@ -0,0 +1,43 @@
+package com.example.medical.outbox;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "medical.outbox")
+public class OutboxProperties {
+
+    /**
+     * Runs the dispatcher. Messages are written either way, so a node without it still records them for others.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Fallback poll for retries and for messages written on other nodes; local commits wake the dispatcher at once.
+     */
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    private int batchSize = 100;
+
+    /**
+     * How long a claimed batch is hidden from other dispatchers while it is delivered. Must exceed the time a batch
+     * takes to deliver, or another node delivers it again.
+     */
+    private Duration claimTimeout = Duration.ofMinutes(5);
+
+    /**
+     * Deliveries tried before a message is left in the table with its last error for inspection.
+     */
+    private int maxAttempts = 10;
+
+    private Duration initialBackoff = Duration.ofSeconds(1);
+
+    private Duration maxBackoff = Duration.ofMinutes(5);
+
+    /**
+     * Keeps delivered messages with their dispatch time instead of deleting them.
+     */
+    private boolean archive = false;
+}
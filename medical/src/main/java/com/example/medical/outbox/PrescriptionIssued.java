@@ -0,0 +1,6 @@
+package com.example.medical.outbox;
+
+import java.time.LocalDateTime;
+
+public record PrescriptionIssued(Integer prescriptionId, Integer appointmentId, LocalDateTime issuedDate) {
+}
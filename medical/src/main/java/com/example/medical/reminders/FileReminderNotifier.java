@@ -0,0 +1,40 @@
+package com.example.medical.reminders;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends due reminders to a JSON-lines file, for local runs and tests in place of a real messaging channel.
+ */
+public class FileReminderNotifier implements ReminderNotifier {
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+
+    public FileReminderNotifier(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized void notify(List<Reminder> reminders) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (Reminder reminder : reminders) {
+                writer.write(objectMapper.writeValueAsString(reminder));
+                writer.newLine();
+            }
+        }
+    }
+}
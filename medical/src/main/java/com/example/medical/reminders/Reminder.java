@@ -0,0 +1,11 @@
+package com.example.medical.reminders;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * A reminder that became due: {@code leadTime} before the appointment.
+ */
+public record Reminder(Integer appointmentId, Integer doctorId, Integer patientId, LocalDateTime appointmentDate,
+                       Duration leadTime) {
+}
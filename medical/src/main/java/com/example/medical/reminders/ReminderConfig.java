@@ -0,0 +1,35 @@
+package com.example.medical.reminders;
+
+import com.example.medical.repository.AppointmentRepository;
+import com.example.medical.sharding.ShardDataSources;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+
+@Configuration
+@EnableConfigurationProperties(ReminderProperties.class)
+@ConditionalOnProperty(prefix = "medical.reminders", name = "enabled", havingValue = "true")
+public class ReminderConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "medical.reminders", name = "file")
+    public FileReminderNotifier fileReminderNotifier(ReminderProperties properties, ObjectMapper objectMapper) {
+        return new FileReminderNotifier(Path.of(properties.getFile()), objectMapper);
+    }
+
+    // Kept in sync as a subscriber of the change event bus.
+    @Bean(destroyMethod = "shutdown")
+    public ReminderScheduler reminderScheduler(AppointmentRepository repository, ObjectProvider<ShardDataSources> shards,
+                                               ReminderProperties properties, ObjectProvider<ReminderNotifier> notifiers,
+                                               PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        return new ReminderScheduler(repository, shards.getIfAvailable(), properties, notifiers.orderedStream().toList(),
+                transactionManager, meterRegistry);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.medical.reminders;
+
+import java.util.List;
+
+/**
+ * Delivers due reminders. Every bean implementing this gets each batch, on the reminder thread, so a slow
+ * notifier delays the reminders after it and should hand off to its own executor.
+ */
+public interface ReminderNotifier {
+
+    void notify(List<Reminder> reminders) throws Exception;
+}
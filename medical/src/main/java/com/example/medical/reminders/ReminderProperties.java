@@ -0,0 +1,59 @@
+package com.example.medical.reminders;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "medical.reminders")
+public class ReminderProperties {
+
+    /**
+     * Off by default: every node running reminders sends its own copy, so enable it on exactly one node.
+     */
+    private boolean enabled = false;
+
+    /**
+     * How long before an appointment each reminder is due.
+     */
+    private List<Duration> leadTimes = new ArrayList<>(List.of(Duration.ofHours(24), Duration.ofHours(1)));
+
+    /**
+     * Resolution of the timing wheel; reminders fire up to one tick late.
+     */
+    private Duration tick = Duration.ofSeconds(1);
+
+    /**
+     * Appointments up to this far ahead are kept in memory; later ones are loaded as the window moves.
+     */
+    private Duration horizon = Duration.ofDays(7);
+
+    /**
+     * How often the window is moved forward.
+     */
+    private Duration scanInterval = Duration.ofHours(1);
+
+    /**
+     * Reminders whose time passed less than this long ago, for example while the node was restarting, are still
+     * sent. Older ones are skipped.
+     */
+    private Duration missedGrace = Duration.ofMinutes(5);
+
+    /**
+     * Appointments read per query when loading.
+     */
+    private int pageSize = 1000;
+
+    /**
+     * Most reminders handed to a notifier at once.
+     */
+    private int batchSize = 500;
+
+    /**
+     * JSON-lines file due reminders are appended to. No file notifier when unset.
+     */
+    private String file;
+}
@@ -0,0 +1,306 @@
+package com.example.medical.reminders;
+
+import com.example.medical.events.ChangeSubscriber;
+import com.example.medical.events.EntityChangedEvent;
+import com.example.medical.model.Appointment;
+import com.example.medical.repository.AppointmentRepository;
+import com.example.medical.sharding.ShardContext;
+import com.example.medical.sharding.ShardDataSources;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a timer per reminder of every appointment within the horizon in a {@link TimingWheel}. Loaded with a
+ * range scan over the appointment date index of every shard, then kept in sync from the change event bus: created
+ * appointments get timers, deleted ones lose them. Changes made on other nodes come through the change log without
+ * the entity, so those appointments are read back. Due reminders are handed to the {@link ReminderNotifier}s in
+ * batches.
+ * <p>
+ * The wheel, the loading and the notifiers all run on one thread, so no reminder is sent twice by this node.
+ * Nothing coordinates nodes, so exactly one node of a deployment may run reminders. With sharding, appointment ids
+ * must be unique across shards. Appointment dates are in the server's time zone.
+ */
+@Slf4j
+public class ReminderScheduler implements ChangeSubscriber {
+
+    private final AppointmentRepository repository;
+    // A null entry is the single database of an unsharded deployment.
+    private final List<String> shards;
+    private final ReminderProperties properties;
+    private final List<ReminderNotifier> notifiers;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TimingWheel<Reminder> wheel;
+    private final Map<Integer, List<TimingWheel.Timeout<Reminder>>> byAppointment = new ConcurrentHashMap<>();
+    private final Set<Integer> deletedWhileLoading = ConcurrentHashMap.newKeySet();
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final Counter sent;
+    private final Counter failed;
+    private final Timer delay;
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reminder-wheel");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Appointments before this are in the wheel; null until the first load starts.
+    private volatile LocalDateTime loadedUntil;
+    private volatile boolean loading;
+
+    public ReminderScheduler(AppointmentRepository repository, ShardDataSources shards, ReminderProperties properties,
+                             List<ReminderNotifier> notifiers, PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.shards = shards != null ? shards.shardNames() : Collections.singletonList(null);
+        this.properties = properties;
+        this.notifiers = notifiers;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.wheel = new TimingWheel<>(properties.getTick(), System.currentTimeMillis());
+        this.sent = meterRegistry.counter("medical.reminders.sent");
+        this.failed = meterRegistry.counter("medical.reminders.failed");
+        this.delay = Timer.builder("medical.reminders.delay")
+                .description("Time from a reminder being due to it being handed to the notifiers")
+                .register(meterRegistry);
+        meterRegistry.gauge("medical.reminders.timers", wheel, TimingWheel::size);
+        meterRegistry.gauge("medical.reminders.appointments", byAppointment, Map::size);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        worker.execute(this::reloadQuietly);
+        long tick = properties.getTick().toMillis();
+        worker.scheduleAtFixedRate(this::tickQuietly, tick, tick, TimeUnit.MILLISECONDS);
+        long scan = properties.getScanInterval().toMillis();
+        worker.scheduleWithFixedDelay(this::extendQuietly, scan, scan, TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    @Override
+    public String name() {
+        return "reminders";
+    }
+
+    @Override
+    public boolean accepts(Class<?> entityType) {
+        return entityType == Appointment.class;
+    }
+
+    @Override
+    public void onChanges(List<EntityChangedEvent> changes) {
+        for (EntityChangedEvent change : changes) {
+            Integer id = (Integer) change.id();
+            LocalDateTime until = loadedUntil;
+            if (change.change() == EntityChangedEvent.Change.DELETED) {
+                if (loading) {
+                    deletedWhileLoading.add(id);
+                }
+                cancel(id);
+            } else {
+                UpcomingAppointment upcoming = change.entity() instanceof Appointment appointment
+                        ? new UpcomingAppointment(appointment.getId(), appointment.getDoctor().getId(),
+                                appointment.getPatient().getId(), appointment.getAppointmentDate())
+                        // Made on another node.
+                        : readOnlyTransaction.execute(status -> repository.findUpcomingById(id).orElse(null));
+                if (upcoming != null && until != null && upcoming.appointmentDate().isBefore(until)) {
+                    schedule(upcoming, true);
+                } else {
+                    // Gone again, or moved beyond the horizon: the scan that reaches its date schedules it again.
+                    cancel(id);
+                }
+            }
+        }
+    }
+
+    // Changes were lost, so deletes may have been missed too.
+    @Override
+    public void onOverflow() {
+        worker.execute(this::reloadQuietly);
+    }
+
+    /**
+     * Drops every timer and loads the appointments within the horizon again.
+     */
+    void reload() {
+        byAppointment.keySet().forEach(this::cancel);
+        LocalDateTime from = LocalDateTime.now(zone);
+        LocalDateTime until = from.plus(properties.getHorizon());
+        // Set first, so that appointments created during the scan are scheduled from the bus.
+        loadedUntil = until;
+        load(from, until);
+    }
+
+    /**
+     * Loads the appointments the window moved over since the last scan.
+     */
+    void extend() {
+        LocalDateTime from = loadedUntil;
+        LocalDateTime until = LocalDateTime.now(zone).plus(properties.getHorizon());
+        if (from == null || !until.isAfter(from)) {
+            return;
+        }
+        loadedUntil = until;
+        load(from, until);
+    }
+
+    /**
+     * Hands the reminders due by now to the notifiers.
+     */
+    void tick() {
+        List<Reminder> due = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        wheel.advance(now, due::add);
+        for (Reminder reminder : due) {
+            long dueAt = reminder.appointmentDate().atZone(zone).toInstant().toEpochMilli() - reminder.leadTime().toMillis();
+            delay.record(Math.max(0, now - dueAt), TimeUnit.MILLISECONDS);
+            byAppointment.computeIfPresent(reminder.appointmentId(),
+                    (id, timers) -> timers.stream().anyMatch(TimingWheel.Timeout::isPending) ? timers : null);
+        }
+        for (int from = 0; from < due.size(); from += properties.getBatchSize()) {
+            List<Reminder> batch = due.subList(from, Math.min(due.size(), from + properties.getBatchSize()));
+            for (ReminderNotifier notifier : notifiers) {
+                try {
+                    notifier.notify(batch);
+                    sent.increment(batch.size());
+                } catch (Exception ex) {
+                    failed.increment(batch.size());
+                    log.warn("Reminder notifier {} failed on {} reminders", notifier.getClass().getSimpleName(), batch.size(), ex);
+                }
+            }
+        }
+    }
+
+    int scheduledAppointments() {
+        return byAppointment.size();
+    }
+
+    boolean isScheduled(Integer appointmentId) {
+        return byAppointment.containsKey(appointmentId);
+    }
+
+    private void load(LocalDateTime from, LocalDateTime until) {
+        loading = true;
+        deletedWhileLoading.clear();
+        try {
+            int loaded = 0;
+            for (String shard : shards) {
+                try {
+                    loaded += ShardContext.callOn(shard, () -> loadShard(from, until));
+                } catch (RuntimeException ex) {
+                    throw ex;
+                } catch (Exception ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+            // The scan may have read rows whose delete arrived while it ran.
+            deletedWhileLoading.forEach(this::cancel);
+            log.info("Loaded reminders for {} appointments until {}", loaded, until);
+        } finally {
+            loading = false;
+        }
+    }
+
+    private int loadShard(LocalDateTime from, LocalDateTime until) {
+        LocalDateTime afterDate = from;
+        Integer afterId = 0;
+        int loaded = 0;
+        while (true) {
+            LocalDateTime pageDate = afterDate;
+            Integer pageId = afterId;
+            List<UpcomingAppointment> page = readOnlyTransaction.execute(status ->
+                    repository.findUpcoming(pageDate, pageId, until, Limit.of(properties.getPageSize())));
+            for (UpcomingAppointment appointment : page) {
+                schedule(appointment, false);
+            }
+            loaded += page.size();
+            if (page.size() < properties.getPageSize()) {
+                return loaded;
+            }
+            UpcomingAppointment last = page.get(page.size() - 1);
+            afterDate = last.appointmentDate();
+            afterId = last.id();
+        }
+    }
+
+    /**
+     * Schedules the appointment's reminders. Loads do not {@code replace}, as the bus may already have scheduled
+     * a newer version.
+     */
+    private void schedule(UpcomingAppointment appointment, boolean replace) {
+        long at = appointment.appointmentDate().atZone(zone).toInstant().toEpochMilli();
+        long notBefore = System.currentTimeMillis() - properties.getMissedGrace().toMillis();
+        List<TimingWheel.Timeout<Reminder>> timers = new ArrayList<>(properties.getLeadTimes().size());
+        for (Duration lead : properties.getLeadTimes()) {
+            long dueAt = at - lead.toMillis();
+            if (dueAt > notBefore) {
+                timers.add(wheel.schedule(dueAt, new Reminder(appointment.id(), appointment.doctorId(),
+                        appointment.patientId(), appointment.appointmentDate(), lead)));
+            }
+        }
+        if (timers.isEmpty()) {
+            if (replace) {
+                cancel(appointment.id());
+            }
+            return;
+        }
+        List<TimingWheel.Timeout<Reminder>> previous = replace
+                ? byAppointment.put(appointment.id(), timers)
+                : byAppointment.putIfAbsent(appointment.id(), timers);
+        List<TimingWheel.Timeout<Reminder>> discarded = replace ? previous : previous != null ? timers : null;
+        if (discarded != null) {
+            discarded.forEach(TimingWheel.Timeout::cancel);
+        }
+    }
+
+    private void cancel(Integer appointmentId) {
+        List<TimingWheel.Timeout<Reminder>> timers = byAppointment.remove(appointmentId);
+        if (timers != null) {
+            timers.forEach(TimingWheel.Timeout::cancel);
+        }
+    }
+
+    private void tickQuietly() {
+        try {
+            tick();
+        } catch (RuntimeException ex) {
+            log.warn("Could not fire due reminders", ex);
+        }
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (RuntimeException ex) {
+            log.warn("Could not load upcoming appointments for reminders: {}", ex.getMessage());
+        }
+    }
+
+    private void extendQuietly() {
+        try {
+            extend();
+        } catch (RuntimeException ex) {
+            log.warn("Could not load upcoming appointments for reminders: {}", ex.getMessage());
+        }
+    }
+}
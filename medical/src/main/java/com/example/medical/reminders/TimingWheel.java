@@ -0,0 +1,207 @@
+package com.example.medical.reminders;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: four levels of 256 slots, each level's slot spanning a full turn of the level below,
+ * so one-second ticks cover 136 years. A timer sits in an intrusive doubly-linked list in one slot and moves down
+ * a level when its slot comes up, so scheduling, cancelling and firing are O(1) per timer, whatever the count.
+ * <p>
+ * Any thread may schedule and cancel: both only go through lock-free queues. A single owner thread calls
+ * {@link #advance}, which applies the queued operations and fires what is due. Timers fire at the first tick at
+ * or after their deadline, never early.
+ */
+public final class TimingWheel<T> {
+
+    private static final int BITS = 8;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final Timeout<T>[] buckets;
+    private final Queue<Timeout<T>> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout<T>> cancelled = new ConcurrentLinkedQueue<>();
+    // Owned by the advancing thread.
+    private long tick;
+    private volatile int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(Duration tick, long startMillis) {
+        if (tick.toMillis() <= 0) {
+            throw new IllegalArgumentException("Timing wheel tick must be at least a millisecond");
+        }
+        this.tickMillis = tick.toMillis();
+        this.startMillis = startMillis;
+        this.buckets = new Timeout[LEVELS * SLOTS];
+    }
+
+    public Timeout<T> schedule(long deadlineMillis, T payload) {
+        Timeout<T> timeout = new Timeout<>(this, Math.floorDiv(deadlineMillis - startMillis + tickMillis - 1, tickMillis), payload);
+        scheduled.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Timers in the wheel, not counting those scheduled or cancelled since the last {@link #advance}.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Applies queued schedules and cancellations, then moves the wheel to {@code nowMillis} and hands every timer
+     * that became due to {@code expired}, in deadline order. Must only be called by the owner thread.
+     */
+    public void advance(long nowMillis, Consumer<? super T> expired) {
+        for (Timeout<T> timeout; (timeout = cancelled.poll()) != null; ) {
+            unlink(timeout);
+        }
+        for (Timeout<T> timeout; (timeout = scheduled.poll()) != null; ) {
+            if (timeout.state == Timeout.PENDING && !link(timeout)) {
+                expire(timeout, expired);
+            }
+        }
+        long target = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        while (tick < target) {
+            tick++;
+            for (int level = 1; level < LEVELS && (tick & ((1L << (BITS * level)) - 1)) == 0; level++) {
+                cascade(level * SLOTS + (int) ((tick >>> (BITS * level)) & MASK), expired);
+            }
+            Timeout<T> timeout = detach((int) (tick & MASK));
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                timeout.next = null;
+                expire(timeout, expired);
+                timeout = next;
+            }
+        }
+    }
+
+    private void cascade(int bucket, Consumer<? super T> expired) {
+        Timeout<T> timeout = detach(bucket);
+        while (timeout != null) {
+            Timeout<T> next = timeout.next;
+            timeout.next = null;
+            if (timeout.state == Timeout.PENDING && !link(timeout)) {
+                expire(timeout, expired);
+            }
+            timeout = next;
+        }
+    }
+
+    /**
+     * Puts the timer in the slot of the lowest level whose turn still reaches its deadline; {@code false} if it
+     * is already due.
+     */
+    private boolean link(Timeout<T> timeout) {
+        long delta = timeout.deadlineTick - tick;
+        if (delta <= 0) {
+            return false;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (BITS * (level + 1))) {
+            level++;
+        }
+        // Beyond the top level's reach: park in its furthest slot and re-place on the way down.
+        long target = delta >= 1L << (BITS * LEVELS) ? tick + (1L << (BITS * LEVELS)) - 1 : timeout.deadlineTick;
+        int bucket = level * SLOTS + (int) ((target >>> (BITS * level)) & MASK);
+        Timeout<T> head = buckets[bucket];
+        timeout.bucket = bucket;
+        timeout.prev = null;
+        timeout.next = head;
+        if (head != null) {
+            head.prev = timeout;
+        }
+        buckets[bucket] = timeout;
+        size++;
+        return true;
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        if (timeout.bucket < 0) {
+            return;
+        }
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            buckets[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.bucket = -1;
+        size--;
+    }
+
+    // Empties a slot and returns its list, still chained through next.
+    private Timeout<T> detach(int bucket) {
+        Timeout<T> head = buckets[bucket];
+        buckets[bucket] = null;
+        int count = 0;
+        for (Timeout<T> timeout = head; timeout != null; timeout = timeout.next) {
+            timeout.bucket = -1;
+            timeout.prev = null;
+            count++;
+        }
+        size -= count;
+        return head;
+    }
+
+    private void expire(Timeout<T> timeout, Consumer<? super T> expired) {
+        if (Timeout.STATE.compareAndSet(timeout, Timeout.PENDING, Timeout.EXPIRED)) {
+            expired.accept(timeout.payload);
+        }
+    }
+
+    public static final class Timeout<T> {
+
+        static final int PENDING = 0;
+        static final int CANCELLED = 1;
+        static final int EXPIRED = 2;
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final TimingWheel<T> wheel;
+        private final long deadlineTick;
+        private final T payload;
+        private volatile int state;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+        private int bucket = -1;
+
+        private Timeout(TimingWheel<T> wheel, long deadlineTick, T payload) {
+            this.wheel = wheel;
+            this.deadlineTick = deadlineTick;
+            this.payload = payload;
+        }
+
+        public T payload() {
+            return payload;
+        }
+
+        /**
+         * Returns {@code false} if the timer already fired or was cancelled.
+         */
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, PENDING, CANCELLED)) {
+                return false;
+            }
+            wheel.cancelled.add(this);
+            return true;
+        }
+
+        public boolean isPending() {
+            return state == PENDING;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.medical.reminders;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns reminders need, read without loading the appointment's associations.
+ */
+public record UpcomingAppointment(Integer id, Integer doctorId, Integer patientId, LocalDateTime appointmentDate) {
+}
@@ -1,11 +1,29 @@
 package com.example.medical.repository;
 
 import com.example.medical.model.Appointment;
+import com.example.medical.reminders.UpcomingAppointment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface AppointmentRepository extends JpaRepository<Appointment, Integer> {
     List<Appointment> findByPatientId(Integer patientId);
     List<Appointment> findByDoctorId(Integer doctorId);
+
+    // Keyset page over idx_appointment_date: appointments before :until, after (:afterDate, :afterId).
+    @Query("select new com.example.medical.reminders.UpcomingAppointment(a.id, a.doctor.id, a.patient.id, a.appointmentDate)"
+            + " from Appointment a where a.appointmentDate < :until"
+            + " and (a.appointmentDate > :afterDate or (a.appointmentDate = :afterDate and a.id > :afterId))"
+            + " order by a.appointmentDate, a.id")
+    List<UpcomingAppointment> findUpcoming(@Param("afterDate") LocalDateTime afterDate, @Param("afterId") Integer afterId,
+                                           @Param("until") LocalDateTime until, Limit limit);
+
+    @Query("select new com.example.medical.reminders.UpcomingAppointment(a.id, a.doctor.id, a.patient.id, a.appointmentDate)"
+            + " from Appointment a where a.id = :id")
+    Optional<UpcomingAppointment> findUpcomingById(@Param("id") Integer id);
 }
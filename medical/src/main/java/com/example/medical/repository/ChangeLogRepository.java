@@ -0,0 +1,23 @@
+package com.example.medical.repository;
+
+import com.example.medical.model.ChangeLogEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long> {
+    List<ChangeLogEntry> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+    List<ChangeLogEntry> findByIdIn(Collection<Long> ids);
+
+    @Query("select coalesce(max(e.id), 0) from ChangeLogEntry e")
+    long findMaxId();
+
+    @Modifying
+    @Query("delete from ChangeLogEntry e where e.changedAt < :cutoff")
+    int deleteChangedBefore(@Param("cutoff") long cutoffEpochMillis);
+}
@@ -0,0 +1,35 @@
+package com.example.medical.repository;
+
+import com.example.medical.model.JobLease;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l from JobLease l where l.name = :name")
+    Optional<JobLease> findForUpdate(@Param("name") String name);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update JobLease l set l.owner = :owner, l.token = l.token + 1, l.acquiredAt = :now, l.expiresAt = :expiresAt"
+            + " where l.name = :name and (l.owner is null or l.expiresAt < :now)")
+    int acquire(@Param("name") String name, @Param("owner") String owner, @Param("now") long now,
+                @Param("expiresAt") long expiresAt);
+
+    @Modifying
+    @Query("update JobLease l set l.expiresAt = :expiresAt"
+            + " where l.name = :name and l.owner = :owner and l.token = :token and l.expiresAt >= :now")
+    int renew(@Param("name") String name, @Param("owner") String owner, @Param("token") long token,
+              @Param("now") long now, @Param("expiresAt") long expiresAt);
+
+    @Modifying
+    @Query("update JobLease l set l.owner = null, l.expiresAt = 0"
+            + " where l.name = :name and l.owner = :owner and l.token = :token")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("token") long token);
+}
@@ -0,0 +1,15 @@
+package com.example.medical.repository;
+
+import com.example.medical.model.JobNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface JobNodeRepository extends JpaRepository<JobNode, String> {
+    long countByHeartbeatAtGreaterThanEqual(Long heartbeatAt);
+
+    @Modifying
+    @Query("delete from JobNode n where n.heartbeatAt < :cutoff")
+    int deleteSilentSince(@Param("cutoff") long cutoffEpochMillis);
+}
@@ -0,0 +1,17 @@
+package com.example.medical.repository;
+
+import com.example.medical.model.JobRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface JobRunRepository extends JpaRepository<JobRun, Long> {
+    List<JobRun> findByJobOrderByIdAsc(String job);
+
+    @Modifying
+    @Query("delete from JobRun r where r.startedAt < :cutoff")
+    int deleteStartedBefore(@Param("cutoff") long cutoffEpochMillis);
+}
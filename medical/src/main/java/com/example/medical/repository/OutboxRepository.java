@@ -0,0 +1,36 @@
+package com.example.medical.repository;
+
+import com.example.medical.model.OutboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxRepository extends JpaRepository<OutboxMessage, Long> {
+
+    // SKIP LOCKED lets dispatchers on several nodes claim disjoint batches instead of queueing behind each other.
+    // Written natively because Hibernate renders the lock-timeout hint only for some dialects; MySQL 8 and H2 accept it.
+    // Dead messages are excluded by dead_at, so the whole condition stays within idx_outbox_due.
+    @Query(value = "select * from outbox_message where dispatched_at is null and dead_at is null"
+            + " and next_attempt_at <= :now order by id limit :limit for update skip locked", nativeQuery = true)
+    List<OutboxMessage> claimDue(@Param("now") long nowEpochMillis, @Param("limit") int limit);
+
+    List<OutboxMessage> findByDeadAtIsNotNullOrderByDeadAtDesc(Pageable pageable);
+
+    @Modifying
+    @Query("update OutboxMessage m set m.deadAt = null, m.attempts = 0, m.nextAttemptAt = :now"
+            + " where m.id = :id and m.deadAt is not null")
+    int revive(@Param("id") long id, @Param("now") long nowEpochMillis);
+
+    @Modifying
+    @Query("delete from OutboxMessage m where m.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update OutboxMessage m set m.dispatchedAt = :dispatchedAt where m.id in :ids")
+    int markDispatched(@Param("ids") Collection<Long> ids, @Param("dispatchedAt") long dispatchedAtEpochMillis);
+}
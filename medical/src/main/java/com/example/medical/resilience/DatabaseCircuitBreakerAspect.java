@@ -0,0 +1,52 @@
+package com.example.medical.resilience;
+
+import com.example.medical.exceptions.DatabaseUnavailableException;
+import com.example.medical.sharding.ShardContext;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.time.Duration;
+
+/**
+ * Runs repository calls through a circuit breaker, so that once database errors or slow calls pass their
+ * thresholds callers fail fast with {@link DatabaseUnavailableException} instead of piling onto the pool.
+ * Calls made on a clinic shard go through a breaker of that shard, so one failing shard does not trip the others.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE + 350)
+public class DatabaseCircuitBreakerAspect {
+
+    public static final String DEFAULT_BREAKER = "database";
+
+    private final CircuitBreakerRegistry registry;
+    private final CircuitBreaker defaultBreaker;
+    private final Duration retryAfter;
+
+    public DatabaseCircuitBreakerAspect(CircuitBreakerRegistry registry, Duration retryAfter) {
+        this.registry = registry;
+        this.defaultBreaker = registry.circuitBreaker(DEFAULT_BREAKER);
+        this.retryAfter = retryAfter;
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object guardRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        CircuitBreaker breaker = breaker();
+        try {
+            return breaker.executeCheckedSupplier(joinPoint::proceed);
+        } catch (CallNotPermittedException ex) {
+            throw new DatabaseUnavailableException("Database circuit breaker '" + breaker.getName()
+                    + "' is open, retry later", retryAfter);
+        }
+    }
+
+    private CircuitBreaker breaker() {
+        String shard = ShardContext.currentShard();
+        return shard == null ? defaultBreaker : registry.circuitBreaker("shard-" + shard);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.medical.resilience;
+
+import com.example.medical.exceptions.DeadlineExceededException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(DatabaseCircuitBreakerProperties.class)
+@ConditionalOnProperty(prefix = "medical.db-circuit-breaker", name = "enabled", matchIfMissing = true)
+public class DatabaseCircuitBreakerConfig {
+
+    @Bean
+    public CircuitBreakerRegistry databaseCircuitBreakerRegistry(DatabaseCircuitBreakerProperties properties) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .failureRateThreshold(properties.getFailureRateThreshold())
+                .slowCallRateThreshold(properties.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(properties.getSlowCallDuration())
+                .slidingWindow(properties.getSlidingWindowSize(), properties.getMinimumNumberOfCalls(),
+                        properties.getSlidingWindowType())
+                .waitDurationInOpenState(properties.getWaitInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(properties.getPermittedCallsInHalfOpenState())
+                .recordException(DatabaseCircuitBreakerConfig::isDatabaseFailure)
+                .ignoreExceptions(DeadlineExceededException.class)
+                .build();
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        registry.getEventPublisher().onEntryAdded(added -> added.getAddedEntry().getEventPublisher()
+                .onStateTransition(event -> log.warn("Circuit breaker '{}' went {}", event.getCircuitBreakerName(),
+                        event.getStateTransition())));
+        return registry;
+    }
+
+    @Bean
+    public MeterBinder databaseCircuitBreakerMetrics(CircuitBreakerRegistry databaseCircuitBreakerRegistry) {
+        return TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(databaseCircuitBreakerRegistry);
+    }
+
+    @Bean
+    public DatabaseCircuitBreakerAspect databaseCircuitBreakerAspect(CircuitBreakerRegistry databaseCircuitBreakerRegistry,
+                                                                     DatabaseCircuitBreakerProperties properties) {
+        return new DatabaseCircuitBreakerAspect(databaseCircuitBreakerRegistry, properties.getWaitInOpenState());
+    }
+
+    // Only errors that say something about the health of the database count; constraint violations and
+    // missing rows are the caller's problem. A query timeout after the request deadline has passed was the
+    // deadline's statement timeout firing, which says the client was impatient, not that the database is sick.
+    static boolean isDatabaseFailure(Throwable ex) {
+        if (ex instanceof QueryTimeoutException) {
+            RequestDeadline deadline = RequestDeadline.current();
+            if (deadline != null && deadline.isExpired()) {
+                return false;
+            }
+        }
+        return ex instanceof TransientDataAccessException
+                || ex instanceof DataAccessResourceFailureException
+                || ex instanceof RecoverableDataAccessException;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.medical.resilience;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig.SlidingWindowType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "medical.db-circuit-breaker")
+public class DatabaseCircuitBreakerProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Percentage of calls failing with a database access error that opens the breaker.
+     */
+    private float failureRateThreshold = 50;
+
+    /**
+     * Percentage of calls slower than {@link #slowCallDuration} that opens the breaker.
+     */
+    private float slowCallRateThreshold = 80;
+
+    private Duration slowCallDuration = Duration.ofSeconds(2);
+
+    private SlidingWindowType slidingWindowType = SlidingWindowType.TIME_BASED;
+
+    /**
+     * Seconds for a time-based window, calls for a count-based one.
+     */
+    private int slidingWindowSize = 20;
+
+    /**
+     * Calls the window must hold before the rates are evaluated.
+     */
+    private int minimumNumberOfCalls = 20;
+
+    /**
+     * How long an open breaker rejects calls before letting trial calls through. Sent as {@code Retry-After}.
+     */
+    private Duration waitInOpenState = Duration.ofSeconds(10);
+
+    private int permittedCallsInHalfOpenState = 5;
+}
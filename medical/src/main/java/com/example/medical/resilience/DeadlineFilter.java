@@ -0,0 +1,60 @@
+package com.example.medical.resilience;
+
+import com.example.medical.limiter.EndpointGroup;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Starts the deadline of each API request from the timeout header, capped at the configured maximum, or from
+ * the default of its endpoint group. Runs ahead of the limiters so that time spent queueing counts against it.
+ */
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    private final DeadlineProperties properties;
+
+    public DeadlineFilter(DeadlineProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Duration timeout;
+        try {
+            timeout = timeout(request);
+        } catch (IllegalArgumentException ex) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"status\":400,\"error\":\"Bad Request\","
+                    + "\"message\":\"Invalid " + properties.getHeader() + " header\"}");
+            return;
+        }
+        RequestDeadline.start(timeout);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+
+    Duration timeout(HttpServletRequest request) {
+        String value = request.getHeader(properties.getHeader());
+        if (value == null || value.isBlank()) {
+            return properties.defaultFor(EndpointGroup.of(request, properties.getBulkPaths()));
+        }
+        Duration requested = DurationStyle.detectAndParse(value.trim(), ChronoUnit.MILLIS);
+        if (requested.isNegative() || requested.isZero()) {
+            throw new IllegalArgumentException("Timeout must be positive: " + value);
+        }
+        return requested.compareTo(properties.getMax()) > 0 ? properties.getMax() : requested;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.medical.resilience;
+
+import com.example.medical.limiter.EndpointGroup;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "medical.deadline")
+public class DeadlineProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Header carrying the time the client is willing to wait, in milliseconds or as a duration such as {@code 2s}.
+     */
+    private String header = "X-Request-Timeout";
+
+    /**
+     * Deadline of single-row reads without the header.
+     */
+    private Duration reads = Duration.ofSeconds(2);
+
+    /**
+     * Deadline of writes without the header.
+     */
+    private Duration writes = Duration.ofSeconds(5);
+
+    /**
+     * Deadline of bulk listings without the header.
+     */
+    private Duration bulk = Duration.ofSeconds(15);
+
+    /**
+     * Upper bound on the deadline a client may ask for.
+     */
+    private Duration max = Duration.ofSeconds(30);
+
+    private List<String> bulkPaths = new ArrayList<>(EndpointGroup.DEFAULT_BULK_PATHS);
+
+    public Duration defaultFor(EndpointGroup group) {
+        return switch (group) {
+            case READS -> reads;
+            case WRITES -> writes;
+            case BULK -> bulk;
+        };
+    }
+}
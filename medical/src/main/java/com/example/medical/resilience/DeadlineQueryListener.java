@@ -0,0 +1,77 @@
+package com.example.medical.resilience;
+
+import com.example.medical.exceptions.DeadlineExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gives every statement run for a request at most the time left until its deadline as JDBC query timeout, so the
+ * driver cancels it once the client has given up, and refuses to start statements once the deadline has passed.
+ * A tighter timeout already on the statement, such as one Hibernate derived from a transaction timeout, is kept.
+ * The statement's own timeout is restored afterwards in case the driver caches and reuses it.
+ */
+@Slf4j
+public class DeadlineQueryListener implements QueryExecutionListener {
+
+    private static final String ORIGINAL_TIMEOUT = DeadlineQueryListener.class.getName() + ".originalTimeout";
+
+    private final Counter exceededBeforeQuery;
+    private final Counter queryTimeouts;
+
+    public DeadlineQueryListener(MeterRegistry meterRegistry) {
+        this.exceededBeforeQuery = meterRegistry.counter("medical.deadline.exceeded", "stage", "before-query");
+        this.queryTimeouts = meterRegistry.counter("medical.deadline.exceeded", "stage", "query-timeout");
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline == null) {
+            return;
+        }
+        long remaining = deadline.remainingNanos();
+        if (remaining <= 0) {
+            exceededBeforeQuery.increment();
+            throw new DeadlineExceededException("Request deadline of " + deadline.getTimeout().toMillis()
+                    + " ms exceeded before the query ran");
+        }
+        // JDBC query timeouts are whole seconds
+        int seconds = (int) Math.max(1, (remaining + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        Statement statement = execInfo.getStatement();
+        try {
+            int current = statement.getQueryTimeout();
+            if (current == 0 || current > seconds) {
+                statement.setQueryTimeout(seconds);
+                execInfo.addCustomValue(ORIGINAL_TIMEOUT, current);
+            }
+        } catch (SQLException ex) {
+            log.debug("Could not apply the request deadline to the statement", ex);
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getThrowable() instanceof SQLTimeoutException && RequestDeadline.current() != null) {
+            queryTimeouts.increment();
+        }
+        Integer original = execInfo.getCustomValue(ORIGINAL_TIMEOUT, Integer.class);
+        if (original == null) {
+            return;
+        }
+        try {
+            execInfo.getStatement().setQueryTimeout(original);
+        } catch (SQLException ex) {
+            log.debug("Could not restore the statement query timeout", ex);
+        }
+    }
+}
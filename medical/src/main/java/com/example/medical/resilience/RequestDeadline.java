@@ -0,0 +1,77 @@
+package com.example.medical.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * The point in time by which the current request must be done. Set by {@link DeadlineFilter} for the thread
+ * serving the request; JDBC statements run on that thread get the remaining time as their query timeout. Work
+ * handed to other threads carries it over with {@link #callWith}.
+ */
+public final class RequestDeadline {
+
+    private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+
+    private final long timeoutNanos;
+    private final long deadlineNanos;
+
+    private RequestDeadline(long timeoutNanos, long startNanos) {
+        this.timeoutNanos = timeoutNanos;
+        this.deadlineNanos = startNanos + timeoutNanos;
+    }
+
+    public static RequestDeadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * A deadline {@code timeout} from now, not set on any thread; pass it to {@link #callWith}.
+     */
+    public static RequestDeadline after(Duration timeout) {
+        return new RequestDeadline(timeout.toNanos(), System.nanoTime());
+    }
+
+    static RequestDeadline start(Duration timeout) {
+        RequestDeadline deadline = new RequestDeadline(timeout.toNanos(), System.nanoTime());
+        CURRENT.set(deadline);
+        return deadline;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Runs the action under the given deadline, or under none if it is null, and restores the thread's own
+     * deadline afterwards. Meant for pool threads doing part of a request.
+     */
+    public static <T> T callWith(RequestDeadline deadline, Callable<T> action) throws Exception {
+        RequestDeadline previous = CURRENT.get();
+        set(deadline);
+        try {
+            return action.call();
+        } finally {
+            set(previous);
+        }
+    }
+
+    private static void set(RequestDeadline deadline) {
+        if (deadline != null) {
+            CURRENT.set(deadline);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    public long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    public Duration getTimeout() {
+        return Duration.ofNanos(timeoutNanos);
+    }
+}
@@ -1,13 +1,18 @@
 package com.example.medical.service;
 
+import com.example.medical.coalescing.SingleFlight;
 import com.example.medical.exceptions.AppointmentNotFoundException;
 import com.example.medical.exceptions.DoctorNotFoundException;
 import com.example.medical.exceptions.PatientNotFroundException;
 import com.example.medical.model.Appointment;
 import com.example.medical.model.Doctor;
 import com.example.medical.model.Patient;
+import com.example.medical.outbox.AppointmentScheduled;
+import com.example.medical.outbox.Outbox;
 import com.example.medical.repository.AppointmentRepository;
+import com.example.medical.sharding.ShardContext;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,6 +26,7 @@ public class AppointmentService {
     private final AppointmentRepository appointmentRepository;
     private final PatientService patientService;
     private final DoctorService doctorService;
+    private final Outbox outbox;
 
     public Appointment create(Appointment appointment) {
         if (appointment == null) {
@@ -42,23 +48,49 @@ public class AppointmentService {
                 doctorService.getById(appointment.getDoctor().getId())
         );
 
-        return appointmentRepository.save(appointment);
+        Appointment saved = appointmentRepository.save(appointment);
+        outbox.enqueue("Appointment", saved.getId(), new AppointmentScheduled(saved.getId(),
+                appointment.getPatient().getId(), appointment.getDoctor().getId(), saved.getAppointmentDate()));
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public Appointment getById(Integer id) {
-        return appointmentRepository.findById(id)
-                .orElseThrow(() -> new AppointmentNotFoundException(id));
+        return initialize(findById(id));
     }
 
+    @Transactional(readOnly = true)
     public List<Appointment> getByPatient(Integer patientId) {
-        return appointmentRepository.findByPatientId(patientId);
+        List<Appointment> appointments = appointmentRepository.findByPatientId(patientId);
+        appointments.forEach(AppointmentService::initialize);
+        return appointments;
     }
 
+    @Transactional(readOnly = true)
+    @SingleFlight(key = "#doctorId")
     public List<Appointment> getByDoctor(Integer doctorId) {
-        return appointmentRepository.findByDoctorId(doctorId);
+        List<Appointment> appointments = appointmentRepository.findByDoctorId(doctorId);
+        appointments.forEach(AppointmentService::initialize);
+        return appointments;
     }
 
     public void delete(Integer id) {
-        appointmentRepository.delete(getById(id));
+        appointmentRepository.delete(findById(id));
+    }
+
+    private Appointment findById(Integer id) {
+        return appointmentRepository.findById(id)
+                .filter(ShardContext::isVisible)
+                .orElseThrow(() -> new AppointmentNotFoundException(id));
+    }
+
+    // Open Session In View is off: everything GeneralMapper walks must be loaded before the transaction ends.
+    // default_batch_fetch_size turns these into one query per batch of appointments instead of one per appointment.
+    private static Appointment initialize(Appointment appointment) {
+        if (appointment.getPrescriptions() != null) {
+            Hibernate.initialize(appointment.getPrescriptions());
+            appointment.getPrescriptions().forEach(prescription -> Hibernate.initialize(prescription.getMedications()));
+        }
+        return appointment;
     }
 }
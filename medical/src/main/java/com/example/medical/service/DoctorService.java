@@ -1,12 +1,19 @@
 package com.example.medical.service;
 
+import com.example.medical.cache.StaleWhileRevalidate;
+import com.example.medical.coalescing.SingleFlight;
+import com.example.medical.datasource.Workload;
+import com.example.medical.datasource.WorkloadPool;
 import com.example.medical.exceptions.DoctorNotFoundException;
 import com.example.medical.exceptions.SpecializationNotFoundException;
 import com.example.medical.model.Doctor;
 import com.example.medical.model.Specialization;
 import com.example.medical.repository.DoctorRepository;
 import com.example.medical.repository.SpecializationRepository;
+import com.example.medical.sharding.ScatterGather;
+import com.example.medical.sharding.ShardContext;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -38,16 +45,24 @@ public class DoctorService {
     }
 
 
+    @Transactional(readOnly = true)
+    @StaleWhileRevalidate(value = "doctors", evictOn = {Doctor.class, Specialization.class})
+    @WorkloadPool(Workload.REPORTING)
+    @ScatterGather(orderBy = {"lastName", "firstName", "id"})
     public List<Doctor> getAll() {
-        return doctorRepository.findAll();
+        return doctorRepository.findAll(Sort.by("lastName", "firstName", "id"));
     }
 
+    @Transactional(readOnly = true)
+    @SingleFlight(key = "#id")
     public Doctor getById(Integer id) {
         return doctorRepository.findById(id)
+                .filter(ShardContext::isVisible)
                 .orElseThrow(() -> new DoctorNotFoundException(id));
     }
 
 
+    @Transactional(readOnly = true)
     public List<Doctor> getBySpecialization(Integer specializationId) {
         return doctorRepository.findBySpecializationId(specializationId);
     }
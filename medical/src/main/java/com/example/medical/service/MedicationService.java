@@ -1,15 +1,18 @@
 package com.example.medical.service;
 
+import com.example.medical.cache.StaleWhileRevalidate;
 import com.example.medical.exceptions.EntityNotFoundException;
 import com.example.medical.exceptions.MedicationNotFoundException;
 import com.example.medical.model.Medication;
 import com.example.medical.repository.MedicationRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Service
+@Transactional
 @RequiredArgsConstructor
 public class MedicationService {
 
@@ -22,10 +25,13 @@ public class MedicationService {
         return medicationRepository.save(medication);
     }
 
+    @Transactional(readOnly = true)
+    @StaleWhileRevalidate(value = "medications", evictOn = Medication.class)
     public List<Medication> getAll() {
         return medicationRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public Medication getById(Integer id) {
         return medicationRepository.findById(id)
                 .orElseThrow(() -> new MedicationNotFoundException(id));
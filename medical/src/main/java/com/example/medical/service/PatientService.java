@@ -1,10 +1,15 @@
 package com.example.medical.service;
 
+import com.example.medical.datasource.Workload;
+import com.example.medical.datasource.WorkloadPool;
 import com.example.medical.exceptions.EntityNotFoundException;
 import com.example.medical.exceptions.PatientNotFroundException;
 import com.example.medical.model.Patient;
 import com.example.medical.repository.PatientRepository;
+import com.example.medical.sharding.ScatterGather;
+import com.example.medical.sharding.ShardContext;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,12 +29,17 @@ public class PatientService {
         return patientRepository.save(patient);
     }
 
+    @Transactional(readOnly = true)
+    @WorkloadPool(Workload.REPORTING)
+    @ScatterGather(orderBy = {"lastName", "firstName", "id"})
     public List<Patient> getAll() {
-        return patientRepository.findAll();
+        return patientRepository.findAll(Sort.by("lastName", "firstName", "id"));
     }
 
+    @Transactional(readOnly = true)
     public Patient getById(Integer id) {
         return patientRepository.findById(id)
+                .filter(ShardContext::isVisible)
                 .orElseThrow(() -> new PatientNotFroundException(id));
     }
 
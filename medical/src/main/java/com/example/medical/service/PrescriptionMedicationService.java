@@ -4,6 +4,7 @@ import com.example.medical.exceptions.EntityNotFoundException;
 import com.example.medical.exceptions.PrescriptionMedicationEntryNotFoundException;
 import com.example.medical.model.PrescriptionMedication;
 import com.example.medical.repository.PrescriptionMedicationRepository;
+import com.example.medical.sharding.ShardContext;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -16,6 +17,7 @@ public class PrescriptionMedicationService {
 
     public void updateDosage(Integer id, String dosage) {
         PrescriptionMedication pm = prescriptionMedicationRepository.findById(id)
+                .filter(found -> ShardContext.isVisible(found.getPrescription().getAppointment()))
                 .orElseThrow(() -> new PrescriptionMedicationEntryNotFoundException(id));
         pm.setDosage(dosage);
         prescriptionMedicationRepository.save(pm);
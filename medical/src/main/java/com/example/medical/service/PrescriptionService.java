@@ -4,9 +4,13 @@ import com.example.medical.exceptions.EntityNotFoundException;
 import com.example.medical.exceptions.MedicationNotFoundException;
 import com.example.medical.exceptions.PrescriptionNotFoundException;
 import com.example.medical.model.*;
+import com.example.medical.outbox.Outbox;
+import com.example.medical.outbox.PrescriptionIssued;
 import com.example.medical.repository.MedicationRepository;
 import com.example.medical.repository.PrescriptionRepository;
+import com.example.medical.sharding.ShardContext;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,18 +24,26 @@ public class PrescriptionService {
     private final PrescriptionRepository prescriptionRepository;
     private final MedicationRepository medicationRepository;
     private final AppointmentService appointmentService;
+    private final Outbox outbox;
 
     public Prescription create(Integer appointmentId, String instructions) {
         Prescription prescription = new Prescription();
         prescription.setAppointment(appointmentService.getById(appointmentId));
         prescription.setIssuedDate(LocalDateTime.now());
         prescription.setInstructions(instructions);
-        return prescriptionRepository.save(prescription);
+        Prescription saved = prescriptionRepository.save(prescription);
+        outbox.enqueue("Prescription", saved.getId(),
+                new PrescriptionIssued(saved.getId(), appointmentId, saved.getIssuedDate()));
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public Prescription getById(Integer id) {
-        return prescriptionRepository.findById(id)
+        Prescription prescription = prescriptionRepository.findById(id)
+                .filter(found -> ShardContext.isVisible(found.getAppointment()))
                 .orElseThrow(() -> new PrescriptionNotFoundException(id));
+        Hibernate.initialize(prescription.getMedications());
+        return prescription;
     }
 
     public Prescription addMedication(
@@ -40,6 +52,7 @@ public class PrescriptionService {
             String dosage
     ) {
         Prescription prescription = prescriptionRepository.findById(prescriptionId)
+                .filter(found -> ShardContext.isVisible(found.getAppointment()))
                 .orElseThrow(() -> new PrescriptionNotFoundException(prescriptionId));
 
         Medication medication = medicationRepository.findById(medicationId)
@@ -50,6 +63,7 @@ public class PrescriptionService {
         pm.setMedication(medication);
         pm.setDosage(dosage);
 
+        Hibernate.initialize(prescription.getMedications());
         prescription.getMedications().add(pm);
 
         return prescriptionRepository.save(prescription);
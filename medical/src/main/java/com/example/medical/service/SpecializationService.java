@@ -1,5 +1,6 @@
 package com.example.medical.service;
 
+import com.example.medical.cache.StaleWhileRevalidate;
 import com.example.medical.exceptions.SpecializationNotFoundException;
 import com.example.medical.model.Specialization;
 import com.example.medical.repository.SpecializationRepository;
@@ -23,10 +24,13 @@ public class SpecializationService {
         return specializationRepository.save(specialization);
     }
 
+    @Transactional(readOnly = true)
+    @StaleWhileRevalidate(value = "specializations", evictOn = Specialization.class)
     public List<Specialization> getAll() {
         return specializationRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public Specialization getById(Integer id) {
         return specializationRepository.findById(id)
                 .orElseThrow(() -> new SpecializationNotFoundException(id));
@@ -0,0 +1,17 @@
+package com.example.medical.sharding;
+
+import com.example.medical.model.ClinicScoped;
+import jakarta.persistence.PrePersist;
+
+/**
+ * Stamps new clinic-scoped entities with the clinic of the current request.
+ */
+public class ClinicAssignmentListener {
+
+    @PrePersist
+    public void assignClinic(Object entity) {
+        if (entity instanceof ClinicScoped scoped && scoped.getClinicId() == null) {
+            scoped.setClinicId(ShardContext.currentClinicId());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.medical.sharding;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Routes the request to the shard of the clinic named in the {@value #CLINIC_HEADER} header. Reads without the
+ * header use the default shard, and cross-shard queries fan out to every shard. Writes without the header are
+ * rejected unless they target reference data, which is replicated to every shard.
+ */
+@RequiredArgsConstructor
+public class ClinicShardFilter extends OncePerRequestFilter {
+
+    public static final String CLINIC_HEADER = "X-Clinic-Id";
+
+    private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    private static final List<String> REFERENCE_DATA_PATHS = List.of("/api/specializations", "/api/medications");
+
+    private final ShardingProperties properties;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(CLINIC_HEADER);
+        if (header == null || header.isBlank()) {
+            if (requiresClinic(request)) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, CLINIC_HEADER + " header is required");
+                return;
+            }
+            filterChain.doFilter(request, response);
+            return;
+        }
+        Integer clinicId;
+        try {
+            clinicId = Integer.valueOf(header.trim());
+        } catch (NumberFormatException ex) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid " + CLINIC_HEADER + " header");
+            return;
+        }
+        String shard = properties.getClinics().get(clinicId);
+        if (shard == null) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unknown clinic " + clinicId);
+            return;
+        }
+        ShardContext.set(shard, clinicId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ShardContext.clear();
+        }
+    }
+
+    static boolean requiresClinic(HttpServletRequest request) {
+        if (READ_METHODS.contains(request.getMethod())) {
+            return false;
+        }
+        String path = PATH_HELPER.getPathWithinApplication(request);
+        return REFERENCE_DATA_PATHS.stream().noneMatch(prefix -> path.equals(prefix) || path.startsWith(prefix + "/"));
+    }
+}
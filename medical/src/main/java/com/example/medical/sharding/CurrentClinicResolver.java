@@ -0,0 +1,14 @@
+package com.example.medical.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * Supplies the clinic filter parameter from {@link ShardContext} each time a query is rendered.
+ */
+public class CurrentClinicResolver implements Supplier<Integer> {
+
+    @Override
+    public Integer get() {
+        return ShardContext.currentClinicId();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.medical.sharding;
+
+import org.springframework.beans.BeanUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ascending comparator over bean properties, nulls last.
+ */
+final class PropertyOrder implements Comparator<Object> {
+
+    private final String[] properties;
+    private final Map<Class<?>, Method[]> getters = new ConcurrentHashMap<>();
+
+    PropertyOrder(String[] properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public int compare(Object left, Object right) {
+        Method[] leftGetters = getters(left.getClass());
+        Method[] rightGetters = getters(right.getClass());
+        for (int i = 0; i < properties.length; i++) {
+            int result = compareValues(invoke(leftGetters[i], left), invoke(rightGetters[i], right));
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareValues(Object left, Object right) {
+        if (left == null || right == null) {
+            return left == null ? (right == null ? 0 : 1) : -1;
+        }
+        if (left instanceof String leftString && right instanceof String rightString) {
+            return String.CASE_INSENSITIVE_ORDER.compare(leftString, rightString);
+        }
+        return ((Comparable) left).compareTo(right);
+    }
+
+    private Method[] getters(Class<?> type) {
+        return getters.computeIfAbsent(type, key -> {
+            Method[] methods = new Method[properties.length];
+            for (int i = 0; i < properties.length; i++) {
+                PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(key, properties[i]);
+                if (descriptor == null || descriptor.getReadMethod() == null) {
+                    throw new IllegalArgumentException("No readable property " + properties[i] + " on " + key.getName());
+                }
+                methods[i] = descriptor.getReadMethod();
+            }
+            return methods;
+        });
+    }
+
+    private static Object invoke(Method getter, Object target) {
+        try {
+            return getter.invoke(target);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Could not read " + getter.getName() + " for shard merge", ex);
+        }
+    }
+}
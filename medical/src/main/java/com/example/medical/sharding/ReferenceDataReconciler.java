@@ -0,0 +1,107 @@
+package com.example.medical.sharding;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copies the reference tables of the default shard over every other shard, so that a change whose replication
+ * failed reaches the shard on the next pass instead of never. Rows missing from the default shard are deleted
+ * first, which frees their names for the upserts. Both steps are idempotent, so every node runs them.
+ */
+@Slf4j
+public class ReferenceDataReconciler {
+
+    private static final String DELETE_SPECIALIZATION = "delete from specialization where id = ?";
+    private static final String DELETE_MEDICATION = "delete from medication where id = ?";
+
+    private final ShardingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final JdbcTemplate source;
+    private final Map<String, JdbcTemplate> replicas = new LinkedHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reference-data-reconciler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReferenceDataReconciler(ShardDataSources shards, ShardingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.source = new JdbcTemplate(shards.get(shards.defaultShard()));
+        for (String shard : shards.shardNames()) {
+            if (!shard.equals(shards.defaultShard())) {
+                replicas.put(shard, new JdbcTemplate(shards.get(shard)));
+            }
+        }
+    }
+
+    public void start() {
+        long interval = properties.getReconcileInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::reconcileQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * @return the number of shards that could not be brought up to date
+     */
+    int reconcile() {
+        List<Object[]> specializations = source.query("select id, name from specialization",
+                (rs, rowNum) -> new Object[]{rs.getObject(1), rs.getObject(2)});
+        List<Object[]> medications = source.query("select id, name, description from medication",
+                (rs, rowNum) -> new Object[]{rs.getObject(1), rs.getObject(2), rs.getObject(3)});
+        int failed = 0;
+        for (Map.Entry<String, JdbcTemplate> replica : replicas.entrySet()) {
+            try {
+                copy(replica.getValue(), "specialization", specializations,
+                        DELETE_SPECIALIZATION, ReferenceDataReplicationAspect.UPSERT_SPECIALIZATION);
+                copy(replica.getValue(), "medication", medications,
+                        DELETE_MEDICATION, ReferenceDataReplicationAspect.UPSERT_MEDICATION);
+            } catch (DataAccessException ex) {
+                failed++;
+                log.warn("Could not reconcile reference data on shard {}: {}", replica.getKey(), ex.getMessage());
+                meterRegistry.counter("medical.sharding.reconcile.failures", "shard", replica.getKey()).increment();
+            }
+        }
+        return failed;
+    }
+
+    private static void copy(JdbcTemplate replica, String table, List<Object[]> rows, String delete, String upsert) {
+        Set<Object> ids = new HashSet<>();
+        rows.forEach(row -> ids.add(row[0]));
+        List<Object[]> extra = new ArrayList<>();
+        for (Object id : replica.queryForList("select id from " + table, Object.class)) {
+            if (!ids.contains(id)) {
+                extra.add(new Object[]{id});
+            }
+        }
+        if (!extra.isEmpty()) {
+            replica.batchUpdate(delete, extra);
+        }
+        if (!rows.isEmpty()) {
+            replica.batchUpdate(upsert, rows);
+        }
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (RuntimeException ex) {
+            log.warn("Could not read reference data from the default shard: {}", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.medical.sharding;
+
+import com.example.medical.model.Medication;
+import com.example.medical.model.Specialization;
+import com.example.medical.service.MedicationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the small reference tables (specializations, medications) identical on every shard so that doctors and
+ * prescriptions can reference them locally. Writes go to the default shard, which assigns the ids; once that
+ * transaction has committed the row is upserted on the remaining shards. A failed copy is logged and counted
+ * rather than failing the request, because the default shard already holds the change;
+ * {@link ReferenceDataReconciler} repairs the shard on its next pass.
+ */
+@Slf4j
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE + 200)
+public class ReferenceDataReplicationAspect {
+
+    static final String UPSERT_SPECIALIZATION =
+            "insert into specialization (id, name) values (?, ?) on duplicate key update name = values(name)";
+    static final String UPSERT_MEDICATION =
+            "insert into medication (id, name, description) values (?, ?, ?) "
+                    + "on duplicate key update name = values(name), description = values(description)";
+
+    private final ShardDataSources shards;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, JdbcTemplate> replicas = new LinkedHashMap<>();
+
+    public ReferenceDataReplicationAspect(ShardDataSources shards, MeterRegistry meterRegistry) {
+        this.shards = shards;
+        this.meterRegistry = meterRegistry;
+        for (String shard : shards.shardNames()) {
+            if (!shard.equals(shards.defaultShard())) {
+                replicas.put(shard, new JdbcTemplate(shards.get(shard)));
+            }
+        }
+    }
+
+    @Around("execution(* com.example.medical.service.SpecializationService.create(..))"
+            + " || execution(* com.example.medical.service.MedicationService.create(..))")
+    public Object replicateCreate(ProceedingJoinPoint joinPoint) throws Exception {
+        Object created = onDefaultShard(joinPoint);
+        if (created instanceof Specialization specialization) {
+            replicate("specialization", UPSERT_SPECIALIZATION, specialization.getId(), specialization.getName());
+        } else if (created instanceof Medication medication) {
+            replicate("medication", UPSERT_MEDICATION,
+                    medication.getId(), medication.getName(), medication.getDescription());
+        }
+        return created;
+    }
+
+    @Around("execution(* com.example.medical.service.SpecializationService.delete(..))"
+            + " || execution(* com.example.medical.service.MedicationService.delete(..))")
+    public Object replicateDelete(ProceedingJoinPoint joinPoint) throws Exception {
+        Object result = onDefaultShard(joinPoint);
+        String table = MedicationService.class.isAssignableFrom(joinPoint.getSignature().getDeclaringType())
+                ? "medication" : "specialization";
+        replicate(table, "delete from " + table + " where id = ?", joinPoint.getArgs()[0]);
+        return result;
+    }
+
+    private Object onDefaultShard(ProceedingJoinPoint joinPoint) throws Exception {
+        return ShardContext.callOn(shards.defaultShard(), () -> ScatterGatherAspect.proceed(joinPoint));
+    }
+
+    private void replicate(String table, String sql, Object... args) {
+        replicas.forEach((shard, jdbcTemplate) -> {
+            try {
+                jdbcTemplate.update(sql, args);
+            } catch (DataAccessException ex) {
+                log.warn("Could not replicate {} change to shard {}: {}", table, shard, ex.getMessage());
+                meterRegistry.counter("medical.sharding.replication.failures", "table", table, "shard", shard)
+                        .increment();
+            }
+        });
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.medical.sharding;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a query returning a {@code List} that, when no clinic is selected, runs on every shard and returns the
+ * merged results. Each shard must return its rows ordered by {@link #orderBy()}, so the merge is a single pass.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ScatterGather {
+
+    /**
+     * Bean properties the per-shard results are sorted by, ascending. Strings compare case-insensitively like
+     * the default MySQL collation.
+     */
+    String[] orderBy();
+}
@@ -0,0 +1,133 @@
+package com.example.medical.sharding;
+
+import com.example.medical.resilience.RequestDeadline;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs {@link ScatterGather} methods once per shard in parallel, each in its own transaction because the aspect
+ * sits outside the transaction interceptor, and k-way merges the sorted results. The shard queries run under the
+ * request's deadline.
+ */
+@Slf4j
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE + 200)
+public class ScatterGatherAspect {
+
+    private final ShardDataSources shards;
+    private final ShardingProperties properties;
+    private final ExecutorService executor;
+    private final Map<ScatterGather, Comparator<Object>> orders = new ConcurrentHashMap<>();
+
+    public ScatterGatherAspect(ShardDataSources shards, ShardingProperties properties) {
+        this.shards = shards;
+        this.properties = properties;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(properties.getScatterGatherThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "shard-query-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Around("@annotation(scatterGather)")
+    public Object scatterGather(ProceedingJoinPoint joinPoint, ScatterGather scatterGather) throws Throwable {
+        if (ShardContext.currentShard() != null) {
+            return joinPoint.proceed();
+        }
+        List<String> shardNames = shards.shardNames();
+        List<Future<Object>> futures = new ArrayList<>(shardNames.size());
+        RequestDeadline requestDeadline = RequestDeadline.current();
+        for (String shard : shardNames) {
+            futures.add(executor.submit(() -> RequestDeadline.callWith(requestDeadline,
+                    () -> ShardContext.callOn(shard, () -> proceed(joinPoint)))));
+        }
+
+        long deadline = System.nanoTime() + properties.getScatterGatherTimeout().toNanos();
+        List<List<?>> results = new ArrayList<>(shardNames.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                results.add((List<?>) futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (ExecutionException ex) {
+                futures.forEach(future -> future.cancel(true));
+                throw ex.getCause();
+            } catch (TimeoutException ex) {
+                futures.forEach(future -> future.cancel(true));
+                throw new IllegalStateException("Shard " + shardNames.get(i) + " did not answer within "
+                        + properties.getScatterGatherTimeout().toMillis() + " ms", ex);
+            }
+        }
+        return merge(results, orders.computeIfAbsent(scatterGather, annotation -> new PropertyOrder(annotation.orderBy())));
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    static <T> List<T> merge(List<? extends List<? extends T>> sortedLists, Comparator<? super T> order) {
+        int size = 0;
+        PriorityQueue<Cursor<T>> heads = new PriorityQueue<>(Math.max(1, sortedLists.size()),
+                (left, right) -> order.compare(left.current(), right.current()));
+        for (List<? extends T> list : sortedLists) {
+            size += list.size();
+            if (!list.isEmpty()) {
+                heads.add(new Cursor<>(list));
+            }
+        }
+        List<T> merged = new ArrayList<>(size);
+        while (!heads.isEmpty()) {
+            Cursor<T> cursor = heads.poll();
+            merged.add(cursor.current());
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    static Object proceed(ProceedingJoinPoint joinPoint) throws Exception {
+        try {
+            return joinPoint.proceed();
+        } catch (Exception | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new UndeclaredThrowableException(ex);
+        }
+    }
+
+    private static final class Cursor<T> {
+        private final List<? extends T> list;
+        private int index;
+
+        private Cursor(List<? extends T> list) {
+            this.list = list;
+        }
+
+        private T current() {
+            return list.get(index);
+        }
+
+        private boolean advance() {
+            return ++index < list.size();
+        }
+    }
+}
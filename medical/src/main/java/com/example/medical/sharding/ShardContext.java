@@ -0,0 +1,63 @@
+package com.example.medical.sharding;
+
+import com.example.medical.model.ClinicScoped;
+
+import java.util.concurrent.Callable;
+
+/**
+ * The shard and clinic the current thread works on. An unset shard means the default shard.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<String> SHARD = new ThreadLocal<>();
+    private static final ThreadLocal<Integer> CLINIC = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static String currentShard() {
+        return SHARD.get();
+    }
+
+    public static Integer currentClinicId() {
+        return CLINIC.get();
+    }
+
+    /**
+     * Whether the current clinic may see the entity. Lookups by id bypass the clinic filter, so services check
+     * this before handing out what they loaded. Without a clinic every entity is visible.
+     */
+    public static boolean isVisible(ClinicScoped entity) {
+        Integer clinicId = CLINIC.get();
+        return clinicId == null || clinicId.equals(entity.getClinicId());
+    }
+
+    static void set(String shard, Integer clinicId) {
+        SHARD.set(shard);
+        CLINIC.set(clinicId);
+    }
+
+    static void clear() {
+        SHARD.remove();
+        CLINIC.remove();
+    }
+
+    /**
+     * Runs the action on the given shard, {@code null} meaning the default one, without a clinic. For background
+     * work that visits every shard; requests get their shard from {@link ClinicShardFilter}.
+     */
+    public static <T> T callOn(String shard, Callable<T> action) throws Exception {
+        String previousShard = SHARD.get();
+        Integer previousClinic = CLINIC.get();
+        set(shard, null);
+        try {
+            return action.call();
+        } finally {
+            if (previousShard != null) {
+                set(previousShard, previousClinic);
+            } else {
+                clear();
+            }
+        }
+    }
+}
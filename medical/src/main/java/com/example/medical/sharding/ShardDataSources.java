@@ -0,0 +1,71 @@
+package com.example.medical.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One Hikari pool per shard, in configuration order.
+ */
+public class ShardDataSources implements Closeable {
+
+    private final Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+    private final String defaultShard;
+
+    public ShardDataSources(ShardingProperties properties, MeterRegistry meterRegistry) {
+        if (properties.getShards().isEmpty()) {
+            throw new IllegalStateException("medical.sharding.shards must define at least one shard");
+        }
+        properties.getShards().forEach((name, shard) -> {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("shard-" + name);
+            pool.setJdbcUrl(shard.getUrl());
+            pool.setUsername(shard.getUsername());
+            pool.setPassword(shard.getPassword());
+            if (shard.getDriverClassName() != null) {
+                pool.setDriverClassName(shard.getDriverClassName());
+            }
+            pool.setMaximumPoolSize(shard.getMaximumPoolSize());
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            pools.put(name, pool);
+        });
+        this.defaultShard = properties.getDefaultShard() != null
+                ? properties.getDefaultShard()
+                : pools.keySet().iterator().next();
+        if (!pools.containsKey(defaultShard)) {
+            throw new IllegalStateException("Default shard " + defaultShard + " is not configured");
+        }
+    }
+
+    public List<String> shardNames() {
+        return List.copyOf(pools.keySet());
+    }
+
+    public String defaultShard() {
+        return defaultShard;
+    }
+
+    public DataSource get(String shard) {
+        DataSource dataSource = pools.get(shard);
+        if (dataSource == null) {
+            throw new IllegalArgumentException("Unknown shard " + shard);
+        }
+        return dataSource;
+    }
+
+    Map<String, DataSource> asMap() {
+        return Collections.unmodifiableMap(pools);
+    }
+
+    @Override
+    public void close() {
+        pools.values().forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.medical.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.HashMap;
+
+/**
+ * Picks the shard set by {@link ClinicShardFilter} or a scatter-gather worker. The connection is chosen when
+ * the transaction starts and stays on that shard until it ends.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    public ShardRoutingDataSource(ShardDataSources shards) {
+        setTargetDataSources(new HashMap<>(shards.asMap()));
+        setDefaultTargetDataSource(shards.get(shards.defaultShard()));
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.currentShard();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.medical.sharding;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Patient, doctor and appointment rows live on the shard of their clinic. The routing data source picks the
+ * shard per transaction; lists without a clinic are gathered from all shards, and reference tables are written
+ * through the default shard and copied to the others, with a periodic reconciliation behind the copies.
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+@ConditionalOnProperty(prefix = "medical.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean(destroyMethod = "close")
+    public ShardDataSources shardDataSources(ShardingProperties properties, MeterRegistry meterRegistry) {
+        return new ShardDataSources(properties, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardDataSources shards) {
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ClinicShardFilter> clinicShardFilter(ShardingProperties properties) {
+        FilterRegistrationBean<ClinicShardFilter> registration = new FilterRegistrationBean<>(new ClinicShardFilter(properties));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 15);
+        return registration;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ScatterGatherAspect scatterGatherAspect(ShardDataSources shards, ShardingProperties properties) {
+        return new ScatterGatherAspect(shards, properties);
+    }
+
+    @Bean
+    public ReferenceDataReplicationAspect referenceDataReplicationAspect(ShardDataSources shards,
+                                                                         MeterRegistry meterRegistry) {
+        return new ReferenceDataReplicationAspect(shards, meterRegistry);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "shutdown")
+    public ReferenceDataReconciler referenceDataReconciler(ShardDataSources shards, ShardingProperties properties,
+                                                           MeterRegistry meterRegistry) {
+        return new ReferenceDataReconciler(shards, properties, meterRegistry);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.medical.sharding;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "medical.sharding")
+public class ShardingProperties {
+
+    /**
+     * Route clinic data to per-shard databases. Mutually exclusive with read replica routing.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Shard receiving requests without a clinic and the home of the replicated reference tables.
+     */
+    private String defaultShard;
+
+    private Map<String, Shard> shards = new LinkedHashMap<>();
+
+    /**
+     * Clinic id to shard name.
+     */
+    private Map<Integer, String> clinics = new LinkedHashMap<>();
+
+    private int scatterGatherThreads = 4;
+
+    private Duration scatterGatherTimeout = Duration.ofSeconds(10);
+
+    /**
+     * How often the reference tables of the default shard are copied over the other shards, repairing failed
+     * replication.
+     */
+    private Duration reconcileInterval = Duration.ofMinutes(5);
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.medical.timing;
+
+/**
+ * Per-thread phase timing for the request currently being served. One instance is reused per thread and
+ * only primitive fields are updated while the request runs, so it can stay enabled in production.
+ * Nested entries into the same phase (a service calling another service) are only counted once.
+ */
+public final class RequestTiming {
+
+    public enum Phase {
+        HANDLER("handler"),
+        SERVICE("svc"),
+        DB("db"),
+        MAPPING("map"),
+        SERIALIZATION("ser");
+
+        private final String metricName;
+
+        Phase(String metricName) {
+            this.metricName = metricName;
+        }
+
+        public String getMetricName() {
+            return metricName;
+        }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final ThreadLocal<RequestTiming> THREAD_TIMING = ThreadLocal.withInitial(RequestTiming::new);
+
+    private final long[] durations = new long[PHASES.length];
+    private final long[] starts = new long[PHASES.length];
+    private final int[] depths = new int[PHASES.length];
+    private boolean active;
+    private boolean emitHeader;
+    private boolean headerWritten;
+    private long requestStart;
+    private long handlerEntry;
+    private long requestEnd;
+
+    private RequestTiming() {
+    }
+
+    static RequestTiming begin(boolean emitHeader) {
+        RequestTiming timing = THREAD_TIMING.get();
+        for (int i = 0; i < PHASES.length; i++) {
+            timing.durations[i] = 0;
+            timing.depths[i] = 0;
+        }
+        timing.active = true;
+        timing.emitHeader = emitHeader;
+        timing.headerWritten = false;
+        timing.handlerEntry = 0;
+        timing.requestEnd = 0;
+        timing.requestStart = System.nanoTime();
+        return timing;
+    }
+
+    public static RequestTiming current() {
+        RequestTiming timing = THREAD_TIMING.get();
+        return timing.active ? timing : null;
+    }
+
+    public static void enter(Phase phase) {
+        RequestTiming timing = current();
+        if (timing != null) {
+            timing.enterPhase(phase);
+        }
+    }
+
+    public static void exit(Phase phase) {
+        RequestTiming timing = current();
+        if (timing != null) {
+            timing.exitPhase(phase);
+        }
+    }
+
+    void enterPhase(Phase phase) {
+        int index = phase.ordinal();
+        if (depths[index]++ == 0) {
+            long now = System.nanoTime();
+            starts[index] = now;
+            if (phase == Phase.HANDLER && handlerEntry == 0) {
+                handlerEntry = now;
+            }
+        }
+    }
+
+    void exitPhase(Phase phase) {
+        int index = phase.ordinal();
+        if (depths[index] > 0 && --depths[index] == 0) {
+            durations[index] += System.nanoTime() - starts[index];
+        }
+    }
+
+    void end() {
+        long now = System.nanoTime();
+        int serialization = Phase.SERIALIZATION.ordinal();
+        if (depths[serialization] > 0) {
+            durations[serialization] += now - starts[serialization];
+            depths[serialization] = 0;
+        }
+        requestEnd = now;
+        active = false;
+    }
+
+    public long getDurationNanos(Phase phase) {
+        return durations[phase.ordinal()];
+    }
+
+    /**
+     * Time from entering the filter chain until the controller method was invoked.
+     */
+    public long getDispatchNanos() {
+        return handlerEntry == 0 ? 0 : handlerEntry - requestStart;
+    }
+
+    public long getTotalNanos() {
+        return (requestEnd != 0 ? requestEnd : System.nanoTime()) - requestStart;
+    }
+
+    boolean isEmitHeader() {
+        return emitHeader;
+    }
+
+    boolean isHeaderWritten() {
+        return headerWritten;
+    }
+
+    void markHeaderWritten() {
+        headerWritten = true;
+    }
+
+    /**
+     * Server-Timing header value for the phases completed so far. Serialization is still running when the
+     * header has to be written, so it is only reported in the log line.
+     */
+    String headerValue() {
+        StringBuilder header = new StringBuilder(96);
+        appendEntry(header, "dispatch", getDispatchNanos());
+        for (Phase phase : PHASES) {
+            if (phase != Phase.SERIALIZATION && durations[phase.ordinal()] > 0) {
+                appendEntry(header, phase.getMetricName(), durations[phase.ordinal()]);
+            }
+        }
+        appendEntry(header, "total", getTotalNanos());
+        return header.toString();
+    }
+
+    private static void appendEntry(StringBuilder header, String name, long nanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        header.append(name).append(";dur=");
+        appendMillis(header, nanos);
+    }
+
+    static void appendMillis(StringBuilder target, long nanos) {
+        long tenthsOfMillis = (nanos + 50_000) / 100_000;
+        target.append(tenthsOfMillis / 10).append('.').append(tenthsOfMillis % 10);
+    }
+}
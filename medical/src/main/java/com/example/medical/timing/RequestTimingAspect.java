@@ -0,0 +1,40 @@
+package com.example.medical.timing;
+
+import com.example.medical.timing.RequestTiming.Phase;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+@Aspect
+@Component
+public class RequestTimingAspect {
+
+    @Around("within(@org.springframework.web.bind.annotation.RestController *) && execution(public * *(..))")
+    public Object timeHandler(ProceedingJoinPoint joinPoint) throws Throwable {
+        return timed(Phase.HANDLER, joinPoint);
+    }
+
+    @Around("within(com.example.medical.service..*) && execution(public * *(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return timed(Phase.SERVICE, joinPoint);
+    }
+
+    @Around("within(com.example.medical.mapper..*) && execution(public * *(..))")
+    public Object timeMapping(ProceedingJoinPoint joinPoint) throws Throwable {
+        return timed(Phase.MAPPING, joinPoint);
+    }
+
+    private static Object timed(Phase phase, ProceedingJoinPoint joinPoint) throws Throwable {
+        RequestTiming timing = RequestTiming.current();
+        if (timing == null) {
+            return joinPoint.proceed();
+        }
+        timing.enterPhase(phase);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timing.exitPhase(phase);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.medical.timing;
+
+import com.example.medical.timing.RequestTiming.Phase;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Slf4j(topic = "medical.timing")
+@RequiredArgsConstructor
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private final ServerTimingProperties properties;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTiming timing = RequestTiming.begin(sampled(properties.getHeaderSampleRate()));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // Responses without a body (204, errors handled before serialization) still get the header.
+            if (timing.isEmitHeader() && !timing.isHeaderWritten() && !response.isCommitted()) {
+                response.addHeader(SERVER_TIMING_HEADER, timing.headerValue());
+            }
+            timing.end();
+            if (log.isInfoEnabled() && sampled(properties.getLogSampleRate())) {
+                log.info(logLine(request, response, timing));
+            }
+        }
+    }
+
+    private static boolean sampled(double rate) {
+        return rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    static String logLine(HttpServletRequest request, HttpServletResponse response, RequestTiming timing) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        StringBuilder line = new StringBuilder(192)
+                .append("server_timing method=").append(request.getMethod())
+                .append(" uri=").append(pattern != null ? pattern : "UNKNOWN")
+                .append(" status=").append(response.getStatus())
+                .append(" total_ms=");
+        RequestTiming.appendMillis(line, timing.getTotalNanos());
+        line.append(" dispatch_ms=");
+        RequestTiming.appendMillis(line, timing.getDispatchNanos());
+        for (Phase phase : Phase.values()) {
+            line.append(' ').append(phase.getMetricName()).append("_ms=");
+            RequestTiming.appendMillis(line, timing.getDurationNanos(phase));
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.medical.timing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "medical.server-timing")
+public class ServerTimingProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Fraction of responses, between 0 and 1, that carry the Server-Timing header.
+     */
+    private double headerSampleRate = 1.0;
+
+    /**
+     * Fraction of requests, between 0 and 1, that produce a timing log line.
+     */
+    private double logSampleRate = 1.0;
+}
@@ -0,0 +1,37 @@
+package com.example.medical.timing;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Writes the Server-Timing header just before the body is serialized, the last point where headers can
+ * still be changed, and starts the serialization phase.
+ */
+@ControllerAdvice
+public class ServerTimingResponseBodyAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestTiming timing = RequestTiming.current();
+        if (timing != null) {
+            if (timing.isEmitHeader() && !timing.isHeaderWritten()) {
+                response.getHeaders().add(ServerTimingFilter.SERVER_TIMING_HEADER, timing.headerValue());
+                timing.markHeaderWritten();
+            }
+            timing.enterPhase(RequestTiming.Phase.SERIALIZATION);
+        }
+        return body;
+    }
+}
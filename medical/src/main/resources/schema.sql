@@ -1,10 +1,12 @@
 CREATE TABLE IF NOT EXISTS `java`.`patient` (`id` INT NOT NULL AUTO_INCREMENT,
+                               clinic_id INT,
                                first_name VARCHAR(100) NOT NULL,
                                last_name VARCHAR(100) NOT NULL,
                                cnp VARCHAR(13) NOT NULL UNIQUE,
                                email VARCHAR(150),
                                phone VARCHAR(20),
-                               PRIMARY KEY (`id`)
+                               PRIMARY KEY (`id`),
+                               INDEX idx_patient_clinic (clinic_id)
 );
 
 CREATE TABLE IF NOT EXISTS `java`.`specialization` (`id` INT NOT NULL AUTO_INCREMENT,
@@ -13,21 +15,26 @@ CREATE TABLE IF NOT EXISTS `java`.`specialization` (`id` INT NOT NULL AUTO_INCRE
 );
 
 CREATE TABLE IF NOT EXISTS `java`.`doctor` (`id` INT NOT NULL AUTO_INCREMENT,
+                              clinic_id INT,
                               first_name VARCHAR(100) NOT NULL,
                               last_name VARCHAR(100) NOT NULL,
                               specialization_id INT NOT NULL,
                               email VARCHAR(150),
                               phone VARCHAR(20),
                               PRIMARY KEY (`id`),
+                              INDEX idx_doctor_clinic (clinic_id),
                               FOREIGN KEY (specialization_id) REFERENCES specialization(id)
 );
 
 CREATE TABLE IF NOT EXISTS `java`.`appointment` (`id` INT NOT NULL AUTO_INCREMENT,
+                                   clinic_id INT,
                                    patient_id INT NOT NULL,
                                    doctor_id INT NOT NULL,
                                    appointment_date DATETIME NOT NULL,
                                    reason VARCHAR(255),
                                    PRIMARY KEY (`id`),
+                                   INDEX idx_appointment_clinic (clinic_id),
+                                   INDEX idx_appointment_date (appointment_date),
                                    FOREIGN KEY (patient_id) REFERENCES patient(id),
                                    FOREIGN KEY (doctor_id) REFERENCES doctor(id)
 );
@@ -54,3 +61,56 @@ CREATE TABLE IF NOT EXISTS `java`.`prescription_medication` (`id` INT NOT NULL A
                                                   FOREIGN KEY (prescription_id) REFERENCES prescription(id),
                                                   FOREIGN KEY (medication_id) REFERENCES medication(id)
 );
+
+CREATE TABLE IF NOT EXISTS `java`.`change_log` (`id` BIGINT NOT NULL AUTO_INCREMENT,
+                                  entity_type VARCHAR(64) NOT NULL,
+                                  entity_id BIGINT NOT NULL,
+                                  change_type VARCHAR(8) NOT NULL,
+                                  origin VARCHAR(64) NOT NULL,
+                                  changed_at BIGINT NOT NULL,
+                                  PRIMARY KEY (`id`),
+                                  INDEX idx_change_log_changed_at (changed_at)
+);
+
+CREATE TABLE IF NOT EXISTS `java`.`outbox_message` (`id` BIGINT NOT NULL AUTO_INCREMENT,
+                                  type VARCHAR(64) NOT NULL,
+                                  aggregate_type VARCHAR(64) NOT NULL,
+                                  aggregate_id BIGINT NOT NULL,
+                                  payload TEXT NOT NULL,
+                                  created_at BIGINT NOT NULL,
+                                  attempts INT NOT NULL DEFAULT 0,
+                                  next_attempt_at BIGINT NOT NULL,
+                                  dispatched_at BIGINT NULL,
+                                  dead_at BIGINT NULL,
+                                  last_error VARCHAR(500) NULL,
+                                  PRIMARY KEY (`id`),
+                                  INDEX idx_outbox_due (dispatched_at, dead_at, next_attempt_at)
+);
+
+CREATE TABLE IF NOT EXISTS `java`.`job_lease` (`name` VARCHAR(128) NOT NULL,
+                                  owner VARCHAR(64) NULL,
+                                  token BIGINT NOT NULL,
+                                  acquired_at BIGINT NOT NULL,
+                                  expires_at BIGINT NOT NULL,
+                                  PRIMARY KEY (`name`)
+);
+
+CREATE TABLE IF NOT EXISTS `java`.`job_node` (`node_id` VARCHAR(64) NOT NULL,
+                                  started_at BIGINT NOT NULL,
+                                  heartbeat_at BIGINT NOT NULL,
+                                  PRIMARY KEY (`node_id`)
+);
+
+CREATE TABLE IF NOT EXISTS `java`.`job_run` (`id` BIGINT NOT NULL AUTO_INCREMENT,
+                                  job VARCHAR(64) NOT NULL,
+                                  partition_no INT NOT NULL,
+                                  node VARCHAR(64) NOT NULL,
+                                  token BIGINT NOT NULL,
+                                  started_at BIGINT NOT NULL,
+                                  finished_at BIGINT NULL,
+                                  duration_ms BIGINT NULL,
+                                  outcome VARCHAR(16) NOT NULL,
+                                  error VARCHAR(500) NULL,
+                                  PRIMARY KEY (`id`),
+                                  INDEX idx_job_run_job_started (job, started_at)
+);
@@ -0,0 +1,164 @@
+package com.example.medical.benchmark;
+
+import com.example.medical.MedicalApplication;
+import com.example.medical.model.*;
+import com.example.medical.repository.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput of the appointments endpoint at a fixed pool size with and without Open Session In View.
+ * Each request spends a few milliseconds after the handler, standing in for serialization and slow clients;
+ * with OSIV the connection is held for that time as well. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class OpenSessionInViewBenchmarkTest {
+
+    private static final int POOL_SIZE = 4;
+    private static final int CLIENTS = 32;
+    private static final int APPOINTMENTS = 10;
+    private static final long POST_HANDLER_MILLIS = 5;
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(10);
+
+    @Test
+    @DisplayName("Disabling Open Session In View raises throughput at a fixed pool size")
+    void throughput_WithoutOpenSessionInView_ShouldBeHigher() throws Exception {
+        double withOpenInView = measure(true);
+        double withoutOpenInView = measure(false);
+
+        System.out.printf("Open Session In View on:  %.0f req/s%n", withOpenInView);
+        System.out.printf("Open Session In View off: %.0f req/s%n", withoutOpenInView);
+        assertTrue(withoutOpenInView > withOpenInView);
+    }
+
+    private double measure(boolean openInView) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MedicalApplication.class)
+                .profiles("h2")
+                .properties(
+                        "server.port=0",
+                        "spring.jpa.open-in-view=" + openInView,
+                        "spring.datasource.url=jdbc:h2:mem:osiv-" + openInView + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "medical.concurrency-limit.enabled=false",
+                        "logging.level.com.example.medical=ERROR")
+                .initializers(applicationContext -> ((GenericApplicationContext) applicationContext)
+                        .registerBean(PostHandlerDelay.class))
+                .run()) {
+            Integer doctorId = seed(context);
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            URI uri = URI.create("http://localhost:" + port + "/api/appointments/doctor/" + doctorId);
+            run(uri, WARMUP);
+            return run(uri, MEASUREMENT) / (double) MEASUREMENT.toSeconds();
+        }
+    }
+
+    private static long run(URI uri, Duration duration) throws Exception {
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newFixedThreadPool(4)).build();
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                results.add(clients.submit(() -> {
+                    long completed = 0;
+                    while (System.nanoTime() < deadline) {
+                        if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                            completed++;
+                        }
+                    }
+                    return completed;
+                }));
+            }
+            long total = 0;
+            for (Future<Long> result : results) {
+                total += result.get();
+            }
+            return total;
+        } finally {
+            clients.shutdownNow();
+            clients.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static Integer seed(ConfigurableApplicationContext context) {
+        Specialization specialization = context.getBean(SpecializationRepository.class)
+                .save(Specialization.builder().name("Cardiology").build());
+        Doctor doctor = context.getBean(DoctorRepository.class).save(Doctor.builder()
+                .firstName("Jane")
+                .lastName("Smith")
+                .email("jane.smith@example.com")
+                .phone("0987654321")
+                .specialization(specialization)
+                .build());
+        Patient patient = context.getBean(PatientRepository.class).save(Patient.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .cnp("1234567890123")
+                .email("john.doe@example.com")
+                .phone("0712345678")
+                .build());
+        Medication medication = context.getBean(MedicationRepository.class)
+                .save(Medication.builder().name("Aspirin").description("Painkiller").build());
+        AppointmentRepository appointmentRepository = context.getBean(AppointmentRepository.class);
+        PrescriptionRepository prescriptionRepository = context.getBean(PrescriptionRepository.class);
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            Appointment appointment = appointmentRepository.save(Appointment.builder()
+                    .patient(patient)
+                    .doctor(doctor)
+                    .appointmentDate(LocalDateTime.now().plusDays(i + 1))
+                    .reason("Checkup " + i)
+                    .build());
+            Prescription prescription = new Prescription();
+            prescription.setAppointment(appointment);
+            prescription.setIssuedDate(LocalDateTime.now());
+            prescription.setInstructions("Rest");
+            PrescriptionMedication entry = new PrescriptionMedication();
+            entry.setPrescription(prescription);
+            entry.setMedication(medication);
+            entry.setDosage("100mg");
+            prescription.getMedications().add(entry);
+            prescriptionRepository.save(prescription);
+        }
+        return doctor.getId();
+    }
+
+    private static final class PostHandlerDelay implements WebMvcConfigurer, HandlerInterceptor {
+        @Override
+        public void addInterceptors(InterceptorRegistry registry) {
+            registry.addInterceptor(this);
+        }
+
+        @Override
+        public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                               ModelAndView modelAndView) throws Exception {
+            Thread.sleep(POST_HANDLER_MILLIS);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.medical.benchmark;
+
+import com.example.medical.MedicalApplication;
+import com.example.medical.model.Medication;
+import com.example.medical.repository.MedicationRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput of the medication list with every request running the query, the mapper and Jackson, against the
+ * same list served as pre-serialized bytes, plain and gzipped. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class PreSerializedListBenchmarkTest {
+
+    private static final int MEDICATIONS = 200;
+    private static final int CLIENTS = 16;
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(10);
+
+    @Test
+    @DisplayName("Pre-serialized lists serve more requests per second than serializing each time")
+    void throughput_WithPreSerializedLists_ShouldBeHigher() throws Exception {
+        double serialized = measure(false, false);
+        double preSerialized = measure(true, false);
+        double preSerializedGzip = measure(true, true);
+
+        System.out.printf("Query, map and serialize per request: %.0f req/s%n", serialized);
+        System.out.printf("Pre-serialized bytes:                 %.0f req/s%n", preSerialized);
+        System.out.printf("Pre-serialized gzip bytes:            %.0f req/s%n", preSerializedGzip);
+        assertTrue(preSerialized > serialized);
+    }
+
+    private double measure(boolean preSerialized, boolean gzip) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MedicalApplication.class)
+                .profiles("h2")
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:serialized-" + preSerialized + "-" + gzip
+                                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "medical.serialized-lists.enabled=" + preSerialized,
+                        "medical.concurrency-limit.enabled=false",
+                        "logging.level.com.example.medical=ERROR")
+                .run()) {
+            seed(context);
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/medications")).GET();
+            if (gzip) {
+                request.header("Accept-Encoding", "gzip");
+            }
+            run(request.build(), WARMUP);
+            return run(request.build(), MEASUREMENT) / (double) MEASUREMENT.toSeconds();
+        }
+    }
+
+    private static long run(HttpRequest request, Duration duration) throws Exception {
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newFixedThreadPool(4)).build();
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                results.add(clients.submit(() -> {
+                    long completed = 0;
+                    while (System.nanoTime() < deadline) {
+                        if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                            completed++;
+                        }
+                    }
+                    return completed;
+                }));
+            }
+            long total = 0;
+            for (Future<Long> result : results) {
+                total += result.get();
+            }
+            return total;
+        } finally {
+            clients.shutdownNow();
+            clients.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void seed(ConfigurableApplicationContext context) {
+        List<Medication> medications = new ArrayList<>();
+        for (int i = 0; i < MEDICATIONS; i++) {
+            medications.add(Medication.builder()
+                    .name("Medication " + i)
+                    .description("Description of medication " + i + ", taken twice a day after meals")
+                    .build());
+        }
+        context.getBean(MedicationRepository.class).saveAll(medications);
+    }
+}
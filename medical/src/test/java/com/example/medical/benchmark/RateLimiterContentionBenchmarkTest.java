@@ -0,0 +1,161 @@
+package com.example.medical.benchmark;
+
+import com.example.medical.limiter.EndpointGroup;
+import com.example.medical.limiter.RateLimitFilter;
+import com.example.medical.limiter.RateLimitProperties;
+import com.example.medical.limiter.TokenBucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Throughput of the rate limiter with one thread up to four threads per core, against a single hot bucket
+ * (worst case for the compare-and-set loop), a synchronized bucket as baseline, and 100k distinct clients
+ * going through the bounded bucket cache. Also checks that contention never admits more than the capacity.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class RateLimiterContentionBenchmarkTest {
+
+    private static final int CLIENTS = 100_000;
+    private static final Duration WARMUP = Duration.ofSeconds(1);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(2);
+
+    @Test
+    @DisplayName("Lock-free buckets scale with threads and never over-admit")
+    void contention() throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int[] threadCounts = {1, cores, 2 * cores, 4 * cores};
+
+        for (int threads : threadCounts) {
+            TokenBucket hot = new TokenBucket(1_000_000_000, 1e9, System.nanoTime());
+            SynchronizedBucket baseline = new SynchronizedBucket(1_000_000_000, 1e9, System.nanoTime());
+            RateLimitFilter filter = filter();
+            String[] clients = new String[CLIENTS];
+            for (int i = 0; i < CLIENTS; i++) {
+                clients[i] = "client-" + i;
+            }
+
+            double hotRate = run(threads, () -> hot.tryConsume(System.nanoTime()));
+            double baselineRate = run(threads, () -> baseline.tryConsume(System.nanoTime()));
+            double clientsRate = run(threads, () -> {
+                long now = System.nanoTime();
+                String client = clients[ThreadLocalRandom.current().nextInt(CLIENTS)];
+                return filter.bucket(client, EndpointGroup.READS, now).tryConsume(now);
+            });
+            System.out.printf("%3d threads: hot bucket %,12.0f ops/s | synchronized %,12.0f ops/s | 100k clients %,12.0f ops/s%n",
+                    threads, hotRate, baselineRate, clientsRate);
+        }
+
+        assertNoOverAdmission(4 * cores);
+    }
+
+    // With the clock frozen no token is refilled, so exactly the capacity may be admitted however many threads race.
+    private static void assertNoOverAdmission(int threads) throws Exception {
+        int capacity = 100_000;
+        TokenBucket bucket = new TokenBucket(capacity, 1, 0);
+        LongAdder admitted = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                awaitQuietly(start);
+                for (int i = 0; i < capacity; i++) {
+                    if (bucket.tryConsume(0) >= 0) {
+                        admitted.increment();
+                    }
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertEquals(capacity, admitted.sum());
+    }
+
+    private static double run(int threads, LongSupplier operation) throws Exception {
+        measure(threads, operation, WARMUP);
+        return measure(threads, operation, MEASUREMENT) / (double) MEASUREMENT.toMillis() * 1000;
+    }
+
+    private static long measure(int threads, LongSupplier operation, Duration duration) throws Exception {
+        LongAdder operations = new LongAdder();
+        AtomicLong sink = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(duration.toMillis());
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                awaitQuietly(start);
+                long count = 0;
+                long last = 0;
+                while ((count & 1023) != 0 || System.nanoTime() < deadline) {
+                    last += operation.getAsLong();
+                    count++;
+                }
+                operations.add(count);
+                sink.addAndGet(last);
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return operations.sum();
+    }
+
+    private static RateLimitFilter filter() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMaxClients(CLIENTS);
+        properties.setReads(new RateLimitProperties.Bucket(1_000_000, 1_000_000));
+        return new RateLimitFilter(properties, new SimpleMeterRegistry());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class SynchronizedBucket {
+        private final long emissionIntervalNanos;
+        private final long burstNanos;
+        private long theoreticalArrival;
+
+        private SynchronizedBucket(int capacity, double refillPerSecond, long nowNanos) {
+            this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+            this.burstNanos = emissionIntervalNanos * capacity;
+            this.theoreticalArrival = nowNanos;
+        }
+
+        private synchronized long tryConsume(long nowNanos) {
+            long next = Math.max(theoreticalArrival, nowNanos) + emissionIntervalNanos;
+            long ahead = next - nowNanos;
+            if (ahead > burstNanos) {
+                return -(ahead - burstNanos);
+            }
+            theoreticalArrival = next;
+            return (burstNanos - ahead) / emissionIntervalNanos;
+        }
+    }
+}
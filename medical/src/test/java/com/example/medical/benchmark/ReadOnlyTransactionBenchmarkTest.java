@@ -0,0 +1,101 @@
+package com.example.medical.benchmark;
+
+import com.example.medical.model.Patient;
+import com.example.medical.repository.PatientRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Heap allocated and CPU spent loading a large result set in a read-write versus a read-only transaction.
+ * Read-write transactions keep a hydrated-state snapshot per entity and dirty-check all of them at commit.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("h2")
+class ReadOnlyTransactionBenchmarkTest {
+
+    private static final int PATIENTS = 20_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 10;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> rows = new ArrayList<>(PATIENTS);
+        for (int i = 0; i < PATIENTS; i++) {
+            rows.add(new Object[]{"First" + i, "Last" + i, String.format("%013d", i), "patient" + i + "@example.com", "07" + i});
+        }
+        jdbcTemplate.batchUpdate("insert into patient (first_name, last_name, cnp, email, phone) values (?, ?, ?, ?, ?)", rows);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from patient");
+    }
+
+    @Test
+    @DisplayName("Read-only transactions allocate less and use less CPU on large result sets")
+    void findAll_ReadOnly_ShouldBeCheaperThanReadWrite() {
+        Measurement readWrite = measure(false);
+        Measurement readOnly = measure(true);
+
+        System.out.printf("read-write: %,d KB allocated, %.1f ms CPU per load of %d patients%n",
+                readWrite.bytes() / 1024, readWrite.cpuNanos() / 1e6, PATIENTS);
+        System.out.printf("read-only:  %,d KB allocated, %.1f ms CPU per load of %d patients%n",
+                readOnly.bytes() / 1024, readOnly.cpuNanos() / 1e6, PATIENTS);
+        assertTrue(readOnly.bytes() < readWrite.bytes());
+    }
+
+    private Measurement measure(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            load(transaction);
+        }
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long cpuBefore = THREADS.getCurrentThreadCpuTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            load(transaction);
+        }
+        long bytes = THREADS.getThreadAllocatedBytes(threadId) - bytesBefore;
+        long cpu = THREADS.getCurrentThreadCpuTime() - cpuBefore;
+        return new Measurement(bytes / ROUNDS, cpu / ROUNDS);
+    }
+
+    private void load(TransactionTemplate transaction) {
+        List<Patient> patients = transaction.execute(status -> patientRepository.findAll());
+        assertEquals(PATIENTS, patients.size());
+    }
+
+    private record Measurement(long bytes, long cpuNanos) {
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.medical.benchmark;
+
+import com.example.medical.reminders.Reminder;
+import com.example.medical.reminders.TimingWheel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Heap used by a million reminder timers (two per appointment, as the reminder scheduler creates them) and the
+ * cost of scheduling and cancelling one, at one and at four million timers to show it does not grow with the
+ * count. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class TimingWheelBenchmarkTest {
+
+    private static final long DAY = Duration.ofDays(1).toMillis();
+    // The scheduler shares the configured lead times between all reminders.
+    private static final Duration DAY_BEFORE = Duration.ofHours(24);
+    private static final Duration HOUR_BEFORE = Duration.ofHours(1);
+
+    @Test
+    @DisplayName("Timers cost a constant time to schedule and cancel and a bounded amount of heap")
+    void millionsOfTimers_ShouldStayCheap() {
+        Result million = measure(1_000_000);
+        Result fourMillion = measure(4_000_000);
+
+        System.out.printf("1M timers: %.1f MB heap, %.0f ns/schedule, %.0f ns/cancel%n",
+                million.bytes() / 1e6, million.scheduleNanos(), million.cancelNanos());
+        System.out.printf("4M timers: %.1f MB heap per million, %.0f ns/schedule, %.0f ns/cancel%n",
+                fourMillion.bytes() / 4e6, fourMillion.scheduleNanos(), fourMillion.cancelNanos());
+        assertTrue(million.bytes() < 200_000_000L);
+        assertTrue(fourMillion.scheduleNanos() < million.scheduleNanos() * 3);
+    }
+
+    private static Result measure(int timers) {
+        long start = System.currentTimeMillis();
+        TimingWheel<Reminder> wheel = new TimingWheel<>(Duration.ofSeconds(1), start);
+        List<TimingWheel.Timeout<Reminder>> handles = new ArrayList<>(timers);
+        LocalDateTime now = LocalDateTime.now();
+        long before = usedHeap();
+
+        long scheduleStart = System.nanoTime();
+        for (int i = 0; i < timers; i += 2) {
+            long offset = ThreadLocalRandom.current().nextLong(2 * DAY, 30 * DAY);
+            LocalDateTime date = now.plusSeconds(offset / 1000);
+            handles.add(wheel.schedule(start + offset - DAY, new Reminder(i, 1, 2, date, DAY_BEFORE)));
+            handles.add(wheel.schedule(start + offset - DAY / 24, new Reminder(i, 1, 2, date, HOUR_BEFORE)));
+        }
+        wheel.advance(start, reminder -> { });
+        long scheduleNanos = System.nanoTime() - scheduleStart;
+        assertEquals(timers, wheel.size());
+        // The handle list is what the scheduler's per-appointment map holds; count it in.
+        long bytes = usedHeap() - before;
+
+        long cancelStart = System.nanoTime();
+        for (TimingWheel.Timeout<Reminder> handle : handles) {
+            handle.cancel();
+        }
+        wheel.advance(start, reminder -> { });
+        long cancelNanos = System.nanoTime() - cancelStart;
+        assertEquals(0, wheel.size());
+        return new Result(bytes, (double) scheduleNanos / timers, (double) cancelNanos / timers);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private record Result(long bytes, double scheduleNanos, double cancelNanos) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.medical.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PreSerializedListFilterTest {
+
+    @Test
+    @DisplayName("gzip is used when listed without a zero quality value")
+    void acceptsGzip_ShouldHonourQualityValues() {
+        assertTrue(PreSerializedListFilter.acceptsGzip(request("gzip, deflate, br")));
+        assertTrue(PreSerializedListFilter.acceptsGzip(request("deflate;q=1.0, GZIP;q=0.5")));
+        assertFalse(PreSerializedListFilter.acceptsGzip(request("gzip;q=0")));
+        assertFalse(PreSerializedListFilter.acceptsGzip(request("identity")));
+        assertFalse(PreSerializedListFilter.acceptsGzip(new MockHttpServletRequest("GET", "/api/medications")));
+    }
+
+    private static MockHttpServletRequest request(String acceptEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/medications");
+        request.addHeader("Accept-Encoding", acceptEncoding);
+        return request;
+    }
+}
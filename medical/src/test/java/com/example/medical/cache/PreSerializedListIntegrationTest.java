@@ -0,0 +1,186 @@
+package com.example.medical.cache;
+
+import com.example.medical.controller.MedicalServiceController;
+import com.example.medical.model.Medication;
+import com.example.medical.repository.MedicationRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:serialized-lists;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "medical.serialized-lists.enabled=true"
+})
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class PreSerializedListIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    @Autowired
+    private MedicalServiceController controller;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PreSerializedListCache cache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        medicationRepository.deleteAll();
+        cache.invalidateAll();
+    }
+
+    @Test
+    @DisplayName("Cached bytes are what the controller would have serialized, and are reused")
+    void cachedList_ShouldMatchControllerOutput() throws Exception {
+        medicationRepository.save(Medication.builder().name("Aspirin").description("Painkiller").build());
+        byte[] expected = objectMapper.writeValueAsBytes(controller.getAllMedications().getBody());
+
+        byte[] first = mockMvc.perform(get("/api/medications"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] second = mockMvc.perform(get("/api/medications"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertArrayEquals(expected, first);
+        assertArrayEquals(expected, second);
+        assertEquals(1.0, meterRegistry.get("medical.serialized-lists.requests")
+                .tag("list", "medications").tag("result", "hit").counter().count(), 0.0);
+    }
+
+    @Test
+    @DisplayName("Clients accepting gzip get the compressed variant")
+    void acceptGzip_ShouldReturnCompressedBody() throws Exception {
+        medicationRepository.save(Medication.builder().name("Aspirin").description("Painkiller").build());
+        byte[] json = mockMvc.perform(get("/api/medications"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        byte[] compressed = mockMvc.perform(get("/api/medications").header("Accept-Encoding", "br, gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(json, in.readAllBytes());
+        }
+    }
+
+    @Test
+    @DisplayName("Creating a medication rebuilds the list on the next request")
+    void create_ShouldRebuildList() throws Exception {
+        medicationRepository.save(Medication.builder().name("Aspirin").description("Painkiller").build());
+        mockMvc.perform(get("/api/medications")).andExpect(jsonPath("$.length()").value(1));
+
+        mockMvc.perform(post("/api/medications")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Ibuprofen\",\"description\":\"Anti-inflammatory\"}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/medications"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name", containsInAnyOrder("Aspirin", "Ibuprofen")));
+    }
+
+    @Test
+    @DisplayName("A list older than its time to live is rebuilt without any change event")
+    void expiredList_ShouldBeRebuilt() throws Exception {
+        PreSerializedListCache shortLived = new PreSerializedListCache(objectMapper, transactionManager,
+                new SimpleMeterRegistry(), Duration.ofMillis(50));
+        AtomicInteger builds = new AtomicInteger();
+        shortLived.register("counter", "/counter", Set.of(Medication.class), () -> List.of(builds.incrementAndGet()));
+
+        assertArrayEquals("[1]".getBytes(), shortLived.get("/counter").json());
+        assertArrayEquals("[1]".getBytes(), shortLived.get("/counter").json());
+        Thread.sleep(100);
+
+        assertArrayEquals("[2]".getBytes(), shortLived.get("/counter").json());
+    }
+
+    @Test
+    @DisplayName("Concurrent requests for a missing list share one rebuild")
+    void concurrentMisses_ShouldShareOneBuild() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PreSerializedListCache slow = new PreSerializedListCache(objectMapper, transactionManager, registry,
+                Duration.ofMinutes(5));
+        AtomicInteger builds = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        slow.register("counter", "/counter", Set.of(Medication.class), () -> {
+            int build = builds.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return List.of(build);
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<SerializedList>> results = new ArrayList<>();
+            results.add(executor.submit(() -> slow.get("/counter")));
+            while (builds.get() == 0) {
+                Thread.sleep(5);
+            }
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> slow.get("/counter")));
+            }
+            Counter shared = registry.get("medical.serialized-lists.requests").tag("result", "shared").counter();
+            while (shared.count() < 3) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<SerializedList> result : results) {
+                assertArrayEquals("[1]".getBytes(), result.get(5, TimeUnit.SECONDS).json());
+            }
+            assertEquals(1, builds.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
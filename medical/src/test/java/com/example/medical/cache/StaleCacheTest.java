@@ -0,0 +1,115 @@
+package com.example.medical.cache;
+
+import com.example.medical.cache.StaleCache.Freshness;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StaleCacheTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<Runnable> refreshes = new ArrayList<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final StaleCache cache = new StaleCache("test", Duration.ofSeconds(10), Duration.ofSeconds(60),
+            refreshes::add, new SimpleMeterRegistry(), clock::get);
+
+    @Test
+    @DisplayName("Fresh results are served from memory without loading")
+    void get_Fresh_ShouldNotLoad() throws Throwable {
+        assertEquals(Freshness.LOADED, cache.get("k", this::load).freshness());
+        clock.set(10 * SECOND);
+
+        StaleCache.Lookup lookup = cache.get("k", this::load);
+
+        assertEquals(Freshness.FRESH, lookup.freshness());
+        assertEquals("value-1", lookup.value());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Stale results are served at once and refreshed once in the background")
+    void get_Stale_ShouldServeAndRefreshOnce() throws Throwable {
+        cache.get("k", this::load);
+        clock.set(11 * SECOND);
+
+        StaleCache.Lookup first = cache.get("k", this::load);
+        StaleCache.Lookup second = cache.get("k", this::load);
+
+        assertEquals(Freshness.STALE, first.freshness());
+        assertEquals("value-1", second.value());
+        assertEquals(1, refreshes.size(), "one refresh per key at a time");
+
+        refreshes.remove(0).run();
+
+        StaleCache.Lookup refreshed = cache.get("k", this::load);
+        assertEquals(Freshness.FRESH, refreshed.freshness());
+        assertEquals("value-2", refreshed.value());
+    }
+
+    @Test
+    @DisplayName("A failed refresh keeps serving the old result until the maximum staleness")
+    void get_RefreshFails_ShouldServeStaleUntilMaxStale() throws Throwable {
+        cache.get("k", this::load);
+        clock.set(30 * SECOND);
+        cache.get("k", this::fail);
+        refreshes.remove(0).run();
+
+        StaleCache.Lookup afterFailure = cache.get("k", this::fail);
+        assertEquals(Freshness.REVALIDATION_FAILED, afterFailure.freshness());
+        assertEquals("value-1", afterFailure.value());
+        assertEquals(30 * SECOND, afterFailure.ageNanos());
+
+        clock.set(61 * SECOND);
+        assertThrows(IllegalStateException.class, () -> cache.get("k", this::fail));
+    }
+
+    @Test
+    @DisplayName("Eviction drops results and discards loads that started before it")
+    void evictAll_ShouldDiscardOutdatedRefresh() throws Throwable {
+        cache.get("k", this::load);
+        clock.set(11 * SECOND);
+        cache.get("k", this::load);
+
+        cache.evictAll();
+        refreshes.remove(0).run();
+
+        assertEquals(Freshness.LOADED, cache.get("k", this::load).freshness());
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    @DisplayName("Refreshes rejected by a full executor are skipped and retried on a later read")
+    void get_ExecutorFull_ShouldRetryLater() throws Throwable {
+        AtomicInteger attempts = new AtomicInteger();
+        StaleCache busy = new StaleCache("busy", Duration.ofSeconds(10), Duration.ofSeconds(60), task -> {
+            attempts.incrementAndGet();
+            throw new RejectedExecutionException();
+        }, new SimpleMeterRegistry(), clock::get);
+        busy.get("k", this::load);
+        clock.set(11 * SECOND);
+
+        busy.get("k", this::load);
+        busy.get("k", this::load);
+
+        assertEquals(2, attempts.get());
+    }
+
+    private Object load() {
+        return "value-" + loads.incrementAndGet();
+    }
+
+    private Object fail() {
+        throw new IllegalStateException("database unavailable");
+    }
+}
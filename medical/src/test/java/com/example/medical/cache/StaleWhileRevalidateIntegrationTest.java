@@ -0,0 +1,112 @@
+package com.example.medical.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stale-while-revalidate;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "medical.stale-while-revalidate.enabled=true",
+        "medical.stale-while-revalidate.caches.specializations.fresh-for=0s"
+})
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class StaleWhileRevalidateIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StaleWhileRevalidateAspect aspect;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from medication");
+        jdbcTemplate.update("delete from specialization");
+        aspect.evictAll();
+    }
+
+    @Test
+    @DisplayName("Cached lists carry their age and are dropped when the data changes")
+    void cachedList_ShouldCarryAgeAndBeEvictedOnChange() throws Exception {
+        createMedication("Aspirin");
+
+        mockMvc.perform(get("/api/medications"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Age"));
+        mockMvc.perform(get("/api/medications"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Age", "0"))
+                .andExpect(header().doesNotExist("Warning"));
+
+        createMedication("Ibuprofen");
+
+        mockMvc.perform(get("/api/medications"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Age"))
+                .andExpect(jsonPath("$[*].name", containsInAnyOrder("Aspirin", "Ibuprofen")));
+    }
+
+    @Test
+    @DisplayName("While the database is unavailable the last good list is served with a warning")
+    void databaseDown_ShouldServeStaleListWithWarning() throws Exception {
+        mockMvc.perform(post("/api/specializations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Cardiology\"}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/specializations")).andExpect(status().isOk());
+
+        jdbcTemplate.execute("alter table specialization rename to specialization_offline");
+        try {
+            mockMvc.perform(get("/api/specializations"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Warning", startsWith("110")))
+                    .andExpect(jsonPath("$[*].name", contains("Cardiology")));
+            awaitRefreshFailure();
+
+            mockMvc.perform(get("/api/specializations"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Warning", startsWith("111")))
+                    .andExpect(jsonPath("$[*].name", contains("Cardiology")));
+        } finally {
+            jdbcTemplate.execute("alter table specialization_offline rename to specialization");
+        }
+    }
+
+    private void createMedication(String name) throws Exception {
+        mockMvc.perform(post("/api/medications")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"" + name + "\",\"description\":\"Pain relief\"}"))
+                .andExpect(status().isCreated());
+    }
+
+    private void awaitRefreshFailure() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (System.currentTimeMillis() < deadline) {
+            if (meterRegistry.get("medical.stale-while-revalidate.refreshes")
+                    .tags("cache", "specializations", "outcome", "failure").counter().count() > 0) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.medical.calendar;
+
+import com.example.medical.events.ChangeEventBus;
+import com.example.medical.events.EntityChangedEvent;
+import com.example.medical.model.Appointment;
+import com.example.medical.model.Doctor;
+import com.example.medical.model.Patient;
+import com.example.medical.model.Specialization;
+import com.example.medical.repository.AppointmentRepository;
+import com.example.medical.repository.DoctorRepository;
+import com.example.medical.repository.PatientRepository;
+import com.example.medical.repository.SpecializationRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:calendar-stream;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class CalendarStreamIntegrationTest {
+
+    private static final Pattern SNAPSHOT_ID = Pattern.compile("id:(\\S+)\nevent:snapshot\n");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SpecializationRepository specializationRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private ChangeEventBus bus;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Doctor doctor;
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        Specialization specialization = specializationRepository.save(Specialization.builder().name("Cardiology").build());
+        doctor = doctorRepository.save(Doctor.builder()
+                .firstName("Jane")
+                .lastName("Smith")
+                .email("jane.smith@example.com")
+                .phone("0712345678")
+                .specialization(specialization)
+                .build());
+        patient = patientRepository.save(Patient.builder()
+                .firstName("Ana")
+                .lastName("Pop")
+                .cnp("2980101123456")
+                .email("ana.pop@example.com")
+                .phone("0744444444")
+                .build());
+        appointmentRepository.save(Appointment.builder()
+                .patient(patient)
+                .doctor(doctor)
+                .appointmentDate(LocalDateTime.now().plusDays(1))
+                .reason("Check-up")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        appointmentRepository.deleteAll();
+        doctorRepository.deleteAll();
+        patientRepository.deleteAll();
+        specializationRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("The stream starts with a snapshot and then carries created and deleted appointments")
+    void stream_ShouldSendSnapshotThenChanges() throws Exception {
+        MockHttpServletResponse stream = open(null);
+
+        assertTrue(stream.getContentAsString().contains("event:snapshot\ndata:[{"));
+        assertTrue(stream.getContentAsString().contains("Check-up"));
+
+        int id = schedule("Blood test");
+        awaitContent(stream, "event:created\ndata:{\"id\":" + id);
+
+        mockMvc.perform(delete("/api/appointments/{id}", id)).andExpect(status().isNoContent());
+        awaitContent(stream, "event:deleted\ndata:{\"id\":" + id + "}");
+    }
+
+    @Test
+    @DisplayName("Snapshot entries and created frames carry appointments of the same shape")
+    void snapshotAndCreated_ShouldHaveTheSameShape() throws Exception {
+        MockHttpServletResponse stream = open(null);
+        int id = schedule("Blood test");
+        awaitContent(stream, "event:created\ndata:{\"id\":" + id);
+
+        String content = stream.getContentAsString();
+        JsonNode snapshot = objectMapper.readTree(data(content, "snapshot")).get(0);
+        JsonNode created = objectMapper.readTree(data(content, "created"));
+
+        assertEquals(fieldNames(snapshot), fieldNames(created));
+        assertEquals(fieldNames(snapshot.get("patient")), fieldNames(created.get("patient")));
+        assertEquals(fieldNames(snapshot.get("doctor")), fieldNames(created.get("doctor")));
+    }
+
+    @Test
+    @DisplayName("Appointments created and deleted on another node reach the stream through the change log events")
+    void stream_ShouldCarryChangesFromOtherNodes() throws Exception {
+        MockHttpServletResponse stream = open(null);
+
+        // What the change log tailer hands to the bus: no entity, and a row this node's Hibernate never saw.
+        jdbcTemplate.update("insert into appointment (id, patient_id, doctor_id, appointment_date, reason) "
+                + "values (1000, ?, ?, ?, 'Remote')", patient.getId(), doctor.getId(), LocalDateTime.now().plusDays(3));
+        bus.publish(new EntityChangedEvent(Appointment.class, 1000, EntityChangedEvent.Change.INSERTED, null));
+        awaitContent(stream, "event:created\ndata:{\"id\":1000");
+
+        jdbcTemplate.update("delete from appointment where id = 1000");
+        bus.publish(new EntityChangedEvent(Appointment.class, 1000, EntityChangedEvent.Change.DELETED, null));
+        awaitContent(stream, "event:deleted\ndata:{\"id\":1000}");
+    }
+
+    @Test
+    @DisplayName("Reconnecting with Last-Event-ID replays the missed events instead of a new snapshot")
+    void stream_WithLastEventId_ShouldResume() throws Exception {
+        MockHttpServletResponse first = open(null);
+        Matcher snapshot = SNAPSHOT_ID.matcher(first.getContentAsString());
+        assertTrue(snapshot.find());
+        int id = schedule("X-ray");
+        awaitContent(first, "event:created");
+
+        MockHttpServletResponse resumed = open(snapshot.group(1));
+
+        String content = resumed.getContentAsString();
+        assertFalse(content.contains("event:snapshot"));
+        assertTrue(content.startsWith("id:"));
+        assertTrue(content.contains("event:created\ndata:{\"id\":" + id));
+    }
+
+    @Test
+    @DisplayName("An id from another node or an earlier run gets a fresh snapshot")
+    void stream_WithUnknownEventId_ShouldSendSnapshot() throws Exception {
+        MockHttpServletResponse stream = open("0-42");
+
+        assertTrue(stream.getContentAsString().contains("event:snapshot"));
+    }
+
+    @Test
+    @DisplayName("Streams of unknown doctors are refused")
+    void stream_UnknownDoctor_ShouldReturnNotFound() throws Exception {
+        mockMvc.perform(get("/api/doctors/{id}/calendar/stream", -1).accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isNotFound());
+    }
+
+    private MockHttpServletResponse open(String lastEventId) throws Exception {
+        var request = get("/api/doctors/{id}/calendar/stream", doctor.getId()).accept(MediaType.TEXT_EVENT_STREAM);
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        MvcResult result = mockMvc.perform(request).andExpect(request().asyncStarted()).andReturn();
+        return result.getResponse();
+    }
+
+    private int schedule(String reason) throws Exception {
+        String body = mockMvc.perform(post("/api/appointments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"patient\":{\"id\":" + patient.getId() + "},\"doctor\":{\"id\":" + doctor.getId()
+                                + "},\"appointmentDate\":\"" + LocalDateTime.now().plusDays(2).withNano(0)
+                                + "\",\"reason\":\"" + reason + "\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return Integer.parseInt(body.replaceAll("^\\{\"id\":(\\d+).*", "$1"));
+    }
+
+    private static String data(String content, String event) {
+        Matcher matcher = Pattern.compile("event:" + event + "\ndata:(.*)\n").matcher(content);
+        assertTrue(matcher.find(), "Missing event: " + event);
+        return matcher.group(1);
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    private static void awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!response.getContentAsString().contains(expected)) {
+            assertTrue(System.currentTimeMillis() < deadline, "Missing event: " + expected);
+            Thread.sleep(10);
+        }
+    }
+}
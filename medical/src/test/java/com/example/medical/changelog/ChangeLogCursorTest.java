@@ -0,0 +1,71 @@
+package com.example.medical.changelog;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeLogCursorTest {
+
+    private static final long TIMEOUT = 1_000;
+
+    @Test
+    @DisplayName("Ids skipped over are awaited and accepted once when they commit late")
+    void offer_AfterGap_ShouldAwaitSkippedIds() {
+        ChangeLogCursor cursor = new ChangeLogCursor(10, TIMEOUT);
+
+        assertTrue(cursor.offer(13, 0));
+
+        assertEquals(13, cursor.highest());
+        assertEquals(List.of(11L, 12L), cursor.awaited(10));
+        assertTrue(cursor.offer(12, 5));
+        assertFalse(cursor.offer(12, 5));
+        assertEquals(List.of(11L), cursor.awaited(10));
+    }
+
+    @Test
+    @DisplayName("Ids already read are not offered again")
+    void offer_SeenId_ShouldBeRejected() {
+        ChangeLogCursor cursor = new ChangeLogCursor(10, TIMEOUT);
+        cursor.offer(11, 0);
+
+        assertFalse(cursor.offer(11, 0));
+        assertFalse(cursor.offer(3, 0));
+        assertEquals(0, cursor.pendingGaps());
+    }
+
+    @Test
+    @DisplayName("Gaps of rolled back inserts are dropped after the timeout")
+    void expireGaps_ShouldDropTimedOutIds() {
+        ChangeLogCursor cursor = new ChangeLogCursor(0, TIMEOUT);
+        cursor.offer(2, 0);
+        cursor.offer(4, 500);
+
+        cursor.expireGaps(TIMEOUT);
+
+        assertEquals(List.of(3L), cursor.awaited(10));
+        assertFalse(cursor.offer(1, TIMEOUT));
+    }
+
+    @Test
+    @DisplayName("Only the oldest awaited ids are returned")
+    void awaited_ShouldBeCapped() {
+        ChangeLogCursor cursor = new ChangeLogCursor(0, TIMEOUT);
+        cursor.offer(6, 0);
+
+        assertEquals(List.of(1L, 2L), cursor.awaited(2));
+    }
+
+    @Test
+    @DisplayName("A huge jump is not tracked id by id")
+    void offer_HugeJump_ShouldNotTrackGap() {
+        ChangeLogCursor cursor = new ChangeLogCursor(0, TIMEOUT);
+
+        cursor.offer(1_000_000, 0);
+
+        assertEquals(0, cursor.pendingGaps());
+        assertEquals(1_000_000, cursor.highest());
+    }
+}
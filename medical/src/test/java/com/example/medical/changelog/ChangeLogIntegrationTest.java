@@ -0,0 +1,202 @@
+package com.example.medical.changelog;
+
+import com.example.medical.MedicalApplication;
+import com.example.medical.cache.PreSerializedListCache;
+import com.example.medical.directory.DoctorDirectory;
+import com.example.medical.events.EntityChangedEvent;
+import com.example.medical.model.ChangeLogEntry;
+import com.example.medical.model.Doctor;
+import com.example.medical.model.Medication;
+import com.example.medical.model.Specialization;
+import com.example.medical.repository.ChangeLogRepository;
+import com.example.medical.repository.DoctorRepository;
+import com.example.medical.repository.MedicationRepository;
+import com.example.medical.repository.SpecializationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two nodes sharing one embedded database: this test's context is node A, a second context started next to it is
+ * node B. A change committed on one node must evict what the other one holds in its doctor directory.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ChangeLogIntegrationTest.URL,
+        "medical.change-log.enabled=true",
+        "medical.change-log.node-id=node-a",
+        "medical.change-log.poll-interval=50ms",
+        "medical.doctor-directory.enabled=true",
+        "medical.serialized-lists.enabled=true"
+})
+@ActiveProfiles("h2")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class ChangeLogIntegrationTest {
+
+    static final String URL = "jdbc:h2:mem:change-log;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static ConfigurableApplicationContext nodeB;
+
+    @Autowired
+    private DoctorDirectory directory;
+
+    @Autowired
+    private SpecializationRepository specializationRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private ChangeLogTailer tailer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PreSerializedListCache serializedLists;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    private Specialization cardiology;
+
+    // Started once node A has created the schema, which happens after @BeforeAll.
+    private static ConfigurableApplicationContext startNodeB() {
+        return new SpringApplicationBuilder(MedicalApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("h2")
+                // As arguments, so that they take precedence over application-h2.properties.
+                .run("--spring.datasource.url=" + URL,
+                        // Node A owns the schema.
+                        "--spring.jpa.hibernate.ddl-auto=none",
+                        "--medical.change-log.enabled=true",
+                        "--medical.change-log.node-id=node-b",
+                        "--medical.change-log.poll-interval=50ms",
+                        "--medical.doctor-directory.enabled=true",
+                        "--medical.profiling.enabled=false");
+    }
+
+    @AfterAll
+    static void stopNodeB() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        if (nodeB == null) {
+            nodeB = startNodeB();
+        }
+        cardiology = specializationRepository.save(Specialization.builder().name("Cardiology").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        doctorRepository.deleteAll();
+        specializationRepository.deleteAll();
+        medicationRepository.deleteAll();
+        changeLogRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Writes are logged with the node that made them and each node skips its own rows")
+    void write_ShouldBeLoggedWithOrigin() {
+        Doctor doctor = doctorRepository.save(doctor("Jane", "Smith", cardiology));
+
+        ChangeLogEntry entry = changeLogRepository.findAll().stream()
+                .filter(row -> row.getEntityType().equals("Doctor"))
+                .findFirst().orElseThrow();
+        assertEquals(doctor.getId().longValue(), entry.getEntityId());
+        assertEquals(EntityChangedEvent.Change.INSERTED, entry.getChange());
+        assertEquals("node-a", entry.getOrigin());
+        assertEquals(0, tailer.poll());
+    }
+
+    @Test
+    @DisplayName("Doctors created, renamed and deleted on one node show up in the other node's directory")
+    void changesOnOtherNode_ShouldReachDirectory() throws Exception {
+        DoctorRepository nodeBDoctors = nodeB.getBean(DoctorRepository.class);
+        DoctorDirectory nodeBDirectory = nodeB.getBean(DoctorDirectory.class);
+
+        Doctor created = nodeBDoctors.save(doctor("Greg", "House", cardiology));
+        awaitTrue(() -> directory.snapshot().byId(created.getId()) != null);
+
+        Doctor renamed = doctorRepository.findById(created.getId()).orElseThrow();
+        renamed.setLastName("Wilson");
+        doctorRepository.save(renamed);
+        awaitTrue(() -> nodeBDirectory.snapshot().byId(created.getId()) != null
+                && "Wilson".equals(nodeBDirectory.snapshot().byId(created.getId()).getLastName()));
+
+        nodeBDoctors.deleteById(created.getId());
+        awaitTrue(() -> directory.snapshot().byId(created.getId()) == null);
+
+        assertTrue(meterRegistry.get("medical.change-log.lag").timer().count() > 0);
+    }
+
+    @Test
+    @DisplayName("A medication created on the other node rebuilds this node's pre-serialized list")
+    void changesOnOtherNode_ShouldInvalidateSerializedLists() throws Exception {
+        assertEquals("[]", new String(serializedLists.get("/api/medications").json()));
+
+        nodeB.getBean(MedicationRepository.class)
+                .save(Medication.builder().name("Aspirin").description("Painkiller").build());
+
+        awaitTrue(() -> new String(serializedLists.get("/api/medications").json()).contains("Aspirin"));
+    }
+
+    @Test
+    @DisplayName("Compaction deletes only the rows older than the retention")
+    void compact_ShouldDeleteExpiredRows() {
+        ChangeLogEntry expired = changeLogRepository.save(entry(System.currentTimeMillis() - 2 * 60 * 60 * 1000));
+        ChangeLogEntry recent = changeLogRepository.save(entry(System.currentTimeMillis()));
+
+        assertEquals(1, tailer.compact());
+        assertFalse(changeLogRepository.existsById(expired.getId()));
+        assertTrue(changeLogRepository.existsById(recent.getId()));
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Change did not propagate in time");
+            Thread.sleep(20);
+        }
+    }
+
+    private static ChangeLogEntry entry(long changedAt) {
+        return ChangeLogEntry.builder()
+                .entityType("Medication")
+                .entityId(1L)
+                .change(EntityChangedEvent.Change.UPDATED)
+                .origin("node-c")
+                .changedAt(changedAt)
+                .build();
+    }
+
+    private static Doctor doctor(String firstName, String lastName, Specialization specialization) {
+        return Doctor.builder()
+                .firstName(firstName)
+                .lastName(lastName)
+                .email(firstName.toLowerCase() + "." + lastName.toLowerCase() + "@example.com")
+                .phone("0712345678")
+                .specialization(specialization)
+                .build();
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.medical.coalescing;
+
+import com.example.medical.exceptions.DeadlineExceededException;
+import com.example.medical.exceptions.DoctorNotFoundException;
+import com.example.medical.resilience.RequestDeadline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightAspectTest {
+
+    private static final int CALLERS = 8;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlightProperties properties = new SingleFlightProperties();
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+    private SlowLookup target;
+    private SlowLookup lookup;
+
+    @BeforeEach
+    void setUp() {
+        target = new SlowLookup();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new SingleFlightAspect(properties, meterRegistry));
+        lookup = factory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        target.release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Concurrent calls with the same key share one load and its result")
+    void sameKey_ShouldLoadOnce() throws Exception {
+        List<Future<String>> results = callConcurrently(() -> lookup.find(7));
+
+        target.release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("doctor-7", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, target.loads.get());
+        assertEquals(CALLERS - 1, count("follower"));
+        assertEquals(1, count("leader"));
+    }
+
+    @Test
+    @DisplayName("An exception of the shared load reaches every waiting caller")
+    void failingLoad_ShouldPropagateToAllCallers() throws Exception {
+        List<Future<String>> results = callConcurrently(() -> lookup.find(-1));
+
+        target.release.countDown();
+
+        for (Future<String> result : results) {
+            ExecutionException ex = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(DoctorNotFoundException.class, ex.getCause());
+        }
+        assertEquals(1, target.loads.get());
+    }
+
+    @Test
+    @DisplayName("Different keys load independently and a finished load is not reused")
+    void differentKeys_ShouldNotBeCoalesced() {
+        target.release.countDown();
+
+        lookup.find(1);
+        lookup.find(2);
+        lookup.find(1);
+
+        assertEquals(3, target.loads.get());
+    }
+
+    @Test
+    @DisplayName("Callers inside a transaction always load themselves")
+    void activeTransaction_ShouldBypassCoalescing() {
+        target.release.countDown();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            lookup.find(1);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        assertNull(meterRegistry.find("medical.single-flight.calls").counter());
+        assertEquals(1, target.loads.get());
+    }
+
+    @Test
+    @DisplayName("A caller that waits longer than the timeout loads on its own")
+    void slowLoad_ShouldFallBackAfterTimeout() throws Exception {
+        properties.setTimeout(Duration.ofMillis(50));
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> lookup.find(3), executor);
+        target.started.await(5, TimeUnit.SECONDS);
+
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> lookup.find(3), executor);
+        while (meterRegistry.get("medical.single-flight.timeouts").counter().count() == 0) {
+            Thread.onSpinWait();
+        }
+        target.release.countDown();
+
+        assertEquals("doctor-3", follower.get(5, TimeUnit.SECONDS));
+        assertEquals("doctor-3", leader.get(5, TimeUnit.SECONDS));
+        assertEquals(2, target.loads.get());
+    }
+
+    @Test
+    @DisplayName("A follower stops waiting at its request deadline even when the timeout is longer")
+    void followerDeadline_ShouldCapTheWait() throws Exception {
+        properties.setTimeout(Duration.ofSeconds(5));
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> lookup.find(4), executor);
+        target.started.await(5, TimeUnit.SECONDS);
+
+        Future<String> follower = executor.submit(() ->
+                RequestDeadline.callWith(RequestDeadline.after(Duration.ofMillis(50)), () -> lookup.find(4)));
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> follower.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(DeadlineExceededException.class, ex.getCause());
+        target.release.countDown();
+        assertEquals("doctor-4", leader.get(5, TimeUnit.SECONDS));
+        assertEquals(1, target.loads.get());
+    }
+
+    private List<Future<String>> callConcurrently(Callable<String> call) throws Exception {
+        List<Future<String>> results = new ArrayList<>();
+        results.add(executor.submit(call));
+        assertTrue(target.started.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < CALLERS; i++) {
+            results.add(executor.submit(call));
+        }
+        while (count("follower") < CALLERS - 1) {
+            Thread.onSpinWait();
+        }
+        return results;
+    }
+
+    private double count(String role) {
+        return meterRegistry.get("medical.single-flight.calls").tag("role", role).counter().count();
+    }
+
+    static class SlowLookup {
+
+        final AtomicInteger loads = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @SingleFlight(key = "#id")
+        public String find(Integer id) {
+            loads.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            if (id < 0) {
+                throw new DoctorNotFoundException(id);
+            }
+            return "doctor-" + id;
+        }
+    }
+}
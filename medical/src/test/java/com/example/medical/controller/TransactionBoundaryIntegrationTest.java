@@ -0,0 +1,150 @@
+package com.example.medical.controller;
+
+import com.example.medical.model.*;
+import com.example.medical.repository.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.medical.jdbc.SqlStatementAssertions.statementCount;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Open Session In View is disabled, so every lazy association the mapper touches has to be loaded by the
+ * service inside its transaction.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class TransactionBoundaryIntegrationTest {
+
+    private static final int APPOINTMENTS = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SpecializationRepository specializationRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    private Doctor doctor;
+    private Patient patient;
+    private Medication medication;
+    private final List<Prescription> prescriptions = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Specialization specialization = specializationRepository.save(Specialization.builder().name("Pediatrics").build());
+        doctor = doctorRepository.save(Doctor.builder()
+                .firstName("Lisa")
+                .lastName("Cuddy")
+                .email("lisa.cuddy@example.com")
+                .phone("0733333333")
+                .specialization(specialization)
+                .build());
+        patient = patientRepository.save(Patient.builder()
+                .firstName("Ana")
+                .lastName("Pop")
+                .cnp("2980101123456")
+                .email("ana.pop@example.com")
+                .phone("0744444444")
+                .build());
+        medication = medicationRepository.save(Medication.builder().name("Amoxicillin").description("Antibiotic").build());
+
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            Appointment appointment = appointmentRepository.save(Appointment.builder()
+                    .patient(patient)
+                    .doctor(doctor)
+                    .appointmentDate(LocalDateTime.now().plusDays(i + 1))
+                    .reason("Follow-up " + i)
+                    .build());
+            Prescription prescription = new Prescription();
+            prescription.setAppointment(appointment);
+            prescription.setIssuedDate(LocalDateTime.now());
+            prescription.setInstructions("Twice a day");
+            PrescriptionMedication entry = new PrescriptionMedication();
+            entry.setPrescription(prescription);
+            entry.setMedication(medication);
+            entry.setDosage("500mg");
+            prescription.getMedications().add(entry);
+            prescriptions.add(prescriptionRepository.save(prescription));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        prescriptionRepository.deleteAll();
+        appointmentRepository.deleteAll();
+        medicationRepository.deleteAll();
+        doctorRepository.deleteAll();
+        patientRepository.deleteAll();
+        specializationRepository.deleteAll();
+        prescriptions.clear();
+    }
+
+    @Test
+    @DisplayName("Appointments by doctor load prescriptions and medications in batches")
+    void getAppointmentsByDoctor_ShouldLoadAssociationsInBatches() throws Exception {
+        // doctor lookup, then appointment query + doctor and patient lookups in the service transaction,
+        // then one batch for prescriptions and one for medications
+        mockMvc.perform(get("/api/appointments/doctor/{doctorId}", doctor.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(APPOINTMENTS)))
+                .andExpect(statementCount(6));
+    }
+
+    @Test
+    @DisplayName("Appointments by patient are mapped without an open session")
+    void getAppointmentsByPatient_ShouldBeMapped() throws Exception {
+        mockMvc.perform(get("/api/appointments/patient/{patientId}", patient.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(APPOINTMENTS)));
+    }
+
+    @Test
+    @DisplayName("Prescription is returned with its medications")
+    void getPrescriptionById_ShouldIncludeMedications() throws Exception {
+        mockMvc.perform(get("/api/prescriptions/{id}", prescriptions.get(0).getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.medications", hasSize(1)))
+                .andExpect(jsonPath("$.medications[0].medication.name").value("Amoxicillin"));
+    }
+
+    @Test
+    @DisplayName("Adding a medication returns the full medication list")
+    void addMedication_ShouldReturnAllMedications() throws Exception {
+        mockMvc.perform(post("/api/prescriptions/{prescriptionId}/medications/{medicationId}",
+                        prescriptions.get(0).getId(), medication.getId())
+                        .param("dosage", "250mg"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.medications", hasSize(2)));
+    }
+}
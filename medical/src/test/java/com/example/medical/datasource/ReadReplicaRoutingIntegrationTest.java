@@ -0,0 +1,119 @@
+package com.example.medical.datasource;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Two in-memory databases stand in for the primary and the replica. Replication is left out on purpose, so
+ * every row tells which database served the read.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "medical.datasource.replica.enabled=true",
+        "medical.datasource.replica.url=jdbc:h2:mem:routing-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "medical.datasource.replica.username=sa",
+        "medical.datasource.replica.password=",
+        "medical.datasource.replica.driver-class-name=org.h2.Driver"
+})
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class ReadReplicaRoutingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        Integer tables = replica.queryForObject(
+                "select count(*) from information_schema.tables where table_schema = 'public'", Integer.class);
+        if (tables == 0) {
+            primary.queryForList("script nodata", String.class).forEach(replica::execute);
+        }
+        primary.update("insert into specialization (name) values ('Primary Only')");
+        replica.update("insert into specialization (name) values ('Replica Only')");
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.update("delete from specialization");
+        replica.update("delete from specialization");
+    }
+
+    @Test
+    @DisplayName("Read-only requests are served by the replica")
+    void getSpecializations_ShouldReadFromReplica() throws Exception {
+        mockMvc.perform(get("/api/specializations"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name", contains("Replica Only")));
+    }
+
+    @Test
+    @DisplayName("Writes go to the primary and the writer keeps reading from it")
+    void createSpecialization_ShouldPinClientToPrimary() throws Exception {
+        Cookie cookie = mockMvc.perform(post("/api/specializations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Dermatology\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists(ReadYourWrites.COOKIE_NAME))
+                .andReturn().getResponse().getCookie(ReadYourWrites.COOKIE_NAME);
+
+        mockMvc.perform(get("/api/specializations").cookie(cookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name", containsInAnyOrder("Primary Only", "Dermatology")));
+
+        mockMvc.perform(get("/api/specializations"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name", contains("Replica Only")));
+    }
+
+    @Test
+    @DisplayName("An expired read-your-writes cookie no longer pins to the primary")
+    void expiredCookie_ShouldReadFromReplica() throws Exception {
+        Cookie expired = new Cookie(ReadYourWrites.COOKIE_NAME, Long.toString(System.currentTimeMillis() - 1));
+
+        mockMvc.perform(get("/api/specializations").cookie(expired))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name", contains("Replica Only")));
+    }
+
+    @Test
+    @DisplayName("A cookie the client made up does not pin to the primary")
+    void forgedCookie_ShouldReadFromReplica() throws Exception {
+        Cookie forged = new Cookie(ReadYourWrites.COOKIE_NAME, Long.toString(Long.MAX_VALUE));
+
+        mockMvc.perform(get("/api/specializations").cookie(forged))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name", contains("Replica Only")));
+    }
+}
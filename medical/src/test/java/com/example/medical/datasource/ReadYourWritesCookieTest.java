@@ -0,0 +1,41 @@
+package com.example.medical.datasource;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadYourWritesCookieTest {
+
+    private final ReadYourWritesCookie cookie = new ReadYourWritesCookie("secret", Duration.ofSeconds(5));
+
+    @Test
+    @DisplayName("An issued cookie carries its deadline back")
+    void primaryUntil_WithIssuedValue_ShouldReturnDeadline() {
+        long now = System.currentTimeMillis();
+
+        assertEquals(now + 5_000, cookie.primaryUntil(cookie.issue(now + 5_000), now));
+    }
+
+    @Test
+    @DisplayName("A changed deadline or another node's secret invalidates the cookie")
+    void primaryUntil_WithTamperedValue_ShouldBeZero() {
+        long now = System.currentTimeMillis();
+        String issued = cookie.issue(now + 5_000);
+        String extended = (now + 60_000) + issued.substring(issued.indexOf('.'));
+
+        assertEquals(0, cookie.primaryUntil(extended, now));
+        assertEquals(0, cookie.primaryUntil(Long.toString(now + 5_000), now));
+        assertEquals(0, new ReadYourWritesCookie("other", Duration.ofSeconds(5)).primaryUntil(issued, now));
+    }
+
+    @Test
+    @DisplayName("A signed deadline further away than one window is rejected")
+    void primaryUntil_BeyondWindow_ShouldBeZero() {
+        long now = System.currentTimeMillis();
+
+        assertEquals(0, cookie.primaryUntil(cookie.issue(now + 60_000), now));
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.medical.datasource;
+
+import com.example.medical.jdbc.ConnectionCheckout;
+import com.example.medical.jdbc.ConnectionHoldTracker;
+import com.example.medical.model.Doctor;
+import com.example.medical.model.Specialization;
+import com.example.medical.repository.DoctorRepository;
+import com.example.medical.repository.SpecializationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:workload-pools;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "medical.datasource.pools.enabled=true",
+        "medical.datasource.pools.reporting.maximum-pool-size=1",
+        "medical.datasource.pools.reporting.connection-timeout=250",
+        // Its background polling would add checkouts to the write pool.
+        "medical.outbox.enabled=false"
+})
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class WorkloadPoolsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("interactiveDataSource")
+    private DataSource interactiveDataSource;
+
+    @Autowired
+    @Qualifier("reportingDataSource")
+    private DataSource reportingDataSource;
+
+    @Autowired
+    private ConnectionHoldTracker connectionHoldTracker;
+
+    @Autowired
+    private SpecializationRepository specializationRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    private Doctor doctor;
+
+    @BeforeEach
+    void setUp() {
+        Specialization specialization = specializationRepository.save(Specialization.builder().name("Neurology").build());
+        doctor = doctorRepository.save(Doctor.builder()
+                .firstName("Greg")
+                .lastName("House")
+                .email("greg.house@example.com")
+                .phone("0711111111")
+                .specialization(specialization)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        doctorRepository.deleteAll();
+        specializationRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Lookups, writes and listings check out connections from their own pools")
+    void requests_ShouldUseTheirWorkloadPool() throws Exception {
+        double interactive = checkouts(Workload.INTERACTIVE);
+        double write = checkouts(Workload.WRITE);
+        double reporting = checkouts(Workload.REPORTING);
+
+        mockMvc.perform(get("/api/doctors/{id}", doctor.getId())).andExpect(status().isOk());
+        assertEquals(interactive + 1, checkouts(Workload.INTERACTIVE));
+
+        mockMvc.perform(post("/api/specializations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Dermatology\"}"))
+                .andExpect(status().isCreated());
+        assertEquals(write + 1, checkouts(Workload.WRITE));
+
+        mockMvc.perform(get("/api/doctors")).andExpect(status().isOk());
+        assertEquals(reporting + 1, checkouts(Workload.REPORTING));
+    }
+
+    @Test
+    @DisplayName("An exhausted reporting pool times out listings but not interactive requests")
+    void exhaustedReportingPool_ShouldNotBlockInteractiveReads() throws Exception {
+        try (Connection ignored = reportingDataSource.getConnection()) {
+            mockMvc.perform(get("/api/doctors")).andExpect(status().isInternalServerError());
+
+            mockMvc.perform(get("/api/doctors/{id}", doctor.getId())).andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    @DisplayName("Checkouts of different pools sharing a connection id are tracked apart")
+    void collidingConnectionIds_ShouldBeTrackedPerPool() throws Exception {
+        try (Connection interactive = interactiveDataSource.getConnection()) {
+            String id = idOf(checkoutOf("interactiveDataSource"));
+            // The reporting pool has handed out no more connections than the interactive one, so it reaches the id.
+            Connection reporting = reportingDataSource.getConnection();
+            while (!idOf(checkoutOf("reportingDataSource")).equals(id)) {
+                reporting.close();
+                reporting = reportingDataSource.getConnection();
+            }
+
+            assertEquals(2, connectionHoldTracker.openCheckouts().size());
+            reporting.close();
+            assertEquals(List.of("interactiveDataSource:" + id), connectionHoldTracker.openCheckouts().stream()
+                    .map(ConnectionCheckout::getConnectionId).toList());
+        }
+        assertTrue(connectionHoldTracker.openCheckouts().isEmpty());
+    }
+
+    private ConnectionCheckout checkoutOf(String pool) {
+        return connectionHoldTracker.openCheckouts().stream()
+                .filter(checkout -> checkout.getConnectionId().startsWith(pool + ":"))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static String idOf(ConnectionCheckout checkout) {
+        return checkout.getConnectionId().substring(checkout.getConnectionId().indexOf(':') + 1);
+    }
+
+    private double checkouts(Workload workload) {
+        return meterRegistry.get("medical.datasource.checkouts").tag("pool", workload.getPoolName()).counter().count();
+    }
+}
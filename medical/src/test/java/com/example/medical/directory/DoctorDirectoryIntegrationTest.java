@@ -0,0 +1,134 @@
+package com.example.medical.directory;
+
+import com.example.medical.model.Doctor;
+import com.example.medical.model.Specialization;
+import com.example.medical.repository.DoctorRepository;
+import com.example.medical.repository.SpecializationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.example.medical.jdbc.SqlStatementAssertions.statementCount;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:doctor-directory;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "medical.doctor-directory.enabled=true"
+})
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class DoctorDirectoryIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DoctorDirectory directory;
+
+    @Autowired
+    private SpecializationRepository specializationRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    private Specialization cardiology;
+    private Specialization neurology;
+
+    @BeforeEach
+    void setUp() {
+        cardiology = specializationRepository.save(Specialization.builder().name("Cardiology").build());
+        neurology = specializationRepository.save(Specialization.builder().name("Neurology").build());
+        doctorRepository.save(doctor("Jane", "Smith", cardiology));
+    }
+
+    @AfterEach
+    void tearDown() {
+        doctorRepository.deleteAll();
+        specializationRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Doctor lists are served from the directory without running a statement")
+    void lists_ShouldNotTouchTheDatabase() throws Exception {
+        mockMvc.perform(get("/api/doctors"))
+                .andExpect(status().isOk())
+                .andExpect(statementCount(0))
+                .andExpect(jsonPath("$[*].lastName", contains("Smith")));
+        mockMvc.perform(get("/api/doctors/specialization/{id}", cardiology.getId()))
+                .andExpect(status().isOk())
+                .andExpect(statementCount(0))
+                .andExpect(jsonPath("$", hasSize(1)));
+        mockMvc.perform(get("/api/doctors/specialization/{id}", neurology.getId()))
+                .andExpect(statementCount(0))
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    @DisplayName("Creates, updates and deletes swap in a new snapshot that keeps the other doctors' DTOs")
+    void changes_ShouldBeAppliedIncrementally() throws Exception {
+        DoctorDirectory.Snapshot before = directory.snapshot();
+        Integer smithId = before.all().get(0).getId();
+
+        String body = mockMvc.perform(post("/api/doctors")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json("Greg", "House", "greg.house@example.com", "Cardiology")))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        int houseId = Integer.parseInt(body.replaceAll(".*\"id\":(\\d+).*", "$1"));
+
+        DoctorDirectory.Snapshot afterCreate = directory.snapshot();
+        assertSame(before.byId(smithId), afterCreate.byId(smithId));
+        mockMvc.perform(get("/api/doctors"))
+                .andExpect(jsonPath("$[*].lastName", contains("House", "Smith")));
+
+        mockMvc.perform(put("/api/doctors/{id}", houseId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json("Greg", "House", "greg.house@example.com", "Neurology")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/doctors/specialization/{id}", neurology.getId()))
+                .andExpect(jsonPath("$[*].lastName", contains("House")));
+        mockMvc.perform(get("/api/doctors/specialization/{id}", cardiology.getId()))
+                .andExpect(jsonPath("$[*].lastName", contains("Smith")));
+        assertNotNull(directory.snapshot().bySpecializationName("Neurology").get(0));
+
+        DoctorDirectory.Snapshot beforeDelete = directory.snapshot();
+        mockMvc.perform(delete("/api/doctors/{id}", houseId)).andExpect(status().isNoContent());
+        assertNull(directory.snapshot().byId(houseId));
+        // Lists of the other specializations are shared, not rebuilt.
+        assertSame(beforeDelete.bySpecializationId(cardiology.getId()),
+                directory.snapshot().bySpecializationId(cardiology.getId()));
+        assertTrue(directory.snapshot().bySpecializationId(neurology.getId()).isEmpty());
+        mockMvc.perform(get("/api/doctors"))
+                .andExpect(jsonPath("$[*].lastName", contains("Smith")));
+    }
+
+    private static Doctor doctor(String firstName, String lastName, Specialization specialization) {
+        return Doctor.builder()
+                .firstName(firstName)
+                .lastName(lastName)
+                .email(firstName.toLowerCase() + "." + lastName.toLowerCase() + "@example.com")
+                .phone("0712345678")
+                .specialization(specialization)
+                .build();
+    }
+
+    private static String json(String firstName, String lastName, String email, String specialization) {
+        return "{\"firstName\":\"" + firstName + "\",\"lastName\":\"" + lastName + "\",\"email\":\"" + email
+                + "\",\"phone\":\"0712345678\",\"specialization\":\"" + specialization + "\"}";
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.medical.events;
+
+import com.example.medical.model.Specialization;
+import com.example.medical.repository.SpecializationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:change-bus;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("h2")
+class ChangeEventBusIntegrationTest {
+
+    @Autowired
+    private RecordingSubscriber subscriber;
+
+    @Autowired
+    private SpecializationRepository specializationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        specializationRepository.deleteAll();
+        subscriber.changes.clear();
+    }
+
+    @Test
+    @DisplayName("Committed inserts, updates and deletes reach subscribers on the bus thread")
+    void committedChanges_ShouldReachSubscriber() throws Exception {
+        Specialization saved = specializationRepository.save(Specialization.builder().name("Cardiology").build());
+        saved.setName("Neurology");
+        specializationRepository.save(saved);
+        specializationRepository.delete(saved);
+
+        assertChange(EntityChangedEvent.Change.INSERTED, saved.getId());
+        assertChange(EntityChangedEvent.Change.UPDATED, saved.getId());
+        assertChange(EntityChangedEvent.Change.DELETED, saved.getId());
+        assertTrue(subscriber.thread.startsWith("change-bus-"));
+    }
+
+    @Test
+    @DisplayName("Rolled back changes are never published")
+    void rolledBackChange_ShouldNotBePublished() throws Exception {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            specializationRepository.save(Specialization.builder().name("Dermatology").build());
+            status.setRollbackOnly();
+        });
+        Specialization committed = specializationRepository.save(Specialization.builder().name("Oncology").build());
+
+        assertChange(EntityChangedEvent.Change.INSERTED, committed.getId());
+        assertNull(subscriber.changes.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    private void assertChange(EntityChangedEvent.Change change, Object id) throws InterruptedException {
+        EntityChangedEvent event = subscriber.changes.poll(5, TimeUnit.SECONDS);
+        assertNotNull(event);
+        assertEquals(Specialization.class, event.entityType());
+        assertEquals(change, event.change());
+        assertEquals(id, event.id());
+    }
+
+    @TestConfiguration
+    static class SubscriberConfig {
+
+        @Bean
+        RecordingSubscriber recordingSubscriber() {
+            return new RecordingSubscriber();
+        }
+    }
+
+    static class RecordingSubscriber implements ChangeSubscriber {
+
+        final BlockingQueue<EntityChangedEvent> changes = new LinkedBlockingQueue<>();
+        volatile String thread;
+
+        @Override
+        public boolean accepts(Class<?> entityType) {
+            return entityType == Specialization.class;
+        }
+
+        @Override
+        public void onChanges(List<EntityChangedEvent> batch) {
+            thread = Thread.currentThread().getName();
+            changes.addAll(batch);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.medical.events;
+
+import com.example.medical.model.Doctor;
+import com.example.medical.model.Patient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeEventBusTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ChangeEventBusProperties properties = new ChangeEventBusProperties();
+    private ChangeEventBus bus;
+
+    @AfterEach
+    void tearDown() {
+        if (bus != null) {
+            bus.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Every subscriber gets the accepted changes in order, in batches of at most the configured size")
+    void publish_ShouldDeliverInOrderAndBatches() throws Exception {
+        properties.setMaxBatchSize(3);
+        RecordingSubscriber doctors = new RecordingSubscriber("doctors", Doctor.class, 10);
+        RecordingSubscriber all = new RecordingSubscriber("all", null, 20);
+        bus = start(doctors, all);
+
+        for (int i = 0; i < 10; i++) {
+            bus.publish(change(Doctor.class, i));
+            bus.publish(change(Patient.class, i));
+        }
+
+        assertTrue(doctors.received.await(5, TimeUnit.SECONDS));
+        assertTrue(all.received.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), doctors.changes.stream().map(EntityChangedEvent::id).toList());
+        assertEquals(20, all.changes.size());
+        assertTrue(doctors.largestBatch.get() <= 3);
+        assertTrue(doctors.thread.startsWith("change-bus-doctors"));
+    }
+
+    @Test
+    @DisplayName("With DROP, a full buffer rejects the change and the subscriber is told about the overflow")
+    void publish_DropWhenFull_ShouldRejectAndSignalOverflow() throws Exception {
+        properties.setBufferSize(4);
+        properties.setBackpressure(ChangeEventBusProperties.Backpressure.DROP);
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingSubscriber subscriber = new BlockingSubscriber(release);
+        bus = start(subscriber);
+
+        int accepted = 0;
+        for (int i = 0; i < 10; i++) {
+            if (bus.publish(change(Doctor.class, i))) {
+                accepted++;
+            }
+        }
+        release.countDown();
+        awaitBacklogDrained("BlockingSubscriber");
+        bus.publish(change(Doctor.class, 99));
+
+        assertTrue(accepted < 10);
+        assertEquals(10 - accepted, meterRegistry.get("medical.change-bus.dropped").functionCounter().count());
+        assertTrue(subscriber.overflowed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("With BLOCK, the publisher waits for room instead of dropping")
+    void publish_BlockWhenFull_ShouldWaitForSubscriber() throws Exception {
+        properties.setBufferSize(2);
+        properties.setBackpressure(ChangeEventBusProperties.Backpressure.BLOCK);
+        RecordingSubscriber subscriber = new RecordingSubscriber("slow", null, 50);
+        subscriber.delayMillis = 1;
+        bus = start(subscriber);
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(bus.publish(change(Doctor.class, i)));
+        }
+
+        assertTrue(subscriber.received.await(5, TimeUnit.SECONDS));
+        assertEquals(0, meterRegistry.get("medical.change-bus.dropped").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Backlog and lag are reported per subscriber and a failing subscriber keeps its thread")
+    void metrics_ShouldBeReportedPerSubscriber() throws Exception {
+        RecordingSubscriber subscriber = new RecordingSubscriber("read-model", null, 2) {
+            @Override
+            public void onChanges(List<EntityChangedEvent> changes) {
+                if (changes.get(0).id().equals(0)) {
+                    throw new IllegalStateException("boom");
+                }
+                super.onChanges(changes);
+            }
+        };
+        bus = start(subscriber);
+
+        bus.publish(change(Doctor.class, 0));
+        Thread.sleep(100);
+        bus.publish(change(Doctor.class, 1));
+        bus.publish(change(Doctor.class, 2));
+
+        assertTrue(subscriber.received.await(5, TimeUnit.SECONDS));
+        // The handler's sequence moves on only after onChanges returns.
+        awaitBacklogDrained("read-model");
+        assertEquals(1, meterRegistry.get("medical.change-bus.failures").tag("subscriber", "read-model").counter().count());
+        assertTrue(meterRegistry.get("medical.change-bus.lag").tag("subscriber", "read-model").timer().count() >= 2);
+    }
+
+    @Test
+    @DisplayName("Changes published before the bus started are not buffered")
+    void publish_BeforeStart_ShouldBeIgnored() {
+        bus = new ChangeEventBus(properties, meterRegistry);
+
+        assertTrue(bus.publish(change(Doctor.class, 1)));
+    }
+
+    private ChangeEventBus start(ChangeSubscriber... subscribers) {
+        ChangeEventBus started = new ChangeEventBus(properties, meterRegistry);
+        started.start(List.of(subscribers));
+        return started;
+    }
+
+    private void awaitBacklogDrained(String subscriber) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (meterRegistry.get("medical.change-bus.backlog").tag("subscriber", subscriber).gauge().value() > 0) {
+            assertTrue(System.currentTimeMillis() < deadline, "Subscriber did not catch up");
+            Thread.sleep(10);
+        }
+    }
+
+    private static EntityChangedEvent change(Class<?> type, int id) {
+        return new EntityChangedEvent(type, id, EntityChangedEvent.Change.UPDATED, null);
+    }
+
+    private static class RecordingSubscriber implements ChangeSubscriber {
+
+        final List<EntityChangedEvent> changes = new CopyOnWriteArrayList<>();
+        final AtomicInteger largestBatch = new AtomicInteger();
+        final CountDownLatch received;
+        private final String name;
+        private final Class<?> type;
+        volatile String thread;
+        volatile long delayMillis;
+
+        RecordingSubscriber(String name, Class<?> type, int expected) {
+            this.name = name;
+            this.type = type;
+            this.received = new CountDownLatch(expected);
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public boolean accepts(Class<?> entityType) {
+            return type == null || type == entityType;
+        }
+
+        @Override
+        public void onChanges(List<EntityChangedEvent> batch) {
+            thread = Thread.currentThread().getName();
+            largestBatch.accumulateAndGet(batch.size(), Math::max);
+            for (EntityChangedEvent change : batch) {
+                changes.add(change);
+                received.countDown();
+            }
+            if (delayMillis > 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private static class BlockingSubscriber implements ChangeSubscriber {
+
+        final CountDownLatch overflowed = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        BlockingSubscriber(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void onChanges(List<EntityChangedEvent> changes) {
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void onOverflow() {
+            overflowed.countDown();
+        }
+    }
+}
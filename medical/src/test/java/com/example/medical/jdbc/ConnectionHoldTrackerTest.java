@@ -0,0 +1,158 @@
+package com.example.medical.jdbc;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionHoldTrackerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConnectionHoldProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new ConnectionHoldProperties();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Hold time is recorded against the endpoint that checked the connection out")
+    void close_ShouldRecordHoldTimePerEndpoint() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/doctors/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/doctors/{id}");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        ConnectionHoldTracker tracker = new ConnectionHoldTracker(properties, meterRegistry);
+        DataSource dataSource = proxied(tracker);
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("select 1");
+            assertEquals(1, tracker.openCheckouts().size());
+        }
+
+        Timer timer = meterRegistry.get(ConnectionHoldTracker.HOLD_TIMER).tag("uri", "/api/doctors/{id}").timer();
+        assertEquals(1, timer.count());
+        assertEquals(1, meterRegistry.get(ConnectionHoldTracker.ACQUIRE_TIMER).timer().count());
+        assertTrue(tracker.openCheckouts().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Connections that are not closed are listed with their holder")
+    void openCheckouts_ShouldAttributeHeldConnections() throws Exception {
+        ConnectionHoldTracker tracker = new ConnectionHoldTracker(properties, meterRegistry);
+        DataSource dataSource = proxied(tracker);
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("select 1");
+            statement.execute("select 2");
+
+            List<ConnectionCheckout> checkouts = tracker.openCheckouts();
+            assertEquals(1, checkouts.size());
+            ConnectionCheckout checkout = checkouts.get(0);
+            assertEquals(ConnectionHoldTracker.NO_ENDPOINT, checkout.getEndpoint());
+            assertEquals(2, checkout.getStatements());
+            assertEquals(Thread.currentThread().getName(), checkout.getThread());
+            assertEquals("-", checkout.getServiceMethod());
+        }
+    }
+
+    @Test
+    @DisplayName("Long holds and holds dominated by non-JDBC work are counted")
+    void close_AfterLongIdleHold_ShouldBeFlagged() throws Exception {
+        properties.setLongHoldThreshold(Duration.ofMillis(20));
+        properties.setOutsideJdbcMinHold(Duration.ofMillis(20));
+        properties.setCaptureStacks(false);
+        DataSource dataSource = proxied(new ConnectionHoldTracker(properties, meterRegistry));
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("select 1");
+            Thread.sleep(50);
+        }
+
+        assertEquals(1, meterRegistry.get("medical.jdbc.connection.long.holds").counter().count());
+        assertEquals(1, meterRegistry.get("medical.jdbc.connection.outside.jdbc").counter().count());
+    }
+
+    @Test
+    @DisplayName("Short holds spent in JDBC are not flagged")
+    void close_AfterShortHold_ShouldNotBeFlagged() throws Exception {
+        DataSource dataSource = proxied(new ConnectionHoldTracker(properties, meterRegistry));
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("select 1");
+        }
+
+        assertNull(meterRegistry.find("medical.jdbc.connection.long.holds").counter());
+        assertNull(meterRegistry.find("medical.jdbc.connection.outside.jdbc").counter());
+    }
+
+    @Test
+    @DisplayName("Connections of separately proxied pools are tracked apart even when their ids collide")
+    void close_WithTwoPools_ShouldRecordEachAgainstItsOwnEndpoint() throws Exception {
+        ConnectionHoldTracker tracker = new ConnectionHoldTracker(properties, meterRegistry);
+        DataSource primary = proxied("primaryDataSource", tracker);
+        DataSource replica = proxied("replicaDataSource", tracker);
+
+        onEndpoint("/api/appointments");
+        try (Connection write = primary.getConnection()) {
+            onEndpoint("/api/doctors");
+            try (Connection read = replica.getConnection(); Statement statement = read.createStatement()) {
+                statement.execute("select 1");
+                List<ConnectionCheckout> checkouts = tracker.openCheckouts();
+                assertEquals(2, checkouts.size());
+                assertEquals(List.of("/api/appointments", "/api/doctors"),
+                        checkouts.stream().map(ConnectionCheckout::getEndpoint).toList());
+                assertEquals(1, checkouts.get(1).getStatements());
+            }
+
+            assertEquals(1, meterRegistry.get(ConnectionHoldTracker.HOLD_TIMER).tag("uri", "/api/doctors").timer().count());
+            List<ConnectionCheckout> checkouts = tracker.openCheckouts();
+            assertEquals(1, checkouts.size());
+            assertEquals("/api/appointments", checkouts.get(0).getEndpoint());
+            assertTrue(checkouts.get(0).getConnectionId().startsWith("primaryDataSource:"));
+        }
+
+        assertEquals(1, meterRegistry.get(ConnectionHoldTracker.HOLD_TIMER).tag("uri", "/api/appointments").timer().count());
+        assertTrue(tracker.openCheckouts().isEmpty());
+    }
+
+    private static void onEndpoint(String pattern) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", pattern);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private static DataSource proxied(ConnectionHoldTracker tracker) {
+        return proxied("test", tracker);
+    }
+
+    private static DataSource proxied(String name, ConnectionHoldTracker tracker) {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:connection-hold;DB_CLOSE_DELAY=-1");
+        return ProxyDataSourceBuilder.create(name, h2)
+                .listener(tracker)
+                .methodListener(tracker)
+                .build();
+    }
+}
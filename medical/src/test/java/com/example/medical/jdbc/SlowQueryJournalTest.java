@@ -0,0 +1,84 @@
+package com.example.medical.jdbc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowQueryJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Recent records are returned newest first")
+    void recent_ShouldReturnNewestFirst() {
+        SlowQueryJournal journal = new SlowQueryJournal(4);
+        for (int i = 0; i < 3; i++) {
+            journal.append(record("select " + i));
+        }
+
+        List<SlowQueryRecord> records = journal.recent(2);
+
+        assertEquals(List.of("select 2", "select 1"), records.stream().map(SlowQueryRecord::getSql).toList());
+    }
+
+    @Test
+    @DisplayName("Oldest records are overwritten when the buffer is full")
+    void append_WhenFull_ShouldOverwriteOldest() {
+        SlowQueryJournal journal = new SlowQueryJournal(3);
+        for (int i = 0; i < 5; i++) {
+            journal.append(record("select " + i));
+        }
+
+        List<SlowQueryRecord> records = journal.readFrom(0);
+
+        assertEquals(List.of("select 2", "select 3", "select 4"), records.stream().map(SlowQueryRecord::getSql).toList());
+        assertEquals(2, records.get(0).getSequence());
+    }
+
+    @Test
+    @DisplayName("Writer appends only new records and rotates the file when it is full")
+    void flush_ShouldAppendNewRecordsAndRotate() throws Exception {
+        SlowQueryJournal journal = new SlowQueryJournal(8);
+        SlowQueryProperties properties = new SlowQueryProperties();
+        Path file = tempDir.resolve("slow.log");
+        properties.setFile(file.toString());
+        properties.setMaxFileSize(DataSize.ofBytes(1));
+        properties.setMaxFiles(2);
+        SlowQueryFileWriter writer = new SlowQueryFileWriter(journal, properties,
+                new ObjectMapper().registerModule(new JavaTimeModule()));
+
+        journal.append(record("select 1"));
+        writer.flush();
+        writer.flush();
+        assertEquals(1, Files.readAllLines(file).size());
+
+        journal.append(record("select 2"));
+        writer.flush();
+
+        assertTrue(Files.readString(file).contains("select 2"));
+        assertTrue(Files.readString(tempDir.resolve("slow.log.1")).contains("select 1"));
+    }
+
+    private static SlowQueryRecord record(String sql) {
+        return SlowQueryRecord.builder()
+                .timestamp(Instant.now())
+                .durationMs(250)
+                .sql(sql)
+                .binds(List.of())
+                .rows(1)
+                .caller("-")
+                .success(true)
+                .build();
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.medical.jdbc;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowQueryListenerTest {
+
+    private SlowQueryJournal journal;
+    private SlowQueryProperties properties;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        journal = new SlowQueryJournal(16);
+        properties = new SlowQueryProperties();
+        properties.setThreshold(Duration.ZERO);
+
+        try (Connection connection = h2().getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists medication");
+            statement.execute("create table medication (id int primary key, name varchar(100))");
+            statement.execute("insert into medication values (1, 'Aspirin'), (2, 'Ibuprofen'), (3, 'Paracetamol')");
+        }
+    }
+
+    @Test
+    @DisplayName("Select over the threshold is journaled with masked binds and rows read")
+    void select_OverThreshold_ShouldBeJournaledWithRowCount() throws Exception {
+        DataSource dataSource = proxied(new SlowQueryListener(journal, properties));
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("select name from medication where id >= ?")) {
+            statement.setInt(1, 1);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    resultSet.getString(1);
+                }
+            }
+        }
+
+        List<SlowQueryRecord> records = journal.recent(10);
+        assertEquals(1, records.size());
+        SlowQueryRecord record = records.get(0);
+        assertEquals("select name from medication where id >= ?", record.getSql());
+        assertEquals(List.of("?"), record.getBinds());
+        assertEquals(3, record.getRows());
+        assertTrue(record.isSuccess());
+    }
+
+    @Test
+    @DisplayName("Update over the threshold is journaled with its update count, and its binds when captured")
+    void update_OverThreshold_ShouldBeJournaledWithUpdateCount() throws Exception {
+        properties.setCaptureBinds(true);
+        DataSource dataSource = proxied(new SlowQueryListener(journal, properties));
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("update medication set name = ? where id < ?")) {
+            statement.setString(1, "Generic");
+            statement.setInt(2, 3);
+            statement.executeUpdate();
+        }
+
+        SlowQueryRecord record = journal.recent(1).get(0);
+        assertEquals(2, record.getRows());
+        assertEquals(List.of("Generic", "3"), record.getBinds());
+    }
+
+    @Test
+    @DisplayName("Statements under the threshold are not journaled")
+    void select_UnderThreshold_ShouldNotBeJournaled() throws Exception {
+        properties.setThreshold(Duration.ofMinutes(1));
+        DataSource dataSource = proxied(new SlowQueryListener(journal, properties));
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select * from medication")) {
+            while (resultSet.next()) {
+                resultSet.getInt(1);
+            }
+        }
+
+        assertTrue(journal.recent(10).isEmpty());
+    }
+
+    private static DataSource proxied(SlowQueryListener listener) {
+        return ProxyDataSourceBuilder.create(h2())
+                .listener(listener)
+                .methodListener(listener)
+                .proxyResultSet()
+                .build();
+    }
+
+    private static DataSource h2() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:slow-query;DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.medical.jdbc;
+
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Query-count assertions for tests running against a real (embedded) database.
+ */
+public final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {
+    }
+
+    public static SqlStatementStats countStatements(Executable action) throws Throwable {
+        SqlStatementStats stats = SqlStatementCounter.start();
+        try {
+            action.execute();
+            return stats;
+        } finally {
+            SqlStatementCounter.stop();
+        }
+    }
+
+    public static void assertStatementCount(int expected, Executable action) throws Throwable {
+        assertEquals(expected, countStatements(action).getStatementCount(), "SQL statement count");
+    }
+
+    /**
+     * MockMvc matcher reading the statistics recorded by {@link SqlStatementBudgetFilter} for the request.
+     */
+    public static ResultMatcher statementCount(int expected) {
+        return result -> {
+            SqlStatementStats stats = (SqlStatementStats) result.getRequest().getAttribute(SqlStatementBudgetFilter.STATS_ATTRIBUTE);
+            assertNotNull(stats, "request was not counted by SqlStatementBudgetFilter");
+            assertEquals(expected, stats.getStatementCount(), "SQL statement count");
+        };
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.medical.jdbc;
+
+import com.example.medical.model.*;
+import com.example.medical.repository.*;
+import com.example.medical.service.DoctorService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import static com.example.medical.jdbc.SqlStatementAssertions.assertStatementCount;
+import static com.example.medical.jdbc.SqlStatementAssertions.statementCount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Batch fetching is switched off so that the appointments endpoint still shows the N+1 shape the filter must flag
+@SpringBootTest(properties = {
+        "medical.sql.budget.max-statements=5",
+        "medical.sql.budget.repeated-statement-threshold=3",
+        "spring.jpa.properties.hibernate.default_batch_fetch_size=1"
+})
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class SqlStatementBudgetIntegrationTest {
+
+    private static final int APPOINTMENTS = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private SpecializationRepository specializationRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    private Doctor doctor;
+
+    @BeforeEach
+    void setUp() {
+        Specialization specialization = specializationRepository.save(Specialization.builder().name("Cardiology").build());
+        doctor = doctorRepository.save(Doctor.builder()
+                .firstName("Jane")
+                .lastName("Smith")
+                .email("jane.smith@example.com")
+                .phone("0987654321")
+                .specialization(specialization)
+                .build());
+        Patient patient = patientRepository.save(Patient.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .cnp("1234567890123")
+                .email("john.doe@example.com")
+                .phone("0712345678")
+                .build());
+
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            Appointment appointment = appointmentRepository.save(Appointment.builder()
+                    .patient(patient)
+                    .doctor(doctor)
+                    .appointmentDate(LocalDateTime.now().plusDays(i + 1))
+                    .reason("Checkup " + i)
+                    .build());
+            Prescription prescription = new Prescription();
+            prescription.setAppointment(appointment);
+            prescription.setIssuedDate(LocalDateTime.now());
+            prescription.setInstructions("Rest");
+            prescription.setMedications(new ArrayList<>());
+            prescriptionRepository.save(prescription);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        prescriptionRepository.deleteAll();
+        appointmentRepository.deleteAll();
+        doctorRepository.deleteAll();
+        patientRepository.deleteAll();
+        specializationRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Service call issues a single statement")
+    void getDoctorById_ShouldIssueOneStatement() throws Throwable {
+        assertStatementCount(1, () -> doctorService.getById(doctor.getId()));
+    }
+
+    @Test
+    @DisplayName("Appointments by doctor lazily loads prescriptions once per appointment and is flagged as N+1")
+    void getAppointmentsByDoctor_ShouldBeCountedAndFlagged() throws Exception {
+        double repeatedBefore = meterRegistry.counter("medical.sql.repeated.statements",
+                "uri", "/api/appointments/doctor/{doctorId}").count();
+
+        // doctor lookup, then appointment query + doctor and patient lookups in the service transaction,
+        // then one prescription and one medication query per appointment
+        mockMvc.perform(get("/api/appointments/doctor/{doctorId}", doctor.getId()))
+                .andExpect(status().isOk())
+                .andExpect(statementCount(4 + 2 * APPOINTMENTS))
+                .andExpect(request().attribute(SqlStatementBudgetFilter.BUDGET_EXCEEDED_ATTRIBUTE, true));
+
+        double repeatedAfter = meterRegistry.counter("medical.sql.repeated.statements",
+                "uri", "/api/appointments/doctor/{doctorId}").count();
+        assertEquals(2, repeatedAfter - repeatedBefore);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.medical.jdbc;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementCountingListenerTest {
+
+    private static final String SELECT_PRESCRIPTIONS = "select * from prescription where appointment_id=?";
+
+    private final StatementCountingListener listener = new StatementCountingListener();
+
+    @AfterEach
+    void tearDown() {
+        SqlStatementCounter.stop();
+    }
+
+    @Test
+    @DisplayName("Statements outside a scope are ignored")
+    void afterQuery_WithoutScope_ShouldNotFail() {
+        listener.afterQuery(new ExecutionInfo(), List.of(query(SELECT_PRESCRIPTIONS, 1)));
+
+        assertNull(SqlStatementCounter.current());
+    }
+
+    @Test
+    @DisplayName("Same statement with different binds is reported as repeated")
+    void afterQuery_DifferentBinds_ShouldBeReportedAsRepeated() {
+        SqlStatementStats stats = SqlStatementCounter.start();
+
+        for (int id = 1; id <= 3; id++) {
+            listener.afterQuery(new ExecutionInfo(), List.of(query(SELECT_PRESCRIPTIONS, id)));
+        }
+
+        assertEquals(3, stats.getStatementCount());
+        assertEquals(3, stats.getExecutions(SELECT_PRESCRIPTIONS));
+        List<SqlStatementStats.StatementUsage> repeated = stats.getRepeatedStatements(3);
+        assertEquals(1, repeated.size());
+        assertEquals(3, repeated.get(0).getDistinctBindCount());
+    }
+
+    @Test
+    @DisplayName("Same statement with identical binds is counted but not reported as N+1")
+    void afterQuery_SameBinds_ShouldNotBeReportedAsRepeated() {
+        SqlStatementStats stats = SqlStatementCounter.start();
+
+        for (int i = 0; i < 3; i++) {
+            listener.afterQuery(new ExecutionInfo(), List.of(query(SELECT_PRESCRIPTIONS, 7)));
+        }
+
+        assertEquals(3, stats.getStatementCount());
+        assertTrue(stats.getRepeatedStatements(3).isEmpty());
+    }
+
+    private static QueryInfo query(String sql, Object bind) {
+        QueryInfo queryInfo = new QueryInfo(sql);
+        queryInfo.getParametersList().add(List.of(new ParameterSetOperation(null, new Object[]{1, bind})));
+        return queryInfo;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.medical.jfr;
+
+import com.example.medical.model.Doctor;
+import com.example.medical.model.Specialization;
+import com.example.medical.repository.DoctorRepository;
+import com.example.medical.repository.SpecializationRepository;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class JfrEventIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SpecializationRepository specializationRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @TempDir
+    private Path tempDir;
+
+    private Doctor doctor;
+
+    @BeforeEach
+    void setUp() {
+        Specialization specialization = specializationRepository.save(Specialization.builder().name("Oncology").build());
+        doctor = doctorRepository.save(Doctor.builder()
+                .firstName("James")
+                .lastName("Wilson")
+                .email("james.wilson@example.com")
+                .phone("0722222222")
+                .specialization(specialization)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        doctorRepository.deleteAll();
+        specializationRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("A request emits HTTP, transaction, repository and mapping events")
+    void getDoctor_ShouldEmitDomainEvents() throws Exception {
+        List<RecordedEvent> events = record(() -> mockMvc.perform(get("/api/doctors/{id}", doctor.getId()))
+                .andExpect(status().isOk()));
+
+        RecordedEvent http = single(events, "medical.HttpRequest");
+        assertEquals("GET", http.getString("method"));
+        assertEquals("/api/doctors/{id}", http.getString("endpoint"));
+        assertEquals(200, http.getInt("status"));
+
+        RecordedEvent transaction = single(events, "medical.Transaction");
+        assertEquals("DoctorService", transaction.getString("service"));
+        assertFalse(transaction.getBoolean("joined"));
+        assertNull(transaction.getString("exception"));
+
+        RecordedEvent repository = single(events, "medical.RepositoryInvocation");
+        assertEquals("DoctorRepository", repository.getString("repository"));
+        assertEquals("Doctor", repository.getString("entityType"));
+        assertEquals("findById", repository.getString("method"));
+        assertEquals(1, repository.getLong("rowCount"));
+
+        RecordedEvent mapping = single(events, "medical.Mapping");
+        assertEquals("Doctor", mapping.getString("sourceType"));
+    }
+
+    @Test
+    @DisplayName("Failed repository lookups record the exception and no rows")
+    void getMissingDoctor_ShouldRecordEmptyResult() throws Exception {
+        List<RecordedEvent> events = record(() -> mockMvc.perform(get("/api/doctors/{id}", -1))
+                .andExpect(status().isNotFound()));
+
+        RecordedEvent repository = single(events, "medical.RepositoryInvocation");
+        assertEquals(0, repository.getLong("rowCount"));
+        assertNotNull(single(events, "medical.Transaction").getString("exception"));
+        assertEquals(404, single(events, "medical.HttpRequest").getInt("status"));
+    }
+
+    private List<RecordedEvent> record(ThrowingRunnable action) throws Exception {
+        Path file = tempDir.resolve("medical.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(HttpRequestEvent.class).withoutThreshold();
+            recording.enable(TransactionEvent.class).withoutThreshold();
+            recording.enable(RepositoryInvocationEvent.class).withoutThreshold();
+            recording.enable(MappingEvent.class).withoutThreshold();
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        // MockMvc runs requests on the test thread; background workers also hit repositories.
+        String thread = Thread.currentThread().getName();
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getThread() != null && thread.equals(event.getThread().getJavaName()))
+                .toList();
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .toList();
+        assertEquals(1, matching.size(), name);
+        return matching.get(0);
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
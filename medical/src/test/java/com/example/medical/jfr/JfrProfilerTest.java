@@ -0,0 +1,90 @@
+package com.example.medical.jfr;
+
+import com.example.medical.exceptions.ProfileNotFoundException;
+import com.example.medical.exceptions.ProfilingInProgressException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrProfilerTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private JfrProfiler profiler;
+
+    @BeforeEach
+    void setUp() {
+        ProfilingProperties properties = new ProfilingProperties();
+        properties.setDirectory(tempDir.toString());
+        properties.setMaxDuration(Duration.ofSeconds(10));
+        profiler = new JfrProfiler(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        profiler.stop();
+    }
+
+    @Test
+    @DisplayName("A finished session is summarised and its recording kept for download")
+    void profile_ShouldSummariseRecording() throws Exception {
+        CompletableFuture<ProfileSummary> future = profiler.profile(Duration.ofSeconds(1));
+        List<String> garbage = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(900);
+        while (System.nanoTime() < deadline) {
+            garbage.add(String.valueOf(System.nanoTime()));
+            if (garbage.size() > 10_000) {
+                garbage.clear();
+            }
+        }
+
+        ProfileSummary summary = future.get(30, TimeUnit.SECONDS);
+
+        assertTrue(summary.getId().startsWith("profile-"));
+        assertTrue(summary.getDurationMs() >= 1000);
+        assertTrue(summary.getExecutionSamples() > 0);
+        assertFalse(summary.getTopCpuStacks().isEmpty());
+        assertTrue(summary.getGcPausePercent() >= 0);
+        assertSame(summary, profiler.getSummary(summary.getId()));
+        Path recording = profiler.getRecording(summary.getId());
+        assertEquals(summary.getRecordingSizeBytes(), Files.size(recording));
+        assertFalse(profiler.isRunning());
+    }
+
+    @Test
+    @DisplayName("Only one session may run at a time")
+    void profile_WhileRunning_ShouldBeRejected() throws Exception {
+        CompletableFuture<ProfileSummary> future = profiler.profile(Duration.ofSeconds(1));
+
+        assertThrows(ProfilingInProgressException.class, () -> profiler.profile(Duration.ofSeconds(1)));
+        future.get(30, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Durations above the configured maximum are rejected")
+    void profile_TooLong_ShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> profiler.profile(Duration.ofSeconds(11)));
+        assertThrows(IllegalArgumentException.class, () -> profiler.profile(Duration.ZERO));
+        assertFalse(profiler.isRunning());
+    }
+
+    @Test
+    @DisplayName("Recording ids that could escape the directory are rejected")
+    void getRecording_WithInvalidId_ShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> profiler.getRecording("../application"));
+        assertThrows(ProfileNotFoundException.class, () -> profiler.getRecording("profile-20200101-000000"));
+    }
+}
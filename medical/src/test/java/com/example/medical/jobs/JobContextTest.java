@@ -0,0 +1,44 @@
+package com.example.medical.jobs;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobContextTest {
+
+    @Test
+    @DisplayName("Every key belongs to exactly one partition")
+    void owns_ShouldMatchExactlyOnePartition() {
+        for (int key = 0; key < 1_000; key++) {
+            int id = key;
+            long owners = IntStream.range(0, 4)
+                    .filter(partition -> new JobContext("job#" + partition, "node", partition, 4, 1, null).owns(id))
+                    .count();
+            assertEquals(1, owners, "key " + key);
+        }
+    }
+
+    @Test
+    @DisplayName("Sequential ids spread evenly over the hash ranges")
+    void partitionOf_ShouldSpreadSequentialIds() {
+        int[] counts = new int[8];
+        for (int id = 1; id <= 80_000; id++) {
+            counts[JobContext.partitionOf(id, 8)]++;
+        }
+
+        for (int count : counts) {
+            assertTrue(count > 9_000 && count < 11_000, "partition size " + count);
+        }
+    }
+
+    @Test
+    @DisplayName("A single partition owns every key")
+    void partitionOf_WithOnePartition_ShouldAlwaysBeZero() {
+        assertEquals(0, JobContext.partitionOf("anything", 1));
+        assertEquals(0, JobContext.partitionOf(Integer.MIN_VALUE, 1));
+        assertEquals(0, JobContext.partitionOf(-1, 1));
+    }
+}
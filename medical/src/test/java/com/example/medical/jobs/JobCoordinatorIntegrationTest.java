@@ -0,0 +1,256 @@
+package com.example.medical.jobs;
+
+import com.example.medical.MedicalApplication;
+import com.example.medical.model.JobRun;
+import com.example.medical.repository.JobLeaseRepository;
+import com.example.medical.repository.JobRunRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Node A is the test context; node B is a second application context against the same in-memory database.
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + JobCoordinatorIntegrationTest.URL,
+        "medical.jobs.enabled=true",
+        "medical.jobs.node-id=node-a",
+        "medical.jobs.lease-ttl=1s",
+        "medical.jobs.heartbeat-interval=100ms",
+        "medical.change-log.enabled=true",
+        "medical.change-log.compaction-interval=100ms"
+})
+@ActiveProfiles("h2")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class JobCoordinatorIntegrationTest {
+
+    static final String URL = "jdbc:h2:mem:jobs;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private ConfigurableApplicationContext nodeB;
+
+    @Autowired
+    private JobCoordinator coordinator;
+
+    @Autowired
+    private JobLeaseRepository leaseRepository;
+
+    @Autowired
+    private JobRunRepository runRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        if (nodeB != null) {
+            nodeB.close();
+            nodeB = null;
+        }
+    }
+
+    private static ConfigurableApplicationContext startNodeB() {
+        return new SpringApplicationBuilder(MedicalApplication.class, TestJobs.class)
+                .web(WebApplicationType.NONE)
+                .profiles("h2")
+                // As arguments, so that they take precedence over application-h2.properties.
+                .run("--spring.datasource.url=" + URL,
+                        // Node A owns the schema.
+                        "--spring.jpa.hibernate.ddl-auto=none",
+                        "--medical.jobs.enabled=true",
+                        "--medical.jobs.node-id=node-b",
+                        "--medical.jobs.lease-ttl=1s",
+                        "--medical.jobs.heartbeat-interval=100ms",
+                        "--medical.change-log.enabled=true",
+                        "--medical.change-log.node-id=node-b",
+                        "--medical.change-log.compaction-interval=100ms",
+                        "--medical.reminders.enabled=false",
+                        "--medical.profiling.enabled=false");
+    }
+
+    @Test
+    @DisplayName("Single-partition jobs, change-log compaction included, run on one node only")
+    void singlePartitionJobs_ShouldRunOnOneNode() throws Exception {
+        awaitTrue(() -> coordinator.heldPartitionsOf("singleton").equals(List.of(0)));
+        nodeB = startNodeB();
+        long since = System.currentTimeMillis();
+        Thread.sleep(1_000);
+
+        for (String job : List.of("singleton", "change-log-compaction")) {
+            Set<String> nodes = runRepository.findByJobOrderByIdAsc(job).stream()
+                    .filter(run -> run.getStartedAt() >= since)
+                    .map(JobRun::getNode)
+                    .collect(Collectors.toSet());
+            assertEquals(Set.of("node-a"), nodes, job);
+        }
+        assertTrue(nodeB.getBean(JobCoordinator.class).heldPartitionsOf("singleton").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Partitions are split between nodes and move back with new tokens when a node leaves")
+    void partitions_ShouldBeBalancedAndFailOver() throws Exception {
+        nodeB = startNodeB();
+        JobCoordinator nodeBCoordinator = nodeB.getBean(JobCoordinator.class);
+
+        awaitTrue(() -> coordinator.heldPartitionsOf("sharded").size() == 2
+                && nodeBCoordinator.heldPartitionsOf("sharded").size() == 2);
+        List<Integer> movedOver = nodeBCoordinator.heldPartitionsOf("sharded");
+        assertTrue(movedOver.stream().noneMatch(coordinator.heldPartitionsOf("sharded")::contains));
+        Map<Integer, Long> tokens = movedOver.stream()
+                .collect(Collectors.toMap(partition -> partition, this::token));
+
+        nodeB.close();
+        nodeB = null;
+
+        awaitTrue(() -> coordinator.heldPartitionsOf("sharded").size() == 4);
+        for (Map.Entry<Integer, Long> entry : tokens.entrySet()) {
+            assertTrue(token(entry.getKey()) > entry.getValue(), "token of partition " + entry.getKey());
+        }
+        assertTrue(runRepository.findByJobOrderByIdAsc("sharded").stream().anyMatch(run -> run.getNode().equals("node-b")));
+    }
+
+    @Test
+    @DisplayName("A lease taken by another owner fences the old token and returns after it expires")
+    void stolenLease_ShouldBeFencedAndTakenBack() throws Exception {
+        awaitTrue(() -> coordinator.heldPartitionsOf("singleton").equals(List.of(0)));
+        long token = leaseRepository.findById("singleton#0").orElseThrow().getToken();
+        JobContext context = new JobContext("singleton#0", "node-a", 0, 1, token, leaseRepository);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> context.verify());
+
+        jdbcTemplate.update("update job_lease set owner = 'ghost', token = token + 1, expires_at = ? where name = 'singleton#0'",
+                System.currentTimeMillis() + 500);
+
+        assertThrows(LeaseLostException.class, () -> transactionTemplate.executeWithoutResult(status -> context.verify()));
+        awaitTrue(() -> leaseRepository.findById("singleton#0").orElseThrow().getToken() == token + 2
+                && coordinator.heldPartitionsOf("singleton").equals(List.of(0)));
+        assertTrue(meterRegistry.get("medical.jobs.leases.lost").tag("job", "singleton").counter().count() >= 1);
+    }
+
+    @Test
+    @DisplayName("Verification fences on the token alone, not on the expiry written by another clock")
+    void expiredLease_ShouldStillVerifyUntilTakenOver() throws Exception {
+        awaitTrue(() -> coordinator.heldPartitionsOf("singleton").equals(List.of(0)));
+        long token = leaseRepository.findById("singleton#0").orElseThrow().getToken();
+        JobContext context = new JobContext("singleton#0", "node-a", 0, 1, token, leaseRepository);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // As if the holder's clock ran an hour ahead of this one. The row lock keeps the heartbeat from taking the
+        // lease back until the rollback restores it.
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("update job_lease set expires_at = ? where name = 'singleton#0'",
+                    System.currentTimeMillis() - 3_600_000);
+            context.verify();
+            status.setRollbackOnly();
+        });
+    }
+
+    @Test
+    @DisplayName("Runs are recorded with their outcome and duration")
+    void runs_ShouldBeRecorded() throws Exception {
+        awaitTrue(() -> runRepository.findByJobOrderByIdAsc("failing").stream()
+                .anyMatch(run -> run.getOutcome() == JobRun.Outcome.FAILED));
+
+        JobRun failed = runRepository.findByJobOrderByIdAsc("failing").stream()
+                .filter(run -> run.getOutcome() == JobRun.Outcome.FAILED)
+                .findFirst().orElseThrow();
+        assertEquals("IllegalStateException: boom", failed.getError());
+        assertNotNull(failed.getFinishedAt());
+        JobRun succeeded = runRepository.findByJobOrderByIdAsc("singleton").stream()
+                .filter(run -> run.getOutcome() == JobRun.Outcome.SUCCEEDED)
+                .findFirst().orElseThrow();
+        assertTrue(succeeded.getDurationMillis() >= 0);
+        assertTrue(succeeded.getToken() > 0);
+        assertTrue(meterRegistry.get("medical.jobs.duration").tag("job", "singleton").tag("outcome", "succeeded")
+                .timer().count() > 0);
+        assertTrue(meterRegistry.get("medical.jobs.duration").tag("job", "failing").tag("outcome", "failed")
+                .timer().count() > 0);
+    }
+
+    private long token(int partition) {
+        return leaseRepository.findById("sharded#" + partition).orElseThrow().getToken();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition not met in time");
+            Thread.sleep(20);
+        }
+    }
+
+    @TestConfiguration
+    static class TestJobs {
+
+        @Bean
+        ClusterJob singletonJob() {
+            return job("singleton", 1, context -> { });
+        }
+
+        @Bean
+        ClusterJob shardedJob() {
+            return job("sharded", 4, context -> { });
+        }
+
+        @Bean
+        ClusterJob failingJob() {
+            return job("failing", 1, context -> {
+                throw new IllegalStateException("boom");
+            });
+        }
+
+        private static ClusterJob job(String name, int partitions, JobBody body) {
+            return new ClusterJob() {
+                @Override
+                public String name() {
+                    return name;
+                }
+
+                @Override
+                public Duration interval() {
+                    return Duration.ofMillis(50);
+                }
+
+                @Override
+                public int partitions() {
+                    return partitions;
+                }
+
+                @Override
+                public void run(JobContext context) throws Exception {
+                    body.run(context);
+                }
+            };
+        }
+    }
+
+    @FunctionalInterface
+    private interface JobBody {
+        void run(JobContext context) throws Exception;
+    }
+}
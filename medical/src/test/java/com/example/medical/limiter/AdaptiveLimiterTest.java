@@ -0,0 +1,116 @@
+package com.example.medical.limiter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveLimiterTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private ConcurrencyLimitProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ConcurrencyLimitProperties();
+        properties.setMaxQueued(1);
+    }
+
+    @Test
+    @DisplayName("Requests beyond the limit are rejected once the queue wait runs out")
+    void tryAcquire_AtLimit_ShouldRejectAfterWait() throws Exception {
+        AdaptiveLimiter limiter = limiter(2, 1, 10);
+
+        assertTrue(limiter.tryAcquire(0));
+        assertTrue(limiter.tryAcquire(0));
+        long start = System.nanoTime();
+        assertFalse(limiter.tryAcquire(20 * MILLIS));
+
+        assertTrue(System.nanoTime() - start >= 20 * MILLIS);
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(0, limiter.getQueued());
+    }
+
+    @Test
+    @DisplayName("A queued request gets the slot freed by a finishing request")
+    void tryAcquire_Queued_ShouldGetReleasedSlot() throws Exception {
+        AdaptiveLimiter limiter = limiter(1, 1, 10);
+        assertTrue(limiter.tryAcquire(0));
+
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limiter.tryAcquire(TimeUnit.SECONDS.toNanos(5));
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        while (limiter.getQueued() == 0) {
+            Thread.onSpinWait();
+        }
+        assertFalse(limiter.tryAcquire(TimeUnit.SECONDS.toNanos(5)), "queue is full");
+        limiter.release();
+
+        assertTrue(waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Steady latency under load raises the limit up to the maximum")
+    void release_SteadyLatency_ShouldGrowLimit() throws Exception {
+        AdaptiveLimiter limiter = limiter(4, 1, 20);
+
+        for (int i = 0; i < 200; i++) {
+            saturate(limiter, 10 * MILLIS);
+        }
+
+        assertEquals(20, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Latency rising well above the long-term average shrinks the limit")
+    void release_RisingLatency_ShouldShrinkLimit() throws Exception {
+        AdaptiveLimiter limiter = limiter(20, 2, 20);
+        for (int i = 0; i < 20; i++) {
+            saturate(limiter, 10 * MILLIS);
+        }
+
+        for (int i = 0; i < 20; i++) {
+            saturate(limiter, 100 * MILLIS);
+        }
+
+        assertTrue(limiter.getLimit() < 10, "limit was " + limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Dropped requests cut the limit but never below the minimum")
+    void release_Dropped_ShouldBackOffToMinimum() throws Exception {
+        AdaptiveLimiter limiter = limiter(10, 3, 20);
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(limiter.tryAcquire(0));
+            limiter.release(MILLIS, true);
+        }
+
+        assertEquals(3, limiter.getLimit());
+    }
+
+    private AdaptiveLimiter limiter(int initial, int min, int max) {
+        return new AdaptiveLimiter("test", new ConcurrencyLimitProperties.Limit(initial, min, max), properties);
+    }
+
+    // Fills every slot and releases them all with the same latency, so every sample counts as under load.
+    private static void saturate(AdaptiveLimiter limiter, long rttNanos) throws InterruptedException {
+        int slots = limiter.getLimit();
+        for (int i = 0; i < slots; i++) {
+            assertTrue(limiter.tryAcquire(0));
+        }
+        for (int i = 0; i < slots; i++) {
+            limiter.release(rttNanos, false);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.medical.limiter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setBulk(new ConcurrencyLimitProperties.Limit(1, 1, 1));
+        properties.setMaxQueueWait(Duration.ofMillis(10));
+        properties.setRetryAfter(Duration.ofSeconds(2));
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new ConcurrencyLimitFilter(properties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("A full group answers 503 with Retry-After and counts the rejection")
+    void fullGroup_ShouldRejectWithRetryAfter() throws Exception {
+        assertTrue(filter.limiter(EndpointGroup.BULK).tryAcquire(0));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/doctors"), response, chain);
+
+        assertEquals(503, response.getStatus());
+        assertEquals("2", response.getHeader("Retry-After"));
+        assertNull(chain.getRequest(), "request must not reach the controller");
+        assertEquals(1.0, meterRegistry.get("medical.concurrency.rejected").tag("group", "bulk").counter().count());
+    }
+
+    @Test
+    @DisplayName("Other groups keep serving while one is full and slots are returned afterwards")
+    void otherGroup_ShouldPassAndReleaseSlot() throws Exception {
+        assertTrue(filter.limiter(EndpointGroup.BULK).tryAcquire(0));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/doctors/1"), response, new MockFilterChain());
+
+        assertEquals(200, response.getStatus());
+        assertEquals(0, filter.limiter(EndpointGroup.READS).getInFlight());
+        assertEquals(1.0, meterRegistry.get("medical.concurrency.inflight").tag("group", "bulk").gauge().value());
+    }
+}
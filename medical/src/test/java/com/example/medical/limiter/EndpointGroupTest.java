@@ -0,0 +1,24 @@
+package com.example.medical.limiter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EndpointGroupTest {
+
+    @Test
+    @DisplayName("Requests are grouped by method and bulk paths")
+    void of_ShouldClassifyRequests() {
+        assertEquals(EndpointGroup.READS, group("GET", "/api/patients/7"));
+        assertEquals(EndpointGroup.BULK, group("GET", "/api/patients"));
+        assertEquals(EndpointGroup.BULK, group("GET", "/api/appointments/doctor/3"));
+        assertEquals(EndpointGroup.WRITES, group("POST", "/api/patients"));
+        assertEquals(EndpointGroup.WRITES, group("DELETE", "/api/doctors/3"));
+    }
+
+    private static EndpointGroup group(String method, String path) {
+        return EndpointGroup.of(new MockHttpServletRequest(method, path), EndpointGroup.DEFAULT_BULK_PATHS);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.medical.limiter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setBulk(new RateLimitProperties.Bucket(2, 1));
+        properties.setTrustedAddresses(Set.of("127.0.0.1"));
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter(properties, meterRegistry, clock::get);
+    }
+
+    @Test
+    @DisplayName("Allowed requests carry the rate limit headers")
+    void allowed_ShouldSetRateLimitHeaders() throws Exception {
+        MockHttpServletResponse response = perform("GET", "/api/doctors", "integration-a");
+
+        assertEquals(200, response.getStatus());
+        assertEquals("2", response.getHeader(RateLimitFilter.LIMIT_HEADER));
+        assertEquals("1", response.getHeader(RateLimitFilter.REMAINING_HEADER));
+        assertEquals("1", response.getHeader(RateLimitFilter.RESET_HEADER));
+    }
+
+    @Test
+    @DisplayName("A client over its limit gets 429 with Retry-After while other clients and groups pass")
+    void overLimit_ShouldReturnTooManyRequests() throws Exception {
+        perform("GET", "/api/doctors", "integration-a");
+        perform("GET", "/api/doctors", "integration-a");
+
+        MockHttpServletResponse rejected = perform("GET", "/api/doctors", "integration-a");
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertEquals("0", rejected.getHeader(RateLimitFilter.REMAINING_HEADER));
+        assertEquals(1.0, meterRegistry.get("medical.rate-limit.rejected").tag("group", "bulk").counter().count());
+        assertEquals(200, perform("GET", "/api/doctors", "integration-b").getStatus());
+        assertEquals(200, perform("GET", "/api/doctors/1", "integration-a").getStatus());
+    }
+
+    @Test
+    @DisplayName("Clients without the header are keyed by remote address")
+    void clientId_WithoutHeader_ShouldUseRemoteAddress() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/doctors");
+        request.setRemoteAddr("10.0.0.7");
+
+        assertEquals("10.0.0.7", filter.clientId(request));
+    }
+
+    @Test
+    @DisplayName("A client header from an untrusted address is ignored, so rotating it does not reset the limit")
+    void rotatingClientHeader_FromUntrustedAddress_ShouldKeepTheLimit() throws Exception {
+        assertEquals(200, perform("GET", "/api/doctors", "rotating-1", "10.0.0.7").getStatus());
+        assertEquals(200, perform("GET", "/api/doctors", "rotating-2", "10.0.0.7").getStatus());
+
+        assertEquals(429, perform("GET", "/api/doctors", "rotating-3", "10.0.0.7").getStatus());
+        assertEquals(1, meterRegistry.get("medical.rate-limit.buckets").gauge().value());
+    }
+
+    private MockHttpServletResponse perform(String method, String path, String client) throws Exception {
+        return perform(method, path, client, "127.0.0.1");
+    }
+
+    private MockHttpServletResponse perform(String method, String path, String client, String remoteAddress)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.addHeader("X-Api-Client", client);
+        request.setRemoteAddr(remoteAddress);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
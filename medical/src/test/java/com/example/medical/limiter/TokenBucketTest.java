@@ -0,0 +1,52 @@
+package com.example.medical.limiter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("A full bucket allows a burst of its capacity, then denies")
+    void tryConsume_ShouldAllowBurstUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(5, 1, 0);
+
+        for (int remaining = 4; remaining >= 0; remaining--) {
+            assertEquals(remaining, bucket.tryConsume(0));
+        }
+        long denied = bucket.tryConsume(0);
+
+        assertTrue(denied < 0);
+        assertEquals(SECOND, -denied, "next token arrives after one emission interval");
+    }
+
+    @Test
+    @DisplayName("Tokens come back at the refill rate and never exceed the capacity")
+    void tryConsume_ShouldRefillOverTime() {
+        TokenBucket bucket = new TokenBucket(2, 10, 0);
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+
+        assertTrue(bucket.tryConsume(SECOND / 20) < 0, "half an interval is not enough");
+        assertEquals(0, bucket.tryConsume(SECOND / 10));
+        assertEquals(1, bucket.tryConsume(10 * SECOND), "idle time only refills up to capacity");
+    }
+
+    @Test
+    @DisplayName("Time until full reflects the tokens taken")
+    void nanosUntilFull_ShouldCountTakenTokens() {
+        TokenBucket bucket = new TokenBucket(10, 2, 0);
+
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+
+        assertEquals(SECOND, bucket.nanosUntilFull(0));
+        assertEquals(0, bucket.nanosUntilFull(SECOND));
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.medical.metrics;
+
+import com.example.medical.exceptions.SpecializationNotFoundException;
+import com.example.medical.model.Specialization;
+import com.example.medical.repository.SpecializationRepository;
+import com.example.medical.service.SpecializationService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceMetricsAspectTest {
+
+    @Mock
+    private SpecializationRepository specializationRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SpecializationService specializationService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new SpecializationService(specializationRepository));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ServiceMetricsAspect(meterRegistry));
+        specializationService = factory.getProxy();
+    }
+
+    @Test
+    @DisplayName("Successful service call is timed with class and method tags")
+    void serviceCall_ShouldRecordTimer() {
+        when(specializationRepository.findAll()).thenReturn(List.of(new Specialization()));
+
+        specializationService.getAll();
+        specializationService.getAll();
+
+        Timer timer = meterRegistry.get(ServiceMetricsAspect.SERVICE_TIMER)
+                .tag("class", "SpecializationService")
+                .tag("method", "getAll")
+                .tag("exception", "none")
+                .timer();
+        assertEquals(2, timer.count());
+    }
+
+    @Test
+    @DisplayName("Failed service call is timed with the exception tag and rethrown")
+    void failingServiceCall_ShouldRecordExceptionTag() {
+        when(specializationRepository.findById(99)).thenReturn(Optional.empty());
+
+        assertThrows(SpecializationNotFoundException.class, () -> specializationService.getById(99));
+
+        Timer timer = meterRegistry.get(ServiceMetricsAspect.SERVICE_TIMER)
+                .tag("method", "getById")
+                .tag("exception", "SpecializationNotFoundException")
+                .timer();
+        assertEquals(1, timer.count());
+    }
+}
@@ -0,0 +1,345 @@
+package com.example.medical.outbox;
+
+import com.example.medical.model.Doctor;
+import com.example.medical.model.OutboxMessage;
+import com.example.medical.model.Patient;
+import com.example.medical.model.Specialization;
+import com.example.medical.repository.AppointmentRepository;
+import com.example.medical.repository.DoctorRepository;
+import com.example.medical.repository.OutboxRepository;
+import com.example.medical.repository.PatientRepository;
+import com.example.medical.repository.PrescriptionRepository;
+import com.example.medical.repository.SpecializationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The poll interval is long enough that deliveries in these tests come from the after-commit wake-up
+// or from calling the dispatcher directly.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "medical.outbox.poll-interval=1h",
+        "medical.outbox.initial-backoff=100ms",
+        "medical.outbox.max-attempts=3"
+})
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class OutboxIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OutboxDispatcher dispatcher;
+
+    @Autowired
+    private RecordingHandler handler;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SpecializationRepository specializationRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    private Doctor doctor;
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        Specialization specialization = specializationRepository.save(Specialization.builder().name("Cardiology").build());
+        doctor = doctorRepository.save(Doctor.builder()
+                .firstName("Jane")
+                .lastName("Smith")
+                .email("jane.smith@example.com")
+                .phone("0712345678")
+                .specialization(specialization)
+                .build());
+        patient = patientRepository.save(Patient.builder()
+                .firstName("Ana")
+                .lastName("Pop")
+                .cnp("2980101123456")
+                .email("ana.pop@example.com")
+                .phone("0744444444")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        prescriptionRepository.deleteAll();
+        appointmentRepository.deleteAll();
+        doctorRepository.deleteAll();
+        patientRepository.deleteAll();
+        specializationRepository.deleteAll();
+        outboxRepository.deleteAll();
+        handler.messages.clear();
+        handler.failuresLeft.set(0);
+        handler.onHandle = message -> { };
+    }
+
+    @Test
+    @DisplayName("Appointment and prescription messages are delivered after commit and then deleted")
+    void createdAppointmentAndPrescription_ShouldBeDelivered() throws Exception {
+        int appointmentId = createAppointment(patient.getId());
+        mockMvc.perform(post("/api/appointments/{id}/prescriptions", appointmentId).param("instructions", "Rest"))
+                .andExpect(status().isCreated());
+
+        OutboxMessage scheduled = handler.messages.poll(5, TimeUnit.SECONDS);
+        OutboxMessage issued = handler.messages.poll(5, TimeUnit.SECONDS);
+
+        assertNotNull(scheduled);
+        assertEquals("AppointmentScheduled", scheduled.getType());
+        assertEquals("Appointment", scheduled.getAggregateType());
+        assertEquals(appointmentId, scheduled.getAggregateId());
+        assertTrue(scheduled.getPayload().contains("\"doctorId\":" + doctor.getId()));
+        assertNotNull(issued);
+        assertEquals("PrescriptionIssued", issued.getType());
+        assertTrue(issued.getPayload().contains("\"appointmentId\":" + appointmentId));
+        awaitEmptyOutbox();
+    }
+
+    @Test
+    @DisplayName("A failed request leaves no message behind")
+    void failedCreate_ShouldNotWriteMessage() throws Exception {
+        mockMvc.perform(post("/api/appointments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(appointmentJson(-1)))
+                .andExpect(status().isNotFound());
+
+        assertEquals(0, outboxRepository.count());
+        assertNull(handler.messages.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("A failing delivery is retried after its backoff and recorded with the error")
+    void failingHandler_ShouldRetryWithBackoff() throws Exception {
+        handler.failuresLeft.set(1);
+        int appointmentId = createAppointment(patient.getId());
+
+        OutboxMessage pending = awaitAttempts(1);
+        assertEquals("IllegalStateException: handler unavailable", pending.getLastError());
+        assertTrue(pending.getNextAttemptAt() >= pending.getCreatedAt() + 100);
+        assertTrue(handler.messages.isEmpty());
+
+        Thread.sleep(Math.max(0, pending.getNextAttemptAt() - System.currentTimeMillis()) + 10);
+        assertEquals(1, dispatcher.dispatch());
+
+        OutboxMessage delivered = handler.messages.poll(1, TimeUnit.SECONDS);
+        assertNotNull(delivered);
+        assertEquals(appointmentId, delivered.getAggregateId());
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    @DisplayName("A message is given up after the maximum number of attempts, kept dead with its error and can be retried")
+    void exhaustedMessage_ShouldStayInTableUntilRetried() throws Exception {
+        handler.failuresLeft.set(Integer.MAX_VALUE);
+        outboxRepository.save(message(System.currentTimeMillis()));
+
+        for (int attempt = 1; attempt <= 3; attempt++) {
+            assertEquals(1, dispatcher.dispatch());
+            OutboxMessage stored = outboxRepository.findAll().get(0);
+            assertEquals(attempt, stored.getAttempts());
+            Thread.sleep(Math.max(0, stored.getNextAttemptAt() - System.currentTimeMillis()) + 10);
+        }
+
+        assertEquals(0, dispatcher.dispatch());
+        OutboxMessage dead = outboxRepository.findAll().get(0);
+        assertNotNull(dead.getDeadAt());
+        assertEquals("IllegalStateException: handler unavailable", dead.getLastError());
+        mockMvc.perform(get("/admin/outbox/dead"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(dead.getId()))
+                .andExpect(jsonPath("$[0].attempts").value(3));
+
+        handler.failuresLeft.set(0);
+        mockMvc.perform(post("/admin/outbox/dead/{id}/retry", dead.getId())).andExpect(status().isNoContent());
+        mockMvc.perform(post("/admin/outbox/dead/{id}/retry", dead.getId())).andExpect(status().isNotFound());
+
+        assertNotNull(handler.messages.poll(5, TimeUnit.SECONDS));
+        awaitEmptyOutbox();
+    }
+
+    @Test
+    @DisplayName("The claim commits before delivery, hiding the batch without holding its row locks")
+    void claimedBatch_ShouldBeCommittedBeforeDelivery() throws Exception {
+        long createdAt = System.currentTimeMillis();
+        long id = outboxRepository.save(message(createdAt)).getId();
+        List<Long> hiddenUntil = new CopyOnWriteArrayList<>();
+        handler.onHandle = message -> {
+            hiddenUntil.add(jdbcTemplate.queryForObject(
+                    "select next_attempt_at from outbox_message where id = ?", Long.class, message.getId()));
+            // Waits for the row lock, and fails the delivery, if the claim were still open.
+            jdbcTemplate.update("update outbox_message set last_error = 'seen' where id = ?", message.getId());
+        };
+
+        assertEquals(1, dispatcher.dispatch());
+
+        assertEquals(1, hiddenUntil.size());
+        assertTrue(hiddenUntil.get(0) >= createdAt + 60_000);
+        assertEquals(id, handler.messages.poll(1, TimeUnit.SECONDS).getId());
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    @DisplayName("Concurrent claims skip the rows another transaction holds")
+    void claimDue_ShouldSkipLockedRows() throws Exception {
+        // Due in the future, so the dispatcher itself leaves them alone.
+        long dueAt = System.currentTimeMillis() + 3_600_000;
+        for (int i = 0; i < 5; i++) {
+            outboxRepository.save(message(dueAt));
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<List<Long>> first = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            List<Long> ids = ids(outboxRepository.claimDue(dueAt, 2));
+            claimed.countDown();
+            await(release);
+            return ids;
+        }));
+        assertTrue(claimed.await(5, TimeUnit.SECONDS));
+
+        List<Long> second = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status ->
+                ids(outboxRepository.claimDue(dueAt, 10)))).get(5, TimeUnit.SECONDS);
+        release.countDown();
+
+        List<Long> firstIds = first.get(5, TimeUnit.SECONDS);
+        assertEquals(2, firstIds.size());
+        assertEquals(3, second.size());
+        assertTrue(second.stream().noneMatch(firstIds::contains));
+    }
+
+    private int createAppointment(Integer patientId) throws Exception {
+        String body = mockMvc.perform(post("/api/appointments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(appointmentJson(patientId)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return Integer.parseInt(body.replaceAll("^\\{\"id\":(\\d+).*", "$1"));
+    }
+
+    private String appointmentJson(Integer patientId) {
+        return "{\"patient\":{\"id\":" + patientId + "},\"doctor\":{\"id\":" + doctor.getId()
+                + "},\"appointmentDate\":\"" + LocalDateTime.now().plusDays(3) + "\",\"reason\":\"Check-up\"}";
+    }
+
+    private static OutboxMessage message(long dueAt) {
+        return OutboxMessage.builder()
+                .type("AppointmentScheduled")
+                .aggregateType("Appointment")
+                .aggregateId(1L)
+                .payload("{}")
+                .createdAt(System.currentTimeMillis())
+                .nextAttemptAt(dueAt)
+                .build();
+    }
+
+    private static List<Long> ids(List<OutboxMessage> messages) {
+        return messages.stream().map(OutboxMessage::getId).toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private OutboxMessage awaitAttempts(int attempts) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (true) {
+            List<OutboxMessage> messages = outboxRepository.findAll();
+            if (messages.size() == 1 && messages.get(0).getAttempts() == attempts) {
+                return messages.get(0);
+            }
+            assertTrue(System.currentTimeMillis() < deadline, "Delivery was not attempted " + attempts + " times");
+            Thread.sleep(10);
+        }
+    }
+
+    private void awaitEmptyOutbox() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (outboxRepository.count() > 0) {
+            assertTrue(System.currentTimeMillis() < deadline, "Delivered messages were not deleted");
+            Thread.sleep(10);
+        }
+    }
+
+    @TestConfiguration
+    static class HandlerConfig {
+
+        @Bean
+        RecordingHandler recordingHandler() {
+            return new RecordingHandler();
+        }
+    }
+
+    static class RecordingHandler implements OutboxHandler {
+
+        final BlockingQueue<OutboxMessage> messages = new LinkedBlockingQueue<>();
+        final AtomicInteger failuresLeft = new AtomicInteger();
+        volatile Consumer<OutboxMessage> onHandle = message -> { };
+
+        @Override
+        public boolean supports(String type) {
+            return type.equals("AppointmentScheduled") || type.equals("PrescriptionIssued");
+        }
+
+        @Override
+        public void handle(OutboxMessage message) {
+            if (failuresLeft.getAndUpdate(left -> Math.max(0, left - 1)) > 0) {
+                throw new IllegalStateException("handler unavailable");
+            }
+            onHandle.accept(message);
+            messages.add(message);
+        }
+    }
+}
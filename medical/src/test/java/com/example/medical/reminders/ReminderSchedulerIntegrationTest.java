@@ -0,0 +1,208 @@
+package com.example.medical.reminders;
+
+import com.example.medical.events.ChangeEventBus;
+import com.example.medical.events.EntityChangedEvent;
+import com.example.medical.model.Appointment;
+import com.example.medical.model.Doctor;
+import com.example.medical.model.Patient;
+import com.example.medical.model.Specialization;
+import com.example.medical.repository.AppointmentRepository;
+import com.example.medical.repository.DoctorRepository;
+import com.example.medical.repository.PatientRepository;
+import com.example.medical.repository.SpecializationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reminders;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "medical.reminders.enabled=true",
+        "medical.reminders.tick=50ms",
+        "medical.reminders.file=target/reminders-test.log"
+})
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class ReminderSchedulerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReminderScheduler scheduler;
+
+    @Autowired
+    private RecordingNotifier notifier;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ChangeEventBus bus;
+
+    @Autowired
+    private SpecializationRepository specializationRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    private Doctor doctor;
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        Specialization specialization = specializationRepository.save(Specialization.builder().name("Cardiology").build());
+        doctor = doctorRepository.save(Doctor.builder()
+                .firstName("Jane")
+                .lastName("Smith")
+                .email("jane.smith@example.com")
+                .phone("0712345678")
+                .specialization(specialization)
+                .build());
+        patient = patientRepository.save(Patient.builder()
+                .firstName("Ana")
+                .lastName("Pop")
+                .cnp("2980101123456")
+                .email("ana.pop@example.com")
+                .phone("0744444444")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        appointmentRepository.deleteAll();
+        doctorRepository.deleteAll();
+        patientRepository.deleteAll();
+        specializationRepository.deleteAll();
+        notifier.reminders.clear();
+    }
+
+    @Test
+    @DisplayName("A created appointment gets its reminder on time and the file sink records it")
+    void createdAppointment_ShouldBeReminded() throws Exception {
+        int id = schedule(LocalDateTime.now().plusHours(1).plusSeconds(1));
+
+        Reminder reminder = notifier.reminders.poll(5, TimeUnit.SECONDS);
+
+        assertNotNull(reminder);
+        assertEquals(id, reminder.appointmentId());
+        assertEquals(Duration.ofHours(1), reminder.leadTime());
+        assertEquals(doctor.getId(), reminder.doctorId());
+        // The 24h reminder was due a day ago and is skipped.
+        assertNull(notifier.reminders.poll(200, TimeUnit.MILLISECONDS));
+        assertTrue(Files.readString(Path.of("target/reminders-test.log")).contains("\"appointmentId\":" + id));
+        assertFalse(scheduler.isScheduled(id));
+    }
+
+    @Test
+    @DisplayName("A deleted appointment is not reminded")
+    void deletedAppointment_ShouldNotBeReminded() throws Exception {
+        int id = schedule(LocalDateTime.now().plusHours(1).plusSeconds(1));
+        awaitScheduled(id, true);
+
+        mockMvc.perform(delete("/api/appointments/{id}", id)).andExpect(status().isNoContent());
+        awaitScheduled(id, false);
+
+        assertNull(notifier.reminders.poll(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("An appointment booked on another node is read back and scheduled")
+    void remoteAppointment_ShouldBeReadAndScheduled() throws Exception {
+        jdbcTemplate.update("insert into appointment (id, patient_id, doctor_id, appointment_date, reason) values (?, ?, ?, ?, ?)",
+                1000, patient.getId(), doctor.getId(), LocalDateTime.now().plusHours(2), "Remote");
+
+        // What the change log tailer hands to the bus for a row written elsewhere.
+        bus.publish(new EntityChangedEvent(Appointment.class, 1000, EntityChangedEvent.Change.INSERTED, null));
+        awaitScheduled(1000, true);
+
+        bus.publish(new EntityChangedEvent(Appointment.class, 1000, EntityChangedEvent.Change.DELETED, null));
+        awaitScheduled(1000, false);
+    }
+
+    @Test
+    @DisplayName("Loading picks up appointments within the horizon written behind Hibernate's back")
+    void reload_ShouldScanUpcomingAppointments() throws Exception {
+        for (int days = 1; days <= 9; days++) {
+            jdbcTemplate.update("insert into appointment (patient_id, doctor_id, appointment_date, reason) values (?, ?, ?, ?)",
+                    patient.getId(), doctor.getId(), LocalDateTime.now().plusDays(days), "Follow-up " + days);
+        }
+        jdbcTemplate.update("insert into appointment (patient_id, doctor_id, appointment_date, reason) values (?, ?, ?, ?)",
+                patient.getId(), doctor.getId(), LocalDateTime.now().minusDays(1), "Past");
+
+        scheduler.reload();
+
+        List<Integer> ids = jdbcTemplate.queryForList("select id from appointment where reason like 'Follow-up%' order by appointment_date", Integer.class);
+        for (int i = 0; i < ids.size(); i++) {
+            // The default horizon is seven days from the reload, which is after the inserts.
+            assertEquals(i < 7, scheduler.isScheduled(ids.get(i)), "appointment in " + (i + 1) + " days");
+        }
+        assertEquals(7, scheduler.scheduledAppointments());
+    }
+
+    private int schedule(LocalDateTime at) throws Exception {
+        String body = mockMvc.perform(post("/api/appointments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"patient\":{\"id\":" + patient.getId() + "},\"doctor\":{\"id\":" + doctor.getId()
+                                + "},\"appointmentDate\":\"" + at + "\",\"reason\":\"Check-up\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return Integer.parseInt(body.replaceAll("^\\{\"id\":(\\d+).*", "$1"));
+    }
+
+    private void awaitScheduled(int id, boolean scheduled) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (scheduler.isScheduled(id) != scheduled) {
+            assertTrue(System.currentTimeMillis() < deadline, "Reminders of appointment " + id + " not updated");
+            Thread.sleep(10);
+        }
+    }
+
+    @TestConfiguration
+    static class NotifierConfig {
+
+        @Bean
+        RecordingNotifier recordingNotifier() {
+            return new RecordingNotifier();
+        }
+    }
+
+    static class RecordingNotifier implements ReminderNotifier {
+
+        final BlockingQueue<Reminder> reminders = new LinkedBlockingQueue<>();
+
+        @Override
+        public void notify(List<Reminder> batch) {
+            reminders.addAll(batch);
+        }
+    }
+}
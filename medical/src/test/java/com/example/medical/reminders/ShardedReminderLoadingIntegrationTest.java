@@ -0,0 +1,68 @@
+package com.example.medical.reminders;
+
+import com.example.medical.sharding.ShardDataSources;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two in-memory shards, as in the sharding tests; appointments are written straight into each.
+ */
+@SpringBootTest(properties = {
+        "medical.sharding.enabled=true",
+        "medical.sharding.default-shard=a",
+        "medical.sharding.shards.a.url=jdbc:h2:mem:reminder-shard-a;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "medical.sharding.shards.a.username=sa",
+        "medical.sharding.shards.a.driver-class-name=org.h2.Driver",
+        "medical.sharding.shards.b.url=jdbc:h2:mem:reminder-shard-b;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "medical.sharding.shards.b.username=sa",
+        "medical.sharding.shards.b.driver-class-name=org.h2.Driver",
+        "medical.sharding.clinics.1=a",
+        "medical.sharding.clinics.2=b",
+        "medical.reminders.enabled=true"
+})
+@ActiveProfiles("h2")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class ShardedReminderLoadingIntegrationTest {
+
+    @Autowired
+    private ShardDataSources shards;
+
+    @Autowired
+    private ReminderScheduler scheduler;
+
+    @Test
+    @DisplayName("Loading reads the upcoming appointments of every shard")
+    void reload_ShouldScanEveryShard() {
+        JdbcTemplate shardA = new JdbcTemplate(shards.get("a"));
+        JdbcTemplate shardB = new JdbcTemplate(shards.get("b"));
+        shardA.queryForList("script nodata", String.class).forEach(shardB::execute);
+        insertAppointment(shardA, 1, 100);
+        insertAppointment(shardB, 2, 200);
+
+        scheduler.reload();
+
+        assertTrue(scheduler.isScheduled(100));
+        assertTrue(scheduler.isScheduled(200));
+        assertEquals(2, scheduler.scheduledAppointments());
+    }
+
+    private static void insertAppointment(JdbcTemplate shard, int clinicId, int appointmentId) {
+        shard.update("insert into specialization (id, name) values (1, 'Cardiology')");
+        shard.update("insert into doctor (id, clinic_id, first_name, last_name, specialization_id) values (1, ?, 'Jane', 'Smith', 1)",
+                clinicId);
+        shard.update("insert into patient (id, clinic_id, first_name, last_name, cnp) values (1, ?, 'Ana', 'Pop', '2980101123456')",
+                clinicId);
+        shard.update("insert into appointment (id, clinic_id, patient_id, doctor_id, appointment_date, reason) "
+                + "values (?, ?, 1, 1, ?, 'Check-up')", appointmentId, clinicId, LocalDateTime.now().plusDays(1));
+    }
+}
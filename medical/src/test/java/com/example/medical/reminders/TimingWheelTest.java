@@ -0,0 +1,93 @@
+package com.example.medical.reminders;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private final TimingWheel<String> wheel = new TimingWheel<>(Duration.ofMillis(1), 0);
+    private final List<String> fired = new ArrayList<>();
+
+    @Test
+    @DisplayName("Timers fire at the first tick at or after their deadline, never early")
+    void advance_ShouldFireAtDeadline() {
+        wheel.schedule(5, "a");
+        wheel.schedule(3, "b");
+
+        wheel.advance(2, fired::add);
+        assertEquals(List.of(), fired);
+        assertEquals(2, wheel.size());
+
+        wheel.advance(4, fired::add);
+        assertEquals(List.of("b"), fired);
+
+        wheel.advance(5, fired::add);
+        assertEquals(List.of("b", "a"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Timers on higher levels cascade down and fire exactly on time")
+    void advance_FarDeadlines_ShouldCascade() {
+        long[] deadlines = {255, 256, 257, 70_000, 65_536, 65_535, 16_777_300};
+        for (long deadline : deadlines) {
+            wheel.schedule(deadline, Long.toString(deadline));
+        }
+
+        for (long deadline : new long[]{255, 256, 257, 65_535, 65_536, 70_000, 16_777_300}) {
+            wheel.advance(deadline - 1, fired::add);
+            assertFalse(fired.contains(Long.toString(deadline)), "fired early: " + deadline);
+            wheel.advance(deadline, fired::add);
+            assertTrue(fired.contains(Long.toString(deadline)), "not fired: " + deadline);
+        }
+        assertEquals(deadlines.length, fired.size());
+    }
+
+    @Test
+    @DisplayName("Cancelled timers do not fire, whether or not they were already in the wheel")
+    void cancel_ShouldPreventFiring() {
+        TimingWheel.Timeout<String> queued = wheel.schedule(10, "queued");
+        TimingWheel.Timeout<String> linked = wheel.schedule(300, "linked");
+        wheel.schedule(20, "kept");
+        queued.cancel();
+        wheel.advance(1, fired::add);
+
+        assertTrue(linked.cancel());
+        assertFalse(linked.cancel());
+        wheel.advance(1_000, fired::add);
+
+        assertEquals(List.of("kept"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Timers scheduled in the past fire on the next advance")
+    void schedule_PastDeadline_ShouldFireImmediately() {
+        wheel.advance(100, fired::add);
+        TimingWheel.Timeout<String> late = wheel.schedule(50, "late");
+
+        wheel.advance(100, fired::add);
+
+        assertEquals(List.of("late"), fired);
+        assertFalse(late.isPending());
+        assertFalse(late.cancel());
+    }
+
+    @Test
+    @DisplayName("Deadlines round up to the next tick")
+    void schedule_ShouldRoundUpToTick() {
+        TimingWheel<String> seconds = new TimingWheel<>(Duration.ofSeconds(1), 0);
+        seconds.schedule(1_500, "x");
+
+        seconds.advance(1_999, fired::add);
+        assertEquals(List.of(), fired);
+        seconds.advance(2_000, fired::add);
+        assertEquals(List.of("x"), fired);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.medical.resilience;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseCircuitBreakerConfigTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    @DisplayName("Query timeouts count as database failures unless the request deadline caused them")
+    void isDatabaseFailure_ShouldIgnoreTimeoutsOfExpiredDeadlines() {
+        QueryTimeoutException timeout = new QueryTimeoutException("statement cancelled");
+
+        assertTrue(DatabaseCircuitBreakerConfig.isDatabaseFailure(timeout));
+        assertFalse(DatabaseCircuitBreakerConfig.isDatabaseFailure(new DataIntegrityViolationException("duplicate")));
+
+        RequestDeadline.start(Duration.ofMinutes(1));
+        assertTrue(DatabaseCircuitBreakerConfig.isDatabaseFailure(timeout));
+
+        RequestDeadline.start(Duration.ZERO);
+        assertFalse(DatabaseCircuitBreakerConfig.isDatabaseFailure(timeout));
+    }
+
+    @Test
+    @DisplayName("A deadline handed to a pool thread is visible there and removed afterwards")
+    void callWith_ShouldCarryTheDeadlineToAnotherThread() throws Exception {
+        RequestDeadline deadline = RequestDeadline.start(Duration.ofSeconds(5));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            RequestDeadline seen = executor.submit(() -> RequestDeadline.callWith(deadline, RequestDeadline::current)).get();
+            RequestDeadline after = CompletableFuture.supplyAsync(RequestDeadline::current, executor).get();
+
+            assertSame(deadline, seen);
+            assertNull(after);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
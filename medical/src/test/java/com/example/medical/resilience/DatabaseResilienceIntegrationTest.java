@@ -0,0 +1,137 @@
+package com.example.medical.resilience;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:resilience;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "medical.db-circuit-breaker.sliding-window-type=COUNT_BASED",
+        "medical.db-circuit-breaker.sliding-window-size=4",
+        "medical.db-circuit-breaker.minimum-number-of-calls=4",
+        "medical.db-circuit-breaker.slow-call-duration=100ms",
+        "medical.db-circuit-breaker.slow-call-rate-threshold=100",
+        "medical.db-circuit-breaker.wait-in-open-state=1m",
+        // Their background database calls would add to the breaker's window.
+        "medical.reminders.enabled=false",
+        "medical.outbox.enabled=false"
+})
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class DatabaseResilienceIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private LatencyInjectingDataSource database;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        database = dataSource.unwrap(LatencyInjectingDataSource.class);
+        database.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.reset();
+        circuitBreakerRegistry.circuitBreaker(DatabaseCircuitBreakerAspect.DEFAULT_BREAKER).reset();
+    }
+
+    @Test
+    @DisplayName("A query outliving the client's timeout is cancelled and answered with 504")
+    void slowQuery_ShouldBeCancelledAtRequestDeadline() throws Exception {
+        database.setLatencyMillis(3_000);
+        long start = System.nanoTime();
+
+        mockMvc.perform(get("/api/specializations").header("X-Request-Timeout", "1000"))
+                .andExpect(status().isGatewayTimeout());
+
+        assertEquals(1, database.getLastQueryTimeout());
+        assertTrue(System.nanoTime() - start < 3_000_000_000L);
+    }
+
+    @Test
+    @DisplayName("Slow database calls open the breaker and later requests fail fast with 503")
+    void slowCalls_ShouldOpenBreaker() throws Exception {
+        database.setLatencyMillis(150);
+        for (int i = 0; i < 4; i++) {
+            mockMvc.perform(get("/api/specializations")).andExpect(status().isOk());
+        }
+        int executions = database.getExecutions();
+
+        mockMvc.perform(get("/api/specializations"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "60"));
+
+        assertEquals(executions, database.getExecutions());
+        assertEquals(1.0, meterRegistry.get("resilience4j.circuitbreaker.state")
+                .tag("name", DatabaseCircuitBreakerAspect.DEFAULT_BREAKER).tag("state", "open").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Connection failures open the breaker")
+    void failingCalls_ShouldOpenBreaker() throws Exception {
+        database.setFailing(true);
+        for (int i = 0; i < 4; i++) {
+            mockMvc.perform(get("/api/specializations")).andExpect(status().isInternalServerError());
+        }
+
+        mockMvc.perform(get("/api/specializations")).andExpect(status().isServiceUnavailable());
+
+        assertEquals(4.0, meterRegistry.get("resilience4j.circuitbreaker.calls")
+                .tag("name", DatabaseCircuitBreakerAspect.DEFAULT_BREAKER).tag("kind", "failed").timer().count());
+    }
+
+    @TestConfiguration
+    static class LatencyInjectionConfig {
+
+        // Wraps the pool before the datasource-proxy wraps it, so that listeners see the injected latency.
+        @Bean
+        static LatencyInjectingPostProcessor latencyInjectingPostProcessor() {
+            return new LatencyInjectingPostProcessor();
+        }
+    }
+
+    static class LatencyInjectingPostProcessor implements BeanPostProcessor, PriorityOrdered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            return bean instanceof DataSource dataSource && beanName.equals("dataSource")
+                    ? new LatencyInjectingDataSource(dataSource) : bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return 0;
+        }
+    }
+}
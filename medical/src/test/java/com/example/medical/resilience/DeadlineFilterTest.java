@@ -0,0 +1,72 @@
+package com.example.medical.resilience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlineFilterTest {
+
+    private DeadlineFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        DeadlineProperties properties = new DeadlineProperties();
+        properties.setReads(Duration.ofSeconds(1));
+        properties.setBulk(Duration.ofSeconds(10));
+        properties.setMax(Duration.ofSeconds(20));
+        filter = new DeadlineFilter(properties);
+    }
+
+    @Test
+    @DisplayName("Without the header the deadline is the default of the endpoint group")
+    void timeout_WithoutHeader_ShouldUseGroupDefault() {
+        assertEquals(Duration.ofSeconds(1), filter.timeout(new MockHttpServletRequest("GET", "/api/doctors/1")));
+        assertEquals(Duration.ofSeconds(10), filter.timeout(new MockHttpServletRequest("GET", "/api/doctors")));
+    }
+
+    @Test
+    @DisplayName("The header is read as milliseconds or a duration and capped at the maximum")
+    void timeout_WithHeader_ShouldParseAndCap() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/doctors/1");
+        request.addHeader("X-Request-Timeout", "250");
+        assertEquals(Duration.ofMillis(250), filter.timeout(request));
+
+        MockHttpServletRequest greedy = new MockHttpServletRequest("GET", "/api/doctors/1");
+        greedy.addHeader("X-Request-Timeout", "5m");
+        assertEquals(Duration.ofSeconds(20), filter.timeout(greedy));
+    }
+
+    @Test
+    @DisplayName("A malformed header is rejected with 400 before reaching the controller")
+    void invalidHeader_ShouldRespondBadRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/doctors/1");
+        request.addHeader("X-Request-Timeout", "-5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<Object> reached = new AtomicReference<>();
+
+        filter.doFilter(request, response, (req, res) -> reached.set(req));
+
+        assertEquals(400, response.getStatus());
+        assertNull(reached.get());
+    }
+
+    @Test
+    @DisplayName("The deadline is visible while the request runs and cleared afterwards")
+    void doFilter_ShouldExposeDeadlineForTheRequestOnly() throws Exception {
+        AtomicReference<RequestDeadline> seen = new AtomicReference<>();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/doctors"), new MockHttpServletResponse(),
+                (req, res) -> seen.set(RequestDeadline.current()));
+
+        assertNotNull(seen.get());
+        assertEquals(Duration.ofSeconds(5), seen.get().getTimeout());
+        assertNull(RequestDeadline.current());
+    }
+}
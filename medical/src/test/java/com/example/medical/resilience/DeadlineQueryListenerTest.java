@@ -0,0 +1,84 @@
+package com.example.medical.resilience;
+
+import com.example.medical.exceptions.DeadlineExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlineQueryListenerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LatencyInjectingDataSource database;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:deadline;DB_CLOSE_DELAY=-1");
+        database = new LatencyInjectingDataSource(h2);
+        meterRegistry = new SimpleMeterRegistry();
+        jdbcTemplate = new JdbcTemplate(ProxyDataSourceBuilder.create(database)
+                .listener(new DeadlineQueryListener(meterRegistry))
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    @DisplayName("Statements outside a request keep the driver default of no timeout")
+    void query_WithoutDeadline_ShouldNotSetTimeout() {
+        jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+
+        assertEquals(0, database.getLastQueryTimeout());
+    }
+
+    @Test
+    @DisplayName("The time left is rounded up to whole seconds and the slow query is cancelled")
+    void slowQuery_ShouldBeCancelledAtTheDeadline() {
+        database.setLatencyMillis(5_000);
+        RequestDeadline.start(Duration.ofMillis(800));
+        long start = System.nanoTime();
+
+        assertThrows(QueryTimeoutException.class, () -> jdbcTemplate.queryForObject("SELECT 1", Integer.class));
+
+        assertEquals(1, database.getLastQueryTimeout());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 5_000);
+        assertEquals(1.0, meterRegistry.get("medical.deadline.exceeded").tag("stage", "query-timeout").counter().count());
+    }
+
+    @Test
+    @DisplayName("Once the deadline has passed no statement reaches the database")
+    void query_AfterDeadline_ShouldFailFast() throws Exception {
+        RequestDeadline.start(Duration.ofMillis(1));
+        Thread.sleep(5);
+
+        assertThrows(DeadlineExceededException.class, () -> jdbcTemplate.queryForObject("SELECT 1", Integer.class));
+
+        assertEquals(0, database.getExecutions());
+        assertEquals(1.0, meterRegistry.get("medical.deadline.exceeded").tag("stage", "before-query").counter().count());
+    }
+
+    @Test
+    @DisplayName("A tighter timeout already set on the statement is kept")
+    void query_WithTighterStatementTimeout_ShouldKeepIt() {
+        RequestDeadline.start(Duration.ofSeconds(30));
+        jdbcTemplate.setQueryTimeout(2);
+
+        jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+
+        assertEquals(2, database.getLastQueryTimeout());
+    }
+}
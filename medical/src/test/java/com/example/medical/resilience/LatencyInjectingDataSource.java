@@ -0,0 +1,156 @@
+package com.example.medical.resilience;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Stand-in for a slow or failing database: delays every statement execution and, like a real driver, cancels it
+ * with a {@link SQLTimeoutException} once its query timeout has passed. Can also fail executions outright.
+ */
+class LatencyInjectingDataSource implements DataSource {
+
+    private final DataSource delegate;
+    private final AtomicInteger executions = new AtomicInteger();
+    private volatile long latencyMillis;
+    private volatile boolean failing;
+    private volatile int lastQueryTimeout = -1;
+
+    LatencyInjectingDataSource(DataSource delegate) {
+        this.delegate = delegate;
+    }
+
+    void setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    void setFailing(boolean failing) {
+        this.failing = failing;
+    }
+
+    int getExecutions() {
+        return executions.get();
+    }
+
+    int getLastQueryTimeout() {
+        return lastQueryTimeout;
+    }
+
+    void reset() {
+        latencyMillis = 0;
+        failing = false;
+        lastQueryTimeout = -1;
+        executions.set(0);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(delegate.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(delegate.getConnection(username, password));
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return delegate.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        delegate.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        delegate.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return delegate.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return delegate.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? iface.cast(this) : delegate.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || delegate.isWrapperFor(iface);
+    }
+
+    private Connection wrap(Connection connection) {
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            return result instanceof Statement statement ? wrap(statement) : result;
+        });
+    }
+
+    private Statement wrap(Statement statement) {
+        Class<? extends Statement> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        return proxy(type, statement, (proxy, method, args) -> {
+            if (method.getName().startsWith("execute")) {
+                beforeExecute(statement);
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    private void beforeExecute(Statement statement) throws SQLException {
+        executions.incrementAndGet();
+        int timeout = statement.getQueryTimeout();
+        lastQueryTimeout = timeout;
+        if (failing) {
+            throw new SQLTransientConnectionException("Injected connection failure", "08006");
+        }
+        long latency = latencyMillis;
+        if (latency == 0) {
+            return;
+        }
+        try {
+            if (timeout > 0 && latency > timeout * 1000L) {
+                Thread.sleep(timeout * 1000L);
+                throw new SQLTimeoutException("Statement cancelled by query timeout", "57014");
+            }
+            Thread.sleep(latency);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted", ex);
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, Object target, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(target.getClass().getClassLoader(), new Class<?>[]{type}, handler));
+    }
+}
@@ -4,6 +4,8 @@ import com.example.medical.exceptions.AppointmentNotFoundException;
 import com.example.medical.model.Appointment;
 import com.example.medical.model.Doctor;
 import com.example.medical.model.Patient;
+import com.example.medical.outbox.AppointmentScheduled;
+import com.example.medical.outbox.Outbox;
 import com.example.medical.repository.AppointmentRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -35,6 +37,9 @@ class AppointmentServiceTest {
     @Mock
     private DoctorService doctorService;
 
+    @Mock
+    private Outbox outbox;
+
     @InjectMocks
     private AppointmentService appointmentService;
 
@@ -80,6 +85,8 @@ class AppointmentServiceTest {
         verify(patientService, times(1)).getById(1);
         verify(doctorService, times(1)).getById(1);
         verify(appointmentRepository, times(1)).save(any(Appointment.class));
+        verify(outbox, times(1)).enqueue("Appointment", 1,
+                new AppointmentScheduled(1, 1, 1, testAppointment.getAppointmentDate()));
     }
 
     @Test
@@ -87,6 +94,7 @@ class AppointmentServiceTest {
     void create_WithNull_ShouldThrowException() {
         assertThrows(IllegalArgumentException.class, () -> appointmentService.create(null));
         verify(appointmentRepository, never()).save(any());
+        verifyNoInteractions(outbox);
     }
 
     @Test
@@ -13,6 +13,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
 
 import java.util.Arrays;
 import java.util.List;
@@ -97,14 +98,14 @@ class DoctorServiceTest {
     @DisplayName("Get all doctors successfully")
     void getAll_ShouldReturnAllDoctors() {
         List<Doctor> doctors = Arrays.asList(testDoctor);
-        when(doctorRepository.findAll()).thenReturn(doctors);
+        when(doctorRepository.findAll(any(Sort.class))).thenReturn(doctors);
 
         List<Doctor> result = doctorService.getAll();
 
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(testDoctor.getId(), result.get(0).getId());
-        verify(doctorRepository, times(1)).findAll();
+        verify(doctorRepository, times(1)).findAll(any(Sort.class));
     }
 
     @Test
@@ -10,6 +10,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -92,7 +93,7 @@ class PatientServiceTest {
                 .build();
 
         List<Patient> patients = Arrays.asList(testPatient, patient2);
-        when(patientRepository.findAll()).thenReturn(patients);
+        when(patientRepository.findAll(any(Sort.class))).thenReturn(patients);
 
         List<Patient> result = patientService.getAll();
 
@@ -100,19 +101,19 @@ class PatientServiceTest {
         assertEquals(2, result.size());
         assertEquals("John", result.get(0).getFirstName());
         assertEquals("Jane", result.get(1).getFirstName());
-        verify(patientRepository, times(1)).findAll();
+        verify(patientRepository, times(1)).findAll(any(Sort.class));
     }
 
     @Test
     @DisplayName("Get all patients - should return empty list when no patients exist")
     void getAll_ShouldReturnEmptyList_WhenNoPatientsExist() {
-        when(patientRepository.findAll()).thenReturn(new ArrayList<>());
+        when(patientRepository.findAll(any(Sort.class))).thenReturn(new ArrayList<>());
 
         List<Patient> result = patientService.getAll();
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(patientRepository, times(1)).findAll();
+        verify(patientRepository, times(1)).findAll(any(Sort.class));
     }
 
     @Test
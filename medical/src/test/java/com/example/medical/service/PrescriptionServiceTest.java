@@ -3,6 +3,8 @@ package com.example.medical.service;
 import com.example.medical.exceptions.MedicationNotFoundException;
 import com.example.medical.exceptions.PrescriptionNotFoundException;
 import com.example.medical.model.*;
+import com.example.medical.outbox.Outbox;
+import com.example.medical.outbox.PrescriptionIssued;
 import com.example.medical.repository.MedicationRepository;
 import com.example.medical.repository.PrescriptionRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -33,6 +35,9 @@ class PrescriptionServiceTest {
     @Mock
     private AppointmentService appointmentService;
 
+    @Mock
+    private Outbox outbox;
+
     @InjectMocks
     private PrescriptionService prescriptionService;
 
@@ -76,6 +81,8 @@ class PrescriptionServiceTest {
         assertEquals(testPrescription.getInstructions(), result.getInstructions());
         verify(appointmentService, times(1)).getById(1);
         verify(prescriptionRepository, times(1)).save(any(Prescription.class));
+        verify(outbox, times(1)).enqueue("Prescription", 1,
+                new PrescriptionIssued(1, 1, testPrescription.getIssuedDate()));
     }
 
     @Test
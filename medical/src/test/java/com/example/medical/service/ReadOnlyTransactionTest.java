@@ -0,0 +1,38 @@
+package com.example.medical.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadOnlyTransactionTest {
+
+    private final AnnotationTransactionAttributeSource attributeSource = new AnnotationTransactionAttributeSource();
+
+    @ParameterizedTest
+    @DisplayName("Query methods run in read-only transactions, everything else read-write")
+    @ValueSource(classes = {
+            AppointmentService.class,
+            DoctorService.class,
+            MedicationService.class,
+            PatientService.class,
+            PrescriptionService.class,
+            SpecializationService.class
+    })
+    void queryMethods_ShouldRunInReadOnlyTransactions(Class<?> serviceClass) {
+        for (Method method : serviceClass.getDeclaredMethods()) {
+            if (!Modifier.isPublic(method.getModifiers())) {
+                continue;
+            }
+            TransactionAttribute attribute = attributeSource.getTransactionAttribute(method, serviceClass);
+            assertNotNull(attribute, method + " is not transactional");
+            assertEquals(method.getName().startsWith("get"), attribute.isReadOnly(), method.toString());
+        }
+    }
+}
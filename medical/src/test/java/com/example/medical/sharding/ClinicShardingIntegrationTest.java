@@ -0,0 +1,183 @@
+package com.example.medical.sharding;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Two in-memory databases act as shards. Hibernate creates the schema on the default shard and the test copies
+ * it to the other one.
+ */
+@SpringBootTest(properties = {
+        "medical.sharding.enabled=true",
+        "medical.sharding.default-shard=a",
+        "medical.sharding.shards.a.url=jdbc:h2:mem:shard-a;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "medical.sharding.shards.a.username=sa",
+        "medical.sharding.shards.a.driver-class-name=org.h2.Driver",
+        "medical.sharding.shards.b.url=jdbc:h2:mem:shard-b;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "medical.sharding.shards.b.username=sa",
+        "medical.sharding.shards.b.driver-class-name=org.h2.Driver",
+        "medical.sharding.clinics.1=a",
+        "medical.sharding.clinics.2=b",
+        "medical.sharding.clinics.3=a",
+        "medical.sharding.reconcile-interval=1h"
+})
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class ClinicShardingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ShardDataSources shards;
+
+    @Autowired
+    private ReferenceDataReconciler reconciler;
+
+    private JdbcTemplate shardA;
+    private JdbcTemplate shardB;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        shardA = new JdbcTemplate(shards.get("a"));
+        shardB = new JdbcTemplate(shards.get("b"));
+        Integer tables = shardB.queryForObject(
+                "select count(*) from information_schema.tables where table_schema = 'public'", Integer.class);
+        if (tables == 0) {
+            shardA.queryForList("script nodata", String.class).forEach(shardB::execute);
+        }
+        mockMvc.perform(post("/api/specializations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Cardiology\"}"))
+                .andExpect(status().isCreated());
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (JdbcTemplate shard : new JdbcTemplate[]{shardA, shardB}) {
+            shard.update("delete from doctor");
+            shard.update("delete from specialization");
+            shard.update("delete from medication");
+        }
+    }
+
+    @Test
+    @DisplayName("Reference data written once is present on every shard with the same id")
+    void createSpecialization_ShouldReplicateToAllShards() {
+        Integer idOnA = shardA.queryForObject("select id from specialization where name = 'Cardiology'", Integer.class);
+        Integer idOnB = shardB.queryForObject("select id from specialization where name = 'Cardiology'", Integer.class);
+
+        assertEquals(idOnA, idOnB);
+    }
+
+    @Test
+    @DisplayName("Reconciliation repairs reference data whose replication was lost")
+    void reconcile_ShouldRestoreReferenceDataOnReplicas() {
+        Integer cardiology = shardA.queryForObject("select id from specialization where name = 'Cardiology'", Integer.class);
+        shardB.update("delete from specialization");
+        shardB.update("insert into specialization (id, name) values (?, 'Oncology')", cardiology + 1);
+        shardA.update("insert into medication (id, name, description) values (7, 'Aspirin', 'Pain relief')");
+
+        assertEquals(0, reconciler.reconcile());
+
+        assertEquals(List.of("Cardiology"), shardB.queryForList("select name from specialization", String.class));
+        assertEquals(cardiology, shardB.queryForObject("select id from specialization", Integer.class));
+        assertEquals("Aspirin", shardB.queryForObject("select name from medication where id = 7", String.class));
+    }
+
+    @Test
+    @DisplayName("A doctor created for a clinic is stored on that clinic's shard")
+    void createDoctor_ShouldLandOnClinicShard() throws Exception {
+        createDoctor(2, "Gregory", "House");
+
+        assertEquals(0, shardA.queryForObject("select count(*) from doctor", Integer.class));
+        assertEquals(2, shardB.queryForObject("select clinic_id from doctor where last_name = 'House'", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Listing without a clinic merges all shards in name order")
+    void getDoctors_WithoutClinic_ShouldMergeShards() throws Exception {
+        createDoctor(1, "Meredith", "Grey");
+        createDoctor(2, "Gregory", "House");
+        createDoctor(1, "Lisa", "Cuddy");
+        createDoctor(2, "James", "Wilson");
+
+        mockMvc.perform(get("/api/doctors"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].lastName", contains("Cuddy", "Grey", "House", "Wilson")));
+
+        mockMvc.perform(get("/api/doctors").header(ClinicShardFilter.CLINIC_HEADER, "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].lastName", contains("House", "Wilson")));
+    }
+
+    @Test
+    @DisplayName("Clinics sharing a shard only see their own rows")
+    void clinicsOnSameShard_ShouldNotSeeEachOther() throws Exception {
+        createDoctor(1, "Meredith", "Grey");
+        createDoctor(3, "Lisa", "Cuddy");
+        Integer greyId = shardA.queryForObject("select id from doctor where last_name = 'Grey'", Integer.class);
+
+        mockMvc.perform(get("/api/doctors").header(ClinicShardFilter.CLINIC_HEADER, "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].lastName", contains("Cuddy")));
+        mockMvc.perform(get("/api/doctors").header(ClinicShardFilter.CLINIC_HEADER, "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].lastName", contains("Grey")));
+        mockMvc.perform(get("/api/doctors/" + greyId).header(ClinicShardFilter.CLINIC_HEADER, "3"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/doctors/" + greyId).header(ClinicShardFilter.CLINIC_HEADER, "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lastName").value("Grey"));
+    }
+
+    @Test
+    @DisplayName("Writing clinic data without a clinic is rejected")
+    void createDoctor_WithoutClinic_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/doctors")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"firstName":"Gregory","lastName":"House","email":"house@example.com",
+                                 "phone":"0711111111","specialization":"Cardiology"}
+                                """))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(0, shardA.queryForObject("select count(*) from doctor", Integer.class));
+    }
+
+    @Test
+    @DisplayName("A clinic without a shard is rejected")
+    void unknownClinic_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/doctors").header(ClinicShardFilter.CLINIC_HEADER, "99"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void createDoctor(int clinicId, String firstName, String lastName) throws Exception {
+        mockMvc.perform(post("/api/doctors")
+                        .header(ClinicShardFilter.CLINIC_HEADER, Integer.toString(clinicId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"firstName":"%s","lastName":"%s","email":"%s@example.com",
+                                 "phone":"0711111111","specialization":"Cardiology"}
+                                """.formatted(firstName, lastName, lastName.toLowerCase())))
+                .andExpect(status().isCreated());
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.medical.timing;
+
+import com.example.medical.timing.RequestTiming.Phase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestTimingTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestTiming timing = RequestTiming.current();
+        if (timing != null) {
+            timing.end();
+        }
+    }
+
+    @Test
+    @DisplayName("Phases outside a request are ignored")
+    void enter_WithoutRequest_ShouldBeIgnored() {
+        RequestTiming.enter(Phase.SERVICE);
+        RequestTiming.exit(Phase.SERVICE);
+
+        assertNull(RequestTiming.current());
+    }
+
+    @Test
+    @DisplayName("Nested entries into the same phase are counted once")
+    void nestedPhase_ShouldBeCountedOnce() throws Exception {
+        RequestTiming timing = RequestTiming.begin(true);
+
+        RequestTiming.enter(Phase.SERVICE);
+        RequestTiming.enter(Phase.SERVICE);
+        Thread.sleep(5);
+        RequestTiming.exit(Phase.SERVICE);
+        long afterInnerExit = timing.getDurationNanos(Phase.SERVICE);
+        RequestTiming.exit(Phase.SERVICE);
+
+        assertEquals(0, afterInnerExit);
+        assertTrue(timing.getDurationNanos(Phase.SERVICE) >= 5_000_000);
+    }
+
+    @Test
+    @DisplayName("Header lists dispatch, the phases that ran and the total")
+    void headerValue_ShouldListCompletedPhases() {
+        RequestTiming timing = RequestTiming.begin(true);
+        RequestTiming.enter(Phase.HANDLER);
+        RequestTiming.enter(Phase.DB);
+        RequestTiming.exit(Phase.DB);
+        RequestTiming.exit(Phase.HANDLER);
+
+        String header = timing.headerValue();
+
+        assertTrue(header.startsWith("dispatch;dur="));
+        assertTrue(header.contains("handler;dur="));
+        assertTrue(header.contains("db;dur="));
+        assertFalse(header.contains("map;dur="));
+        assertTrue(header.contains("total;dur="));
+    }
+
+    @Test
+    @DisplayName("Durations are formatted as milliseconds with one decimal")
+    void appendMillis_ShouldRoundToTenths() {
+        StringBuilder builder = new StringBuilder();
+
+        RequestTiming.appendMillis(builder, 12_345_678);
+
+        assertEquals("12.3", builder.toString());
+    }
+
+    @Test
+    @DisplayName("A new request starts from zero on the same thread")
+    void begin_ShouldResetPreviousRequest() {
+        RequestTiming first = RequestTiming.begin(true);
+        RequestTiming.enter(Phase.MAPPING);
+        RequestTiming.exit(Phase.MAPPING);
+        first.end();
+
+        RequestTiming second = RequestTiming.begin(false);
+
+        assertSame(first, second);
+        assertEquals(0, second.getDurationNanos(Phase.MAPPING));
+        assertFalse(second.isEmitHeader());
+    }
+}
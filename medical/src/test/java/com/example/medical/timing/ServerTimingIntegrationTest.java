@@ -0,0 +1,77 @@
+package com.example.medical.timing;
+
+import com.example.medical.model.Doctor;
+import com.example.medical.model.Specialization;
+import com.example.medical.repository.DoctorRepository;
+import com.example.medical.repository.SpecializationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class ServerTimingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SpecializationRepository specializationRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    private Doctor doctor;
+
+    @BeforeEach
+    void setUp() {
+        Specialization specialization = specializationRepository.save(Specialization.builder().name("Neurology").build());
+        doctor = doctorRepository.save(Doctor.builder()
+                .firstName("Greg")
+                .lastName("House")
+                .email("greg.house@example.com")
+                .phone("0711111111")
+                .specialization(specialization)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        doctorRepository.deleteAll();
+        specializationRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Response carries the per-phase Server-Timing breakdown")
+    void getDoctor_ShouldReturnServerTimingHeader() throws Exception {
+        mockMvc.perform(get("/api/doctors/{id}", doctor.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ServerTimingFilter.SERVER_TIMING_HEADER, allOf(
+                        startsWith("dispatch;dur="),
+                        containsString("handler;dur="),
+                        containsString("svc;dur="),
+                        containsString("db;dur="),
+                        containsString("map;dur="),
+                        containsString("total;dur="))));
+    }
+
+    @Test
+    @DisplayName("Error responses handled by the exception handler also carry the header")
+    void getMissingDoctor_ShouldReturnServerTimingHeader() throws Exception {
+        mockMvc.perform(get("/api/doctors/{id}", -1))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string(ServerTimingFilter.SERVER_TIMING_HEADER, containsString("total;dur=")));
+    }
+}